@@ -0,0 +1,122 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#include "benchlet.h"
+#include "uk_co_real_logic_sbe_benchmarks_fix/MessageHeader.h"
+#include "uk_co_real_logic_sbe_benchmarks_fix/MarketDataIncrementalRefreshTrades.h"
+
+using namespace uk::co::real_logic::sbe::benchmarks::fix;
+
+#define NUM_ENTRIES 1000
+#define MAX_MD_BUFFER (64*1024)
+
+// Sums the mdEntrySize of a 1000 entry group by iterating with next(), with an indexed loop over the entries view,
+// and with forEachIndex over the entries view.
+class GroupEntriesBench : public Benchmark
+{
+public:
+    virtual void setUp(void)
+    {
+        buffer_ = new char[MAX_MD_BUFFER];
+
+        marketData_.wrapForEncode(buffer_, 0, MAX_MD_BUFFER)
+            .transactTime(1234L)
+            .eventTimeDelta(987)
+            .matchEventIndicator(MatchEventIndicator::END_EVENT);
+
+        MarketDataIncrementalRefreshTrades::MdIncGrp &mdIncGrp = marketData_.mdIncGrpCount(NUM_ENTRIES);
+        for (int i = 0; i < NUM_ENTRIES; i++)
+        {
+            mdIncGrp.next()
+                .tradeId(1234L + i)
+                .securityId(56789L)
+                .numberOfOrders(1)
+                .mdUpdateAction(MDUpdateAction::NEW)
+                .rptSeq(1);
+            mdIncGrp.mdEntryPx().mantissa(50);
+            mdIncGrp.mdEntrySize().mantissa(i);
+        }
+
+        length_ = marketData_.encodedLength();
+        sum_ = 0;
+    };
+
+    virtual void tearDown(void)
+    {
+        std::cout << " Checksum " << sum_ << std::endl;
+        delete[] buffer_;
+    };
+
+    MarketDataIncrementalRefreshTrades::MdIncGrp &wrapAndGetGroup(void)
+    {
+        marketData_.wrapForDecode(
+            buffer_,
+            0,
+            MarketDataIncrementalRefreshTrades::sbeBlockLength(),
+            MarketDataIncrementalRefreshTrades::sbeSchemaVersion(),
+            length_);
+
+        return marketData_.mdIncGrp();
+    }
+
+    MarketDataIncrementalRefreshTrades marketData_;
+    char *buffer_;
+    std::uint64_t length_;
+    std::int64_t sum_;
+};
+
+static struct Benchmark::Config cfg[] = {
+    { Benchmark::ITERATIONS, "100000" },
+    { Benchmark::BATCHES, "20" }
+};
+
+BENCHMARK_CONFIG(GroupEntriesBench, RunNextSum, cfg)
+{
+    MarketDataIncrementalRefreshTrades::MdIncGrp &mdIncGrp = wrapAndGetGroup();
+
+    std::int64_t sum = 0;
+    while (mdIncGrp.hasNext())
+    {
+        sum += mdIncGrp.next().mdEntrySize().mantissa();
+    }
+
+    sum_ += sum;
+}
+
+BENCHMARK_CONFIG(GroupEntriesBench, RunEntriesViewSum, cfg)
+{
+    const MarketDataIncrementalRefreshTrades::MdIncGrp::EntriesView entries = wrapAndGetGroup().entriesView();
+
+    std::int64_t sum = 0;
+    for (std::uint64_t i = 0, count = entries.count(); i < count; i++)
+    {
+        sum += entries.mdEntrySizeMantissa(i);
+    }
+
+    sum_ += sum;
+}
+
+BENCHMARK_CONFIG(GroupEntriesBench, RunEntriesViewForEachIndexSum, cfg)
+{
+    const MarketDataIncrementalRefreshTrades::MdIncGrp::EntriesView entries = wrapAndGetGroup().entriesView();
+
+    std::int64_t sum = 0;
+    entries.forEachIndex([&](const std::uint64_t i)
+    {
+        sum += entries.mdEntrySizeMantissa(i);
+    });
+
+    sum_ += sum;
+}
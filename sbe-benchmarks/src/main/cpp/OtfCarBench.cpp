@@ -0,0 +1,194 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#include "benchlet.h"
+#include "SbeCarCodecBench.h"
+#include "otf/IrDecoder.h"
+#include "otf/OtfMessageDecoder.h"
+#include "otf/OtfCompactMessageDecoder.h"
+
+#ifndef SBE_CAR_IR_FILENAME
+#define SBE_CAR_IR_FILENAME "car.sbeir"
+#endif
+
+#define MAX_CAR_BUFFER (1000*1000)
+
+// Reads every field so the on-the-fly decoders do comparable work to the generated decoder.
+template<typename T>
+inline std::uint64_t readValue(const T& token, const char *buffer)
+{
+    switch (token.primitiveType())
+    {
+        case PrimitiveType::FLOAT:
+        case PrimitiveType::DOUBLE:
+            return static_cast<std::uint64_t>(Encoding::getDouble(token.primitiveType(), token.byteOrder(), buffer));
+        case PrimitiveType::UINT8:
+        case PrimitiveType::UINT16:
+        case PrimitiveType::UINT32:
+        case PrimitiveType::UINT64:
+            return Encoding::getUInt(token.primitiveType(), token.byteOrder(), buffer);
+        default:
+            return static_cast<std::uint64_t>(Encoding::getInt(token.primitiveType(), token.byteOrder(), buffer));
+    }
+}
+
+class OtfCarTokenListener : public OtfMessageDecoder::BasicTokenListener
+{
+public:
+    std::uint64_t sum = 0;
+
+    virtual void onEncoding(Token& fieldToken, const char *buffer, Token& typeToken, std::uint64_t actingVersion)
+    {
+        if (!typeToken.isConstantEncoding())
+        {
+            sum += readValue(typeToken.encoding(), buffer);
+        }
+    }
+
+    virtual void onEnum(
+        Token& fieldToken,
+        const char *buffer,
+        std::vector<Token>& tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        sum += readValue(tokens[fromIndex].encoding(), buffer);
+    }
+
+    virtual void onBitSet(
+        Token& fieldToken,
+        const char *buffer,
+        std::vector<Token>& tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        sum += readValue(tokens[fromIndex].encoding(), buffer);
+    }
+
+    virtual void onGroupHeader(Token& token, std::uint64_t numInGroup)
+    {
+        sum += numInGroup;
+    }
+
+    virtual void onVarData(Token& fieldToken, const char *buffer, std::uint64_t length, Token& typeToken)
+    {
+        sum += length;
+    }
+};
+
+class CompactCarTokenListener : public OtfCompactMessageDecoder::CompactTokenListener
+{
+public:
+    std::uint64_t sum = 0;
+
+    inline void onEncoding(
+        const CompactToken& fieldToken, const char *buffer, const CompactToken& typeToken, std::uint64_t actingVersion)
+    {
+        if (!typeToken.isConstantEncoding())
+        {
+            sum += readValue(typeToken, buffer);
+        }
+    }
+
+    inline void onEnum(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        sum += readValue(tokens[fromIndex], buffer);
+    }
+
+    inline void onBitSet(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        sum += readValue(tokens[fromIndex], buffer);
+    }
+
+    inline void onGroupHeader(const CompactToken& token, std::uint64_t numInGroup)
+    {
+        sum += numInGroup;
+    }
+
+    inline void onVarData(
+        const CompactToken& fieldToken, const char *buffer, std::uint64_t length, const CompactToken& typeToken)
+    {
+        sum += length;
+    }
+};
+
+class OtfCarBench : public Benchmark
+{
+public:
+    virtual void setUp(void)
+    {
+        buffer_ = new char[MAX_CAR_BUFFER];
+        length_ = bench_.encode(buffer_, MAX_CAR_BUFFER);
+
+        if (irDecoder_.decode(SBE_CAR_IR_FILENAME) < 0)
+        {
+            throw std::runtime_error("could not load IR from " SBE_CAR_IR_FILENAME);
+        }
+
+        messageTokens_ = irDecoder_.message(Car::sbeTemplateId(), Car::sbeSchemaVersion());
+        compactTokens_.reset(new CompactTokens(messageTokens_));
+    };
+
+    virtual void tearDown(void)
+    {
+        std::cout << " Checksum " << otfListener_.sum + compactListener_.sum << std::endl;
+        delete[] buffer_;
+    };
+
+    SbeCarCodecBench bench_;
+    IrDecoder irDecoder_;
+    std::shared_ptr<std::vector<Token>> messageTokens_;
+    std::unique_ptr<CompactTokens> compactTokens_;
+    OtfCarTokenListener otfListener_;
+    CompactCarTokenListener compactListener_;
+    char *buffer_;
+    std::size_t length_;
+};
+
+static struct Benchmark::Config cfg[] = {
+    { Benchmark::ITERATIONS, "1000000" },
+    { Benchmark::BATCHES, "20" }
+};
+
+BENCHMARK_CONFIG(OtfCarBench, RunSingleGeneratedDecode, cfg)
+{
+    bench_.runDecode(buffer_, MAX_CAR_BUFFER);
+}
+
+BENCHMARK_CONFIG(OtfCarBench, RunSingleOtfDecode, cfg)
+{
+    OtfMessageDecoder::decode(
+        buffer_, length_, Car::sbeSchemaVersion(), Car::sbeBlockLength(), messageTokens_, otfListener_);
+}
+
+BENCHMARK_CONFIG(OtfCarBench, RunSingleCompactOtfDecode, cfg)
+{
+    OtfCompactMessageDecoder::decode(
+        buffer_, length_, Car::sbeSchemaVersion(), Car::sbeBlockLength(), *compactTokens_, compactListener_);
+}
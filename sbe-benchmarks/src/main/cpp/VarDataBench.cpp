@@ -0,0 +1,101 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#include "benchlet.h"
+#include "SbeCarCodecBench.h"
+
+#define MAX_CAR_BUFFER (1000*1000)
+
+// Compares reading the vehicle code and var data of a Car by copying into a caller buffer, into a std::string, or
+// as a StringView over the encoded buffer.
+class VarDataBench : public Benchmark
+{
+public:
+    virtual void setUp(void)
+    {
+        buffer_ = new char[MAX_CAR_BUFFER];
+        length_ = bench_.encode(buffer_, MAX_CAR_BUFFER);
+        sum_ = 0;
+    };
+
+    virtual void tearDown(void)
+    {
+        std::cout << " Checksum " << sum_ << std::endl;
+        delete[] buffer_;
+    };
+
+    Car &wrapAndSkipGroups(void)
+    {
+        car_.wrapForDecode(buffer_, 0, Car::sbeBlockLength(), Car::sbeSchemaVersion(), length_);
+
+        Car::FuelFigures &fuelFigures = car_.fuelFigures();
+        while (fuelFigures.hasNext())
+        {
+            fuelFigures.next();
+        }
+
+        Car::PerformanceFigures &performanceFigures = car_.performanceFigures();
+        while (performanceFigures.hasNext())
+        {
+            Car::PerformanceFigures::Acceleration &acceleration = performanceFigures.next().acceleration();
+            while (acceleration.hasNext())
+            {
+                acceleration.next();
+            }
+        }
+
+        return car_;
+    }
+
+    SbeCarCodecBench bench_;
+    Car car_;
+    char *buffer_;
+    std::uint64_t length_;
+    std::uint64_t sum_;
+    char tmp_[128];
+};
+
+static struct Benchmark::Config cfg[] = {
+    { Benchmark::ITERATIONS, "1000000" },
+    { Benchmark::BATCHES, "20" }
+};
+
+BENCHMARK_CONFIG(VarDataBench, RunCopyDecode, cfg)
+{
+    Car &car = wrapAndSkipGroups();
+
+    sum_ += car.getVehicleCode(tmp_, Car::vehicleCodeLength());
+    sum_ += car.getMake(tmp_, sizeof(tmp_));
+    sum_ += car.getModel(tmp_, sizeof(tmp_));
+    sum_ += tmp_[0];
+}
+
+BENCHMARK_CONFIG(VarDataBench, RunStringDecode, cfg)
+{
+    Car &car = wrapAndSkipGroups();
+
+    sum_ += car.getVehicleCodeAsString().length();
+    sum_ += car.getMakeAsString().length();
+    sum_ += car.getModelAsString()[0];
+}
+
+BENCHMARK_CONFIG(VarDataBench, RunStringViewDecode, cfg)
+{
+    Car &car = wrapAndSkipGroups();
+
+    sum_ += car.getVehicleCodeAsStringView().length();
+    sum_ += car.getMakeAsStringView().length();
+    sum_ += car.getModelAsStringView()[0];
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the generated codec encode and decode benchmarks with a short, pinned JMH configuration and compares the
+ * relative time and bytes allocated per operation against a checked-in baseline.
+ * <p>
+ * Times are compared as the ratio of each benchmark to {@link ReferenceBenchmark} measured in the same run, so a
+ * machine that is uniformly faster or slower than the one that recorded the baseline does not change the result.
+ * Ratios can still shift between CPU models and JVM versions, so the check is run on demand by the
+ * {@code benchmarkRegressionCheck} task rather than as part of the build, and the baseline should be recorded on the
+ * kind of machine that runs it.
+ * <p>
+ * Exits with a non-zero status when a benchmark is slower relative to the reference than the baseline by more than
+ * {@link #TIME_TOLERANCE_PERCENT} or allocates more than {@link #ALLOCATION_TOLERANCE_BYTES} above it, which
+ * catches a generator change that adds work or garbage to the generated hot paths. A ratio is only taken as slower
+ * when its whole confidence interval, combined from the score errors of both benchmarks, is above the limit so a
+ * noisy run does not fail the check. A benchmark run without a baseline, or a baseline entry not run, also fails
+ * the check so the baseline cannot silently go stale.
+ * <p>
+ * Setting {@link #UPDATE_BASELINE} to true writes the results as the new baseline instead of comparing.
+ */
+public class BenchmarkRegressionCheck
+{
+    /**
+     * Regular expression for the benchmarks to run.
+     */
+    public static final String INCLUDE = "sbe.benchmark.include";
+
+    /**
+     * File the baseline is read from, or written to when updating.
+     */
+    public static final String BASELINE_FILE = "sbe.benchmark.baseline.file";
+
+    /**
+     * File the JMH JSON results are written to.
+     */
+    public static final String RESULT_FILE = "sbe.benchmark.result.file";
+
+    /**
+     * Percentage by which the ratio of ns/op to the reference benchmark may exceed the baseline.
+     */
+    public static final String TIME_TOLERANCE_PERCENT = "sbe.benchmark.time.tolerance.percent";
+
+    /**
+     * Bytes per op by which allocation may exceed the baseline.
+     */
+    public static final String ALLOCATION_TOLERANCE_BYTES = "sbe.benchmark.allocation.tolerance.bytes";
+
+    /**
+     * Write the results as the new baseline rather than comparing against it.
+     */
+    public static final String UPDATE_BASELINE = "sbe.benchmark.update.baseline";
+
+    /**
+     * Benchmark which every time is divided by, which must be matched by the {@link #INCLUDE} expression.
+     */
+    public static final String REFERENCE_BENCHMARK = "uk.co.real_logic.sbe.ReferenceBenchmark.testReference";
+
+    public static final String DEFAULT_INCLUDE =
+        "uk\\.co\\.real_logic\\.sbe\\." +
+        "(\\w*(Car|MarketData)Benchmark\\.test(Encode|Decode)|ReferenceBenchmark\\.testReference)";
+    public static final String DEFAULT_BASELINE_FILE = "benchmark-baseline.properties";
+    public static final String DEFAULT_RESULT_FILE = "build/reports/jmh/regression-results.json";
+    public static final String DEFAULT_TIME_TOLERANCE_PERCENT = "25";
+    public static final String DEFAULT_ALLOCATION_TOLERANCE_BYTES = "1";
+
+    private static final String TIME_SUFFIX = ".ns";
+    private static final String RATIO_SUFFIX = ".ratio";
+    private static final String ALLOCATION_SUFFIX = ".bytes";
+    private static final String ALLOCATION_RESULT_SUFFIX = "gc.alloc.rate.norm";
+
+    public static void main(final String[] args) throws Exception
+    {
+        final File baselineFile = new File(System.getProperty(BASELINE_FILE, DEFAULT_BASELINE_FILE));
+        final File resultFile = new File(System.getProperty(RESULT_FILE, DEFAULT_RESULT_FILE));
+        final String include = System.getProperty(INCLUDE, DEFAULT_INCLUDE);
+
+        if (!resultFile.getParentFile().exists() && !resultFile.getParentFile().mkdirs())
+        {
+            throw new IllegalStateException("could not create directory for " + resultFile);
+        }
+
+        final Map<String, Score> results = relativeTo(
+            REFERENCE_BENCHMARK + TIME_SUFFIX, toScores(new Runner(options(include, resultFile)).run()));
+
+        if (Boolean.parseBoolean(System.getProperty(UPDATE_BASELINE, "false")))
+        {
+            writeBaseline(baselineFile, results);
+            System.out.format("Wrote baseline of %d benchmarks to %s%n", results.size() / 2, baselineFile);
+            return;
+        }
+
+        final List<String> failures = compare(
+            loadBaseline(baselineFile),
+            results,
+            Double.parseDouble(System.getProperty(TIME_TOLERANCE_PERCENT, DEFAULT_TIME_TOLERANCE_PERCENT)),
+            Double.parseDouble(System.getProperty(ALLOCATION_TOLERANCE_BYTES, DEFAULT_ALLOCATION_TOLERANCE_BYTES)),
+            System.out);
+
+        if (!failures.isEmpty())
+        {
+            System.err.format("%d benchmark failures against %s:%n", failures.size(), baselineFile);
+            for (final String failure : failures)
+            {
+                System.err.println("  " + failure);
+            }
+
+            System.exit(1);
+        }
+    }
+
+    /**
+     * The pinned configuration so that results are comparable between runs.
+     *
+     * @param include    regular expression for the benchmarks to run.
+     * @param resultFile to write the JSON results to.
+     * @return the options for the JMH runner.
+     */
+    public static Options options(final String include, final File resultFile)
+    {
+        return new OptionsBuilder()
+            .include(include)
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.NANOSECONDS)
+            .forks(1)
+            .threads(1)
+            .warmupIterations(3)
+            .warmupTime(TimeValue.seconds(1))
+            .measurementIterations(5)
+            .measurementTime(TimeValue.seconds(1))
+            .addProfiler(GCProfiler.class)
+            .resultFormat(ResultFormatType.JSON)
+            .result(resultFile.getPath())
+            .shouldFailOnError(true)
+            .build();
+    }
+
+    /**
+     * Compare results against a baseline, both keyed as produced by {@link #relativeTo(String, Map)}.
+     *
+     * @param baseline                 scores expected.
+     * @param results                  scores measured.
+     * @param timeTolerancePercent     percentage by which a time ratio may exceed the baseline.
+     * @param allocationToleranceBytes bytes per op by which allocation may exceed the baseline.
+     * @param out                      to report each comparison to.
+     * @return description of each regression or mismatch between baseline and results, empty if there are none.
+     */
+    public static List<String> compare(
+        final Map<String, Score> baseline,
+        final Map<String, Score> results,
+        final double timeTolerancePercent,
+        final double allocationToleranceBytes,
+        final PrintStream out)
+    {
+        final List<String> failures = new ArrayList<>();
+
+        for (final Map.Entry<String, Score> entry : results.entrySet())
+        {
+            final String key = entry.getKey();
+            final double score = entry.getValue().value;
+            final Score baselineScore = baseline.get(key);
+
+            if (null == baselineScore)
+            {
+                out.format("%-90s %12.3f (no baseline)%n", key, score);
+                failures.add(String.format(
+                    "%s has no baseline, update the baseline with %s=true", key, UPDATE_BASELINE));
+                continue;
+            }
+
+            final double expected = baselineScore.value;
+            if (key.endsWith(RATIO_SUFFIX))
+            {
+                final double limit = expected * (1.0 + (timeTolerancePercent / 100.0));
+                out.format("%-90s %12.3f baseline %12.3f limit %12.3f%n", key, score, expected, limit);
+                if ((score - entry.getValue().error) > limit)
+                {
+                    failures.add(String.format(
+                        "%s took %.3f times the reference, more than %.1f%% over baseline of %.3f",
+                        key, score, timeTolerancePercent, expected));
+                }
+            }
+            else
+            {
+                final double limit = expected + allocationToleranceBytes;
+                out.format("%-90s %12.3f baseline %12.3f limit %12.3f%n", key, score, expected, limit);
+                if (score > limit)
+                {
+                    failures.add(String.format(
+                        "%s %s %.3f B/op against baseline of %.3f",
+                        key, expected <= allocationToleranceBytes ? "started allocating" : "allocates", score, expected));
+                }
+            }
+        }
+
+        for (final String key : baseline.keySet())
+        {
+            if (!results.containsKey(key))
+            {
+                out.format("%-90s (not run)%n", key);
+                failures.add(String.format(
+                    "%s in baseline was not run, update the baseline with %s=true", key, UPDATE_BASELINE));
+            }
+        }
+
+        return failures;
+    }
+
+    /**
+     * Map results to the score in ns/op and bytes allocated per op for each benchmark and parameter combination.
+     *
+     * @param runResults from the JMH runner.
+     * @return scores keyed by benchmark, parameters and a suffix of {@code .ns} or {@code .bytes}.
+     */
+    public static Map<String, Score> toScores(final Collection<RunResult> runResults)
+    {
+        final Map<String, Score> scores = new TreeMap<>();
+
+        for (final RunResult runResult : runResults)
+        {
+            final String key = key(runResult.getParams());
+            scores.put(key + TIME_SUFFIX, new Score(runResult.getPrimaryResult()));
+
+            for (final Map.Entry<String, Result> entry : runResult.getSecondaryResults().entrySet())
+            {
+                if (entry.getKey().endsWith(ALLOCATION_RESULT_SUFFIX))
+                {
+                    scores.put(key + ALLOCATION_SUFFIX, new Score(entry.getValue()));
+                }
+            }
+        }
+
+        return scores;
+    }
+
+    /**
+     * Replace the ns/op of each benchmark with its ratio to the ns/op of a reference benchmark from the same run.
+     * The error of the ratio combines the relative errors of both scores. Bytes allocated per op are kept as they
+     * are, and the reference itself is dropped as its ratio is always one.
+     *
+     * @param referenceKey of the reference time as produced by {@link #toScores(Collection)}.
+     * @param scores       as produced by {@link #toScores(Collection)}.
+     * @return scores keyed by benchmark, parameters and a suffix of {@code .ratio} or {@code .bytes}.
+     */
+    public static Map<String, Score> relativeTo(final String referenceKey, final Map<String, Score> scores)
+    {
+        final Score reference = scores.get(referenceKey);
+        if (null == reference || reference.value <= 0.0)
+        {
+            throw new IllegalStateException("no result for reference benchmark: " + referenceKey);
+        }
+
+        final String referencePrefix = referenceKey.substring(0, referenceKey.length() - TIME_SUFFIX.length());
+        final Map<String, Score> relative = new TreeMap<>();
+        for (final Map.Entry<String, Score> entry : scores.entrySet())
+        {
+            final String key = entry.getKey();
+            final Score score = entry.getValue();
+            if (key.startsWith(referencePrefix + "."))
+            {
+                continue;
+            }
+
+            if (key.endsWith(TIME_SUFFIX))
+            {
+                final double ratio = score.value / reference.value;
+                final double error = ratio * Math.hypot(score.error / score.value, reference.error / reference.value);
+                final String name = key.substring(0, key.length() - TIME_SUFFIX.length());
+                relative.put(name + RATIO_SUFFIX, new Score(ratio, error));
+            }
+            else
+            {
+                relative.put(key, score);
+            }
+        }
+
+        return relative;
+    }
+
+    public static Map<String, Score> loadBaseline(final File baselineFile) throws IOException
+    {
+        final Properties properties = new Properties();
+        try (Reader reader = new InputStreamReader(new FileInputStream(baselineFile), StandardCharsets.UTF_8))
+        {
+            properties.load(reader);
+        }
+
+        final Map<String, Score> baseline = new TreeMap<>();
+        for (final String key : properties.stringPropertyNames())
+        {
+            baseline.put(key, new Score(Double.parseDouble(properties.getProperty(key)), 0.0));
+        }
+
+        return baseline;
+    }
+
+    public static void writeBaseline(final File baselineFile, final Map<String, Score> scores) throws IOException
+    {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(baselineFile), StandardCharsets.UTF_8))
+        {
+            writer.write("# Baseline for BenchmarkRegressionCheck: ns/op relative to ReferenceBenchmark (.ratio) and\n");
+            writer.write("# bytes allocated per op (.bytes)\n");
+            writer.write("# Regenerate with: gradle :sbe-benchmarks:benchmarkRegressionCheck -PupdateBaseline=true\n");
+
+            for (final Map.Entry<String, Score> entry : new TreeMap<>(scores).entrySet())
+            {
+                writer.write(entry.getKey().replace(":", "\\:").replace("=", "\\="));
+                writer.write('=');
+                writer.write(String.format(Locale.ROOT, "%.4f", entry.getValue().value));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /**
+     * Score of a benchmark with the half width of its confidence interval, which is zero for a baseline.
+     */
+    public static final class Score
+    {
+        final double value;
+        final double error;
+
+        public Score(final double value, final double error)
+        {
+            this.value = value;
+            this.error = Double.isNaN(error) ? 0.0 : error;
+        }
+
+        Score(final Result result)
+        {
+            this(result.getScore(), result.getScoreError());
+        }
+    }
+
+    private static String key(final BenchmarkParams params)
+    {
+        final StringBuilder sb = new StringBuilder(params.getBenchmark());
+        for (final String paramKey : params.getParamsKeys())
+        {
+            sb.append(':').append(paramKey).append('=').append(params.getParam(paramKey));
+        }
+
+        return sb.toString();
+    }
+}
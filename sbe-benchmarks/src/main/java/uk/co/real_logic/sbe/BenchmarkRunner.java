@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.ProfilerConfig;
+
+import java.io.File;
+
+/**
+ * Runs the JMH benchmarks with the usual JMH command line options, defaulting to allocation profiling with
+ * {@link GCProfiler} and to JSON results in {@link #DEFAULT_RESULT_FILE} so results can be tracked over time.
+ * <p>
+ * A result format or file given on the command line takes precedence over the defaults.
+ */
+public class BenchmarkRunner
+{
+    public static final String DEFAULT_RESULT_FILE = "build/reports/jmh/results.json";
+
+    public static void main(final String[] args) throws Exception
+    {
+        final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+        if (commandLineOptions.shouldHelp())
+        {
+            commandLineOptions.showHelp();
+            return;
+        }
+
+        if (commandLineOptions.shouldListProfilers())
+        {
+            commandLineOptions.listProfilers();
+            return;
+        }
+
+        if (commandLineOptions.shouldListResultFormats())
+        {
+            commandLineOptions.listResultFormats();
+            return;
+        }
+
+        if (commandLineOptions.shouldList())
+        {
+            new Runner(commandLineOptions).list();
+            return;
+        }
+
+        new Runner(options(commandLineOptions).build()).run();
+    }
+
+    static ChainedOptionsBuilder options(final CommandLineOptions commandLineOptions)
+    {
+        final ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLineOptions);
+
+        if (!hasGcProfiler(commandLineOptions))
+        {
+            builder.addProfiler(GCProfiler.class);
+        }
+
+        if (!commandLineOptions.getResultFormat().hasValue())
+        {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+
+        if (!commandLineOptions.getResult().hasValue())
+        {
+            final File resultFile = new File(DEFAULT_RESULT_FILE);
+            if (!resultFile.getParentFile().exists() && !resultFile.getParentFile().mkdirs())
+            {
+                throw new IllegalStateException("could not create directory for " + resultFile);
+            }
+
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+
+        return builder;
+    }
+
+    private static boolean hasGcProfiler(final CommandLineOptions commandLineOptions)
+    {
+        for (final ProfilerConfig profilerConfig : commandLineOptions.getProfilers())
+        {
+            final String klass = profilerConfig.getKlass();
+            if (GCProfiler.class.getName().equals(klass) || "gc".equals(klass))
+            {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
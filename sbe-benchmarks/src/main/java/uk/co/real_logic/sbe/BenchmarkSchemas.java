@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.MessageSchema;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+import uk.co.real_logic.sbe.xml.XmlSchemaParser;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+
+/**
+ * Loads the schemas used by the benchmark suite from the classpath.
+ */
+final class BenchmarkSchemas
+{
+    static final String CAR = "car.xml";
+    static final String FIX_MESSAGE_SAMPLES = "fix-message-samples.xml";
+    static final String FIX_BINARY = "FixBinary.xml";
+
+    static final ParserOptions PARSER_OPTIONS = ParserOptions.builder().stopOnError(true).suppressOutput(true).build();
+
+    private BenchmarkSchemas()
+    {
+    }
+
+    /**
+     * Read a schema resource fully so parsing can be measured without the cost of reading the resource.
+     *
+     * @param resourceName of the schema on the classpath.
+     * @return the bytes of the schema.
+     * @throws Exception if the resource can not be found or read.
+     */
+    static byte[] readSchema(final String resourceName) throws Exception
+    {
+        try (final InputStream in = BenchmarkSchemas.class.getClassLoader().getResourceAsStream(resourceName))
+        {
+            if (null == in)
+            {
+                throw new IllegalArgumentException("schema not found on classpath: " + resourceName);
+            }
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int bytesRead;
+            while ((bytesRead = in.read(buffer)) != -1)
+            {
+                out.write(buffer, 0, bytesRead);
+            }
+
+            return out.toByteArray();
+        }
+    }
+
+    static MessageSchema parse(final byte[] schema) throws Exception
+    {
+        return XmlSchemaParser.parse(new BufferedInputStream(new ByteArrayInputStream(schema)), PARSER_OPTIONS);
+    }
+
+    static Ir generateIr(final String resourceName) throws Exception
+    {
+        System.setProperty(SbeTool.KEYWORD_APPEND_TOKEN, "_");
+
+        return new IrGenerator().generate(parse(readSchema(resourceName)));
+    }
+}
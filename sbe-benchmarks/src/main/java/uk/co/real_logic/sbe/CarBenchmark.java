@@ -22,6 +22,12 @@ import uk.co.real_logic.sbe.benchmarks.*;
 import java.io.UnsupportedEncodingException;
 import java.nio.ByteBuffer;
 
+/**
+ * Encode, decode and validate of the Car message of car.xml.
+ * <p>
+ * Variants such as {@code UnsafeCarBenchmark}, for codecs generated with other options, are copied from this source with the
+ * codec package replaced by the {@code generateBenchmarkVariants} build task so each measures the same code.
+ */
 public class CarBenchmark
 {
     private static final byte[] MAKE;
@@ -59,9 +65,11 @@ public class CarBenchmark
 
         final byte[] tempBuffer = new byte[128];
         final UnsafeBuffer decodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final int encodedLength;
 
         {
             CarBenchmark.encode(messageHeaderEncoder, carEncoder, decodeBuffer, bufferIndex);
+            encodedLength = messageHeaderEncoder.encodedLength() + carEncoder.encodedLength();
         }
     }
 
@@ -94,6 +102,13 @@ public class CarBenchmark
         return carDecoder.encodedLength();
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int testValidate(final MyState state)
+    {
+        return CarDecoder.validate(state.decodeBuffer, state.bufferIndex, state.encodedLength);
+    }
+
     public static void encode(
         final MessageHeaderEncoder messageHeader, final CarEncoder car, final UnsafeBuffer buffer, final int bufferIndex)
     {
@@ -145,7 +160,7 @@ public class CarBenchmark
         car.putModel(MODEL, 0, MODEL.length);
     }
 
-    private static void decode(
+    static void decode(
         final MessageHeaderDecoder messageHeader,
         final CarDecoder car,
         final UnsafeBuffer buffer,
@@ -221,6 +236,7 @@ public class CarBenchmark
         {
             perfTestEncode(i);
             perfTestDecode(i);
+            perfTestValidate(i);
         }
     }
 
@@ -267,4 +283,26 @@ public class CarBenchmark
             benchmark.getClass().getName(),
             state.carDecoder.encodedLength() + state.messageHeaderDecoder.encodedLength());
     }
+
+    private static void perfTestValidate(final int runNumber)
+    {
+        final int reps = 10 * 1000 * 1000;
+        final MyState state = new MyState();
+        final CarBenchmark benchmark = new CarBenchmark();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < reps; i++)
+        {
+            benchmark.testValidate(state);
+        }
+
+        final long totalDuration = System.nanoTime() - start;
+
+        System.out.printf(
+            "%d - %d(ns) average duration for %s.testValidate() - message encodedLength %d\n",
+            runNumber,
+            totalDuration / reps,
+            benchmark.getClass().getName(),
+            state.encodedLength);
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+/**
+ * Throughput of formatting price like doubles and decimal composites of a mantissa with an exponent of -7 with
+ * {@link DecimalFormatter} compared with {@link StringBuilder#append(double)} and {@link BigDecimal}.
+ */
+public class DecimalFormatBenchmark
+{
+    private static final int VALUE_COUNT = 1024;
+    private static final int VALUE_MASK = VALUE_COUNT - 1;
+    private static final int PRICE_EXPONENT = -7;
+
+    @State(Scope.Thread)
+    public static class MyState
+    {
+        final long[] mantissas = new long[VALUE_COUNT];
+        final double[] doubles = new double[VALUE_COUNT];
+        final StringBuilder sb = new StringBuilder(64);
+        int index;
+
+        @Setup
+        public void setup()
+        {
+            final Random random = new Random(42);
+            for (int i = 0; i < VALUE_COUNT; i++)
+            {
+                mantissas[i] = random.nextInt(1_000_000_000) * 100L;
+                doubles[i] = mantissas[i] / 1e7;
+            }
+        }
+
+        int nextIndex()
+        {
+            return index++ & VALUE_MASK;
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testFormatterDouble(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        return DecimalFormatter.appendDouble(sb, state.doubles[state.nextIndex()]).length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testStringBuilderDouble(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        return sb.append(state.doubles[state.nextIndex()]).length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testFormatterDecimal(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        return DecimalFormatter.appendDecimal(sb, state.mantissas[state.nextIndex()], PRICE_EXPONENT).length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testBigDecimal(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        return sb.append(BigDecimal.valueOf(state.mantissas[state.nextIndex()], -PRICE_EXPONENT).toPlainString()).length();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.openjdk.jmh.annotations.*;
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.sbe.benchmarks.extension.*;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+
+/**
+ * Decode of the Car message from example-extension-schema.xml with the {@link CarDecoder}, which checks the acting
+ * version on access to fields added in later versions.
+ * <p>
+ * {@code LatestVersionDecoderBenchmark} is copied from this source by the {@code generateBenchmarkVariants} build task
+ * with the {@link CarLatestVersionDecoder}, generated with {@link SbeTool#JAVA_GENERATE_LATEST_VERSION_DECODERS}, in
+ * place of the {@link CarDecoder} so the two decode the same way and differ only in the acting version checks.
+ */
+public class ExtensionDecoderBenchmark
+{
+    private static final byte[] MAKE;
+    private static final byte[] MODEL;
+    private static final byte[] ACTIVATION_CODE;
+    private static final byte[] USAGE_DESCRIPTION;
+    private static final byte[] ENG_MAN_CODE;
+    private static final byte[] VEHICLE_CODE;
+
+    static
+    {
+        try
+        {
+            MAKE = "MAKE".getBytes(CarEncoder.makeCharacterEncoding());
+            MODEL = "MODEL".getBytes(CarEncoder.modelCharacterEncoding());
+            ACTIVATION_CODE = "abcdef".getBytes(CarEncoder.activationCodeCharacterEncoding());
+            USAGE_DESCRIPTION = "Urban Cycle".getBytes(CarEncoder.FuelFiguresEncoder.usageDescriptionCharacterEncoding());
+            ENG_MAN_CODE = "abc".getBytes(EngineEncoder.manufacturerCodeCharacterEncoding());
+            VEHICLE_CODE = "abcdef".getBytes(CarEncoder.vehicleCodeCharacterEncoding());
+        }
+        catch (final UnsupportedEncodingException ex)
+        {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MyState
+    {
+        final int bufferIndex = 0;
+
+        final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
+        final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+
+        final CarEncoder carEncoder = new CarEncoder();
+        final CarDecoder carDecoder = new CarDecoder();
+
+        final byte[] tempBuffer = new byte[128];
+        final UnsafeBuffer decodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+
+        {
+            ExtensionDecoderBenchmark.encode(messageHeaderEncoder, carEncoder, decodeBuffer, bufferIndex);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int testDecode(final MyState state)
+    {
+        final MessageHeaderDecoder messageHeaderDecoder = state.messageHeaderDecoder;
+        final UnsafeBuffer buffer = state.decodeBuffer;
+        final int bufferIndex = state.bufferIndex;
+
+        messageHeaderDecoder.wrap(buffer, bufferIndex);
+
+        final CarDecoder carDecoder = state.carDecoder;
+        carDecoder.wrap(
+            buffer,
+            bufferIndex + messageHeaderDecoder.encodedLength(),
+            messageHeaderDecoder.blockLength(),
+            messageHeaderDecoder.version());
+
+        return decode(carDecoder, state.tempBuffer);
+    }
+
+    public static void encode(
+        final MessageHeaderEncoder messageHeader, final CarEncoder car, final UnsafeBuffer buffer, final int bufferIndex)
+    {
+        messageHeader
+            .wrap(buffer, bufferIndex)
+            .blockLength(car.sbeBlockLength())
+            .templateId(car.sbeTemplateId())
+            .schemaId(car.sbeSchemaId())
+            .version(car.sbeSchemaVersion());
+
+        car
+            .wrap(buffer, bufferIndex + messageHeader.encodedLength())
+            .code(Model.A)
+            .modelYear(2005)
+            .serialNumber(12345)
+            .available(BooleanType.T)
+            .cupHolderCount((short)119)
+            .putVehicleCode(VEHICLE_CODE, 0);
+
+        for (int i = 0, size = CarEncoder.someNumbersLength(); i < size; i++)
+        {
+            car.someNumbers(i, i);
+        }
+
+        car.extras().clear()
+           .sportsPack(true)
+           .sunRoof(true);
+
+        car.engine().capacity(4200)
+           .numCylinders((short)8)
+           .putManufacturerCode(ENG_MAN_CODE, 0)
+           .booster().boostType(BoostType.NITROUS).horsePower((short)200);
+
+        final CarEncoder.FuelFiguresEncoder fuelFigures = car.fuelFiguresCount(3);
+        fuelFigures.next().speed(30).mpg(35.9f).putUsageDescription(USAGE_DESCRIPTION, 0, USAGE_DESCRIPTION.length);
+        fuelFigures.next().speed(55).mpg(49.0f).putUsageDescription(USAGE_DESCRIPTION, 0, USAGE_DESCRIPTION.length);
+        fuelFigures.next().speed(75).mpg(40.0f).putUsageDescription(USAGE_DESCRIPTION, 0, USAGE_DESCRIPTION.length);
+
+        final CarEncoder.PerformanceFiguresEncoder perfFigures = car.performanceFiguresCount(2);
+        perfFigures
+            .next().octaneRating((short)95)
+                   .accelerationCount(3).next().mph(30).seconds(4.0f)
+                   .next().mph(60).seconds(7.5f)
+                   .next().mph(100).seconds(12.2f);
+        perfFigures
+            .next().octaneRating((short)99)
+                   .accelerationCount(3).next().mph(30).seconds(3.8f)
+                   .next().mph(60).seconds(7.1f)
+                   .next().mph(100).seconds(11.8f);
+
+        car.putMake(MAKE, 0, MAKE.length);
+        car.putModel(MODEL, 0, MODEL.length);
+        car.putActivationCode(ACTIVATION_CODE, 0, ACTIVATION_CODE.length);
+    }
+
+    private static int decode(final CarDecoder car, final byte[] tempBuffer)
+    {
+        int checksum = (int)car.serialNumber() + car.modelYear() + car.available().value() + car.code().value();
+        checksum += car.cupHolderCount();
+
+        for (int i = 0, size = CarDecoder.someNumbersLength(); i < size; i++)
+        {
+            checksum += (int)car.someNumbers(i);
+        }
+
+        for (int i = 0, size = CarDecoder.vehicleCodeLength(); i < size; i++)
+        {
+            checksum += car.vehicleCode(i);
+        }
+
+        final OptionalExtrasDecoder extras = car.extras();
+        checksum += extras.cruiseControl() ? 1 : 0;
+        checksum += extras.sportsPack() ? 1 : 0;
+        checksum += extras.sunRoof() ? 1 : 0;
+
+        final EngineDecoder engine = car.engine();
+        checksum += engine.capacity() + engine.numCylinders() + engine.maxRpm();
+        for (int i = 0, size = EngineDecoder.manufacturerCodeLength(); i < size; i++)
+        {
+            checksum += engine.manufacturerCode(i);
+        }
+
+        checksum += engine.booster().boostType().value() + engine.booster().horsePower();
+
+        for (final CarDecoder.FuelFiguresDecoder fuelFigures : car.fuelFigures())
+        {
+            checksum += fuelFigures.speed() + (int)fuelFigures.mpg();
+            checksum += fuelFigures.getUsageDescription(tempBuffer, 0, tempBuffer.length);
+        }
+
+        for (final CarDecoder.PerformanceFiguresDecoder performanceFigures : car.performanceFigures())
+        {
+            checksum += performanceFigures.octaneRating();
+
+            for (final CarDecoder.PerformanceFiguresDecoder.AccelerationDecoder acceleration : performanceFigures.acceleration())
+            {
+                checksum += acceleration.mph() + (int)acceleration.seconds();
+            }
+        }
+
+        checksum += car.getMake(tempBuffer, 0, tempBuffer.length);
+        checksum += car.getModel(tempBuffer, 0, tempBuffer.length);
+        checksum += car.getActivationCode(tempBuffer, 0, tempBuffer.length);
+
+        return checksum;
+    }
+
+    /*
+     * Benchmarks to allow execution outside of JMH.
+     */
+
+    public static void main(final String[] args)
+    {
+        for (int i = 0; i < 10; i++)
+        {
+            perfTestDecode(i);
+        }
+    }
+
+    private static void perfTestDecode(final int runNumber)
+    {
+        final int reps = 10 * 1000 * 1000;
+        final MyState state = new MyState();
+        final ExtensionDecoderBenchmark benchmark = new ExtensionDecoderBenchmark();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < reps; i++)
+        {
+            benchmark.testDecode(state);
+        }
+
+        final long totalDuration = System.nanoTime() - start;
+
+        System.out.printf(
+            "%d - %d(ns) average duration for %s.testDecode() - message encodedLength %d\n",
+            runNumber,
+            totalDuration / reps,
+            benchmark.getClass().getName(),
+            state.carDecoder.encodedLength() + state.messageHeaderDecoder.encodedLength());
+    }
+}
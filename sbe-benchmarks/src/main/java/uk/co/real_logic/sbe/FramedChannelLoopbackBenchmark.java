@@ -0,0 +1,177 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.sbe.benchmarks.CarDecoder;
+import uk.co.real_logic.sbe.benchmarks.CarEncoder;
+import uk.co.real_logic.sbe.benchmarks.MessageHeaderDecoder;
+import uk.co.real_logic.sbe.benchmarks.MessageHeaderEncoder;
+import uk.co.real_logic.sbe.codec.java.FrameHandler;
+import uk.co.real_logic.sbe.codec.java.FramedMessageReader;
+import uk.co.real_logic.sbe.codec.java.FramedMessageWriter;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of Car messages sent over many loopback connections with a blocking {@link FramedMessageWriter} and
+ * {@link FramedMessageReader} per connection, each connection end being run as its own task.
+ * <p>
+ * Tasks are run on virtual threads when the JVM supports them, otherwise on a cached thread pool. The number of
+ * connections and messages per connection can be set with the system properties
+ * {@code sbe.benchmark.connections} and {@code sbe.benchmark.messages}.
+ */
+public class FramedChannelLoopbackBenchmark
+{
+    private static final int CONNECTION_COUNT = Integer.getInteger("sbe.benchmark.connections", 2000);
+    private static final int MESSAGE_COUNT = Integer.getInteger("sbe.benchmark.messages", 1000);
+    private static final int WRITE_BUFFER_CAPACITY = 16 * 1024;
+    private static final int MAX_MESSAGE_LENGTH = 1024;
+
+    public static void main(final String[] args) throws Exception
+    {
+        final ExecutorService executor = newExecutor();
+        System.out.printf(
+            "%d connections x %d messages using %s\n", CONNECTION_COUNT, MESSAGE_COUNT, executor.getClass().getName());
+
+        try
+        {
+            for (int i = 0; i < 5; i++)
+            {
+                perfTestLoopback(i, executor);
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void perfTestLoopback(final int runNumber, final ExecutorService executor) throws Exception
+    {
+        final UnsafeBuffer message = new UnsafeBuffer(ByteBuffer.allocateDirect(MAX_MESSAGE_LENGTH));
+        final MessageHeaderEncoder messageHeaderEncoder = new MessageHeaderEncoder();
+        final CarEncoder carEncoder = new CarEncoder();
+        CarBenchmark.encode(messageHeaderEncoder, carEncoder, message, 0);
+        final int messageLength = messageHeaderEncoder.encodedLength() + carEncoder.encodedLength();
+
+        try (final ServerSocketChannel serverChannel = ServerSocketChannel.open())
+        {
+            serverChannel.bind(new InetSocketAddress("127.0.0.1", 0), CONNECTION_COUNT);
+
+            final long start = System.nanoTime();
+            final List<Future<?>> writes = new ArrayList<>(CONNECTION_COUNT);
+            final List<Future<Long>> results = new ArrayList<>(CONNECTION_COUNT);
+            for (int i = 0; i < CONNECTION_COUNT; i++)
+            {
+                writes.add(executor.submit(() ->
+                {
+                    try (final SocketChannel channel = SocketChannel.open(serverChannel.getLocalAddress()))
+                    {
+                        final FramedMessageWriter writer = new FramedMessageWriter(channel, WRITE_BUFFER_CAPACITY);
+                        for (int m = 0; m < MESSAGE_COUNT; m++)
+                        {
+                            writer.write(message, 0, messageLength);
+                        }
+
+                        writer.flush();
+                    }
+
+                    return null;
+                }));
+
+                final SocketChannel acceptedChannel = serverChannel.accept();
+                results.add(executor.submit(() ->
+                {
+                    try (final SocketChannel channel = acceptedChannel)
+                    {
+                        return readCars(new FramedMessageReader(channel, MAX_MESSAGE_LENGTH));
+                    }
+                }));
+            }
+
+            for (final Future<?> write : writes)
+            {
+                write.get();
+            }
+
+            long messages = 0;
+            for (final Future<Long> result : results)
+            {
+                messages += result.get();
+            }
+
+            final long duration = System.nanoTime() - start;
+
+            System.out.printf(
+                "%d - %,d msgs/sec - %,d messages of %d bytes over %d connections in %d(ms)\n",
+                runNumber,
+                TimeUnit.SECONDS.toNanos(1) * messages / duration,
+                messages,
+                messageLength,
+                CONNECTION_COUNT,
+                TimeUnit.NANOSECONDS.toMillis(duration));
+        }
+    }
+
+    private static long readCars(final FramedMessageReader reader) throws Exception
+    {
+        final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+        final CarDecoder carDecoder = new CarDecoder();
+        final UnsafeBuffer buffer = reader.buffer();
+        final long[] count = new long[1];
+        final FrameHandler handler =
+            (ignore, offset, length) ->
+            {
+                messageHeaderDecoder.wrap(buffer, offset);
+                carDecoder.wrap(
+                    buffer,
+                    offset + messageHeaderDecoder.encodedLength(),
+                    messageHeaderDecoder.blockLength(),
+                    messageHeaderDecoder.version());
+
+                count[0]++;
+            };
+
+        while (reader.read(handler) >= 0)
+        {
+        }
+
+        return count[0];
+    }
+
+    private static ExecutorService newExecutor()
+    {
+        try
+        {
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (final ReflectiveOperationException ignore)
+        {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
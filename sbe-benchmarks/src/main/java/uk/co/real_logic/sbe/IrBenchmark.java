@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.IrDecoder;
+import uk.co.real_logic.sbe.ir.IrEncoder;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.MessageSchema;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Parsing of XML schemas, generation of IR from the parsed schema, and round trips of the IR through
+ * {@link IrEncoder} and {@link IrDecoder}.
+ */
+public class IrBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class MyState
+    {
+        @Param({BenchmarkSchemas.CAR, BenchmarkSchemas.FIX_MESSAGE_SAMPLES, BenchmarkSchemas.FIX_BINARY})
+        String schema;
+
+        final ByteBuffer encodeBuffer = ByteBuffer.allocateDirect(1024 * 1024);
+
+        byte[] schemaBytes;
+        MessageSchema messageSchema;
+        Ir ir;
+        ByteBuffer encodedIr;
+        IrEncoder irEncoder;
+
+        @Setup
+        public void setup() throws Exception
+        {
+            System.setProperty(SbeTool.KEYWORD_APPEND_TOKEN, "_");
+
+            schemaBytes = BenchmarkSchemas.readSchema(schema);
+            messageSchema = BenchmarkSchemas.parse(schemaBytes);
+            ir = new IrGenerator().generate(messageSchema);
+
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+            try (final IrEncoder irEncoder = new IrEncoder(buffer, ir))
+            {
+                irEncoder.encode();
+            }
+            buffer.flip();
+            encodedIr = buffer;
+
+            irEncoder = new IrEncoder(encodeBuffer, ir);
+        }
+
+        @TearDown
+        public void tearDown()
+        {
+            irEncoder.close();
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public MessageSchema testParseSchema(final MyState state) throws Exception
+    {
+        return BenchmarkSchemas.parse(state.schemaBytes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public Ir testGenerateIr(final MyState state) throws Exception
+    {
+        return new IrGenerator().generate(state.messageSchema);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int testIrEncode(final MyState state)
+    {
+        state.encodeBuffer.clear();
+
+        return state.irEncoder.encode();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public Ir testIrDecode(final MyState state)
+    {
+        try (final IrDecoder irDecoder = new IrDecoder(state.encodedIr))
+        {
+            return irDecoder.decode();
+        }
+    }
+}
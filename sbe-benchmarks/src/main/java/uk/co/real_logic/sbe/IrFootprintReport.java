@@ -0,0 +1,84 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.IrInterner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reports the heap retained by holding many copies of the IR of a schema, as when keeping every historical version
+ * of a schema for replay, with each {@link Ir} holding its own tokens compared with {@link Ir}s compacted by an
+ * {@link IrInterner}.
+ * <p>
+ * Retained heap is measured as the used heap after a full GC so should be run with a fixed heap size and nothing
+ * else running in the JVM.
+ */
+public class IrFootprintReport
+{
+    /**
+     * Schema on the classpath to load the IR of.
+     */
+    public static final String SCHEMA = "sbe.footprint.schema";
+
+    /**
+     * Number of copies of the IR to hold.
+     */
+    public static final String COPIES = "sbe.footprint.copies";
+
+    public static void main(final String[] args) throws Exception
+    {
+        final String schema = System.getProperty(SCHEMA, BenchmarkSchemas.FIX_BINARY);
+        final int copies = Integer.getInteger(COPIES, 200);
+
+        final long baselineBytes = usedHeapAfterGc();
+        final List<Ir> irs = new ArrayList<>(copies);
+        for (int i = 0; i < copies; i++)
+        {
+            irs.add(BenchmarkSchemas.generateIr(schema));
+        }
+        final long unsharedBytes = usedHeapAfterGc() - baselineBytes;
+        irs.clear();
+
+        final long clearedBytes = usedHeapAfterGc();
+        final IrInterner interner = new IrInterner();
+        for (int i = 0; i < copies; i++)
+        {
+            irs.add(interner.intern(BenchmarkSchemas.generateIr(schema)));
+        }
+        final long sharedBytes = usedHeapAfterGc() - clearedBytes;
+
+        System.out.format("%s x %d%n", schema, copies);
+        System.out.format("measured bytes unshared: %d%n", unsharedBytes);
+        System.out.format("measured bytes shared: %d (including interner tables)%n", sharedBytes);
+        System.out.print(interner.footprintReport());
+        System.out.format("IRs held: %d%n", irs.size());
+    }
+
+    private static long usedHeapAfterGc() throws InterruptedException
+    {
+        final Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++)
+        {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
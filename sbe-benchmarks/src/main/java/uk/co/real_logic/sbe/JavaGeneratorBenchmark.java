@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.generation.StringWriterOutputManager;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.sbe.generation.java.JavaGenerator;
+import uk.co.real_logic.sbe.ir.Ir;
+
+/**
+ * Generation of Java codecs from IR with {@link JavaGenerator} into memory.
+ */
+public class JavaGeneratorBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class MyState
+    {
+        @Param({BenchmarkSchemas.CAR, BenchmarkSchemas.FIX_MESSAGE_SAMPLES, BenchmarkSchemas.FIX_BINARY})
+        String schema;
+
+        Ir ir;
+
+        @Setup
+        public void setup() throws Exception
+        {
+            ir = BenchmarkSchemas.generateIr(schema);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int testGenerate(final MyState state) throws Exception
+    {
+        final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+        outputManager.setPackageName(state.ir.applicableNamespace());
+
+        final JavaGenerator generator = new JavaGenerator(
+            state.ir, MutableDirectBuffer.class.getName(), DirectBuffer.class.getName(), false, false, outputManager);
+        generator.generate();
+
+        return outputManager.getSources().size();
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import uk.co.real_logic.sbe.benchmarks.CarDecoder;
+import uk.co.real_logic.sbe.benchmarks.CarEncoder;
+import uk.co.real_logic.sbe.benchmarks.MessageHeaderDecoder;
+import uk.co.real_logic.sbe.benchmarks.MessageHeaderEncoder;
+import uk.co.real_logic.sbe.benchmarks.fix.MarketDataIncrementalRefreshTradesDecoder;
+import uk.co.real_logic.sbe.benchmarks.fix.MarketDataIncrementalRefreshTradesEncoder;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.Token;
+import uk.co.real_logic.sbe.otf.OtfHeaderDecoder;
+import uk.co.real_logic.sbe.otf.OtfMessageDecoder;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Measures the latency of each encode and decode, for the generated codecs and {@link OtfMessageDecoder}, when
+ * operations are issued at a fixed target rate, and reports p50, p99, p99.9 and max.
+ * <p>
+ * Latency is corrected for coordinated omission by timing each operation from when it was scheduled to start
+ * rather than when it did start, so a stall from JIT compilation or GC is charged to every operation that should
+ * have run during it. The uncorrected latency, from actual start, is shown alongside to show the difference.
+ * <p>
+ * Each scenario reports its warmup period, covering JIT compilation, separately from its measurement period along
+ * with the GC collections that happened during each.
+ * <p>
+ * Configured with system properties {@link #RATE}, {@link #WARMUP_SECONDS} and {@link #MEASUREMENT_SECONDS}.
+ */
+public class LatencyBenchmark
+{
+    /**
+     * Operations per second to schedule.
+     */
+    public static final String RATE = "sbe.latency.rate";
+
+    /**
+     * Seconds at the start of each scenario reported as warmup.
+     */
+    public static final String WARMUP_SECONDS = "sbe.latency.warmup.seconds";
+
+    /**
+     * Seconds of each scenario reported as measurement after the warmup.
+     */
+    public static final String MEASUREMENT_SECONDS = "sbe.latency.measurement.seconds";
+
+    private static final double[] PERCENTILES = { 50.0, 99.0, 99.9 };
+
+    private final LatencyHistogram correctedHistogram = new LatencyHistogram();
+    private final LatencyHistogram uncorrectedHistogram = new LatencyHistogram();
+    private final long intervalNs;
+    private final long warmupNs;
+    private final long measurementNs;
+    private long sink;
+
+    interface Operation
+    {
+        long execute();
+    }
+
+    public LatencyBenchmark(final long rate, final long warmupSeconds, final long measurementSeconds)
+    {
+        intervalNs = Math.max(1, 1_000_000_000L / rate);
+        warmupNs = warmupSeconds * 1_000_000_000L;
+        measurementNs = measurementSeconds * 1_000_000_000L;
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        final long rate = Long.getLong(RATE, 100_000);
+        final LatencyBenchmark benchmark = new LatencyBenchmark(
+            rate, Long.getLong(WARMUP_SECONDS, 5), Long.getLong(MEASUREMENT_SECONDS, 10));
+
+        System.out.format("Target rate %,d ops/s, latency in ns%n", rate);
+        System.out.format(
+            "%-24s %-12s %-12s %12s %10s %10s %10s %12s %6s %8s%n",
+            "Scenario", "Phase", "Latency", "Count", "p50", "p99", "p99.9", "max", "GCs", "GC ms");
+
+        final UnsafeBuffer encodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final UnsafeBuffer carBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final UnsafeBuffer marketDataBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final byte[] tempBuffer = new byte[128];
+
+        final MessageHeaderEncoder carHeaderEncoder = new MessageHeaderEncoder();
+        final MessageHeaderDecoder carHeaderDecoder = new MessageHeaderDecoder();
+        final CarEncoder carEncoder = new CarEncoder();
+        final CarDecoder carDecoder = new CarDecoder();
+        CarBenchmark.encode(carHeaderEncoder, carEncoder, carBuffer, 0);
+
+        final uk.co.real_logic.sbe.benchmarks.fix.MessageHeaderEncoder marketDataHeaderEncoder =
+            new uk.co.real_logic.sbe.benchmarks.fix.MessageHeaderEncoder();
+        final uk.co.real_logic.sbe.benchmarks.fix.MessageHeaderDecoder marketDataHeaderDecoder =
+            new uk.co.real_logic.sbe.benchmarks.fix.MessageHeaderDecoder();
+        final MarketDataIncrementalRefreshTradesEncoder marketDataEncoder =
+            new MarketDataIncrementalRefreshTradesEncoder();
+        final MarketDataIncrementalRefreshTradesDecoder marketDataDecoder =
+            new MarketDataIncrementalRefreshTradesDecoder();
+        MarketDataBenchmark.encode(marketDataHeaderEncoder, marketDataEncoder, marketDataBuffer, 0);
+
+        benchmark.run("car encode", () ->
+        {
+            CarBenchmark.encode(carHeaderEncoder, carEncoder, encodeBuffer, 0);
+            return carEncoder.encodedLength();
+        });
+
+        benchmark.run("car decode", () ->
+        {
+            CarBenchmark.decode(carHeaderDecoder, carDecoder, carBuffer, 0, tempBuffer);
+            return carDecoder.encodedLength();
+        });
+
+        benchmark.run("car otf decode", otfDecode(BenchmarkSchemas.CAR, carBuffer, carEncoder.sbeTemplateId()));
+
+        benchmark.run("market data encode", () ->
+        {
+            MarketDataBenchmark.encode(marketDataHeaderEncoder, marketDataEncoder, encodeBuffer, 0);
+            return marketDataEncoder.encodedLength();
+        });
+
+        benchmark.run("market data decode", () ->
+        {
+            MarketDataBenchmark.decode(marketDataHeaderDecoder, marketDataDecoder, marketDataBuffer, 0);
+            return marketDataDecoder.encodedLength();
+        });
+
+        benchmark.run(
+            "market data otf decode",
+            otfDecode(BenchmarkSchemas.FIX_MESSAGE_SAMPLES, marketDataBuffer, marketDataEncoder.sbeTemplateId()));
+
+        System.out.println("Checksum " + benchmark.sink);
+    }
+
+    /**
+     * Run an operation at the target rate for the warmup then measurement periods, reporting each.
+     *
+     * @param scenario  name to report.
+     * @param operation to be run.
+     */
+    public void run(final String scenario, final Operation operation)
+    {
+        runPhase(scenario, "warmup", operation, warmupNs);
+        runPhase(scenario, "measurement", operation, measurementNs);
+    }
+
+    private void runPhase(final String scenario, final String phase, final Operation operation, final long durationNs)
+    {
+        correctedHistogram.reset();
+        uncorrectedHistogram.reset();
+
+        final long gcCountBefore = gcCount();
+        final long gcTimeBefore = gcTimeMs();
+
+        long scheduledStart = System.nanoTime();
+        final long end = scheduledStart + durationNs;
+
+        while (scheduledStart < end)
+        {
+            long start = System.nanoTime();
+            while (start < scheduledStart)
+            {
+                start = System.nanoTime();
+            }
+
+            sink += operation.execute();
+
+            final long finish = System.nanoTime();
+            correctedHistogram.recordValue(finish - scheduledStart);
+            uncorrectedHistogram.recordValue(finish - start);
+
+            scheduledStart += intervalNs;
+        }
+
+        final long gcCount = gcCount() - gcCountBefore;
+        final long gcTime = gcTimeMs() - gcTimeBefore;
+
+        report(scenario, phase, "corrected", correctedHistogram, gcCount, gcTime);
+        report("", "", "uncorrected", uncorrectedHistogram, gcCount, gcTime);
+    }
+
+    private static void report(
+        final String scenario,
+        final String phase,
+        final String latency,
+        final LatencyHistogram histogram,
+        final long gcCount,
+        final long gcTime)
+    {
+        System.out.format(
+            "%-24s %-12s %-12s %,12d %,10d %,10d %,10d %,12d %6d %8d%n",
+            scenario,
+            phase,
+            latency,
+            histogram.totalCount(),
+            histogram.valueAtPercentile(PERCENTILES[0]),
+            histogram.valueAtPercentile(PERCENTILES[1]),
+            histogram.valueAtPercentile(PERCENTILES[2]),
+            histogram.maxValue(),
+            gcCount,
+            gcTime);
+    }
+
+    private static Operation otfDecode(final String schema, final UnsafeBuffer buffer, final int templateId)
+        throws Exception
+    {
+        final Ir ir = BenchmarkSchemas.generateIr(schema);
+        final OtfHeaderDecoder headerDecoder = new OtfHeaderDecoder(ir.headerStructure());
+        final List<Token> msgTokens = ir.getMessage(templateId);
+        final OtfBenchmark.ValueReadingTokenListener listener = new OtfBenchmark.ValueReadingTokenListener();
+
+        return () ->
+        {
+            final int actingVersion = headerDecoder.getSchemaVersion(buffer, 0);
+            final int blockLength = headerDecoder.getBlockLength(buffer, 0);
+
+            listener.sum = 0;
+            OtfMessageDecoder.decode(
+                buffer, headerDecoder.encodedLength(), actingVersion, blockLength, msgTokens, listener);
+
+            return listener.sum;
+        };
+    }
+
+    private static long gcCount()
+    {
+        long count = 0;
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+
+        return count;
+    }
+
+    private static long gcTimeMs()
+    {
+        long time = 0;
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+
+        return time;
+    }
+}
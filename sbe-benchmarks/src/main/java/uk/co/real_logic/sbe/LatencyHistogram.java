@@ -0,0 +1,169 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative long values, such as latencies in nanoseconds, with buckets laid out as in HdrHistogram.
+ * <p>
+ * Values below 2^{@link #SUB_BUCKET_BITS} are counted exactly. Above that each power of two range is split into
+ * the same number of linear sub-buckets, so any recorded value is within 1 part in 2^({@link #SUB_BUCKET_BITS} - 1)
+ * of the value reported for it, over the whole range of long. Recording does not allocate.
+ */
+public class LatencyHistogram
+{
+    public static final int SUB_BUCKET_BITS = 11;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    private final long[] counts = new long[(Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKET_HALF_COUNT];
+    private long totalCount;
+    private long minValue = Long.MAX_VALUE;
+    private long maxValue;
+
+    /**
+     * Record a value.
+     *
+     * @param value to be recorded which must not be negative.
+     */
+    public void recordValue(final long value)
+    {
+        if (value < 0)
+        {
+            throw new IllegalArgumentException("value must not be negative: " + value);
+        }
+
+        counts[index(value)]++;
+        totalCount++;
+        minValue = Math.min(minValue, value);
+        maxValue = Math.max(maxValue, value);
+    }
+
+    /**
+     * Value at or below which the given percentage of recorded values fall, reported as the highest value that is
+     * equivalent within the precision of the histogram.
+     *
+     * @param percentile in the range 0.0 to 100.0.
+     * @return the value at the percentile or 0 if nothing has been recorded.
+     */
+    public long valueAtPercentile(final double percentile)
+    {
+        if (0 == totalCount)
+        {
+            return 0;
+        }
+
+        final double fraction = Math.min(Math.max(percentile, 0.0), 100.0) / 100.0;
+        final long countAtPercentile = Math.max(1, (long)Math.ceil(fraction * totalCount));
+
+        long count = 0;
+        for (int i = 0; i < counts.length; i++)
+        {
+            count += counts[i];
+            if (count >= countAtPercentile)
+            {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+
+        return maxValue;
+    }
+
+    public long totalCount()
+    {
+        return totalCount;
+    }
+
+    public long minValue()
+    {
+        return 0 == totalCount ? 0 : minValue;
+    }
+
+    public long maxValue()
+    {
+        return maxValue;
+    }
+
+    public double mean()
+    {
+        if (0 == totalCount)
+        {
+            return 0.0;
+        }
+
+        double total = 0.0;
+        for (int i = 0; i < counts.length; i++)
+        {
+            if (0 != counts[i])
+            {
+                total += (double)counts[i] * lowestEquivalentValue(i);
+            }
+        }
+
+        return total / totalCount;
+    }
+
+    /**
+     * Clear all recorded values.
+     */
+    public void reset()
+    {
+        Arrays.fill(counts, 0);
+        totalCount = 0;
+        minValue = Long.MAX_VALUE;
+        maxValue = 0;
+    }
+
+    static int index(final long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+        {
+            return (int)value;
+        }
+
+        final int shift = (Long.SIZE - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        final int subBucket = (int)(value >>> shift);
+
+        return ((shift + 1) * SUB_BUCKET_HALF_COUNT) + (subBucket - SUB_BUCKET_HALF_COUNT);
+    }
+
+    static long lowestEquivalentValue(final int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        final int shift = (index / SUB_BUCKET_HALF_COUNT) - 1;
+        final long subBucket = (index % SUB_BUCKET_HALF_COUNT) + SUB_BUCKET_HALF_COUNT;
+
+        return subBucket << shift;
+    }
+
+    static long highestEquivalentValue(final int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+        {
+            return index;
+        }
+
+        final int shift = (index / SUB_BUCKET_HALF_COUNT) - 1;
+
+        return lowestEquivalentValue(index) + ((1L << shift) - 1);
+    }
+}
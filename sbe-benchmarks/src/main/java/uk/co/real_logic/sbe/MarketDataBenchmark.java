@@ -21,6 +21,12 @@ import uk.co.real_logic.sbe.benchmarks.fix.*;
 
 import java.nio.ByteBuffer;
 
+/**
+ * Encode, decode and validate of the MarketDataIncrementalRefreshTrades message of fix-message-samples.xml.
+ * <p>
+ * Variants such as {@code UnsafeMarketDataBenchmark}, for codecs generated with other options, are copied from this source with the
+ * codec package replaced by the {@code generateBenchmarkVariants} build task so each measures the same code.
+ */
 public class MarketDataBenchmark
 {
     @State(Scope.Benchmark)
@@ -36,9 +42,11 @@ public class MarketDataBenchmark
 
         final UnsafeBuffer encodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
         final UnsafeBuffer decodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        final int encodedLength;
 
         {
             MarketDataBenchmark.encode(messageHeaderEncoder, marketDataEncoder, decodeBuffer, bufferIndex);
+            encodedLength = messageHeaderEncoder.encodedLength() + marketDataEncoder.encodedLength();
         }
     }
 
@@ -70,6 +78,13 @@ public class MarketDataBenchmark
         return marketData.encodedLength();
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int testValidate(final MyState state)
+    {
+        return MarketDataIncrementalRefreshTradesDecoder.validate(state.decodeBuffer, state.bufferIndex, state.encodedLength);
+    }
+
     public static void encode(
         final MessageHeaderEncoder messageHeader,
         final MarketDataIncrementalRefreshTradesEncoder marketData,
@@ -112,7 +127,7 @@ public class MarketDataBenchmark
         mdIncGrp.aggressorSide(Side.SELL);
     }
 
-    private static void decode(
+    static void decode(
         final MessageHeaderDecoder messageHeader,
         final MarketDataIncrementalRefreshTradesDecoder marketData,
         final UnsafeBuffer buffer,
@@ -153,6 +168,7 @@ public class MarketDataBenchmark
         {
             perfTestEncode(i);
             perfTestDecode(i);
+            perfTestValidate(i);
         }
     }
 
@@ -199,4 +215,26 @@ public class MarketDataBenchmark
             benchmark.getClass().getName(),
             state.marketDataDecoder.encodedLength() + state.messageHeaderDecoder.encodedLength());
     }
+
+    private static void perfTestValidate(final int runNumber)
+    {
+        final int reps = 10 * 1000 * 1000;
+        final MyState state = new MyState();
+        final MarketDataBenchmark benchmark = new MarketDataBenchmark();
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < reps; i++)
+        {
+            benchmark.testValidate(state);
+        }
+
+        final long totalDuration = System.nanoTime() - start;
+
+        System.out.printf(
+            "%d - %d(ns) average duration for %s.testValidate() - message encodedLength %d\n",
+            runNumber,
+            totalDuration / reps,
+            benchmark.getClass().getName(),
+            state.encodedLength);
+    }
 }
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+import uk.co.real_logic.sbe.benchmarks.CarEncoder;
+import uk.co.real_logic.sbe.benchmarks.MessageHeaderEncoder;
+import uk.co.real_logic.sbe.benchmarks.fix.MarketDataIncrementalRefreshTradesEncoder;
+import uk.co.real_logic.sbe.ir.Encoding;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.Token;
+import uk.co.real_logic.sbe.json.JsonPrinter;
+import uk.co.real_logic.sbe.otf.AbstractTokenListener;
+import uk.co.real_logic.sbe.otf.OtfHeaderDecoder;
+import uk.co.real_logic.sbe.otf.OtfMessageDecoder;
+import uk.co.real_logic.sbe.otf.Types;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * On-the-fly decoding of a Car and a market data message with {@link OtfMessageDecoder} and printing of them as
+ * JSON with {@link JsonPrinter}.
+ */
+public class OtfBenchmark
+{
+    @State(Scope.Benchmark)
+    public static class MyState
+    {
+        @Param({BenchmarkSchemas.CAR, BenchmarkSchemas.FIX_MESSAGE_SAMPLES})
+        String schema;
+
+        final ByteBuffer byteBuffer = ByteBuffer.allocateDirect(1024);
+        final UnsafeBuffer buffer = new UnsafeBuffer(byteBuffer);
+        final StringBuilder output = new StringBuilder(4096);
+        final ValueReadingTokenListener listener = new ValueReadingTokenListener();
+
+        OtfHeaderDecoder headerDecoder;
+        JsonPrinter jsonPrinter;
+        List<Token> msgTokens;
+
+        @Setup
+        public void setup() throws Exception
+        {
+            final Ir ir = BenchmarkSchemas.generateIr(schema);
+            final MessageHeaderEncoder carHeaderEncoder = new MessageHeaderEncoder();
+            final uk.co.real_logic.sbe.benchmarks.fix.MessageHeaderEncoder marketDataHeaderEncoder =
+                new uk.co.real_logic.sbe.benchmarks.fix.MessageHeaderEncoder();
+
+            final int templateId;
+            if (BenchmarkSchemas.CAR.equals(schema))
+            {
+                final CarEncoder carEncoder = new CarEncoder();
+                CarBenchmark.encode(carHeaderEncoder, carEncoder, buffer, 0);
+                templateId = carEncoder.sbeTemplateId();
+            }
+            else
+            {
+                final MarketDataIncrementalRefreshTradesEncoder marketDataEncoder =
+                    new MarketDataIncrementalRefreshTradesEncoder();
+                MarketDataBenchmark.encode(marketDataHeaderEncoder, marketDataEncoder, buffer, 0);
+                templateId = marketDataEncoder.sbeTemplateId();
+            }
+
+            headerDecoder = new OtfHeaderDecoder(ir.headerStructure());
+            jsonPrinter = new JsonPrinter(ir);
+            msgTokens = ir.getMessage(templateId);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long testOtfDecode(final MyState state)
+    {
+        final DirectBuffer buffer = state.buffer;
+        final OtfHeaderDecoder headerDecoder = state.headerDecoder;
+        final ValueReadingTokenListener listener = state.listener;
+
+        final int actingVersion = headerDecoder.getSchemaVersion(buffer, 0);
+        final int blockLength = headerDecoder.getBlockLength(buffer, 0);
+
+        listener.sum = 0;
+        OtfMessageDecoder.decode(
+            buffer, headerDecoder.encodedLength(), actingVersion, blockLength, state.msgTokens, listener);
+
+        return listener.sum;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int testJsonPrint(final MyState state)
+    {
+        final StringBuilder output = state.output;
+        output.setLength(0);
+
+        state.jsonPrinter.print(state.byteBuffer, output);
+
+        return output.length();
+    }
+
+    /**
+     * Reads every primitive value so decoding does comparable work to a generated decoder.
+     */
+    static class ValueReadingTokenListener extends AbstractTokenListener
+    {
+        long sum;
+
+        public void onEncoding(
+            final Token fieldToken,
+            final DirectBuffer buffer,
+            final int bufferIndex,
+            final Token typeToken,
+            final int actingVersion)
+        {
+            if (!typeToken.isConstantEncoding() && typeToken.arrayLength() == 1)
+            {
+                final Encoding encoding = typeToken.encoding();
+                switch (encoding.primitiveType())
+                {
+                    case FLOAT:
+                        sum += (long)buffer.getFloat(bufferIndex, encoding.byteOrder());
+                        break;
+
+                    case DOUBLE:
+                        sum += (long)buffer.getDouble(bufferIndex, encoding.byteOrder());
+                        break;
+
+                    default:
+                        sum += Types.getLong(buffer, bufferIndex, encoding);
+                }
+            }
+        }
+
+        public void onEnum(
+            final Token fieldToken,
+            final DirectBuffer buffer,
+            final int bufferIndex,
+            final List<Token> tokens,
+            final int fromIndex,
+            final int toIndex,
+            final int actingVersion)
+        {
+            sum += Types.getLong(buffer, bufferIndex, tokens.get(fromIndex).encoding());
+        }
+
+        public void onBitSet(
+            final Token fieldToken,
+            final DirectBuffer buffer,
+            final int bufferIndex,
+            final List<Token> tokens,
+            final int fromIndex,
+            final int toIndex,
+            final int actingVersion)
+        {
+            sum += Types.getLong(buffer, bufferIndex, tokens.get(fromIndex).encoding());
+        }
+
+        public void onGroupHeader(final Token token, final int numInGroup)
+        {
+            sum += numInGroup;
+        }
+
+        public void onVarData(
+            final Token fieldToken, final DirectBuffer buffer, final int bufferIndex, final int length, final Token typeToken)
+        {
+            sum += length;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Hand written buffer access of about the size of an encoded Car message which does not use generated code.
+ * <p>
+ * {@link BenchmarkRegressionCheck} divides the time of each codec benchmark by the time of this one from the same run
+ * so that the comparison against the baseline does not depend on the speed of the machine.
+ */
+public class ReferenceBenchmark
+{
+    private static final int FIELD_COUNT = 24;
+
+    @State(Scope.Benchmark)
+    public static class MyState
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(1024));
+        long value = 0x0102030405060708L;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public long testReference(final MyState state)
+    {
+        final UnsafeBuffer buffer = state.buffer;
+        final long value = state.value;
+
+        for (int i = 0; i < FIELD_COUNT; i++)
+        {
+            buffer.putLong(i * 8, value + i, ByteOrder.LITTLE_ENDIAN);
+        }
+
+        long sum = 0;
+        for (int i = 0; i < FIELD_COUNT; i++)
+        {
+            sum += buffer.getLong(i * 8, ByteOrder.LITTLE_ENDIAN);
+        }
+
+        return sum;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Throughput of formatting UINT64 values, half of them above {@link Long#MAX_VALUE}, with {@link Uint64Formatter}
+ * compared with {@link Long#toUnsignedString(long)} and {@link BigInteger}.
+ */
+public class Uint64FormatBenchmark
+{
+    private static final int VALUE_COUNT = 1024;
+    private static final int VALUE_MASK = VALUE_COUNT - 1;
+    private static final BigInteger TWO_TO_THE_64 = BigInteger.ONE.shiftLeft(64);
+
+    @State(Scope.Thread)
+    public static class MyState
+    {
+        final long[] values = new long[VALUE_COUNT];
+        final StringBuilder sb = new StringBuilder(Uint64Formatter.MAX_DIGITS);
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(Uint64Formatter.MAX_DIGITS));
+        int index;
+
+        @Setup
+        public void setup()
+        {
+            final Random random = new Random(42);
+            for (int i = 0; i < VALUE_COUNT; i++)
+            {
+                values[i] = random.nextLong();
+            }
+        }
+
+        long nextValue()
+        {
+            return values[index++ & VALUE_MASK];
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testFormatterToStringBuilder(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        return Uint64Formatter.append(sb, state.nextValue()).length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testFormatterToBuffer(final MyState state)
+    {
+        return Uint64Formatter.putAscii(state.buffer, 0, state.nextValue());
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testLongToUnsignedString(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        return sb.append(Long.toUnsignedString(state.nextValue())).length();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public int testBigInteger(final MyState state)
+    {
+        final StringBuilder sb = state.sb;
+        sb.setLength(0);
+
+        final long value = state.nextValue();
+        final BigInteger bigInteger = value >= 0 ? BigInteger.valueOf(value) : BigInteger.valueOf(value).add(TWO_TO_THE_64);
+
+        return sb.append(bigInteger).length();
+    }
+}
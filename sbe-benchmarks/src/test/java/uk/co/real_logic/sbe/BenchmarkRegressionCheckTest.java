@@ -0,0 +1,150 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.junit.Test;
+import uk.co.real_logic.sbe.BenchmarkRegressionCheck.Score;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public class BenchmarkRegressionCheckTest
+{
+    private static final String DECODE_NS = "uk.co.real_logic.sbe.CarBenchmark.testDecode.ns";
+    private static final String DECODE_RATIO = "uk.co.real_logic.sbe.CarBenchmark.testDecode.ratio";
+    private static final String DECODE_BYTES = "uk.co.real_logic.sbe.CarBenchmark.testDecode.bytes";
+    private static final String ENCODE_RATIO = "uk.co.real_logic.sbe.CarBenchmark.testEncode.ratio";
+    private static final String REFERENCE_NS = BenchmarkRegressionCheck.REFERENCE_BENCHMARK + ".ns";
+    private static final String REFERENCE_BYTES = BenchmarkRegressionCheck.REFERENCE_BENCHMARK + ".bytes";
+
+    private final Map<String, Score> baseline = new TreeMap<>();
+    private final Map<String, Score> results = new TreeMap<>();
+    private final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+
+    @Test
+    public void shouldPassWithinTolerance()
+    {
+        baseline.put(DECODE_RATIO, new Score(1.0, 0.0));
+        baseline.put(DECODE_BYTES, new Score(0.0, 0.0));
+        results.put(DECODE_RATIO, new Score(1.2, 0.05));
+        results.put(DECODE_BYTES, new Score(0.5, 0.0));
+
+        assertTrue(compare().isEmpty());
+    }
+
+    @Test
+    public void shouldFailWhenSlowerThanToleranceBeyondError()
+    {
+        baseline.put(DECODE_RATIO, new Score(1.0, 0.0));
+        results.put(DECODE_RATIO, new Score(1.4, 0.05));
+
+        final List<String> failures = compare();
+        assertThat(failures, hasSize(1));
+        assertThat(failures.get(0), containsString(DECODE_RATIO));
+    }
+
+    @Test
+    public void shouldPassOnUniformlySlowerMachine()
+    {
+        final Map<String, Score> baselineScores = new TreeMap<>();
+        baselineScores.put(REFERENCE_NS, new Score(20.0, 0.0));
+        baselineScores.put(DECODE_NS, new Score(60.0, 0.0));
+        baseline.putAll(BenchmarkRegressionCheck.relativeTo(REFERENCE_NS, baselineScores));
+
+        final Map<String, Score> scores = new TreeMap<>();
+        scores.put(REFERENCE_NS, new Score(40.0, 0.0));
+        scores.put(DECODE_NS, new Score(120.0, 0.0));
+        results.putAll(BenchmarkRegressionCheck.relativeTo(REFERENCE_NS, scores));
+
+        assertTrue(compare().isEmpty());
+    }
+
+    @Test
+    public void shouldDivideTimesByReferenceAndCombineErrors()
+    {
+        final Map<String, Score> scores = new TreeMap<>();
+        scores.put(REFERENCE_NS, new Score(20.0, 2.0));
+        scores.put(REFERENCE_BYTES, new Score(0.0, 0.0));
+        scores.put(DECODE_NS, new Score(60.0, 6.0));
+        scores.put(DECODE_BYTES, new Score(8.0, 0.0));
+
+        final Map<String, Score> relative = BenchmarkRegressionCheck.relativeTo(REFERENCE_NS, scores);
+
+        assertThat(relative.keySet(), contains(DECODE_BYTES, DECODE_RATIO));
+        assertEquals(3.0, relative.get(DECODE_RATIO).value, 1e-9);
+        assertEquals(3.0 * Math.sqrt(0.02), relative.get(DECODE_RATIO).error, 1e-9);
+        assertEquals(8.0, relative.get(DECODE_BYTES).value, 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRequireReferenceResult()
+    {
+        final Map<String, Score> scores = new TreeMap<>();
+        scores.put(DECODE_NS, new Score(60.0, 0.0));
+
+        BenchmarkRegressionCheck.relativeTo(REFERENCE_NS, scores);
+    }
+
+    @Test
+    public void shouldFailWhenStartingToAllocate()
+    {
+        baseline.put(DECODE_BYTES, new Score(0.0, 0.0));
+        results.put(DECODE_BYTES, new Score(24.0, 0.0));
+
+        final List<String> failures = compare();
+        assertThat(failures, hasSize(1));
+        assertThat(failures.get(0), containsString("started allocating"));
+    }
+
+    @Test
+    public void shouldFailWhenResultHasNoBaseline()
+    {
+        baseline.put(DECODE_RATIO, new Score(1.0, 0.0));
+        results.put(DECODE_RATIO, new Score(1.0, 0.0));
+        results.put(ENCODE_RATIO, new Score(1.0, 0.0));
+
+        final List<String> failures = compare();
+        assertThat(failures, hasSize(1));
+        assertThat(failures.get(0), containsString(ENCODE_RATIO + " has no baseline"));
+    }
+
+    @Test
+    public void shouldFailWhenBaselineEntryNotRun()
+    {
+        baseline.put(DECODE_RATIO, new Score(1.0, 0.0));
+        baseline.put(ENCODE_RATIO, new Score(1.0, 0.0));
+        results.put(DECODE_RATIO, new Score(1.0, 0.0));
+
+        final List<String> failures = compare();
+        assertThat(failures, hasSize(1));
+        assertThat(failures.get(0), containsString(ENCODE_RATIO + " in baseline was not run"));
+    }
+
+    private List<String> compare()
+    {
+        return BenchmarkRegressionCheck.compare(baseline, results, 25.0, 1.0, out);
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#ifndef _OTF_COMPACTTOKEN_H
+#define _OTF_COMPACTTOKEN_H
+
+#include <cstdint>
+#include <memory>
+#include <stdexcept>
+#include <vector>
+
+#include "Token.h"
+
+namespace sbe {
+namespace otf {
+
+/*
+ * Fixed length copy of the parts of a Token needed to walk a message. Names, descriptions and constant values are
+ * left in the full Token which can be found by tokenIndex().
+ */
+class CompactToken
+{
+public:
+    explicit CompactToken(const Token& token, std::size_t tokenIndex) :
+        m_offset(token.offset()), m_fieldId(token.fieldId()), m_version(token.tokenVersion()),
+        m_encodedLength(token.encodedLength()), m_componentTokenCount(token.componentTokenCount()),
+        m_tokenIndex(static_cast<std::int32_t>(tokenIndex)),
+        m_signal(static_cast<std::uint8_t>(token.signal())),
+        m_primitiveType(static_cast<std::uint8_t>(token.encoding().primitiveType())),
+        m_byteOrder(static_cast<std::uint8_t>(token.encoding().byteOrder())),
+        m_presence(static_cast<std::uint8_t>(token.encoding().presence()))
+    {
+    }
+
+    inline Signal signal() const
+    {
+        return static_cast<Signal>(m_signal);
+    }
+
+    inline std::int32_t fieldId() const
+    {
+        return m_fieldId;
+    }
+
+    inline std::int32_t tokenVersion() const
+    {
+        return m_version;
+    }
+
+    inline std::int32_t encodedLength() const
+    {
+        return m_encodedLength;
+    }
+
+    inline std::int32_t offset() const
+    {
+        return m_offset;
+    }
+
+    inline std::int32_t componentTokenCount() const
+    {
+        return m_componentTokenCount;
+    }
+
+    inline std::size_t tokenIndex() const
+    {
+        return static_cast<std::size_t>(m_tokenIndex);
+    }
+
+    inline PrimitiveType primitiveType() const
+    {
+        return static_cast<PrimitiveType>(m_primitiveType);
+    }
+
+    inline ByteOrder byteOrder() const
+    {
+        return static_cast<ByteOrder>(m_byteOrder);
+    }
+
+    inline Presence presence() const
+    {
+        return static_cast<Presence>(m_presence);
+    }
+
+    inline bool isConstantEncoding() const
+    {
+        return presence() == Presence::SBE_CONSTANT;
+    }
+
+    inline std::int64_t getAsInt(const char *buffer) const
+    {
+        return Encoding::getInt(primitiveType(), byteOrder(), buffer);
+    }
+
+    inline std::uint64_t getAsUInt(const char *buffer) const
+    {
+        return Encoding::getUInt(primitiveType(), byteOrder(), buffer);
+    }
+
+    inline double getAsDouble(const char *buffer) const
+    {
+        return Encoding::getDouble(primitiveType(), byteOrder(), buffer);
+    }
+
+private:
+    std::int32_t m_offset;
+    std::int32_t m_fieldId;
+    std::int32_t m_version;
+    std::int32_t m_encodedLength;
+    std::int32_t m_componentTokenCount;
+    std::int32_t m_tokenIndex;
+    std::uint8_t m_signal;
+    std::uint8_t m_primitiveType;
+    std::uint8_t m_byteOrder;
+    std::uint8_t m_presence;
+};
+
+/*
+ * Contiguous array of CompactTokens for a message or header alongside the full Tokens they were taken from.
+ */
+class CompactTokens
+{
+public:
+    explicit CompactTokens(std::shared_ptr<std::vector<Token>> tokens) :
+        m_tokens(tokens)
+    {
+        if (!tokens)
+        {
+            throw std::invalid_argument("tokens must not be null");
+        }
+
+        m_compactTokens.reserve(tokens->size());
+        for (std::size_t i = 0; i < tokens->size(); i++)
+        {
+            m_compactTokens.push_back(CompactToken(tokens->at(i), i));
+        }
+    }
+
+    inline std::size_t size() const
+    {
+        return m_compactTokens.size();
+    }
+
+    inline const CompactToken *data() const
+    {
+        return m_compactTokens.data();
+    }
+
+    inline const CompactToken& operator[](std::size_t index) const
+    {
+        return m_compactTokens[index];
+    }
+
+    /*
+     * Full Token, with name and encoding details, for a CompactToken of this array.
+     */
+    inline const Token& token(const CompactToken& compactToken) const
+    {
+        return (*m_tokens)[compactToken.tokenIndex()];
+    }
+
+    inline std::shared_ptr<std::vector<Token>> tokens() const
+    {
+        return m_tokens;
+    }
+
+private:
+    std::shared_ptr<std::vector<Token>> m_tokens;
+    std::vector<CompactToken> m_compactTokens;
+};
+
+}}
+
+#endif
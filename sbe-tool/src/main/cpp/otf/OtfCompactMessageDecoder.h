@@ -0,0 +1,339 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#ifndef _OTF_COMPACTMESSAGEDECODER_H
+#define _OTF_COMPACTMESSAGEDECODER_H
+
+#include <cstdint>
+#include <stdexcept>
+#include <utility>
+
+#include "CompactToken.h"
+
+namespace sbe {
+namespace otf {
+namespace OtfCompactMessageDecoder {
+
+/*
+ * Walks a message in the same order and with the same events as OtfMessageDecoder but over a contiguous array of
+ * CompactTokens. The listener is a template parameter so each event is a direct, inlinable call on the listener type.
+ *
+ * Listeners can extend CompactTokenListener and hide only the events they are interested in.
+ */
+class CompactTokenListener
+{
+public:
+    inline void onBeginMessage(const CompactToken& token) {}
+
+    inline void onEndMessage(const CompactToken& token) {}
+
+    inline void onEncoding(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken& typeToken,
+        std::uint64_t actingVersion) {}
+
+    inline void onEnum(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion) {}
+
+    inline void onBitSet(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion) {}
+
+    inline void onBeginComposite(
+        const CompactToken& fieldToken,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex) {}
+
+    inline void onEndComposite(
+        const CompactToken& fieldToken,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex) {}
+
+    inline void onGroupHeader(
+        const CompactToken& token,
+        std::uint64_t numInGroup) {}
+
+    inline void onBeginGroup(
+        const CompactToken& token,
+        std::uint64_t groupIndex,
+        std::uint64_t numInGroup) {}
+
+    inline void onEndGroup(
+        const CompactToken& token,
+        std::uint64_t groupIndex,
+        std::uint64_t numInGroup) {}
+
+    inline void onVarData(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        std::uint64_t length,
+        const CompactToken& typeToken) {}
+};
+
+template<typename TokenListener>
+inline void decodeComposite(
+    const CompactToken& fieldToken,
+    const char *buffer,
+    std::size_t bufferIndex,
+    std::size_t length,
+    const CompactToken *tokens,
+    std::size_t tokenIndex,
+    std::size_t toIndex,
+    std::uint64_t actingVersion,
+    TokenListener& listener)
+{
+    listener.onBeginComposite(fieldToken, tokens, tokenIndex, toIndex);
+
+    for (std::size_t i = tokenIndex + 1; i < toIndex;)
+    {
+        const CompactToken& token = tokens[i];
+        const std::size_t nextFieldIndex = i + token.componentTokenCount();
+        const std::size_t offset = static_cast<std::size_t>(token.offset());
+
+        switch (token.signal())
+        {
+            case Signal::BEGIN_COMPOSITE:
+                decodeComposite(
+                    fieldToken, buffer, bufferIndex + offset, length, tokens, i, nextFieldIndex - 1, actingVersion, listener);
+                break;
+            case Signal::BEGIN_ENUM:
+                listener.onEnum(fieldToken, buffer + bufferIndex + offset, tokens, i, nextFieldIndex - 1, actingVersion);
+                break;
+            case Signal::BEGIN_SET:
+                listener.onBitSet(fieldToken, buffer + bufferIndex + offset, tokens, i, nextFieldIndex - 1, actingVersion);
+                break;
+            case Signal::ENCODING:
+                listener.onEncoding(token, buffer + bufferIndex + offset, token, actingVersion);
+                break;
+            default:
+                throw std::runtime_error("incorrect signal type in decodeComposite");
+        }
+
+        i = nextFieldIndex;
+    }
+
+    listener.onEndComposite(fieldToken, tokens, tokenIndex, toIndex);
+}
+
+template<typename TokenListener>
+inline std::size_t decodeFields(
+    const char *buffer,
+    std::size_t bufferIndex,
+    std::size_t length,
+    std::uint64_t actingVersion,
+    const CompactToken *tokens,
+    std::size_t tokenIndex,
+    const std::size_t numTokens,
+    TokenListener& listener)
+{
+    while (tokenIndex < numTokens)
+    {
+        const CompactToken& fieldToken = tokens[tokenIndex];
+        if (Signal::BEGIN_FIELD != fieldToken.signal())
+        {
+            break;
+        }
+
+        const std::size_t nextFieldIndex = tokenIndex + fieldToken.componentTokenCount();
+        tokenIndex++;
+
+        const CompactToken& typeToken = tokens[tokenIndex];
+        const std::size_t offset = bufferIndex + typeToken.offset();
+
+        switch (typeToken.signal())
+        {
+            case Signal::BEGIN_COMPOSITE:
+                decodeComposite(
+                    fieldToken, buffer, offset, length, tokens, tokenIndex, nextFieldIndex - 2, actingVersion, listener);
+                break;
+            case Signal::BEGIN_ENUM:
+                listener.onEnum(fieldToken, buffer + offset, tokens, tokenIndex, nextFieldIndex - 2, actingVersion);
+                break;
+            case Signal::BEGIN_SET:
+                listener.onBitSet(fieldToken, buffer + offset, tokens, tokenIndex, nextFieldIndex - 2, actingVersion);
+                break;
+            case Signal::ENCODING:
+                listener.onEncoding(fieldToken, buffer + offset, typeToken, actingVersion);
+                break;
+            default:
+                throw std::runtime_error("incorrect signal type in decodeFields");
+        }
+
+        tokenIndex = nextFieldIndex;
+    }
+
+    return tokenIndex;
+}
+
+template<typename TokenListener>
+inline std::size_t decodeData(
+    const char *buffer,
+    std::size_t bufferIndex,
+    const std::size_t length,
+    const CompactToken *tokens,
+    std::size_t tokenIndex,
+    const std::size_t numTokens,
+    TokenListener& listener)
+{
+    while (tokenIndex < numTokens)
+    {
+        const CompactToken& token = tokens[tokenIndex];
+        if (Signal::BEGIN_VAR_DATA != token.signal())
+        {
+            break;
+        }
+
+        const CompactToken& lengthToken = tokens[tokenIndex + 2];
+        const CompactToken& dataToken = tokens[tokenIndex + 3];
+
+        if ((bufferIndex + dataToken.offset()) > length)
+        {
+            throw std::runtime_error("length too short for data length field");
+        }
+
+        const std::uint64_t dataLength = lengthToken.getAsUInt(buffer + bufferIndex + lengthToken.offset());
+
+        bufferIndex += dataToken.offset();
+
+        if ((bufferIndex + dataLength) > length)
+        {
+            throw std::runtime_error("length too short for data field");
+        }
+
+        listener.onVarData(token, buffer + bufferIndex, dataLength, dataToken);
+
+        bufferIndex += dataLength;
+        tokenIndex += token.componentTokenCount();
+    }
+
+    return bufferIndex;
+}
+
+template<typename TokenListener>
+inline std::pair<std::size_t, std::size_t> decodeGroups(
+    const char *buffer,
+    std::size_t bufferIndex,
+    const std::size_t length,
+    std::uint64_t actingVersion,
+    const CompactToken *tokens,
+    std::size_t tokenIndex,
+    const std::size_t numTokens,
+    TokenListener& listener)
+{
+    while (tokenIndex < numTokens)
+    {
+        const CompactToken& token = tokens[tokenIndex];
+        if (Signal::BEGIN_GROUP != token.signal())
+        {
+            break;
+        }
+
+        const CompactToken& dimensionsTypeComposite = tokens[tokenIndex + 1];
+        const std::size_t dimensionsLength = static_cast<std::size_t>(dimensionsTypeComposite.encodedLength());
+
+        if ((bufferIndex + dimensionsLength) > length)
+        {
+            throw std::runtime_error("length too short for group dimensions");
+        }
+
+        const CompactToken& blockLengthToken = tokens[tokenIndex + 2];
+        const CompactToken& numInGroupToken = tokens[tokenIndex + 3];
+
+        const std::uint64_t blockLength = blockLengthToken.getAsUInt(buffer + bufferIndex + blockLengthToken.offset());
+        const std::uint64_t numInGroup = numInGroupToken.getAsUInt(buffer + bufferIndex + numInGroupToken.offset());
+
+        bufferIndex += dimensionsLength;
+
+        const std::size_t beginFieldsIndex = tokenIndex + dimensionsTypeComposite.componentTokenCount() + 1;
+
+        listener.onGroupHeader(token, numInGroup);
+
+        for (std::uint64_t i = 0; i < numInGroup; i++)
+        {
+            listener.onBeginGroup(token, i, numInGroup);
+
+            if ((bufferIndex + blockLength) > length)
+            {
+                throw std::runtime_error("length too short for group blockLength");
+            }
+
+            const std::size_t afterFieldsIndex =
+                decodeFields(buffer, bufferIndex, length, actingVersion, tokens, beginFieldsIndex, numTokens, listener);
+            bufferIndex += blockLength;
+
+            const std::pair<std::size_t, std::size_t> groupsResult =
+                decodeGroups(buffer, bufferIndex, length, actingVersion, tokens, afterFieldsIndex, numTokens, listener);
+
+            bufferIndex = decodeData(buffer, groupsResult.first, length, tokens, groupsResult.second, numTokens, listener);
+
+            listener.onEndGroup(token, i, numInGroup);
+        }
+
+        tokenIndex += token.componentTokenCount();
+    }
+
+    return std::pair<std::size_t, std::size_t>(bufferIndex, tokenIndex);
+}
+
+/**
+ * Entry point for decoder.
+ */
+template<typename TokenListener>
+inline std::size_t decode(
+    const char *buffer,
+    const std::size_t length,
+    std::uint64_t actingVersion,
+    std::size_t blockLength,
+    const CompactTokens& msgTokens,
+    TokenListener& listener)
+{
+    const CompactToken *tokens = msgTokens.data();
+    const std::size_t numTokens = msgTokens.size();
+
+    listener.onBeginMessage(tokens[0]);
+
+    if (length < blockLength)
+    {
+        throw std::runtime_error("length too short for message blockLength");
+    }
+
+    const std::size_t tokenIndex = decodeFields(buffer, 0, length, actingVersion, tokens, 1, numTokens, listener);
+
+    const std::pair<std::size_t, std::size_t> groupResult =
+        decodeGroups(buffer, blockLength, length, actingVersion, tokens, tokenIndex, numTokens, listener);
+
+    const std::size_t bufferIndex =
+        decodeData(buffer, groupResult.first, length, tokens, groupResult.second, numTokens, listener);
+
+    listener.onEndMessage(tokens[numTokens - 1]);
+
+    return bufferIndex;
+}
+
+}}}
+
+#endif
@@ -22,8 +22,22 @@
 #include <string.h>
 #include <stdint.h>
 #include <limits.h>
+#include <assert.h>
 #include <stdexcept>
 #include <cstdint>
+#include <cstddef>
+
+#if __cplusplus >= 201703L
+#include <string_view>
+#endif
+
+#if !defined(SBE_CONSTEXPR)
+    #if __cplusplus >= 201103L
+        #define SBE_CONSTEXPR constexpr
+    #else
+        #define SBE_CONSTEXPR
+    #endif
+#endif
 
 /*
  * Types used by C++ codecs
@@ -70,8 +84,16 @@ namespace sbe {
     #error "Byte Ordering of platform not determined. Set __BYTE_ORDER__ manually before including this file."
 #endif
 
+/*
+ * Bounds check policy for generated codecs, selected at compile time:
+ *   default                 - every check throws std::runtime_error when it fails
+ *   SBE_BOUNDS_CHECK_ASSERT - every check is an assert() so no throw paths are generated and checks vanish with NDEBUG
+ *   SBE_NO_BOUNDS_CHECK     - no checks are performed
+ */
 #if defined(SBE_NO_BOUNDS_CHECK)
     #define SBE_BOUNDS_CHECK_EXPECT(exp,c) (false)
+#elif defined(SBE_BOUNDS_CHECK_ASSERT)
+    #define SBE_BOUNDS_CHECK_EXPECT(exp,c) (assert(!(exp)), false)
 #elif defined(_MSC_VER)
     #define SBE_BOUNDS_CHECK_EXPECT(exp,c) (exp)
 #else
@@ -109,6 +131,86 @@ namespace sbe {
     #define SBE_NULLVALUE_UINT64 (UINT64_MAX)
 #endif
 
+/*
+ * Non-owning view of encoded characters used for reading var data and fixed length char arrays without a copy.
+ * Is std::string_view when compiled as C++17 or later, otherwise a minimal class with the same read methods.
+ */
+#if __cplusplus >= 201703L
+typedef std::string_view StringView;
+#else
+class StringView
+{
+public:
+    typedef const char *const_iterator;
+
+    SBE_CONSTEXPR StringView() : m_data(""), m_length(0)
+    {
+    }
+
+    SBE_CONSTEXPR StringView(const char *data, std::size_t length) : m_data(data), m_length(length)
+    {
+    }
+
+    SBE_CONSTEXPR const char *data() const
+    {
+        return m_data;
+    }
+
+    SBE_CONSTEXPR std::size_t size() const
+    {
+        return m_length;
+    }
+
+    SBE_CONSTEXPR std::size_t length() const
+    {
+        return m_length;
+    }
+
+    SBE_CONSTEXPR bool empty() const
+    {
+        return 0 == m_length;
+    }
+
+    SBE_CONSTEXPR const_iterator begin() const
+    {
+        return m_data;
+    }
+
+    SBE_CONSTEXPR const_iterator end() const
+    {
+        return m_data + m_length;
+    }
+
+    SBE_CONSTEXPR char operator[](std::size_t index) const
+    {
+        return m_data[index];
+    }
+
+private:
+    const char *m_data;
+    std::size_t m_length;
+};
+#endif
+
+/*
+ * Layout of a fixed length field within the block of a message or repeating group as returned by the generated
+ * sbeFieldLayout(index), which can be evaluated at compile time.
+ */
+struct FieldLayout
+{
+    const char *name;
+    std::uint16_t id;
+    std::uint64_t offset;
+    std::uint64_t length;
+    std::uint64_t sinceVersion;
+
+    SBE_CONSTEXPR FieldLayout(
+        const char *name, std::uint16_t id, std::uint64_t offset, std::uint64_t length, std::uint64_t sinceVersion) :
+        name(name), id(id), offset(offset), length(length), sinceVersion(sinceVersion)
+    {
+    }
+};
+
 namespace MetaAttribute {
 
 enum Attribute
@@ -0,0 +1,224 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+/**
+ * Formats floating point values, and decimals of a mantissa and a base 10 exponent, without the temporary objects
+ * {@link StringBuilder#append(double)} creates on many JDKs.
+ *
+ * A floating point value with a magnitude in the range {@link Double#toString(double)} prints in plain notation is
+ * formatted as the fewest fraction digits which parse back to the same value, otherwise it falls back to
+ * {@link StringBuilder#append(double)}. A decimal is formatted exactly, keeping the scale given by its exponent.
+ */
+public final class DecimalFormatter
+{
+    private static final double MIN_PLAIN_VALUE = 1e-3;
+    private static final double MAX_PLAIN_VALUE = 1e7;
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+    private static final int MAX_FLOAT_SCALE = 10;
+
+    private static final long[] LONG_POWERS_OF_TEN =
+    {
+        1L,
+        10L,
+        100L,
+        1_000L,
+        10_000L,
+        100_000L,
+        1_000_000L,
+        10_000_000L,
+        100_000_000L,
+        1_000_000_000L,
+        10_000_000_000L,
+        100_000_000_000L,
+        1_000_000_000_000L,
+        10_000_000_000_000L,
+        100_000_000_000_000L,
+        1_000_000_000_000_000L,
+        10_000_000_000_000_000L,
+        100_000_000_000_000_000L,
+        1_000_000_000_000_000_000L
+    };
+
+    private static final double[] DOUBLE_POWERS_OF_TEN =
+    {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18
+    };
+
+    private static final float[] FLOAT_POWERS_OF_TEN =
+    {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private DecimalFormatter()
+    {
+    }
+
+    /**
+     * Append a double with the fewest fraction digits which parse back to the same value.
+     *
+     * @param sb    to append to.
+     * @param value to be formatted.
+     * @return the {@link StringBuilder} for a fluent API.
+     */
+    public static StringBuilder appendDouble(final StringBuilder sb, final double value)
+    {
+        if (0.0 == value)
+        {
+            return sb.append(Double.doubleToRawLongBits(value) < 0 ? "-0.0" : "0.0");
+        }
+
+        final double abs = Math.abs(value);
+        if (abs >= MIN_PLAIN_VALUE && abs < MAX_PLAIN_VALUE)
+        {
+            for (int scale = 0; scale < DOUBLE_POWERS_OF_TEN.length; scale++)
+            {
+                final double power = DOUBLE_POWERS_OF_TEN[scale];
+                final double scaled = abs * power;
+                if (scaled >= MAX_EXACT_DOUBLE_MANTISSA)
+                {
+                    break;
+                }
+
+                final long mantissa = Math.round(scaled);
+                if (mantissa / power == abs)
+                {
+                    return appendPlain(sb, value < 0, mantissa, scale);
+                }
+            }
+        }
+
+        return sb.append(value);
+    }
+
+    /**
+     * Append a float with the fewest fraction digits which parse back to the same value.
+     *
+     * @param sb    to append to.
+     * @param value to be formatted.
+     * @return the {@link StringBuilder} for a fluent API.
+     */
+    public static StringBuilder appendFloat(final StringBuilder sb, final float value)
+    {
+        if (0.0f == value)
+        {
+            return sb.append(Float.floatToRawIntBits(value) < 0 ? "-0.0" : "0.0");
+        }
+
+        final float abs = Math.abs(value);
+        if (abs >= MIN_PLAIN_VALUE && abs < MAX_PLAIN_VALUE)
+        {
+            for (int scale = 0; scale <= MAX_FLOAT_SCALE; scale++)
+            {
+                final float power = FLOAT_POWERS_OF_TEN[scale];
+                final float scaled = abs * power;
+                if (scaled >= MAX_EXACT_FLOAT_MANTISSA)
+                {
+                    break;
+                }
+
+                final int mantissa = Math.round(scaled);
+                if (mantissa / power == abs)
+                {
+                    return appendPlain(sb, value < 0, mantissa, scale);
+                }
+            }
+        }
+
+        return sb.append(value);
+    }
+
+    /**
+     * Append the exact value of a decimal, being the mantissa multiplied by ten to the power of the exponent, such as
+     * for a composite of a mantissa and an exponent as used for prices. A negative exponent gives that number of
+     * fraction digits, including any trailing zeros.
+     *
+     * @param sb       to append to.
+     * @param mantissa of the decimal.
+     * @param exponent of the decimal as a power of ten.
+     * @return the {@link StringBuilder} for a fluent API.
+     */
+    public static StringBuilder appendDecimal(final StringBuilder sb, final long mantissa, final int exponent)
+    {
+        if (exponent >= 0)
+        {
+            sb.append(mantissa);
+            if (0 != mantissa)
+            {
+                for (int i = 0; i < exponent; i++)
+                {
+                    sb.append('0');
+                }
+            }
+
+            return sb;
+        }
+
+        // negated so the magnitude of Long.MIN_VALUE can be held
+        final long negativeMagnitude = mantissa > 0 ? -mantissa : mantissa;
+        if (mantissa < 0)
+        {
+            sb.append('-');
+        }
+
+        final int scale = -exponent;
+        if (scale < LONG_POWERS_OF_TEN.length)
+        {
+            final long negativeIntegerPart = negativeMagnitude / LONG_POWERS_OF_TEN[scale];
+            sb.append(-negativeIntegerPart).append('.');
+
+            return appendFraction(sb, negativeMagnitude - (negativeIntegerPart * LONG_POWERS_OF_TEN[scale]), scale);
+        }
+
+        sb.append("0.");
+        for (int i = LONG_POWERS_OF_TEN.length; i < scale; i++)
+        {
+            sb.append('0');
+        }
+
+        return appendFraction(sb, negativeMagnitude, LONG_POWERS_OF_TEN.length);
+    }
+
+    private static StringBuilder appendPlain(
+        final StringBuilder sb, final boolean isNegative, final long mantissa, final int scale)
+    {
+        if (isNegative)
+        {
+            sb.append('-');
+        }
+
+        if (0 == scale)
+        {
+            return sb.append(mantissa).append(".0");
+        }
+
+        final long integerPart = mantissa / LONG_POWERS_OF_TEN[scale];
+        sb.append(integerPart).append('.');
+
+        return appendFraction(sb, (integerPart * LONG_POWERS_OF_TEN[scale]) - mantissa, scale);
+    }
+
+    private static StringBuilder appendFraction(final StringBuilder sb, final long negativeFraction, final int digits)
+    {
+        for (int i = digits - 1; i >= 0; i--)
+        {
+            sb.append((char)('0' - ((negativeFraction / LONG_POWERS_OF_TEN[i]) % 10)));
+        }
+
+        return sb;
+    }
+}
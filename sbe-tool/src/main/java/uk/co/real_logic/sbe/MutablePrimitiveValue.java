@@ -0,0 +1,422 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.DirectBuffer;
+import uk.co.real_logic.sbe.ir.Encoding;
+
+import java.nio.charset.Charset;
+
+/**
+ * Reusable holder for a value of a {@link PrimitiveType} so values can be read, compared, and printed when decoding
+ * on-the-fly without allocating or inspecting a {@link PrimitiveValue} per field.
+ *
+ * A UINT64 is held in a long with the same bits and treated as unsigned when compared or printed.
+ */
+public class MutablePrimitiveValue
+{
+    private static final int TYPE_COUNT = PrimitiveType.values().length;
+    private static final long[] MIN_LONG_VALUES = new long[TYPE_COUNT];
+    private static final long[] MAX_LONG_VALUES = new long[TYPE_COUNT];
+    private static final long[] NULL_LONG_VALUES = new long[TYPE_COUNT];
+    private static final double[] MIN_DOUBLE_VALUES = new double[TYPE_COUNT];
+    private static final double[] MAX_DOUBLE_VALUES = new double[TYPE_COUNT];
+    private static final double[] NULL_DOUBLE_VALUES = new double[TYPE_COUNT];
+
+    static
+    {
+        for (final PrimitiveType type : PrimitiveType.values())
+        {
+            final int i = type.ordinal();
+            if (isFloatingPoint(type))
+            {
+                MIN_DOUBLE_VALUES[i] = type.minValue().doubleValue();
+                MAX_DOUBLE_VALUES[i] = type.maxValue().doubleValue();
+                NULL_DOUBLE_VALUES[i] = type.nullValue().doubleValue();
+            }
+            else
+            {
+                MIN_LONG_VALUES[i] = type.minValue().longValue();
+                MAX_LONG_VALUES[i] = type.maxValue().longValue();
+                NULL_LONG_VALUES[i] = type.nullValue().longValue();
+            }
+        }
+    }
+
+    private PrimitiveType type = PrimitiveType.INT64;
+    private PrimitiveValue.Representation representation = PrimitiveValue.Representation.LONG;
+    private long longValue;
+    private double doubleValue;
+    private byte[] byteArrayValue;
+    private String characterEncoding;
+
+    /**
+     * Is the type held as a double rather than a long.
+     *
+     * @param type to check.
+     * @return true for FLOAT and DOUBLE otherwise false.
+     */
+    public static boolean isFloatingPoint(final PrimitiveType type)
+    {
+        return PrimitiveType.FLOAT == type || PrimitiveType.DOUBLE == type;
+    }
+
+    /**
+     * Default min value of an integer or char type as a long.
+     *
+     * @param type of the value.
+     * @return default min value of the type.
+     */
+    public static long minLongValue(final PrimitiveType type)
+    {
+        return MIN_LONG_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Default max value of an integer or char type as a long, which is the bits of the unsigned value for UINT64.
+     *
+     * @param type of the value.
+     * @return default max value of the type.
+     */
+    public static long maxLongValue(final PrimitiveType type)
+    {
+        return MAX_LONG_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Default null value of an integer or char type as a long, which is the bits of the unsigned value for UINT64.
+     *
+     * @param type of the value.
+     * @return default null value of the type.
+     */
+    public static long nullLongValue(final PrimitiveType type)
+    {
+        return NULL_LONG_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Default min value of a floating point type.
+     *
+     * @param type of the value.
+     * @return default min value of the type.
+     */
+    public static double minDoubleValue(final PrimitiveType type)
+    {
+        return MIN_DOUBLE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Default max value of a floating point type.
+     *
+     * @param type of the value.
+     * @return default max value of the type.
+     */
+    public static double maxDoubleValue(final PrimitiveType type)
+    {
+        return MAX_DOUBLE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Default null value of a floating point type.
+     *
+     * @param type of the value.
+     * @return default null value of the type.
+     */
+    public static double nullDoubleValue(final PrimitiveType type)
+    {
+        return NULL_DOUBLE_VALUES[type.ordinal()];
+    }
+
+    /**
+     * Set the value of an integer or char type.
+     *
+     * @param type  of the value.
+     * @param value as a long, or the bits of the unsigned value for UINT64.
+     * @return this for a fluent API.
+     */
+    public MutablePrimitiveValue set(final PrimitiveType type, final long value)
+    {
+        this.type = type;
+        representation = PrimitiveValue.Representation.LONG;
+        longValue = value;
+
+        return this;
+    }
+
+    /**
+     * Set the value of a floating point type.
+     *
+     * @param type  of the value.
+     * @param value as a double.
+     * @return this for a fluent API.
+     */
+    public MutablePrimitiveValue set(final PrimitiveType type, final double value)
+    {
+        this.type = type;
+        representation = PrimitiveValue.Representation.DOUBLE;
+        doubleValue = value;
+
+        return this;
+    }
+
+    /**
+     * Set the value from a {@link PrimitiveValue} of the IR, such as a constant, referencing rather than copying any
+     * byte array.
+     *
+     * @param type  of the value.
+     * @param value to be copied.
+     * @return this for a fluent API.
+     */
+    public MutablePrimitiveValue set(final PrimitiveType type, final PrimitiveValue value)
+    {
+        this.type = type;
+        representation = value.representation();
+
+        switch (representation)
+        {
+            case DOUBLE:
+                doubleValue = value.doubleValue();
+                break;
+
+            case BYTE_ARRAY:
+                byteArrayValue = value.byteArrayValue();
+                characterEncoding = value.characterEncoding();
+                break;
+
+            default:
+                longValue = value.longValue();
+                break;
+        }
+
+        return this;
+    }
+
+    /**
+     * Set to the most applicable null value for an {@link Encoding}.
+     *
+     * @param encoding of the value.
+     * @return this for a fluent API.
+     */
+    public MutablePrimitiveValue setNull(final Encoding encoding)
+    {
+        final PrimitiveType type = encoding.primitiveType();
+        final PrimitiveValue nullValue = encoding.nullValue();
+
+        if (null != nullValue)
+        {
+            return set(type, nullValue);
+        }
+
+        return isFloatingPoint(type) ? set(type, nullDoubleValue(type)) : set(type, nullLongValue(type));
+    }
+
+    /**
+     * Read a single value from a buffer.
+     *
+     * @param buffer   containing the encoded value.
+     * @param index    at which the encoded value begins.
+     * @param encoding of the value.
+     * @return this for a fluent API.
+     */
+    public MutablePrimitiveValue read(final DirectBuffer buffer, final int index, final Encoding encoding)
+    {
+        final PrimitiveType type = encoding.primitiveType();
+        switch (type)
+        {
+            case FLOAT:
+                return set(type, (double)buffer.getFloat(index, encoding.byteOrder()));
+
+            case DOUBLE:
+                return set(type, buffer.getDouble(index, encoding.byteOrder()));
+
+            case CHAR:
+            case INT8:
+                return set(type, (long)buffer.getByte(index));
+
+            case UINT8:
+                return set(type, (long)(buffer.getByte(index) & 0xFF));
+
+            case INT16:
+                return set(type, (long)buffer.getShort(index, encoding.byteOrder()));
+
+            case UINT16:
+                return set(type, (long)(buffer.getShort(index, encoding.byteOrder()) & 0xFFFF));
+
+            case INT32:
+                return set(type, (long)buffer.getInt(index, encoding.byteOrder()));
+
+            case UINT32:
+                return set(type, buffer.getInt(index, encoding.byteOrder()) & 0xFFFF_FFFFL);
+
+            default:
+                return set(type, buffer.getLong(index, encoding.byteOrder()));
+        }
+    }
+
+    /**
+     * The {@link PrimitiveType} of the value.
+     *
+     * @return the {@link PrimitiveType} of the value.
+     */
+    public PrimitiveType type()
+    {
+        return type;
+    }
+
+    /**
+     * How the value is held.
+     *
+     * @return how the value is held.
+     */
+    public PrimitiveValue.Representation representation()
+    {
+        return representation;
+    }
+
+    /**
+     * The value of an integer or char type, which is the bits of the unsigned value for UINT64.
+     *
+     * @return the value as a long.
+     */
+    public long longValue()
+    {
+        return longValue;
+    }
+
+    /**
+     * The value of a floating point type.
+     *
+     * @return the value as a double.
+     */
+    public double doubleValue()
+    {
+        return doubleValue;
+    }
+
+    /**
+     * The value of a char array constant.
+     *
+     * @return the value as a byte array.
+     */
+    public byte[] byteArrayValue()
+    {
+        return byteArrayValue;
+    }
+
+    /**
+     * The character encoding of a char array constant.
+     *
+     * @return the character encoding of the value or null if not known.
+     */
+    public String characterEncoding()
+    {
+        return characterEncoding;
+    }
+
+    /**
+     * Is the value the most applicable null value for an {@link Encoding}, treating any NaN as null for floating
+     * point types.
+     *
+     * @param encoding of the value.
+     * @return true if the value is null.
+     */
+    public boolean isNull(final Encoding encoding)
+    {
+        final PrimitiveValue nullValue = encoding.nullValue();
+
+        switch (representation)
+        {
+            case DOUBLE:
+                final double nullDoubleValue = null != nullValue ? nullValue.doubleValue() : nullDoubleValue(type);
+                return Double.isNaN(nullDoubleValue) ? Double.isNaN(doubleValue) : doubleValue == nullDoubleValue;
+
+            case LONG:
+                return longValue == (null != nullValue ? nullValue.longValue() : nullLongValue(type));
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Compare with another value of the same type, treating UINT64 as unsigned.
+     *
+     * @param value to compare with.
+     * @return negative, zero, or positive as this value is less than, equal to, or greater than the other.
+     */
+    public int compareTo(final long value)
+    {
+        return PrimitiveType.UINT64 == type ? Long.compareUnsigned(longValue, value) : Long.compare(longValue, value);
+    }
+
+    /**
+     * Append the value to a {@link StringBuilder} without allocation, treating UINT64 as unsigned. Char array
+     * constants are decoded in their character encoding, which allocates for encodings other than ASCII and ISO-8859-1.
+     *
+     * @param sb to append to.
+     * @return the {@link StringBuilder} for a fluent API.
+     */
+    public StringBuilder appendTo(final StringBuilder sb)
+    {
+        switch (representation)
+        {
+            case DOUBLE:
+                return PrimitiveType.FLOAT == type ?
+                    DecimalFormatter.appendFloat(sb, (float)doubleValue) : DecimalFormatter.appendDouble(sb, doubleValue);
+
+            case BYTE_ARRAY:
+                return appendByteArrayTo(sb);
+
+            default:
+                if (PrimitiveType.CHAR == type)
+                {
+                    return sb.append((char)longValue);
+                }
+                else if (PrimitiveType.UINT64 == type)
+                {
+                    return Uint64Formatter.append(sb, longValue);
+                }
+
+                return sb.append(longValue);
+        }
+    }
+
+    public String toString()
+    {
+        return appendTo(new StringBuilder()).toString();
+    }
+
+    private StringBuilder appendByteArrayTo(final StringBuilder sb)
+    {
+        if (null == characterEncoding)
+        {
+            return sb.append(new String(byteArrayValue, Charset.defaultCharset()));
+        }
+
+        final boolean isAscii = "US-ASCII".equalsIgnoreCase(characterEncoding) || "ASCII".equalsIgnoreCase(characterEncoding);
+        if (isAscii || "ISO-8859-1".equalsIgnoreCase(characterEncoding))
+        {
+            for (final byte b : byteArrayValue)
+            {
+                sb.append(isAscii && b < 0 ? '\uFFFD' : (char)(b & 0xFF));
+            }
+
+            return sb;
+        }
+
+        return sb.append(new String(byteArrayValue, Charset.forName(characterEncoding)));
+    }
+}
@@ -68,9 +68,9 @@ public class PrimitiveValue
 
     public static final long MIN_VALUE_UINT64 = 0;
     public static final BigInteger BI_MAX_VALUE_UINT64 = new BigInteger("18446744073709551614");
-    public static final long MAX_VALUE_UINT64 = BI_MAX_VALUE_UINT64.longValue(); // (2 ^ 64)- 2
+    public static final long MAX_VALUE_UINT64 = 0xFFFF_FFFF_FFFF_FFFEL; // (2 ^ 64)- 2
     public static final BigInteger BI_NULL_VALUE_UINT64 = new BigInteger("18446744073709551615");
-    public static final long NULL_VALUE_UINT64 = BI_NULL_VALUE_UINT64.longValue(); // (2 ^ 64)- 1
+    public static final long NULL_VALUE_UINT64 = 0xFFFF_FFFF_FFFF_FFFFL; // (2 ^ 64)- 1
 
     public static final float MIN_VALUE_FLOAT = Float.MIN_VALUE;
     public static final float MAX_VALUE_FLOAT = Float.MAX_VALUE;
@@ -178,12 +178,7 @@ public class PrimitiveValue
                 return new PrimitiveValue(Long.parseLong(value), 4);
 
             case UINT64:
-                final BigInteger biValue = new BigInteger(value);
-                if (biValue.compareTo(BI_NULL_VALUE_UINT64) > 0)
-                {
-                    throw new IllegalArgumentException("Value greater than UINT64 allows: value=" + value);
-                }
-                return new PrimitiveValue(biValue.longValue(), 8);
+                return new PrimitiveValue(parseUint64(value), 8);
 
             case FLOAT:
                 return new PrimitiveValue(Float.parseFloat(value), 4);
@@ -196,6 +191,23 @@ public class PrimitiveValue
         }
     }
 
+    private static long parseUint64(final String value)
+    {
+        if (value.startsWith("-"))
+        {
+            return Long.parseLong(value);
+        }
+
+        try
+        {
+            return Long.parseUnsignedLong(value);
+        }
+        catch (final NumberFormatException ex)
+        {
+            throw new IllegalArgumentException("Value greater than UINT64 allows: value=" + value, ex);
+        }
+    }
+
     /**
      * Parse constant value string and set representation based on type, length, and characterEncoding
      *
@@ -282,6 +294,16 @@ public class PrimitiveValue
         throw new IllegalStateException("PrimitiveValue is not a byte[] representation");
     }
 
+    /**
+     * Return how the value of this PrimitiveValue is held.
+     *
+     * @return the representation of the value.
+     */
+    public Representation representation()
+    {
+        return representation;
+    }
+
     /**
      * Return encodedLength for this PrimitiveValue for serialization purposes.
      *
@@ -17,7 +17,7 @@ package uk.co.real_logic.sbe;
 
 import org.agrona.DirectBuffer;
 import org.agrona.MutableDirectBuffer;
-import uk.co.real_logic.sbe.generation.CodeGenerator;
+import uk.co.real_logic.sbe.generation.ChangedFileOutputManager;
 import uk.co.real_logic.sbe.generation.TargetCodeGenerator;
 import uk.co.real_logic.sbe.ir.Ir;
 import uk.co.real_logic.sbe.ir.IrDecoder;
@@ -30,6 +30,10 @@ import uk.co.real_logic.sbe.xml.XmlSchemaParser;
 import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * A tool for running the SBE parser, validator, and code generator.
@@ -49,9 +53,20 @@ import java.io.FileInputStream;
  * <li><code>sbe.validation.suppress.output</code>: Should the parser suppress output during validation? Defaults to false.</li>
  * <li><code>sbe.generate.stubs</code>: Generate stubs or not. Defaults to true.</li>
  * <li><code>sbe.generate.ir</code>: Generate IR or not. Defaults to false.</li>
+ * <li><code>sbe.generate.summary</code>: Print the number of generated files written and left unchanged. Defaults to
+ *     false.</li>
+ * <li><code>sbe.generate.delete.stale.files</code>: Delete files in the output directory which were not generated by
+ *     this run. Defaults to false.</li>
  * <li><code>sbe.java.generate.interfaces</code>: Generate interface hierarchy or not. Defaults to false.</li>
+ * <li><code>sbe.java.generate.unsafe.accessors</code>: Generate fixed field accessors without per field bounds checks.
+ * Defaults to false.</li>
+ * <li><code>sbe.java.generate.visitors</code>: Generate a visit method on decoders for walking messages with a
+ *     {@link uk.co.real_logic.sbe.codec.java.DecoderVisitor}. Defaults to false.</li>
+ * <li><code>sbe.java.generate.latest.version.decoders</code>: Generate an additional decoder per message without
+ *     acting version checks for messages of the latest schema version. Defaults to false.</li>
  * <li><code>sbe.target.language</code>: Target language for code generation, defaults to Java.</li>
- * <li><code>sbe.output.dir</code>: Target directory for code generation, defaults to current directory.</li>
+ * <li><code>sbe.output.dir</code>: Target directory for code generation, defaults to current directory. Existing
+ *     files are only rewritten when their generated content has changed.</li>
  * </ul>
  */
 public class SbeTool
@@ -86,6 +101,18 @@ public class SbeTool
      */
     public static final String GENERATE_IR = "sbe.generate.ir";
 
+    /**
+     * Boolean system property to print the number of generated files written and left unchanged. Defaults to false.
+     */
+    public static final String GENERATE_SUMMARY = "sbe.generate.summary";
+
+    /**
+     * Boolean system property to delete files under the output directory which were not generated by this run, such
+     * as the codecs of a message removed from a schema, so the directory only holds the current output. Only set this
+     * when the output directory is used for nothing else. Defaults to false.
+     */
+    public static final String DELETE_STALE_FILES = "sbe.generate.delete.stale.files";
+
     /**
      * Target language for generated code.
      */
@@ -121,6 +148,32 @@ public class SbeTool
      */
     public static final String JAVA_GENERATE_INTERFACES = "sbe.java.generate.interfaces";
 
+    /**
+     * Boolean system property to turn on or off generation of fixed length field accessors which address memory
+     * directly after a single capacity check on wrap, rather than bounds checking each access. Defaults to false.
+     *
+     * Only suitable for trusted input where lengths have already been validated.
+     */
+    public static final String JAVA_GENERATE_UNSAFE_ACCESSORS = "sbe.java.generate.unsafe.accessors";
+
+    /**
+     * Boolean system property to turn on or off generation of a visit method on decoders which walks the message
+     * with a {@link uk.co.real_logic.sbe.codec.java.DecoderVisitor}. Defaults to false.
+     *
+     * Generated codecs then depend on sbe-tool for the visitor interface.
+     */
+    public static final String JAVA_GENERATE_VISITORS = "sbe.java.generate.visitors";
+
+    /**
+     * Boolean system property to turn on or off generation of a LatestVersionDecoder per message alongside the
+     * decoder. It only wraps messages with an acting version of at least the schema version and so has no acting
+     * version checks in its accessors. Defaults to false.
+     *
+     * Decoders can then be chosen once per message on wrap, using the LatestVersionDecoder when all peers are on
+     * the latest version of the schema.
+     */
+    public static final String JAVA_GENERATE_LATEST_VERSION_DECODERS = "sbe.java.generate.latest.version.decoders";
+
     /**
      * Boolean system property to turn on or off collapsing of nested namespaces in generated C++ stubs. Defaults to false.
      */
@@ -165,49 +218,61 @@ public class SbeTool
 
         for (final String fileName : args)
         {
-            final Ir ir;
-            if (fileName.endsWith(".xml"))
-            {
-                final String xsdFilename = System.getProperty(SbeTool.VALIDATION_XSD);
-                if (xsdFilename != null)
-                {
-                    validateAgainstSchema(fileName, xsdFilename);
-                }
-
-                ir = new IrGenerator().generate(parseSchema(fileName), System.getProperty(TARGET_NAMESPACE));
-            }
-            else if (fileName.endsWith(".sbeir"))
-            {
-                ir = new IrDecoder(fileName).decode();
-            }
-            else
+            if (!isSupportedFormat(fileName))
             {
                 System.err.println("Input file format not supported: " + fileName);
                 System.exit(-1);
                 return;
             }
+        }
 
-            final String outputDirName = System.getProperty(OUTPUT_DIR, ".");
-            if (Boolean.parseBoolean(System.getProperty(GENERATE_STUBS, "true")))
-            {
-                final String targetLanguage = System.getProperty(TARGET_LANGUAGE, "Java");
-
-                generate(ir, outputDirName, targetLanguage);
-            }
+        processSchemas(args);
+    }
 
-            if (Boolean.parseBoolean(System.getProperty(GENERATE_IR, "false")))
+    /**
+     * Run the tool within the current JVM, such as from a build tool, with options which would otherwise be given as
+     * system properties to {@link #main(String[])}.
+     * <p>
+     * The options are set as system properties for the duration of the run and the previous values restored after,
+     * as they are read throughout parsing and code generation, so runs within the same class loader are serialised.
+     *
+     * @param options   of the form {@link #OUTPUT_DIR} to value which apply for this run.
+     * @param fileNames of the message schemas or encoded IR to process.
+     * @throws Exception if an error occurs during process of the message schemas.
+     */
+    public static synchronized void run(final Map<String, String> options, final String... fileNames)
+        throws Exception
+    {
+        for (final String fileName : fileNames)
+        {
+            if (!isSupportedFormat(fileName))
             {
-                final File inputFile = new File(fileName);
-                final String inputFilename = inputFile.getName();
-
-                final int nameEnd = inputFilename.lastIndexOf('.');
-                final String namePart = inputFilename.substring(0, nameEnd);
+                throw new IllegalArgumentException("Input file format not supported: " + fileName);
+            }
+        }
 
-                final File fullPath = new File(outputDirName, namePart + ".sbeir");
+        final Map<String, String> previousValues = new HashMap<>();
+        for (final Map.Entry<String, String> option : options.entrySet())
+        {
+            previousValues.put(option.getKey(), System.getProperty(option.getKey()));
+            System.setProperty(option.getKey(), option.getValue());
+        }
 
-                try (final IrEncoder irEncoder = new IrEncoder(fullPath.getAbsolutePath(), ir))
+        try
+        {
+            processSchemas(fileNames);
+        }
+        finally
+        {
+            for (final Map.Entry<String, String> previousValue : previousValues.entrySet())
+            {
+                if (null == previousValue.getValue())
                 {
-                    irEncoder.encode();
+                    System.clearProperty(previousValue.getKey());
+                }
+                else
+                {
+                    System.setProperty(previousValue.getKey(), previousValue.getValue());
                 }
             }
         }
@@ -254,7 +319,8 @@ public class SbeTool
     }
 
     /**
-     * Generate SBE encoding and decoding stubs for a target language.
+     * Generate SBE encoding and decoding stubs for a target language. Only files whose content has changed are
+     * written so unchanged files keep their modification time.
      *
      * @param ir             for the parsed specification.
      * @param outputDirName  directory into which code will be generated.
@@ -263,10 +329,104 @@ public class SbeTool
      */
     public static void generate(final Ir ir, final String outputDirName, final String targetLanguage)
         throws Exception
+    {
+        generateChangedFiles(ir, outputDirName, targetLanguage);
+    }
+
+    /**
+     * Generate SBE encoding and decoding stubs for a target language as for {@link #generate(Ir, String, String)},
+     * returning the {@link ChangedFileOutputManager} used so the caller can see how many files were written and how
+     * many were left unchanged.
+     *
+     * @param ir             for the parsed specification.
+     * @param outputDirName  directory into which code will be generated.
+     * @param targetLanguage for the generated code.
+     * @return the {@link ChangedFileOutputManager} with the counts of files written and left unchanged.
+     * @throws Exception if an error occurs while generating the code.
+     */
+    public static ChangedFileOutputManager generateChangedFiles(
+        final Ir ir, final String outputDirName, final String targetLanguage)
+        throws Exception
     {
         final TargetCodeGenerator targetCodeGenerator = TargetCodeGenerator.get(targetLanguage);
-        final CodeGenerator codeGenerator = targetCodeGenerator.newInstance(ir, outputDirName);
+        final ChangedFileOutputManager outputManager = targetCodeGenerator.newOutputManager(ir, outputDirName);
+
+        targetCodeGenerator.newInstance(ir, outputManager).generate();
+
+        return outputManager;
+    }
+
+    private static boolean isSupportedFormat(final String fileName)
+    {
+        return fileName.endsWith(".xml") || fileName.endsWith(".sbeir");
+    }
 
-        codeGenerator.generate();
+    private static void processSchemas(final String[] fileNames) throws Exception
+    {
+        int writtenCount = 0;
+        int unchangedCount = 0;
+        final Set<File> generatedFiles = new HashSet<>();
+
+        for (final String fileName : fileNames)
+        {
+            final Ir ir;
+            if (fileName.endsWith(".xml"))
+            {
+                final String xsdFilename = System.getProperty(SbeTool.VALIDATION_XSD);
+                if (xsdFilename != null)
+                {
+                    validateAgainstSchema(fileName, xsdFilename);
+                }
+
+                ir = new IrGenerator().generate(parseSchema(fileName), System.getProperty(TARGET_NAMESPACE));
+            }
+            else
+            {
+                ir = new IrDecoder(fileName).decode();
+            }
+
+            final String outputDirName = System.getProperty(OUTPUT_DIR, ".");
+            if (Boolean.parseBoolean(System.getProperty(GENERATE_STUBS, "true")))
+            {
+                final String targetLanguage = System.getProperty(TARGET_LANGUAGE, "Java");
+
+                final ChangedFileOutputManager outputManager = generateChangedFiles(ir, outputDirName, targetLanguage);
+                writtenCount += outputManager.writtenCount();
+                unchangedCount += outputManager.unchangedCount();
+                generatedFiles.addAll(outputManager.generatedFiles());
+            }
+
+            if (Boolean.parseBoolean(System.getProperty(GENERATE_IR, "false")))
+            {
+                final File inputFile = new File(fileName);
+                final String inputFilename = inputFile.getName();
+
+                final int nameEnd = inputFilename.lastIndexOf('.');
+                final String namePart = inputFilename.substring(0, nameEnd);
+
+                final File fullPath = new File(outputDirName, namePart + ".sbeir");
+
+                try (final IrEncoder irEncoder = new IrEncoder(fullPath.getAbsolutePath(), ir))
+                {
+                    irEncoder.encode();
+                }
+                generatedFiles.add(fullPath);
+            }
+        }
+
+        int deletedCount = 0;
+        if (Boolean.parseBoolean(System.getProperty(DELETE_STALE_FILES, "false")))
+        {
+            deletedCount = ChangedFileOutputManager.deleteStaleFiles(
+                new File(System.getProperty(OUTPUT_DIR, ".")), generatedFiles);
+        }
+
+        if (Boolean.parseBoolean(System.getProperty(GENERATE_STUBS, "true")) &&
+            Boolean.parseBoolean(System.getProperty(GENERATE_SUMMARY, "false")))
+        {
+            System.out.format(
+                "SBE generated files: %d written, %d unchanged, %d stale deleted%n",
+                writtenCount, unchangedCount, deletedCount);
+        }
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.MutableDirectBuffer;
+
+/**
+ * Formats the bits of a long as an unsigned 64 bit decimal, as for UINT64, without the {@link java.math.BigInteger}
+ * or {@link String} allocation of {@link Long#toUnsignedString(long)}.
+ *
+ * Values above {@link Long#MAX_VALUE} are split into the quotient and remainder of division by 10, which the
+ * quotient of the value shifted right by one divided by 5 gives without an unsigned divide.
+ */
+public final class Uint64Formatter
+{
+    /**
+     * Maximum number of digits of an unsigned 64 bit decimal.
+     */
+    public static final int MAX_DIGITS = 20;
+
+    private Uint64Formatter()
+    {
+    }
+
+    /**
+     * Append a value as an unsigned decimal to a {@link StringBuilder}.
+     *
+     * @param sb    to append to.
+     * @param value to be treated as unsigned.
+     * @return the {@link StringBuilder} for a fluent API.
+     */
+    public static StringBuilder append(final StringBuilder sb, final long value)
+    {
+        if (value >= 0)
+        {
+            return sb.append(value);
+        }
+
+        final long quotient = (value >>> 1) / 5;
+
+        return sb.append(quotient).append((char)('0' + (value - (quotient * 10))));
+    }
+
+    /**
+     * Put a value as unsigned ASCII decimal digits into a buffer.
+     *
+     * @param buffer to put the digits into which must have capacity for them.
+     * @param index  at which the first digit is put.
+     * @param value  to be treated as unsigned.
+     * @return the number of digits put.
+     */
+    public static int putAscii(final MutableDirectBuffer buffer, final int index, final long value)
+    {
+        final int length = digitCount(value);
+        long remaining = value;
+        int i = index + length - 1;
+
+        if (remaining < 0)
+        {
+            final long quotient = (remaining >>> 1) / 5;
+            buffer.putByte(i--, (byte)('0' + (remaining - (quotient * 10))));
+            remaining = quotient;
+        }
+
+        do
+        {
+            final long quotient = remaining / 10;
+            buffer.putByte(i--, (byte)('0' + (remaining - (quotient * 10))));
+            remaining = quotient;
+        }
+        while (remaining != 0);
+
+        return length;
+    }
+
+    /**
+     * Number of decimal digits of a value treated as unsigned.
+     *
+     * @param value to be treated as unsigned.
+     * @return the number of decimal digits of the value.
+     */
+    public static int digitCount(final long value)
+    {
+        if (value < 0)
+        {
+            return Long.compareUnsigned(value, -8446744073709551616L) >= 0 ? MAX_DIGITS : MAX_DIGITS - 1;
+        }
+
+        int digits = 1;
+        long threshold = 10;
+        while (digits < MAX_DIGITS - 1 && value >= threshold)
+        {
+            digits++;
+            threshold *= 10;
+        }
+
+        return digits;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Abstract {@link DecoderVisitor} that can be extended when not all callback methods are required.
+ *
+ * By extending this class their is a possibility for the optimizer to elide unused methods otherwise
+ * requiring polymorphic dispatch.
+ */
+public abstract class AbstractDecoderVisitor implements DecoderVisitor
+{
+    public void onBeginMessage(final String name, final int templateId, final int actingVersion)
+    {
+        // no op
+    }
+
+    public void onEndMessage(final String name, final int templateId)
+    {
+        // no op
+    }
+
+    public void onLong(final String name, final int id, final long value)
+    {
+        // no op
+    }
+
+    public void onUnsignedLong(final String name, final int id, final long value)
+    {
+        // no op
+    }
+
+    public void onDouble(final String name, final int id, final double value)
+    {
+        // no op
+    }
+
+    public void onChar(final String name, final int id, final byte value)
+    {
+        // no op
+    }
+
+    public void onCharArray(
+        final String name, final int id, final DirectBuffer buffer, final int offset, final int length)
+    {
+        // no op
+    }
+
+    public void onBeginArray(final String name, final int id, final int length)
+    {
+        // no op
+    }
+
+    public void onEndArray(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onEnum(final String name, final int id, final Enum<?> value)
+    {
+        // no op
+    }
+
+    public void onBeginSet(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onChoice(final String name, final boolean isSet)
+    {
+        // no op
+    }
+
+    public void onEndSet(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onBeginComposite(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onEndComposite(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onBeginGroup(final String name, final int id, final int count)
+    {
+        // no op
+    }
+
+    public void onBeginGroupEntry(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onEndGroupEntry(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onEndGroup(final String name, final int id)
+    {
+        // no op
+    }
+
+    public void onVarData(
+        final String name, final int id, final DirectBuffer buffer, final int offset, final int length)
+    {
+        // no op
+    }
+}
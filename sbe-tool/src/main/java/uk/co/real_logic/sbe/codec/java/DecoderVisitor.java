@@ -0,0 +1,207 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Callback interface for walking a message with the <code>visit</code> method of decoders generated with
+ * {@link uk.co.real_logic.sbe.SbeTool#JAVA_GENERATE_VISITORS} set, in schema order and without reflection or
+ * allocation.
+ *
+ * Names are as given in the schema and ids are those of the fields, or {@link uk.co.real_logic.sbe.ir.Token#INVALID_ID}
+ * for the members of a composite. Constant fields and fields not present in the acting version are not visited.
+ *
+ * If all methods are not required then consider extending {@link AbstractDecoderVisitor}
+ * for potential performance benefits and simpler code.
+ */
+public interface DecoderVisitor
+{
+    /**
+     * Called on beginning the visit of a message.
+     *
+     * @param name          of the message.
+     * @param templateId    of the message.
+     * @param actingVersion of the encoded message.
+     */
+    void onBeginMessage(String name, int templateId, int actingVersion);
+
+    /**
+     * Called on end of the visit of a message.
+     *
+     * @param name       of the message.
+     * @param templateId of the message.
+     */
+    void onEndMessage(String name, int templateId);
+
+    /**
+     * Signed integer, or unsigned integer of up to 32 bits, encountered.
+     *
+     * @param name  of the field.
+     * @param id    of the field.
+     * @param value of the field.
+     */
+    void onLong(String name, int id, long value);
+
+    /**
+     * Unsigned 64 bit integer encountered, see {@link Long#toUnsignedString(long)}.
+     *
+     * @param name  of the field.
+     * @param id    of the field.
+     * @param value of the field as the bits of an unsigned long.
+     */
+    void onUnsignedLong(String name, int id, long value);
+
+    /**
+     * Float or double encountered.
+     *
+     * @param name  of the field.
+     * @param id    of the field.
+     * @param value of the field.
+     */
+    void onDouble(String name, int id, double value);
+
+    /**
+     * Single char encountered.
+     *
+     * @param name  of the field.
+     * @param id    of the field.
+     * @param value of the field.
+     */
+    void onChar(String name, int id, byte value);
+
+    /**
+     * Fixed length char array encountered, which will be padded with nulls when the value is shorter.
+     *
+     * @param name   of the field.
+     * @param id     of the field.
+     * @param buffer containing the encoded message.
+     * @param offset at which the array begins.
+     * @param length of the array.
+     */
+    void onCharArray(String name, int id, DirectBuffer buffer, int offset, int length);
+
+    /**
+     * Fixed length array of a type other than char encountered. The elements follow as calls for their type.
+     *
+     * @param name   of the field.
+     * @param id     of the field.
+     * @param length of the array.
+     */
+    void onBeginArray(String name, int id, int length);
+
+    /**
+     * Called on end of a fixed length array.
+     *
+     * @param name of the field.
+     * @param id   of the field.
+     */
+    void onEndArray(String name, int id);
+
+    /**
+     * Enum encountered.
+     *
+     * @param name  of the field.
+     * @param id    of the field.
+     * @param value of the field.
+     */
+    void onEnum(String name, int id, Enum<?> value);
+
+    /**
+     * BitSet encountered. Each choice follows as a call to {@link #onChoice(String, boolean)}.
+     *
+     * @param name of the field.
+     * @param id   of the field.
+     */
+    void onBeginSet(String name, int id);
+
+    /**
+     * Choice of a BitSet encountered.
+     *
+     * @param name  of the choice.
+     * @param isSet is the choice set.
+     */
+    void onChoice(String name, boolean isSet);
+
+    /**
+     * Called on end of a BitSet.
+     *
+     * @param name of the field.
+     * @param id   of the field.
+     */
+    void onEndSet(String name, int id);
+
+    /**
+     * Composite encountered. The members follow as calls for their type.
+     *
+     * @param name of the field.
+     * @param id   of the field.
+     */
+    void onBeginComposite(String name, int id);
+
+    /**
+     * Called on end of a composite.
+     *
+     * @param name of the field.
+     * @param id   of the field.
+     */
+    void onEndComposite(String name, int id);
+
+    /**
+     * Repeating group encountered. The entries follow between calls to {@link #onBeginGroupEntry(String, int)}
+     * and {@link #onEndGroupEntry(String, int)}.
+     *
+     * @param name  of the group.
+     * @param id    of the group.
+     * @param count of entries in the group.
+     */
+    void onBeginGroup(String name, int id, int count);
+
+    /**
+     * Called on beginning an entry of a repeating group.
+     *
+     * @param name of the group.
+     * @param id   of the group.
+     */
+    void onBeginGroupEntry(String name, int id);
+
+    /**
+     * Called on end of an entry of a repeating group.
+     *
+     * @param name of the group.
+     * @param id   of the group.
+     */
+    void onEndGroupEntry(String name, int id);
+
+    /**
+     * Called on end of a repeating group.
+     *
+     * @param name of the group.
+     * @param id   of the group.
+     */
+    void onEndGroup(String name, int id);
+
+    /**
+     * Variable length data encountered.
+     *
+     * @param name   of the field.
+     * @param id     of the field.
+     * @param buffer containing the encoded message.
+     * @param offset at which the data begins.
+     * @param length of the data.
+     */
+    void onVarData(String name, int id, DirectBuffer buffer, int offset, int length);
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.DirectBuffer;
+
+/**
+ * Callback for each length prefixed message read by a {@link FramedMessageReader}.
+ */
+@FunctionalInterface
+public interface FrameHandler
+{
+    /**
+     * A complete message, beginning with its message header, is available. The buffer is only valid for the duration
+     * of the callback as it is reused for subsequent reads.
+     *
+     * @param buffer containing the message.
+     * @param offset at which the message header begins.
+     * @param length of the message including its header.
+     */
+    void onFrame(DirectBuffer buffer, int offset, int length);
+}
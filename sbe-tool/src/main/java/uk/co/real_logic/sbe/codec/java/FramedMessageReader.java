@@ -0,0 +1,161 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.Verify;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * Reads messages framed with a little endian int length prefix from a channel, such as a
+ * {@link java.nio.channels.SocketChannel} or {@link java.nio.channels.FileChannel}, into a reused direct buffer.
+ * <p>
+ * Intended to be run one instance per connection on its own thread, blocking in the channel read. It holds no
+ * thread local state and takes no locks so it is suitable for running on virtual threads. It is not thread safe.
+ */
+public class FramedMessageReader
+{
+    /**
+     * Length of the prefix before each message.
+     */
+    public static final int FRAME_HEADER_LENGTH = 4;
+
+    private final ReadableByteChannel channel;
+    private final int maxMessageLength;
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer buffer;
+    private int readOffset;
+
+    /**
+     * Create a reader with a buffer large enough to hold at least two messages of the maximum length.
+     *
+     * @param channel          to read from.
+     * @param maxMessageLength of any message, beyond which a frame is considered corrupt.
+     */
+    public FramedMessageReader(final ReadableByteChannel channel, final int maxMessageLength)
+    {
+        this(channel, maxMessageLength, Math.max(64 * 1024, 2 * (FRAME_HEADER_LENGTH + maxMessageLength)));
+    }
+
+    /**
+     * Create a reader.
+     *
+     * @param channel          to read from.
+     * @param maxMessageLength of any message, beyond which a frame is considered corrupt.
+     * @param bufferCapacity   of the reused read buffer which must hold at least one frame of maximum length.
+     */
+    public FramedMessageReader(final ReadableByteChannel channel, final int maxMessageLength, final int bufferCapacity)
+    {
+        Verify.notNull(channel, "channel");
+        if (maxMessageLength <= 0)
+        {
+            throw new IllegalArgumentException("maxMessageLength must be positive: " + maxMessageLength);
+        }
+
+        if (bufferCapacity < FRAME_HEADER_LENGTH + maxMessageLength)
+        {
+            throw new IllegalArgumentException("bufferCapacity too small for maxMessageLength: " + bufferCapacity);
+        }
+
+        this.channel = channel;
+        this.maxMessageLength = maxMessageLength;
+        byteBuffer = ByteBuffer.allocateDirect(bufferCapacity);
+        buffer = new UnsafeBuffer(byteBuffer);
+    }
+
+    /**
+     * The buffer into which messages are read and passed to the {@link FrameHandler}, for use with codecs generated
+     * against {@link UnsafeBuffer} rather than {@link org.agrona.DirectBuffer}.
+     *
+     * @return the buffer into which messages are read.
+     */
+    public UnsafeBuffer buffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Read from the channel once, blocking if the channel is in blocking mode, and deliver all complete messages.
+     *
+     * @param handler to be called for each complete message.
+     * @return the number of messages delivered or -1 if the channel has reached end of stream between messages.
+     * @throws EOFException if the channel reaches end of stream part way through a message.
+     * @throws IOException  if the channel fails or a frame length is outside the valid range.
+     */
+    public int read(final FrameHandler handler) throws IOException
+    {
+        compact();
+
+        final int bytesRead = channel.read(byteBuffer);
+        if (bytesRead < 0)
+        {
+            if (byteBuffer.position() > 0)
+            {
+                throw new EOFException("end of stream with partial frame: bytes=" + byteBuffer.position());
+            }
+
+            return -1;
+        }
+
+        final int limit = byteBuffer.position();
+        int offset = readOffset;
+        int messageCount = 0;
+
+        while (limit - offset >= FRAME_HEADER_LENGTH)
+        {
+            final int length = buffer.getInt(offset, ByteOrder.LITTLE_ENDIAN);
+            if (length < 0 || length > maxMessageLength)
+            {
+                throw new IOException("invalid frame length: " + length);
+            }
+
+            if (limit - offset - FRAME_HEADER_LENGTH < length)
+            {
+                break;
+            }
+
+            handler.onFrame(buffer, offset + FRAME_HEADER_LENGTH, length);
+            offset += FRAME_HEADER_LENGTH + length;
+            ++messageCount;
+        }
+
+        readOffset = offset;
+
+        return messageCount;
+    }
+
+    private void compact()
+    {
+        final int position = byteBuffer.position();
+        if (readOffset == position)
+        {
+            byteBuffer.clear();
+        }
+        else if (readOffset > 0)
+        {
+            final int remaining = position - readOffset;
+            buffer.putBytes(0, buffer, readOffset, remaining);
+            byteBuffer.clear().position(remaining);
+        }
+
+        readOffset = 0;
+    }
+}
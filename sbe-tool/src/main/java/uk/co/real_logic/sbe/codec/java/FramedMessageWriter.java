@@ -0,0 +1,159 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.Verify;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+
+import static uk.co.real_logic.sbe.codec.java.FramedMessageReader.FRAME_HEADER_LENGTH;
+
+/**
+ * Writes messages framed with a little endian int length prefix to a channel, in the format read by
+ * {@link FramedMessageReader}. Messages are batched in a reused direct buffer and can be encoded in place by
+ * claiming space with {@link #claim(int)} then committing the encoded length with {@link #commit(int)}.
+ * <p>
+ * Intended to be run one instance per connection on its own thread, blocking in the channel write. It holds no
+ * thread local state and takes no locks so it is suitable for running on virtual threads. It is not thread safe.
+ */
+public class FramedMessageWriter
+{
+    private final WritableByteChannel channel;
+    private final ByteBuffer byteBuffer;
+    private final UnsafeBuffer buffer;
+    private int claimedOffset = -1;
+    private int claimedLength;
+
+    /**
+     * Create a writer.
+     *
+     * @param channel        to write to.
+     * @param bufferCapacity of the reused write buffer which bounds the length of a message.
+     */
+    public FramedMessageWriter(final WritableByteChannel channel, final int bufferCapacity)
+    {
+        Verify.notNull(channel, "channel");
+        if (bufferCapacity <= FRAME_HEADER_LENGTH)
+        {
+            throw new IllegalArgumentException("bufferCapacity too small: " + bufferCapacity);
+        }
+
+        this.channel = channel;
+        byteBuffer = ByteBuffer.allocateDirect(bufferCapacity);
+        buffer = new UnsafeBuffer(byteBuffer);
+    }
+
+    /**
+     * The buffer into which messages are encoded after a {@link #claim(int)}.
+     *
+     * @return the buffer into which messages are encoded after a {@link #claim(int)}.
+     */
+    public MutableDirectBuffer buffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Claim space for a message, flushing buffered messages first if there is not enough space.
+     *
+     * @param maxLength of the message to be encoded.
+     * @return the offset in {@link #buffer()} at which to encode the message header.
+     * @throws IOException           if a flush to the channel fails.
+     * @throws IllegalStateException if a flush is needed while a previous claim is not committed.
+     */
+    public int claim(final int maxLength) throws IOException
+    {
+        if (maxLength < 0 || maxLength > buffer.capacity() - FRAME_HEADER_LENGTH)
+        {
+            throw new IllegalArgumentException("maxLength outside of buffer capacity: " + maxLength);
+        }
+
+        if (byteBuffer.position() + FRAME_HEADER_LENGTH + maxLength > buffer.capacity())
+        {
+            flush();
+        }
+
+        claimedOffset = byteBuffer.position() + FRAME_HEADER_LENGTH;
+        claimedLength = maxLength;
+
+        return claimedOffset;
+    }
+
+    /**
+     * Commit the message encoded in the claimed space.
+     *
+     * @param length of the encoded message including its header.
+     */
+    public void commit(final int length)
+    {
+        if (claimedOffset < 0)
+        {
+            throw new IllegalStateException("no claim to commit");
+        }
+
+        if (length < 0 || length > claimedLength)
+        {
+            throw new IllegalArgumentException("length outside of claim: " + length);
+        }
+
+        buffer.putInt(claimedOffset - FRAME_HEADER_LENGTH, length, ByteOrder.LITTLE_ENDIAN);
+        byteBuffer.position(claimedOffset + length);
+        claimedOffset = -1;
+    }
+
+    /**
+     * Copy an encoded message into the write buffer.
+     *
+     * @param src    containing the message.
+     * @param offset at which the message header begins.
+     * @param length of the message including its header.
+     * @throws IOException if a flush to the channel fails.
+     */
+    public void write(final DirectBuffer src, final int offset, final int length) throws IOException
+    {
+        final int claimOffset = claim(length);
+        buffer.putBytes(claimOffset, src, offset, length);
+        commit(length);
+    }
+
+    /**
+     * Write all buffered messages to the channel, blocking if the channel is in blocking mode.
+     *
+     * @throws IOException           if the channel fails.
+     * @throws IllegalStateException if a claim is outstanding as its frame header is not yet written.
+     */
+    public void flush() throws IOException
+    {
+        if (claimedOffset >= 0)
+        {
+            throw new IllegalStateException("cannot flush with an outstanding claim at offset: " + claimedOffset);
+        }
+
+        byteBuffer.flip();
+        while (byteBuffer.hasRemaining())
+        {
+            channel.write(byteBuffer);
+        }
+
+        byteBuffer.clear();
+    }
+}
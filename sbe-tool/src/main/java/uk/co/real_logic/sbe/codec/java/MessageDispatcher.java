@@ -0,0 +1,145 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.DirectBuffer;
+import org.agrona.Verify;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.sbe.MessageDecoderFlyweight;
+import uk.co.real_logic.sbe.ir.HeaderStructure;
+import uk.co.real_logic.sbe.otf.OtfHeaderDecoder;
+
+/**
+ * {@link FrameHandler} which dispatches messages of many schemas and versions to generated decoders, selected by the
+ * schema id, version and template id in the message header without allocation.
+ * <p>
+ * All schemas must share the message header layout given on construction. Versions are selected as described for
+ * {@link SchemaRegistry}. Codecs need to be generated with {@link uk.co.real_logic.sbe.SbeTool#JAVA_GENERATE_INTERFACES}
+ * set. Decoders are not thread safe so each thread should have its own dispatcher.
+ */
+public class MessageDispatcher implements FrameHandler
+{
+    /**
+     * Callback for a message with the decoder registered for it wrapping the message.
+     *
+     * @param <D> type of the decoder.
+     */
+    @FunctionalInterface
+    public interface MessageHandler<D extends MessageDecoderFlyweight>
+    {
+        /**
+         * A message has been dispatched.
+         *
+         * @param decoder wrapping the message which is only valid for the duration of the callback.
+         */
+        void onMessage(D decoder);
+    }
+
+    private final OtfHeaderDecoder headerDecoder;
+    private final SchemaRegistry<Int2ObjectHashMap<Registration>> registrationsBySchema = new SchemaRegistry<>();
+
+    public MessageDispatcher(final HeaderStructure headerStructure)
+    {
+        Verify.notNull(headerStructure, "headerStructure");
+
+        headerDecoder = new OtfHeaderDecoder(headerStructure);
+    }
+
+    /**
+     * Register a decoder and the handler for messages of its schema id, schema version and template id.
+     *
+     * @param decoder to wrap messages.
+     * @param handler for the decoded messages.
+     * @param <D>     type of the decoder.
+     * @return this for a fluent API.
+     */
+    public <D extends MessageDecoderFlyweight> MessageDispatcher register(
+        final D decoder, final MessageHandler<? super D> handler)
+    {
+        Verify.notNull(decoder, "decoder");
+        Verify.notNull(handler, "handler");
+
+        final int schemaId = decoder.sbeSchemaId();
+        final int version = decoder.sbeSchemaVersion();
+
+        Int2ObjectHashMap<Registration> registrationByTemplateId = registrationsBySchema.getExact(schemaId, version);
+        if (null == registrationByTemplateId)
+        {
+            registrationByTemplateId = new Int2ObjectHashMap<>();
+            registrationsBySchema.put(schemaId, version, registrationByTemplateId);
+        }
+
+        registrationByTemplateId.put(decoder.sbeTemplateId(), new Registration(decoder, handler));
+
+        return this;
+    }
+
+    /**
+     * Dispatch a message to the handler registered for it.
+     *
+     * @param buffer containing the message.
+     * @param offset at which the message header begins.
+     * @return true if the message was dispatched or false if no decoder is registered for it.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean dispatch(final DirectBuffer buffer, final int offset)
+    {
+        final int version = headerDecoder.getSchemaVersion(buffer, offset);
+        final Int2ObjectHashMap<Registration> registrationByTemplateId =
+            registrationsBySchema.get(headerDecoder.getSchemaId(buffer, offset), version);
+        if (null == registrationByTemplateId)
+        {
+            return false;
+        }
+
+        final Registration registration = registrationByTemplateId.get(headerDecoder.getTemplateId(buffer, offset));
+        if (null == registration)
+        {
+            return false;
+        }
+
+        final MessageDecoderFlyweight decoder = registration.decoder;
+        decoder.wrap(
+            buffer, offset + headerDecoder.encodedLength(), headerDecoder.getBlockLength(buffer, offset), version);
+        registration.handler.onMessage(decoder);
+
+        return true;
+    }
+
+    public void onFrame(final DirectBuffer buffer, final int offset, final int length)
+    {
+        if (!dispatch(buffer, offset))
+        {
+            throw new IllegalArgumentException(
+                "no decoder registered for schemaId=" + headerDecoder.getSchemaId(buffer, offset) +
+                " version=" + headerDecoder.getSchemaVersion(buffer, offset) +
+                " templateId=" + headerDecoder.getTemplateId(buffer, offset));
+        }
+    }
+
+    private static final class Registration
+    {
+        final MessageDecoderFlyweight decoder;
+        @SuppressWarnings("rawtypes")
+        final MessageHandler handler;
+
+        Registration(final MessageDecoderFlyweight decoder, final MessageHandler<?> handler)
+        {
+            this.decoder = decoder;
+            this.handler = handler;
+        }
+    }
+}
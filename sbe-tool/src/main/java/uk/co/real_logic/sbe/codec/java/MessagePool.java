@@ -0,0 +1,333 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.concurrent.AtomicBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+
+import static org.agrona.BitUtil.CACHE_LINE_LENGTH;
+import static org.agrona.BitUtil.align;
+
+/**
+ * Preallocated slab of fixed length slots in which messages can be encoded and then handed between threads by slot
+ * index rather than by copying the message or allocating a new flyweight.
+ * <p>
+ * A slot moves through the states free, claimed and committed. Claiming and releasing a slot is lock-free and may
+ * be done from any thread. The thread which claimed a slot encodes a message into it and commits it with the
+ * template id, block length and version needed to decode it. The slot index can then be passed to another thread
+ * which decodes the message and releases the slot once done.
+ * <p>
+ * Flyweights are not thread safe so each thread should wrap slots with its own flyweights, see
+ * {@link MessagePoolCodecs}.
+ */
+public class MessagePool
+{
+    /**
+     * Returned from {@link #claim()} when no slot is free.
+     */
+    public static final int NO_SLOT = -1;
+
+    private static final int FREE = 0;
+    private static final int CLAIMED = 1;
+    private static final int COMMITTED = 2;
+
+    private static final int STATE_OFFSET = 0;
+    private static final int TEMPLATE_ID_OFFSET = 4;
+    private static final int BLOCK_LENGTH_OFFSET = 8;
+    private static final int VERSION_OFFSET = 12;
+    private static final int LENGTH_OFFSET = 16;
+    private static final int METADATA_LENGTH = CACHE_LINE_LENGTH;
+    private static final int CLAIM_HINT_OFFSET = 0;
+
+    private final int slotCount;
+    private final int slotLength;
+    private final UnsafeBuffer buffer;
+    private final UnsafeBuffer[] slotBuffers;
+    private final AtomicBuffer metadata;
+    private final AtomicBuffer claimHint;
+
+    /**
+     * Create a pool of slots in a single direct buffer.
+     *
+     * @param slotCount  number of messages which can be held at once.
+     * @param slotLength maximum encoded length of a message, which will be aligned to {@link Long#BYTES}.
+     */
+    public MessagePool(final int slotCount, final int slotLength)
+    {
+        if (slotCount <= 0)
+        {
+            throw new IllegalArgumentException("slotCount must be positive: " + slotCount);
+        }
+
+        if (slotLength <= 0)
+        {
+            throw new IllegalArgumentException("slotLength must be positive: " + slotLength);
+        }
+
+        if (slotLength > Integer.MAX_VALUE - (Long.BYTES - 1))
+        {
+            throw new IllegalArgumentException("slotLength too large to align: " + slotLength);
+        }
+
+        this.slotCount = slotCount;
+        this.slotLength = align(slotLength, Long.BYTES);
+
+        final int bufferCapacity = capacity(slotCount, this.slotLength, "slotLength");
+        final int metadataCapacity = capacity(slotCount, METADATA_LENGTH, "metadata length");
+
+        buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(bufferCapacity));
+        slotBuffers = new UnsafeBuffer[slotCount];
+        for (int i = 0; i < slotCount; i++)
+        {
+            slotBuffers[i] = new UnsafeBuffer(buffer, i * this.slotLength, this.slotLength);
+        }
+
+        metadata = new UnsafeBuffer(ByteBuffer.allocateDirect(metadataCapacity));
+        claimHint = new UnsafeBuffer(ByteBuffer.allocateDirect(CACHE_LINE_LENGTH * 2), CACHE_LINE_LENGTH, Integer.BYTES);
+    }
+
+    /**
+     * Number of slots in the pool.
+     *
+     * @return number of slots in the pool.
+     */
+    public int slotCount()
+    {
+        return slotCount;
+    }
+
+    /**
+     * Length in bytes of each slot.
+     *
+     * @return length in bytes of each slot.
+     */
+    public int slotLength()
+    {
+        return slotLength;
+    }
+
+    /**
+     * The buffer containing all slots.
+     *
+     * @return the buffer containing all slots.
+     */
+    public UnsafeBuffer buffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * View of a single slot with a capacity of {@link #slotLength()} so that bounds checked access cannot spill into
+     * the neighbouring slots, which may be owned by other threads. The view begins at offset 0 and is never rewrapped
+     * so it can be shared between threads.
+     *
+     * @param slotIndex of the slot.
+     * @return view of the slot.
+     */
+    public UnsafeBuffer slotBuffer(final int slotIndex)
+    {
+        checkSlotIndex(slotIndex);
+
+        return slotBuffers[slotIndex];
+    }
+
+    /**
+     * Offset in {@link #buffer()} at which a slot begins.
+     *
+     * @param slotIndex of the slot.
+     * @return offset in {@link #buffer()} at which a slot begins.
+     */
+    public int offset(final int slotIndex)
+    {
+        checkSlotIndex(slotIndex);
+
+        return slotIndex * slotLength;
+    }
+
+    /**
+     * Claim a free slot for encoding a message.
+     *
+     * @return the index of the claimed slot or {@link #NO_SLOT} if all slots are in use.
+     */
+    public int claim()
+    {
+        final int start = claimHint.getIntVolatile(CLAIM_HINT_OFFSET);
+
+        for (int i = 0; i < slotCount; i++)
+        {
+            int slotIndex = start + i;
+            if (slotIndex >= slotCount)
+            {
+                slotIndex -= slotCount;
+            }
+
+            final int stateOffset = slotIndex * METADATA_LENGTH + STATE_OFFSET;
+            if (FREE == metadata.getIntVolatile(stateOffset) && metadata.compareAndSetInt(stateOffset, FREE, CLAIMED))
+            {
+                claimHint.putIntOrdered(CLAIM_HINT_OFFSET, slotIndex + 1 < slotCount ? slotIndex + 1 : 0);
+
+                return slotIndex;
+            }
+        }
+
+        return NO_SLOT;
+    }
+
+    /**
+     * Commit a claimed slot once a message has been encoded into it so it can be decoded on another thread.
+     *
+     * @param slotIndex   of the claimed slot.
+     * @param templateId  of the encoded message.
+     * @param blockLength of the encoded message root block.
+     * @param version     of the schema the message was encoded with.
+     * @param length      of the encoded message.
+     */
+    public void commit(final int slotIndex, final int templateId, final int blockLength, final int version, final int length)
+    {
+        checkSlotIndex(slotIndex);
+        if (length < 0 || length > slotLength)
+        {
+            throw new IllegalArgumentException("length outside of slot: " + length);
+        }
+
+        final int metadataOffset = slotIndex * METADATA_LENGTH;
+        if (CLAIMED != metadata.getInt(metadataOffset + STATE_OFFSET))
+        {
+            throw new IllegalStateException("slot not claimed: " + slotIndex);
+        }
+
+        metadata.putInt(metadataOffset + TEMPLATE_ID_OFFSET, templateId);
+        metadata.putInt(metadataOffset + BLOCK_LENGTH_OFFSET, blockLength);
+        metadata.putInt(metadataOffset + VERSION_OFFSET, version);
+        metadata.putInt(metadataOffset + LENGTH_OFFSET, length);
+        metadata.putIntOrdered(metadataOffset + STATE_OFFSET, COMMITTED);
+    }
+
+    /**
+     * Is a slot committed and so ready to be decoded. This is a volatile read which makes the encoded message
+     * visible to the calling thread.
+     *
+     * @param slotIndex of the slot.
+     * @return true if the slot is committed.
+     */
+    public boolean isCommitted(final int slotIndex)
+    {
+        checkSlotIndex(slotIndex);
+
+        return COMMITTED == metadata.getIntVolatile(slotIndex * METADATA_LENGTH + STATE_OFFSET);
+    }
+
+    /**
+     * Template id of the message in a committed slot.
+     *
+     * @param slotIndex of the slot.
+     * @return template id of the message in a committed slot.
+     */
+    public int templateId(final int slotIndex)
+    {
+        return committedMetadata(slotIndex, TEMPLATE_ID_OFFSET);
+    }
+
+    /**
+     * Root block length of the message in a committed slot.
+     *
+     * @param slotIndex of the slot.
+     * @return root block length of the message in a committed slot.
+     */
+    public int blockLength(final int slotIndex)
+    {
+        return committedMetadata(slotIndex, BLOCK_LENGTH_OFFSET);
+    }
+
+    /**
+     * Schema version of the message in a committed slot.
+     *
+     * @param slotIndex of the slot.
+     * @return schema version of the message in a committed slot.
+     */
+    public int version(final int slotIndex)
+    {
+        return committedMetadata(slotIndex, VERSION_OFFSET);
+    }
+
+    /**
+     * Encoded length of the message in a committed slot.
+     *
+     * @param slotIndex of the slot.
+     * @return encoded length of the message in a committed slot.
+     */
+    public int length(final int slotIndex)
+    {
+        return committedMetadata(slotIndex, LENGTH_OFFSET);
+    }
+
+    /**
+     * Release a claimed or committed slot so it can be claimed again.
+     *
+     * @param slotIndex of the slot.
+     * @throws IllegalStateException if the slot is free or its state is changed concurrently, such as by another
+     *                               release of the same slot.
+     */
+    public void release(final int slotIndex)
+    {
+        checkSlotIndex(slotIndex);
+
+        final int stateOffset = slotIndex * METADATA_LENGTH + STATE_OFFSET;
+        final int state = metadata.getIntVolatile(stateOffset);
+        if (FREE == state)
+        {
+            throw new IllegalStateException("slot already free: " + slotIndex);
+        }
+
+        if (!metadata.compareAndSetInt(stateOffset, state, FREE))
+        {
+            throw new IllegalStateException("slot state changed during release: " + slotIndex);
+        }
+    }
+
+    private int committedMetadata(final int slotIndex, final int fieldOffset)
+    {
+        if (!isCommitted(slotIndex))
+        {
+            throw new IllegalStateException("slot not committed: " + slotIndex);
+        }
+
+        return metadata.getInt(slotIndex * METADATA_LENGTH + fieldOffset);
+    }
+
+    private void checkSlotIndex(final int slotIndex)
+    {
+        if (slotIndex < 0 || slotIndex >= slotCount)
+        {
+            throw new IndexOutOfBoundsException("slotIndex out of range: slotIndex=" + slotIndex);
+        }
+    }
+
+    private static int capacity(final int slotCount, final int length, final String lengthName)
+    {
+        try
+        {
+            return Math.multiplyExact(slotCount, length);
+        }
+        catch (final ArithmeticException ex)
+        {
+            throw new IllegalArgumentException(
+                "slotCount=" + slotCount + " * " + lengthName + "=" + length + " exceeds max buffer capacity");
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.Verify;
+import org.agrona.collections.Int2ObjectHashMap;
+import org.agrona.sbe.MessageDecoderFlyweight;
+import org.agrona.sbe.MessageEncoderFlyweight;
+
+/**
+ * Generated encoders and decoders registered by template id for wrapping the slots of a {@link MessagePool}.
+ * <p>
+ * Codecs need to be generated with {@link uk.co.real_logic.sbe.SbeTool#JAVA_GENERATE_INTERFACES} set. Flyweights
+ * are not thread safe so each thread should have its own instance over a shared {@link MessagePool}.
+ */
+public class MessagePoolCodecs
+{
+    private final MessagePool pool;
+    private final Int2ObjectHashMap<MessageEncoderFlyweight> encoderByTemplateId = new Int2ObjectHashMap<>();
+    private final Int2ObjectHashMap<MessageDecoderFlyweight> decoderByTemplateId = new Int2ObjectHashMap<>();
+
+    public MessagePoolCodecs(final MessagePool pool)
+    {
+        Verify.notNull(pool, "pool");
+
+        this.pool = pool;
+    }
+
+    /**
+     * The pool whose slots are wrapped.
+     *
+     * @return the pool whose slots are wrapped.
+     */
+    public MessagePool pool()
+    {
+        return pool;
+    }
+
+    /**
+     * Register an encoder to be used for messages of its template id.
+     *
+     * @param encoder to be used for messages of its template id.
+     * @return this for a fluent API.
+     */
+    public MessagePoolCodecs register(final MessageEncoderFlyweight encoder)
+    {
+        Verify.notNull(encoder, "encoder");
+        encoderByTemplateId.put(encoder.sbeTemplateId(), encoder);
+
+        return this;
+    }
+
+    /**
+     * Register a decoder to be used for messages of its template id.
+     *
+     * @param decoder to be used for messages of its template id.
+     * @return this for a fluent API.
+     */
+    public MessagePoolCodecs register(final MessageDecoderFlyweight decoder)
+    {
+        Verify.notNull(decoder, "decoder");
+        decoderByTemplateId.put(decoder.sbeTemplateId(), decoder);
+
+        return this;
+    }
+
+    /**
+     * Wrap the registered encoder for a template id over a claimed slot. The encoder wraps the
+     * {@link MessagePool#slotBuffer(int)} so an encode longer than the slot fails rather than overwriting the next slot.
+     *
+     * @param slotIndex  of a slot claimed with {@link MessagePool#claim()}.
+     * @param templateId of the message to be encoded.
+     * @param <E>        type of the registered encoder.
+     * @return the registered encoder wrapping the slot.
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends MessageEncoderFlyweight> E encoder(final int slotIndex, final int templateId)
+    {
+        final MessageEncoderFlyweight encoder = encoderByTemplateId.get(templateId);
+        if (null == encoder)
+        {
+            throw new IllegalArgumentException("no encoder registered for templateId: " + templateId);
+        }
+
+        encoder.wrap(pool.slotBuffer(slotIndex), 0);
+
+        return (E)encoder;
+    }
+
+    /**
+     * Commit a slot with the message encoded by an encoder wrapping it.
+     *
+     * @param slotIndex of the slot.
+     * @param encoder   which has encoded the message in the slot.
+     */
+    public void commit(final int slotIndex, final MessageEncoderFlyweight encoder)
+    {
+        pool.commit(
+            slotIndex, encoder.sbeTemplateId(), encoder.sbeBlockLength(), encoder.sbeSchemaVersion(), encoder.encodedLength());
+    }
+
+    /**
+     * Wrap the registered decoder for the template id of the message in a committed slot.
+     *
+     * @param slotIndex of the committed slot.
+     * @param <D>       type of the registered decoder.
+     * @return the registered decoder wrapping the slot.
+     */
+    @SuppressWarnings("unchecked")
+    public <D extends MessageDecoderFlyweight> D decoder(final int slotIndex)
+    {
+        final int templateId = pool.templateId(slotIndex);
+        final MessageDecoderFlyweight decoder = decoderByTemplateId.get(templateId);
+        if (null == decoder)
+        {
+            throw new IllegalArgumentException("no decoder registered for templateId: " + templateId);
+        }
+
+        decoder.wrap(pool.slotBuffer(slotIndex), 0, pool.blockLength(slotIndex), pool.version(slotIndex));
+
+        return (D)decoder;
+    }
+}
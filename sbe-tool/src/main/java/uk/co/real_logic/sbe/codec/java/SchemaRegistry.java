@@ -0,0 +1,98 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.Verify;
+import org.agrona.collections.BiInt2ObjectMap;
+import org.agrona.collections.Int2IntHashMap;
+import org.agrona.collections.Int2ObjectHashMap;
+
+/**
+ * Values, such as the {@link uk.co.real_logic.sbe.ir.Ir} or decoders for a schema, registered by schema id and
+ * version for selecting from a message header in O(1) without allocation.
+ * <p>
+ * When a version of a schema is not registered the latest registered version of the schema is used, as a newer
+ * version can be decoded by skipping what it has added and an older version is decoded with its acting version.
+ *
+ * @param <T> type of the registered values.
+ */
+public class SchemaRegistry<T>
+{
+    private static final int NO_VERSION = -1;
+
+    private final BiInt2ObjectMap<T> valueBySchemaIdAndVersion = new BiInt2ObjectMap<>();
+    private final Int2ObjectHashMap<T> latestValueBySchemaId = new Int2ObjectHashMap<>();
+    private final Int2IntHashMap latestVersionBySchemaId = new Int2IntHashMap(NO_VERSION);
+
+    /**
+     * Register a value for a version of a schema, replacing any previously registered for it.
+     *
+     * @param schemaId of the schema.
+     * @param version  of the schema.
+     * @param value    to be registered.
+     * @return the value previously registered for the schema id and version or null if none.
+     */
+    public T put(final int schemaId, final int version, final T value)
+    {
+        Verify.notNull(value, "value");
+
+        final int latestVersion = latestVersionBySchemaId.get(schemaId);
+        if (NO_VERSION == latestVersion || version >= latestVersion)
+        {
+            latestVersionBySchemaId.put(schemaId, version);
+            latestValueBySchemaId.put(schemaId, value);
+        }
+
+        return valueBySchemaIdAndVersion.put(schemaId, version, value);
+    }
+
+    /**
+     * Get the value registered for a version of a schema, or for the latest registered version of the schema if that
+     * version is not registered.
+     *
+     * @param schemaId of the schema.
+     * @param version  of the schema.
+     * @return the registered value or null if the schema id is not registered.
+     */
+    public T get(final int schemaId, final int version)
+    {
+        final T value = valueBySchemaIdAndVersion.get(schemaId, version);
+
+        return null != value ? value : latestValueBySchemaId.get(schemaId);
+    }
+
+    /**
+     * Get the value registered for exactly a version of a schema.
+     *
+     * @param schemaId of the schema.
+     * @param version  of the schema.
+     * @return the registered value or null if the version of the schema is not registered.
+     */
+    public T getExact(final int schemaId, final int version)
+    {
+        return valueBySchemaIdAndVersion.get(schemaId, version);
+    }
+
+    /**
+     * The number of schema id and version combinations registered.
+     *
+     * @return the number of schema id and version combinations registered.
+     */
+    public int size()
+    {
+        return valueBySchemaIdAndVersion.size();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation;
+
+import org.agrona.Verify;
+import org.agrona.generation.OutputManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link OutputManager} which buffers each generated source file in memory and only writes it out when the
+ * content differs from the file already in the output directory. Unchanged files keep their modification time so
+ * build tools do not recompile sources which have not changed. The character encoding is UTF-8.
+ */
+public class ChangedFileOutputManager implements OutputManager
+{
+    private final File outputDir;
+    private final String fileSuffix;
+    private final Set<File> generatedFiles = new HashSet<>();
+    private int writtenCount;
+    private int unchangedCount;
+
+    /**
+     * Create a new {@link OutputManager} for generating source files into a directory.
+     *
+     * @param outputDir  into which the source files are generated, which will be created if it does not exist.
+     * @param fileSuffix to be appended to the name of each output to give the file name, e.g. ".java".
+     */
+    public ChangedFileOutputManager(final File outputDir, final String fileSuffix)
+    {
+        Verify.notNull(outputDir, "outputDir");
+        Verify.notNull(fileSuffix, "fileSuffix");
+
+        if (!outputDir.exists() && !outputDir.mkdirs())
+        {
+            throw new IllegalStateException("Unable to create directory: " + outputDir);
+        }
+
+        this.outputDir = outputDir;
+        this.fileSuffix = fileSuffix;
+    }
+
+    /**
+     * Create a new output which will be a source file in the output directory when closed, unless a file with the
+     * same content already exists.
+     *
+     * @param name of the output without the file suffix.
+     * @return a {@link Writer} to which the source code should be written and then closed.
+     */
+    public Writer createOutput(final String name) throws IOException
+    {
+        return new ChangedFileWriter(new File(outputDir, name + fileSuffix));
+    }
+
+    /**
+     * Directory into which the source files are generated.
+     *
+     * @return the directory into which the source files are generated.
+     */
+    public File outputDir()
+    {
+        return outputDir;
+    }
+
+    /**
+     * Number of files which have been written because they were new or their content changed.
+     *
+     * @return number of files which have been written.
+     */
+    public int writtenCount()
+    {
+        return writtenCount;
+    }
+
+    /**
+     * Number of files which have not been written because the existing file had the same content.
+     *
+     * @return number of files which have not been written.
+     */
+    public int unchangedCount()
+    {
+        return unchangedCount;
+    }
+
+    /**
+     * Files which have been generated, whether written or left unchanged.
+     *
+     * @return the files which have been generated.
+     */
+    public Set<File> generatedFiles()
+    {
+        return Collections.unmodifiableSet(generatedFiles);
+    }
+
+    /**
+     * Delete the files under a directory which are not in a set of generated files, such as those left by a message
+     * removed from a schema, and then any directories left empty. The directory itself is kept.
+     *
+     * @param dir            under which to delete files.
+     * @param generatedFiles to be kept.
+     * @return the number of files deleted.
+     * @throws IOException if a file cannot be deleted.
+     */
+    public static int deleteStaleFiles(final File dir, final Collection<File> generatedFiles) throws IOException
+    {
+        if (!dir.isDirectory())
+        {
+            return 0;
+        }
+
+        final Set<Path> keep = new HashSet<>();
+        for (final File file : generatedFiles)
+        {
+            keep.add(normalise(file));
+        }
+
+        final List<Path> paths;
+        try (final Stream<Path> stream = Files.walk(dir.toPath()))
+        {
+            paths = stream.sorted(Comparator.reverseOrder()).collect(Collectors.toList());
+        }
+
+        final Path root = normalise(dir);
+        int deletedCount = 0;
+        for (final Path path : paths)
+        {
+            final Path normalisedPath = path.toAbsolutePath().normalize();
+            if (Files.isDirectory(normalisedPath))
+            {
+                if (!normalisedPath.equals(root) && isEmpty(normalisedPath))
+                {
+                    Files.delete(normalisedPath);
+                }
+            }
+            else if (!keep.contains(normalisedPath))
+            {
+                Files.delete(normalisedPath);
+                deletedCount++;
+            }
+        }
+
+        return deletedCount;
+    }
+
+    private static Path normalise(final File file)
+    {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static boolean isEmpty(final Path dir) throws IOException
+    {
+        try (final Stream<Path> entries = Files.list(dir))
+        {
+            return !entries.findAny().isPresent();
+        }
+    }
+
+    private void close(final File file, final String content) throws IOException
+    {
+        generatedFiles.add(file);
+
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+
+        if (file.length() == bytes.length && file.isFile() && Arrays.equals(bytes, Files.readAllBytes(file.toPath())))
+        {
+            unchangedCount++;
+        }
+        else
+        {
+            Files.write(file.toPath(), bytes);
+            writtenCount++;
+        }
+    }
+
+    private final class ChangedFileWriter extends StringWriter
+    {
+        private final File file;
+        private boolean isClosed;
+
+        private ChangedFileWriter(final File file)
+        {
+            super(4096);
+            this.file = file;
+        }
+
+        public void close() throws IOException
+        {
+            if (!isClosed)
+            {
+                isClosed = true;
+                ChangedFileOutputManager.this.close(file, toString());
+            }
+        }
+    }
+}
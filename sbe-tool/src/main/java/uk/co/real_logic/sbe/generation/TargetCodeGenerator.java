@@ -15,12 +15,12 @@
  */
 package uk.co.real_logic.sbe.generation;
 
-import org.agrona.generation.PackageOutputManager;
+import org.agrona.generation.OutputManager;
 import uk.co.real_logic.sbe.generation.cpp.CppGenerator;
-import uk.co.real_logic.sbe.generation.cpp.NamespaceOutputManager;
 import uk.co.real_logic.sbe.generation.java.JavaGenerator;
 import uk.co.real_logic.sbe.ir.Ir;
 
+import java.io.File;
 import java.io.IOException;
 
 import static uk.co.real_logic.sbe.SbeTool.*;
@@ -32,7 +32,13 @@ public enum TargetCodeGenerator
 {
     JAVA()
     {
-        public CodeGenerator newInstance(final Ir ir, final String outputDir) throws IOException
+        public ChangedFileOutputManager newOutputManager(final Ir ir, final String outputDir)
+        {
+            return new ChangedFileOutputManager(
+                new File(outputDir, ir.applicableNamespace().replace('.', File.separatorChar)), ".java");
+        }
+
+        public CodeGenerator newInstance(final Ir ir, final OutputManager outputManager) throws IOException
         {
             return new JavaGenerator(
                 ir,
@@ -40,15 +46,23 @@ public enum TargetCodeGenerator
                 System.getProperty(JAVA_DECODING_BUFFER_TYPE, JAVA_DEFAULT_DECODING_BUFFER_TYPE),
                 Boolean.getBoolean(JAVA_GROUP_ORDER_ANNOTATION),
                 Boolean.getBoolean(JAVA_GENERATE_INTERFACES),
-                new PackageOutputManager(outputDir, ir.applicableNamespace()));
+                Boolean.getBoolean(JAVA_GENERATE_UNSAFE_ACCESSORS),
+                Boolean.getBoolean(JAVA_GENERATE_VISITORS),
+                Boolean.getBoolean(JAVA_GENERATE_LATEST_VERSION_DECODERS),
+                outputManager);
         }
     },
 
     CPP()
     {
-        public CodeGenerator newInstance(final Ir ir, final String outputDir) throws IOException
+        public ChangedFileOutputManager newOutputManager(final Ir ir, final String outputDir)
+        {
+            return new ChangedFileOutputManager(new File(outputDir, ir.applicableNamespace().replace('.', '_')), ".h");
+        }
+
+        public CodeGenerator newInstance(final Ir ir, final OutputManager outputManager) throws IOException
         {
-            return new CppGenerator(ir, new NamespaceOutputManager(outputDir, ir.applicableNamespace()));
+            return new CppGenerator(ir, outputManager);
         }
     };
 
@@ -61,7 +75,30 @@ public enum TargetCodeGenerator
      * @return a new instance of a {@link CodeGenerator} for the given target language.
      * @throws IOException if an error occurs when dealing with the output directory.
      */
-    public abstract CodeGenerator newInstance(final Ir ir, final String outputDir) throws IOException;
+    public CodeGenerator newInstance(final Ir ir, final String outputDir) throws IOException
+    {
+        return newInstance(ir, newOutputManager(ir, outputDir));
+    }
+
+    /**
+     * Get a new {@link ChangedFileOutputManager} for the files generated from an {@link Ir} in the layout of the
+     * target language, such as a directory per package for Java.
+     *
+     * @param ir        describing the message schemas from which code should generated.
+     * @param outputDir to which the generated code with be written.
+     * @return a new {@link ChangedFileOutputManager} for the generated files.
+     */
+    public abstract ChangedFileOutputManager newOutputManager(final Ir ir, final String outputDir);
+
+    /**
+     * Get a new {@link CodeGenerator} for the given target language which writes to an {@link OutputManager}.
+     *
+     * @param ir            describing the message schemas from which code should generated.
+     * @param outputManager to which the generated code with be written.
+     * @return a new instance of a {@link CodeGenerator} for the given target language.
+     * @throws IOException if an error occurs when dealing with the output.
+     */
+    public abstract CodeGenerator newInstance(final Ir ir, final OutputManager outputManager) throws IOException;
 
     /**
      * Do a case insensitive lookup of a target language for code generation.
@@ -142,6 +142,7 @@ public class CppGenerator implements CodeGenerator
 
                 final StringBuilder sb = new StringBuilder();
                 out.append(generateFields(className, fields, BASE_INDENT));
+                out.append(generateFieldLayouts(fields, BASE_INDENT));
                 generateGroups(sb, groups, BASE_INDENT);
                 out.append(sb);
                 out.append(generateVarData(className, varData, BASE_INDENT));
@@ -173,6 +174,7 @@ public class CppGenerator implements CodeGenerator
             final List<Token> fields = new ArrayList<>();
             i = collectFields(tokens, i, fields);
             sb.append(generateFields(groupName, fields, indent + INDENT));
+            sb.append(generateFieldLayouts(fields, indent + INDENT));
 
             final List<Token> groups = new ArrayList<>();
             i = collectGroups(tokens, i, groups);
@@ -182,6 +184,11 @@ public class CppGenerator implements CodeGenerator
             i = collectVarData(tokens, i, varData);
             sb.append(generateVarData(formatClassName(groupName), varData, indent + INDENT));
 
+            if (groups.isEmpty() && varData.isEmpty())
+            {
+                sb.append(generateGroupEntriesView(fields, indent + INDENT));
+            }
+
             sb.append(indent).append("    };\n");
             sb.append(generateGroupProperty(groupName, groupToken, cppTypeForNumInGroup, indent));
         }
@@ -318,6 +325,144 @@ public class CppGenerator implements CodeGenerator
             formatClassName(groupName)));
     }
 
+    private CharSequence generateGroupEntriesView(final List<Token> tokens, final String indent)
+    {
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append(
+            "\n" +
+            indent + "    class EntriesView\n" +
+            indent + "    {\n" +
+            indent + "    private:\n" +
+            indent + "        char *m_base;\n" +
+            indent + "        std::uint64_t m_stride;\n" +
+            indent + "        std::uint64_t m_count;\n" +
+            indent + "        std::uint64_t m_actingVersion;\n\n" +
+            indent + "    public:\n" +
+            indent + "        EntriesView(\n" +
+            indent + "            char *base, const std::uint64_t stride, const std::uint64_t count," +
+                " const std::uint64_t actingVersion) :\n" +
+            indent + "            m_base(base), m_stride(stride), m_count(count), m_actingVersion(actingVersion)\n" +
+            indent + "        {\n" +
+            indent + "        }\n\n" +
+            indent + "        char *base(void) const\n" +
+            indent + "        {\n" +
+            indent + "            return m_base;\n" +
+            indent + "        }\n\n" +
+            indent + "        std::uint64_t stride(void) const\n" +
+            indent + "        {\n" +
+            indent + "            return m_stride;\n" +
+            indent + "        }\n\n" +
+            indent + "        std::uint64_t count(void) const\n" +
+            indent + "        {\n" +
+            indent + "            return m_count;\n" +
+            indent + "        }\n\n" +
+            indent + "#if __cplusplus < 201103L\n" +
+            indent + "        template<class Func> inline void forEachIndex(Func& func) const\n" +
+            indent + "#else\n" +
+            indent + "        template<class Func> inline void forEachIndex(Func&& func) const\n" +
+            indent + "#endif\n" +
+            indent + "        {\n" +
+            indent + "            for (std::uint64_t i = 0; i < m_count; i++)\n" +
+            indent + "            {\n" +
+            indent + "                func(i);\n" +
+            indent + "            }\n" +
+            indent + "        }\n"
+        );
+
+        for (int i = 0, size = tokens.size(); i < size; i++)
+        {
+            final Token signalToken = tokens.get(i);
+            if (signalToken.signal() != Signal.BEGIN_FIELD)
+            {
+                continue;
+            }
+
+            final Token encodingToken = tokens.get(i + 1);
+            final String propertyName = formatPropertyName(signalToken.name());
+
+            if (encodingToken.signal() == Signal.ENCODING)
+            {
+                generateEntriesViewProperty(
+                    sb, propertyName, encodingToken, encodingToken.offset(), signalToken.version(), indent + INDENT);
+            }
+            else if (encodingToken.signal() == Signal.BEGIN_COMPOSITE)
+            {
+                final int end = i + encodingToken.componentTokenCount();
+                for (int j = i + 2; j < end; j += tokens.get(j).componentTokenCount())
+                {
+                    final Token componentToken = tokens.get(j);
+                    if (componentToken.signal() == Signal.ENCODING)
+                    {
+                        generateEntriesViewProperty(
+                            sb,
+                            propertyName + toUpperFirstChar(formatPropertyName(componentToken.name())),
+                            componentToken,
+                            encodingToken.offset() + componentToken.offset(),
+                            signalToken.version(),
+                            indent + INDENT);
+                    }
+                }
+            }
+        }
+
+        sb.append(indent).append("    };\n");
+
+        sb.append(String.format(
+            "\n" +
+            indent + "    inline EntriesView entriesView(void)\n" +
+            indent + "    {\n" +
+            indent + "        const std::uint64_t offset = *m_positionPtr;\n" +
+            indent + "        const std::uint64_t length = m_count * m_blockLength;\n" +
+            indent + "        if (SBE_BOUNDS_CHECK_EXPECT(((offset + length) > m_bufferLength), false))\n" +
+            indent + "        {\n" +
+            indent + "            throw std::runtime_error(\"buffer too short for group entries [E112]\");\n" +
+            indent + "        }\n" +
+            indent + "        *m_positionPtr = offset + length;\n" +
+            indent + "        m_index = m_count - 1;\n\n" +
+            indent + "        return EntriesView(m_buffer + offset, m_blockLength, m_count, m_actingVersion);\n" +
+            indent + "    }\n"
+        ));
+
+        return sb;
+    }
+
+    private void generateEntriesViewProperty(
+        final StringBuilder sb,
+        final String propertyName,
+        final Token token,
+        final int offset,
+        final int sinceVersion,
+        final String indent)
+    {
+        if (token.isConstantEncoding() || token.arrayLength() != 1)
+        {
+            return;
+        }
+
+        final Encoding encoding = token.encoding();
+        final String cppTypeName = cppTypeName(encoding.primitiveType());
+        final String byteOrderEncoding = formatByteOrderEncoding(encoding.byteOrder(), encoding.primitiveType());
+
+        sb.append(String.format(
+            "\n" +
+            indent + "    %1$s %2$s(const std::uint64_t index) const\n" +
+            indent + "    {\n" +
+                "%3$s" +
+            indent + "        return %4$s(*((%1$s *)(m_base + (index * m_stride) + %5$d)));\n" +
+            indent + "    }\n\n" +
+            indent + "    void %2$s(const std::uint64_t index, const %1$s value)\n" +
+            indent + "    {\n" +
+            indent + "        *((%1$s *)(m_base + (index * m_stride) + %5$d)) = %4$s(value);\n" +
+            indent + "    }\n",
+            cppTypeName,
+            propertyName,
+            generateFieldNotPresentCondition(sinceVersion, encoding, indent),
+            byteOrderEncoding,
+            offset
+        ));
+    }
+
     private static CharSequence generateGroupProperty(
         final String groupName, final Token token, final String cppTypeForNumInGroup, final String indent)
     {
@@ -468,6 +613,8 @@ public class CppGenerator implements CodeGenerator
                 lengthCppType
             ));
 
+            generateVarDataStringView(sb, token, propertyName, lengthToken, indent);
+
             sb.append(String.format(
                 indent + "    %1$s &put%2$s(const std::string& str)\n" +
                 indent + "    {\n" +
@@ -498,6 +645,44 @@ public class CppGenerator implements CodeGenerator
         return sb;
     }
 
+    private static void generateVarDataStringView(
+        final StringBuilder sb, final Token token, final String propertyName, final Token lengthToken, final String indent)
+    {
+        sb.append(String.format(
+            indent + "    ::sbe::StringView get%1$sAsStringView()\n" +
+            indent + "    {\n" +
+                "%2$s" +
+            indent + "        const std::uint64_t lengthPosition = position();\n" +
+            indent + "        position(lengthPosition + %3$d);\n" +
+            indent + "        const std::uint64_t dataLength = %4$s(*((%5$s *)(m_buffer + lengthPosition)));\n" +
+            indent + "        const std::uint64_t pos = position();\n" +
+            indent + "        position(pos + dataLength);\n" +
+            indent + "        return ::sbe::StringView(m_buffer + pos, dataLength);\n" +
+            indent + "    }\n\n",
+            propertyName,
+            generateStringViewNotPresentCondition(token.version(), BASE_INDENT),
+            lengthToken.encodedLength(),
+            formatByteOrderEncoding(lengthToken.encoding().byteOrder(), lengthToken.encoding().primitiveType()),
+            cppTypeName(lengthToken.encoding().primitiveType())
+        ));
+    }
+
+    private static void generateArrayStringView(
+        final StringBuilder sb, final String propertyName, final Token token, final String indent)
+    {
+        sb.append(String.format(
+            indent + "    ::sbe::StringView get%1$sAsStringView() const\n" +
+            indent + "    {\n" +
+                "%2$s" +
+            indent + "        return ::sbe::StringView(m_buffer + m_offset + %3$d, %4$d);\n" +
+            indent + "    }\n\n",
+            toUpperFirstChar(propertyName),
+            generateStringViewNotPresentCondition(token.version(), indent),
+            token.offset(),
+            token.arrayLength()
+        ));
+    }
+
     private void generateVarDataDescriptors(
         final StringBuilder sb,
         final Token token,
@@ -800,6 +985,22 @@ public class CppGenerator implements CodeGenerator
         );
     }
 
+    private static CharSequence generateStringViewNotPresentCondition(final int sinceVersion, final String indent)
+    {
+        if (0 == sinceVersion)
+        {
+            return "";
+        }
+
+        return String.format(
+            indent + "        if (m_actingVersion < %1$d)\n" +
+            indent + "        {\n" +
+            indent + "            return ::sbe::StringView();\n" +
+            indent + "        }\n\n",
+            sinceVersion
+        );
+    }
+
     private static CharSequence generateTypeFieldNotPresentCondition(final int sinceVersion, final String indent)
     {
         if (0 == sinceVersion)
@@ -1075,7 +1276,7 @@ public class CppGenerator implements CodeGenerator
         sb.append(String.format(
             indent + "    %1$s %2$s(const std::uint64_t index) const\n" +
             indent + "    {\n" +
-            indent + "        if (index >= %3$d)\n" +
+            indent + "        if (SBE_BOUNDS_CHECK_EXPECT((index >= %3$d), false))\n" +
             indent + "        {\n" +
             indent + "            throw std::runtime_error(\"index out of range for %2$s [E104]\");\n" +
             indent + "        }\n\n" +
@@ -1094,7 +1295,7 @@ public class CppGenerator implements CodeGenerator
         sb.append(String.format(
             indent + "    void %1$s(const std::uint64_t index, const %2$s value)\n" +
             indent + "    {\n" +
-            indent + "        if (index >= %3$d)\n" +
+            indent + "        if (SBE_BOUNDS_CHECK_EXPECT((index >= %3$d), false))\n" +
             indent + "        {\n" +
             indent + "            throw std::runtime_error(\"index out of range for %1$s [E105]\");\n" +
             indent + "        }\n\n" +
@@ -1111,7 +1312,7 @@ public class CppGenerator implements CodeGenerator
         sb.append(String.format(
             indent + "    std::uint64_t get%1$s(char *dst, const std::uint64_t length) const\n" +
             indent + "    {\n" +
-            indent + "        if (length > %2$d)\n" +
+            indent + "        if (SBE_BOUNDS_CHECK_EXPECT((length > %2$d), false))\n" +
             indent + "        {\n" +
             indent + "             throw std::runtime_error(\"length too large for get%1$s [E106]\");\n" +
             indent + "        }\n\n" +
@@ -1150,6 +1351,8 @@ public class CppGenerator implements CodeGenerator
                 token.arrayLength()
             ));
 
+            generateArrayStringView(sb, propertyName, token, indent);
+
             sb.append(String.format(
                 indent + "    %1$s &put%2$s(const std::string& str)\n" +
                 indent + "    {\n" +
@@ -1496,6 +1699,7 @@ public class CppGenerator implements CodeGenerator
                     (long)signalToken.version()
                 ));
 
+                generateFieldEncodingOffsetAndLength(sb, propertyName, encodingToken, indent);
                 generateFieldMetaAttributeMethod(sb, signalToken, indent);
 
                 switch (encodingToken.signal())
@@ -1522,6 +1726,79 @@ public class CppGenerator implements CodeGenerator
         return sb;
     }
 
+    private static void generateFieldEncodingOffsetAndLength(
+        final StringBuilder sb, final String propertyName, final Token encodingToken, final String indent)
+    {
+        sb.append(String.format(
+            indent + "    static SBE_CONSTEXPR const std::uint64_t %1$sEncodingOffset(void)\n" +
+            indent + "    {\n" +
+            indent + "        return %2$d;\n" +
+            indent + "    }\n\n" +
+            indent + "    static SBE_CONSTEXPR const std::uint64_t %1$sEncodingLength(void)\n" +
+            indent + "    {\n" +
+            indent + "        return %3$d;\n" +
+            indent + "    }\n\n",
+            propertyName,
+            encodingToken.offset(),
+            encodingToken.encodedLength()
+        ));
+    }
+
+    private static CharSequence generateFieldLayouts(final List<Token> tokens, final String indent)
+    {
+        final StringBuilder layouts = new StringBuilder();
+        int fieldCount = 0;
+
+        for (int i = 0, size = tokens.size(); i < size; i++)
+        {
+            final Token signalToken = tokens.get(i);
+            if (signalToken.signal() == Signal.BEGIN_FIELD)
+            {
+                final Token encodingToken = tokens.get(i + 1);
+                layouts.append(String.format(
+                    indent + "            %1$d == index ? ::sbe::FieldLayout(\"%2$s\", %3$d, %4$d, %5$d, %6$d) :\n",
+                    fieldCount++,
+                    signalToken.name(),
+                    signalToken.id(),
+                    encodingToken.offset(),
+                    encodingToken.encodedLength(),
+                    signalToken.version()
+                ));
+            }
+        }
+
+        if (0 == fieldCount)
+        {
+            return String.format(
+                "\n" +
+                indent + "    static SBE_CONSTEXPR const std::size_t sbeFieldCount(void)\n" +
+                indent + "    {\n" +
+                indent + "        return 0;\n" +
+                indent + "    }\n\n" +
+                indent + "    static const ::sbe::FieldLayout sbeFieldLayout(const std::size_t index)\n" +
+                indent + "    {\n" +
+                indent + "        throw std::out_of_range(\"index out of range for sbeFieldLayout [E111]\");\n" +
+                indent + "    }\n"
+            );
+        }
+
+        return String.format(
+            "\n" +
+            indent + "    static SBE_CONSTEXPR const std::size_t sbeFieldCount(void)\n" +
+            indent + "    {\n" +
+            indent + "        return %1$d;\n" +
+            indent + "    }\n\n" +
+            indent + "    static SBE_CONSTEXPR const ::sbe::FieldLayout sbeFieldLayout(const std::size_t index)\n" +
+            indent + "    {\n" +
+            indent + "        return\n" +
+            "%2$s" +
+            indent + "            throw std::out_of_range(\"index out of range for sbeFieldLayout [E111]\");\n" +
+            indent + "    }\n",
+            fieldCount,
+            layouts
+        );
+    }
+
     private static void generateFieldMetaAttributeMethod(final StringBuilder sb, final Token token, final String indent)
     {
         final Encoding encoding = token.encoding();
@@ -25,7 +25,10 @@ import static java.io.File.separatorChar;
 /**
  * {@link OutputManager} for managing the creation of C++98 source files as the target of code generation.
  * The character encoding for the {@link java.io.Writer} is UTF-8.
+ *
+ * @deprecated the C++ generator now writes through {@link uk.co.real_logic.sbe.generation.ChangedFileOutputManager}.
  */
+@Deprecated
 public class NamespaceOutputManager implements OutputManager
 {
     private final File outputDir;
@@ -23,10 +23,13 @@ import uk.co.real_logic.sbe.PrimitiveType;
 import uk.co.real_logic.sbe.generation.CodeGenerator;
 import uk.co.real_logic.sbe.ir.*;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 
@@ -37,12 +40,17 @@ import static uk.co.real_logic.sbe.ir.GenerationUtil.*;
 public class JavaGenerator implements CodeGenerator
 {
     private static final String META_ATTRIBUTE_ENUM = "MetaAttribute";
+    private static final String VALIDATION_ERROR = "ValidationError";
+    private static final String DECIMAL_FORMATTER = "DecimalFormatter";
+    private static final String DECIMAL_FORMATTER_TEMPLATE = "DecimalFormatter.template";
+    private static final String SUPPORT_CLASS_NAME_PREFIX = "Sbe";
     private static final String BASE_INDENT = "";
     private static final String INDENT = "    ";
     private static final String GEN_COMPOSITE_DECODER_FLYWEIGHT = "CompositeDecoderFlyweight";
     private static final String GEN_COMPOSITE_ENCODER_FLYWEIGHT = "CompositeEncoderFlyweight";
     private static final String GEN_MESSAGE_DECODER_FLYWEIGHT = "MessageDecoderFlyweight";
     private static final String GEN_MESSAGE_ENCODER_FLYWEIGHT = "MessageEncoderFlyweight";
+    private static final String DECODER_VISITOR = "uk.co.real_logic.sbe.codec.java.DecoderVisitor";
 
     private final Ir ir;
     private final OutputManager outputManager;
@@ -52,6 +60,12 @@ public class JavaGenerator implements CodeGenerator
     private final String readOnlyBuffer;
     private final boolean shouldGenerateGroupOrderAnnotation;
     private final boolean shouldGenerateInterfaces;
+    private final boolean shouldGenerateUnsafeAccessors;
+    private final boolean shouldGenerateVisitors;
+    private final boolean shouldGenerateLatestVersionDecoders;
+    private final String validationErrorClassName;
+    private final String decimalFormatterClassName;
+    private boolean isGeneratingLatestVersionDecoder;
 
     public JavaGenerator(
         final Ir ir,
@@ -61,6 +75,53 @@ public class JavaGenerator implements CodeGenerator
         final boolean shouldGenerateInterfaces,
         final OutputManager outputManager)
         throws IOException
+    {
+        this(
+            ir,
+            mutableBuffer,
+            readOnlyBuffer,
+            shouldGenerateGroupOrderAnnotation,
+            shouldGenerateInterfaces,
+            false,
+            false,
+            false,
+            outputManager);
+    }
+
+    /**
+     * Create a generator which, when shouldGenerateUnsafeAccessors is set, emits accessors for fixed length fields
+     * that address the underlying memory directly after a single capacity check on wrap of the block. This is only
+     * suitable for trusted input as the per field bounds checks of the buffer implementation are bypassed.
+     * <p>
+     * When shouldGenerateVisitors is set decoders have a visit method which walks the message with a
+     * {@link uk.co.real_logic.sbe.codec.java.DecoderVisitor}, making the generated code depend on sbe-tool.
+     * <p>
+     * When shouldGenerateLatestVersionDecoders is set each message also has a LatestVersionDecoder, such as
+     * CarLatestVersionDecoder, which only wraps messages with an acting version of at least the schema version
+     * so its accessors have no acting version checks for fields, groups, and var data added in later versions.
+     *
+     * @param ir                                  for the parsed schema.
+     * @param mutableBuffer                       implementation used for encoding.
+     * @param readOnlyBuffer                      implementation used for decoding.
+     * @param shouldGenerateGroupOrderAnnotation  should the {@link uk.co.real_logic.sbe.codec.java.GroupOrder} be added.
+     * @param shouldGenerateInterfaces            should the interface hierarchy be implemented.
+     * @param shouldGenerateUnsafeAccessors       should fixed length fields be accessed without per field bounds checks.
+     * @param shouldGenerateVisitors              should decoders have a visit method.
+     * @param shouldGenerateLatestVersionDecoders should decoders without acting version checks be generated.
+     * @param outputManager                       for the generated source.
+     * @throws IOException if an error occurs with the output.
+     */
+    public JavaGenerator(
+        final Ir ir,
+        final String mutableBuffer,
+        final String readOnlyBuffer,
+        final boolean shouldGenerateGroupOrderAnnotation,
+        final boolean shouldGenerateInterfaces,
+        final boolean shouldGenerateUnsafeAccessors,
+        final boolean shouldGenerateVisitors,
+        final boolean shouldGenerateLatestVersionDecoders,
+        final OutputManager outputManager)
+        throws IOException
     {
         Verify.notNull(ir, "ir");
         Verify.notNull(outputManager, "outputManager");
@@ -76,6 +137,13 @@ public class JavaGenerator implements CodeGenerator
 
         this.shouldGenerateGroupOrderAnnotation = shouldGenerateGroupOrderAnnotation;
         this.shouldGenerateInterfaces = shouldGenerateInterfaces;
+        this.shouldGenerateUnsafeAccessors = shouldGenerateUnsafeAccessors;
+        this.shouldGenerateVisitors = shouldGenerateVisitors;
+        this.shouldGenerateLatestVersionDecoders = shouldGenerateLatestVersionDecoders;
+
+        final Set<String> schemaClassNames = schemaClassNames(ir);
+        this.validationErrorClassName = supportClassName(VALIDATION_ERROR, schemaClassNames);
+        this.decimalFormatterClassName = supportClassName(DECIMAL_FORMATTER, schemaClassNames);
     }
 
     private static String validateBufferImplementation(
@@ -101,6 +169,43 @@ public class JavaGenerator implements CodeGenerator
         }
     }
 
+    /*
+     * Names of the classes generated for the types and messages of a schema, which the support classes generated into
+     * the same package must not take.
+     */
+    private static Set<String> schemaClassNames(final Ir ir)
+    {
+        final Set<String> classNames = new HashSet<>();
+        for (final List<Token> tokens : ir.types())
+        {
+            final String typeName = formatClassName(tokens.get(0).name());
+            classNames.add(typeName);
+            classNames.add(typeName + "Encoder");
+            classNames.add(typeName + "Decoder");
+        }
+
+        for (final List<Token> tokens : ir.messages())
+        {
+            final String messageName = formatClassName(tokens.get(0).name());
+            classNames.add(messageName + "Encoder");
+            classNames.add(messageName + "Decoder");
+            classNames.add(messageName + "LatestVersionDecoder");
+        }
+
+        return classNames;
+    }
+
+    private static String supportClassName(final String name, final Set<String> schemaClassNames)
+    {
+        String className = name;
+        while (schemaClassNames.contains(className))
+        {
+            className = SUPPORT_CLASS_NAME_PREFIX + className;
+        }
+
+        return className;
+    }
+
     private String encoderName(final String className)
     {
         return className + "Encoder";
@@ -111,6 +216,11 @@ public class JavaGenerator implements CodeGenerator
         return className + "Decoder";
     }
 
+    private String latestVersionDecoderName(final String className)
+    {
+        return className + "LatestVersionDecoder";
+    }
+
     private String implementsInterface(final String interfaceName)
     {
         if (!shouldGenerateInterfaces)
@@ -144,6 +254,8 @@ public class JavaGenerator implements CodeGenerator
     public void generateTypeStubs() throws IOException
     {
         generateMetaAttributeEnum();
+        generateValidationErrorCodes();
+        generateDecimalFormatter();
 
         for (final List<Token> tokens : ir.types())
         {
@@ -185,6 +297,11 @@ public class JavaGenerator implements CodeGenerator
             collectVarData(messageBody, i, varData);
 
             generateDecoder(BASE_INDENT, fields, groups, varData, msgToken);
+            if (shouldGenerateLatestVersionDecoders)
+            {
+                generateLatestVersionDecoder(BASE_INDENT, fields, groups, varData, msgToken);
+            }
+
             generateEncoder(BASE_INDENT, fields, groups, varData, msgToken);
         }
     }
@@ -230,6 +347,45 @@ public class JavaGenerator implements CodeGenerator
         final String className = formatClassName(decoderName(msgToken.name()));
         final String implementsString = implementsInterface(GEN_MESSAGE_DECODER_FLYWEIGHT);
 
+        try (final Writer out = outputManager.createOutput(className))
+        {
+            out.append(generateMainHeader(className, ir.applicableNamespace()));
+
+            generateAnnotations(indent, className, groups, out, 0, this::decoderName);
+            out.append(generateDeclaration("class", className, implementsString));
+            out.append(generateDecoderFlyweightCode(className, msgToken));
+            out.append(generateDecoderFields(fields, indent));
+
+            final StringBuilder sb = new StringBuilder();
+            generateDecoderGroups(sb, className, groups, indent);
+            out.append(sb);
+
+            out.append(generateDecoderVarData(varData, indent));
+
+            out.append(generateDecoderValidate(fields, groups, varData, indent));
+
+            out.append(generateDecoderDisplay(msgToken.name(), fields, groups, varData, indent));
+
+            if (shouldGenerateVisitors)
+            {
+                out.append(generateDecoderVisit(msgToken.name(), fields, groups, varData, indent));
+            }
+
+            out.append("}\n");
+        }
+    }
+
+    private void generateLatestVersionDecoder(
+        final String indent,
+        final List<Token> fields,
+        final List<Token> groups,
+        final List<Token> varData,
+        final Token msgToken) throws IOException
+    {
+        final String className = formatClassName(latestVersionDecoderName(msgToken.name()));
+        final String implementsString = implementsInterface(GEN_MESSAGE_DECODER_FLYWEIGHT);
+
+        isGeneratingLatestVersionDecoder = true;
         try (final Writer out = outputManager.createOutput(className))
         {
             out.append(generateMainHeader(className, ir.applicableNamespace()));
@@ -247,8 +403,17 @@ public class JavaGenerator implements CodeGenerator
 
             out.append(generateDecoderDisplay(msgToken.name(), fields, groups, varData, indent));
 
+            if (shouldGenerateVisitors)
+            {
+                out.append(generateDecoderVisit(msgToken.name(), fields, groups, varData, indent));
+            }
+
             out.append("}\n");
         }
+        finally
+        {
+            isGeneratingLatestVersionDecoder = false;
+        }
     }
 
     private void generateDecoderGroups(
@@ -289,10 +454,494 @@ public class JavaGenerator implements CodeGenerator
 
             appendGroupInstanceDecoderDisplay(sb, fields, groups, varData, indent + INDENT);
 
+            if (shouldGenerateVisitors)
+            {
+                appendGroupInstanceDecoderVisit(sb, groupToken, fields, groups, varData, indent + INDENT);
+            }
+
             sb.append(indent).append("    }\n");
         }
     }
 
+    private CharSequence generateDecoderValidate(
+        final List<Token> fields, final List<Token> groups, final List<Token> varData, final String indent)
+    {
+        final List<Token> headerTokens = ir.headerStructure().tokens();
+        final int headerLength = headerTokens.get(0).encodedLength();
+        final String bodyIndent = indent + INDENT + INDENT;
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append(String.format(
+            "\n" +
+            indent + "    public static int validate(final %1$s buffer, final int offset, final int length)\n" +
+            indent + "    {\n" +
+            indent + "        if (offset < 0 || length < 0 || offset > buffer.capacity() - length)\n" +
+            indent + "        {\n" +
+            indent + "            return %2$s.FRAME_OUT_OF_BOUNDS;\n" +
+            indent + "        }\n\n" +
+            indent + "        if (length < %3$d)\n" +
+            indent + "        {\n" +
+            indent + "            return %2$s.HEADER_TRUNCATED;\n" +
+            indent + "        }\n\n" +
+            indent + "        if (TEMPLATE_ID != %4$s)\n" +
+            indent + "        {\n" +
+            indent + "            return %2$s.TEMPLATE_ID_MISMATCH;\n" +
+            indent + "        }\n\n" +
+            indent + "        if (SCHEMA_ID != %5$s)\n" +
+            indent + "        {\n" +
+            indent + "            return %2$s.SCHEMA_ID_MISMATCH;\n" +
+            indent + "        }\n\n" +
+            indent + "        final int frameLimit = offset + length;\n" +
+            indent + "        final int actingBlockLength = (int)%6$s;\n" +
+            indent + "        final int actingVersion = (int)%7$s;\n" +
+            indent + "        int limit = offset + %3$d;\n",
+            readOnlyBuffer,
+            validationErrorClassName,
+            headerLength,
+            generateHeaderFieldGet(headerTokens, HeaderStructure.TEMPLATE_ID),
+            generateHeaderFieldGet(headerTokens, HeaderStructure.SCHEMA_ID),
+            generateHeaderFieldGet(headerTokens, HeaderStructure.BLOCK_LENGTH),
+            generateHeaderFieldGet(headerTokens, HeaderStructure.SCHEMA_VERSION)));
+
+        generateValidateBlock(sb, fields, "actingBlockLength", "BLOCK_LENGTH_TOO_SHORT", bodyIndent);
+        generateValidateCheck(sb, "actingBlockLength > frameLimit - limit", "BLOCK_TRUNCATED", bodyIndent);
+        generateValidateFieldValues(sb, fields, bodyIndent);
+        sb.append(bodyIndent).append("limit += actingBlockLength;\n");
+        generateValidateGroups(sb, groups, bodyIndent);
+        generateValidateVarData(sb, varData, bodyIndent);
+
+        sb.append("\n")
+          .append(bodyIndent).append("return ").append(validationErrorClassName).append(".NONE;\n")
+          .append(indent).append("    }\n");
+
+        return sb;
+    }
+
+    private String generateHeaderFieldGet(final List<Token> headerTokens, final String name)
+    {
+        for (final Token token : headerTokens)
+        {
+            if (token.signal() == Signal.ENCODING && name.equals(token.name()))
+            {
+                final Encoding encoding = token.encoding();
+
+                return generateGet(encoding.primitiveType(), "offset + " + token.offset(), encoding.byteOrder());
+            }
+        }
+
+        throw new IllegalStateException("header field not found: " + name);
+    }
+
+    private void generateValidateBlock(
+        final StringBuilder sb,
+        final List<Token> fields,
+        final String blockLengthVar,
+        final String errorCode,
+        final String indent)
+    {
+        final Map<Integer, Integer> requiredLengthByVersion = new TreeMap<>();
+        requiredLengthByVersion.put(0, 0);
+
+        eachField(
+            fields,
+            (fieldToken, typeToken) ->
+            {
+                if (!typeToken.isConstantEncoding())
+                {
+                    requiredLengthByVersion.merge(
+                        fieldToken.version(), typeToken.offset() + typeToken.encodedLength(), Math::max);
+                }
+            });
+
+        int requiredLength = -1;
+        for (final Map.Entry<Integer, Integer> entry : requiredLengthByVersion.entrySet())
+        {
+            final int version = entry.getKey();
+            if (entry.getValue() > requiredLength || 0 == version)
+            {
+                requiredLength = Math.max(requiredLength, entry.getValue());
+                final String condition = blockLengthVar + " < " + requiredLength;
+
+                generateValidateCheck(
+                    sb, 0 == version ? condition : "actingVersion >= " + version + " && " + condition, errorCode, indent);
+            }
+        }
+    }
+
+    private void generateValidateFieldValues(final StringBuilder sb, final List<Token> fields, final String indent)
+    {
+        for (int i = 0, size = fields.size(); i < size;)
+        {
+            final Token fieldToken = fields.get(i);
+            if (fieldToken.signal() != Signal.BEGIN_FIELD)
+            {
+                ++i;
+                continue;
+            }
+
+            final StringBuilder checks = new StringBuilder();
+            final int version = fieldToken.version();
+            final String checkIndent = 0 == version ? indent : indent + INDENT;
+            generateValidateTypeValues(checks, fields, i + 1, i + fieldToken.componentTokenCount() - 1, 0, checkIndent);
+
+            if (checks.length() > 0)
+            {
+                if (0 == version)
+                {
+                    sb.append(checks);
+                }
+                else
+                {
+                    sb.append(indent).append("if (actingVersion >= ").append(version).append(")\n")
+                      .append(indent).append("{\n")
+                      .append(checks)
+                      .append(indent).append("}\n");
+                }
+            }
+
+            i += fieldToken.componentTokenCount();
+        }
+    }
+
+    private void generateValidateTypeValues(
+        final StringBuilder sb,
+        final List<Token> tokens,
+        final int beginIndex,
+        final int endIndex,
+        final int baseOffset,
+        final String indent)
+    {
+        for (int i = beginIndex; i < endIndex;)
+        {
+            final Token token = tokens.get(i);
+            if (token.isConstantEncoding())
+            {
+                i += token.componentTokenCount();
+                continue;
+            }
+
+            final String index = "limit + " + (baseOffset + token.offset());
+
+            switch (token.signal())
+            {
+                case BEGIN_ENUM:
+                    generateValidateEnum(sb, tokens.subList(i + 1, i + token.componentTokenCount() - 1), token, index, indent);
+                    break;
+
+                case BEGIN_SET:
+                    generateValidateSet(sb, tokens.subList(i + 1, i + token.componentTokenCount() - 1), token, index, indent);
+                    break;
+
+                case BEGIN_COMPOSITE:
+                    generateValidateTypeValues(
+                        sb, tokens, i + 1, i + token.componentTokenCount() - 1, baseOffset + token.offset(), indent);
+                    break;
+            }
+
+            i += token.componentTokenCount();
+        }
+    }
+
+    private void generateValidateEnum(
+        final StringBuilder sb, final List<Token> validValues, final Token token, final String index, final String indent)
+    {
+        final Encoding encoding = token.encoding();
+        final PrimitiveType primitiveType = encoding.primitiveType();
+
+        sb.append(indent).append("switch (").append(generateGet(primitiveType, index, encoding.byteOrder())).append(")\n")
+          .append(indent).append("{\n");
+
+        for (final Token validValue : validValues)
+        {
+            sb.append(indent).append("    case ").append(validValue.encoding().constValue().toString()).append(":\n");
+        }
+
+        sb.append(indent).append("    case ")
+          .append(generateLiteral(primitiveType, encoding.applicableNullValue().toString())).append(":\n")
+          .append(indent).append("        break;\n\n")
+          .append(indent).append("    default:\n")
+          .append(indent).append("        return ").append(validationErrorClassName).append(".INVALID_ENUM_VALUE;\n")
+          .append(indent).append("}\n");
+    }
+
+    private void generateValidateSet(
+        final StringBuilder sb, final List<Token> choices, final Token token, final String index, final String indent)
+    {
+        final Encoding encoding = token.encoding();
+        final PrimitiveType bitsType = choiceBitsType(encoding.primitiveType());
+
+        long validBits = 0;
+        for (final Token choice : choices)
+        {
+            validBits |= 1L << choice.encoding().constValue().longValue();
+        }
+
+        final long allBits = bitsType == PrimitiveType.INT64 ? -1L : (1L << (bitsType.size() * 8)) - 1;
+        final long invalidBits = ~validBits & allBits;
+        if (0 != invalidBits)
+        {
+            generateValidateCheck(
+                sb,
+                "0 != (" + generateGet(bitsType, index, encoding.byteOrder()) + " & 0x" +
+                    Long.toHexString(invalidBits).toUpperCase() + "L)",
+                "INVALID_SET_VALUE",
+                indent);
+        }
+    }
+
+    private void generateValidateGroups(final StringBuilder sb, final List<Token> tokens, final String indent)
+    {
+        for (int i = 0, size = tokens.size(); i < size; i++)
+        {
+            final Token groupToken = tokens.get(i);
+            if (groupToken.signal() != Signal.BEGIN_GROUP)
+            {
+                throw new IllegalStateException("tokens must begin with BEGIN_GROUP: token=" + groupToken);
+            }
+
+            final String groupName = formatPropertyName(groupToken.name());
+            final String blockLengthVar = groupName + "BlockLength";
+            final String countVar = groupName + "Count";
+            final Token dimensionsToken = tokens.get(i + 1);
+            final int headerLength = dimensionsToken.encodedLength();
+            final List<Token> dimensionTokens = tokens.subList(i + 2, i + dimensionsToken.componentTokenCount());
+
+            ++i;
+            i += dimensionsToken.componentTokenCount();
+
+            final List<Token> fields = new ArrayList<>();
+            i = collectFields(tokens, i, fields);
+
+            final List<Token> groups = new ArrayList<>();
+            i = collectGroups(tokens, i, groups);
+
+            final List<Token> varData = new ArrayList<>();
+            i = collectVarData(tokens, i, varData);
+
+            final StringBuilder fieldChecks = new StringBuilder();
+            generateValidateFieldValues(fieldChecks, fields, indent + INDENT);
+
+            sb.append("\n");
+            generateValidateCheck(sb, "frameLimit - limit < " + headerLength, "GROUP_HEADER_TRUNCATED", indent);
+            sb.append(String.format(
+                indent + "final int %1$s = (int)%2$s;\n" +
+                indent + "final int %3$s = (int)%4$s;\n" +
+                indent + "limit += %5$d;\n",
+                blockLengthVar,
+                generateDimensionGet(dimensionTokens, "blockLength"),
+                countVar,
+                generateDimensionGet(dimensionTokens, "numInGroup"),
+                headerLength));
+
+            generateValidateBlock(sb, fields, blockLengthVar, "GROUP_BLOCK_LENGTH_TOO_SHORT", indent);
+
+            if (fieldChecks.length() == 0 && groups.isEmpty() && varData.isEmpty())
+            {
+                generateValidateCheck(
+                    sb,
+                    countVar + " < 0 || (long)" + blockLengthVar + " * " + countVar + " > frameLimit - limit",
+                    "GROUP_TRUNCATED",
+                    indent);
+                sb.append(indent).append("limit += ").append(blockLengthVar).append(" * ").append(countVar).append(";\n");
+            }
+            else
+            {
+                final String indexVar = groupName + "Index";
+                final String loopIndent = indent + INDENT;
+
+                sb.append(String.format(
+                    indent + "for (int %1$s = 0; %1$s < %2$s; %1$s++)\n" +
+                    indent + "{\n",
+                    indexVar,
+                    countVar));
+                generateValidateCheck(sb, blockLengthVar + " > frameLimit - limit", "GROUP_TRUNCATED", loopIndent);
+                sb.append(fieldChecks);
+                sb.append(loopIndent).append("limit += ").append(blockLengthVar).append(";\n");
+                generateValidateGroups(sb, groups, loopIndent);
+                generateValidateVarData(sb, varData, loopIndent);
+                sb.append(indent).append("}\n");
+            }
+        }
+    }
+
+    private String generateDimensionGet(final List<Token> dimensionTokens, final String name)
+    {
+        for (final Token token : dimensionTokens)
+        {
+            if (name.equals(token.name()))
+            {
+                final Encoding encoding = token.encoding();
+
+                return generateGet(encoding.primitiveType(), "limit + " + token.offset(), encoding.byteOrder());
+            }
+        }
+
+        throw new IllegalStateException("group dimension not found: " + name);
+    }
+
+    private void generateValidateVarData(final StringBuilder sb, final List<Token> tokens, final String indent)
+    {
+        for (int i = 0, size = tokens.size(); i < size;)
+        {
+            final Token token = tokens.get(i);
+            if (token.signal() != Signal.BEGIN_VAR_DATA)
+            {
+                throw new IllegalStateException("tokens must begin with BEGIN_VAR_DATA: token=" + token);
+            }
+
+            final Token lengthToken = tokens.get(i + 2);
+            final Encoding lengthEncoding = lengthToken.encoding();
+            final int sizeOfLengthField = lengthToken.encodedLength();
+            final String lengthVar = formatPropertyName(token.name()) + "Length";
+            final int version = token.version();
+            final String checkIndent = 0 == version ? indent : indent + INDENT;
+
+            sb.append("\n");
+            if (0 != version)
+            {
+                sb.append(indent).append("if (actingVersion >= ").append(version).append(")\n")
+                  .append(indent).append("{\n");
+            }
+
+            generateValidateCheck(sb, "frameLimit - limit < " + sizeOfLengthField, "VAR_DATA_HEADER_TRUNCATED", checkIndent);
+            sb.append(String.format(
+                checkIndent + "final int %1$s = (int)%2$s;\n" +
+                checkIndent + "limit += %3$d;\n",
+                lengthVar,
+                generateGet(lengthEncoding.primitiveType(), "limit", lengthEncoding.byteOrder()),
+                sizeOfLengthField));
+            generateValidateCheck(
+                sb, lengthVar + " < 0 || " + lengthVar + " > frameLimit - limit", "VAR_DATA_TRUNCATED", checkIndent);
+            sb.append(checkIndent).append("limit += ").append(lengthVar).append(";\n");
+
+            if (0 != version)
+            {
+                sb.append(indent).append("}\n");
+            }
+
+            i += token.componentTokenCount();
+        }
+    }
+
+    private void generateValidateCheck(
+        final StringBuilder sb, final String condition, final String errorCode, final String indent)
+    {
+        sb.append(indent).append("if (").append(condition).append(")\n")
+          .append(indent).append("{\n")
+          .append(indent).append("    return ").append(validationErrorClassName).append('.').append(errorCode).append(";\n")
+          .append(indent).append("}\n");
+    }
+
+    private void generateValidationErrorCodes() throws IOException
+    {
+        try (final Writer out = outputManager.createOutput(validationErrorClassName))
+        {
+            out.append(String.format(
+                "/* Generated SBE (Simple Binary Encoding) message codec */\n" +
+                "package %1$s;\n\n" +
+                "/**\n" +
+                " * Codes returned from the validate method of generated decoders.\n" +
+                " */\n" +
+                "@javax.annotation.Generated(value = {\"%1$s.%2$s\"})\n" +
+                "public final class %2$s\n" +
+                "{\n" +
+                "    public static final int NONE = 0;\n" +
+                "    public static final int FRAME_OUT_OF_BOUNDS = 1;\n" +
+                "    public static final int HEADER_TRUNCATED = 2;\n" +
+                "    public static final int TEMPLATE_ID_MISMATCH = 3;\n" +
+                "    public static final int SCHEMA_ID_MISMATCH = 4;\n" +
+                "    public static final int BLOCK_LENGTH_TOO_SHORT = 5;\n" +
+                "    public static final int BLOCK_TRUNCATED = 6;\n" +
+                "    public static final int GROUP_HEADER_TRUNCATED = 7;\n" +
+                "    public static final int GROUP_BLOCK_LENGTH_TOO_SHORT = 8;\n" +
+                "    public static final int GROUP_TRUNCATED = 9;\n" +
+                "    public static final int VAR_DATA_HEADER_TRUNCATED = 10;\n" +
+                "    public static final int VAR_DATA_TRUNCATED = 11;\n" +
+                "    public static final int INVALID_ENUM_VALUE = 12;\n" +
+                "    public static final int INVALID_SET_VALUE = 13;\n\n" +
+                "    private %2$s()\n" +
+                "    {\n" +
+                "    }\n" +
+                "}\n",
+                ir.applicableNamespace(),
+                validationErrorClassName));
+        }
+    }
+
+    private void generateDecimalFormatter() throws IOException
+    {
+        if (!hasDecimalDisplay())
+        {
+            return;
+        }
+
+        try (final Writer out = outputManager.createOutput(decimalFormatterClassName))
+        {
+            out.append(String.format(
+                readTemplate(DECIMAL_FORMATTER_TEMPLATE),
+                ir.applicableNamespace(),
+                decimalFormatterClassName));
+        }
+    }
+
+    /**
+     * The generated formatter, of the same formatting as {@link uk.co.real_logic.sbe.DecimalFormatter}, is only needed by the appendTo methods of floating point fields and
+     * decimal composites.
+     */
+    private boolean hasDecimalDisplay()
+    {
+        final List<List<Token>> tokenLists = new ArrayList<>(ir.types());
+        tokenLists.addAll(ir.messages());
+
+        for (final List<Token> tokens : tokenLists)
+        {
+            for (int i = 0, size = tokens.size(); i < size; i++)
+            {
+                final Token token = tokens.get(i);
+                switch (token.signal())
+                {
+                    case ENCODING:
+                        final PrimitiveType primitiveType = token.encoding().primitiveType();
+                        if (PrimitiveType.FLOAT == primitiveType || PrimitiveType.DOUBLE == primitiveType)
+                        {
+                            return true;
+                        }
+                        break;
+
+                    case BEGIN_COMPOSITE:
+                        if (isDecimalComposite(tokens, i, i + token.componentTokenCount() - 1))
+                        {
+                            return true;
+                        }
+                        break;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static String readTemplate(final String templateName) throws IOException
+    {
+        try (final InputStream in = JavaGenerator.class.getResourceAsStream(templateName))
+        {
+            if (null == in)
+            {
+                throw new IllegalStateException("template not found: " + templateName);
+            }
+
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] bytes = new byte[4096];
+            int bytesRead;
+            while ((bytesRead = in.read(bytes)) > 0)
+            {
+                out.write(bytes, 0, bytesRead);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
     private void generateEncoderGroups(
         final StringBuilder sb,
         final String outerClassName,
@@ -409,11 +1058,13 @@ public class JavaGenerator implements CodeGenerator
             indent + "            throw new java.util.NoSuchElementException();\n" +
             indent + "        }\n\n" +
             indent + "        offset = parentMessage.limit();\n" +
+                     "%s" +
             indent + "        parentMessage.limit(offset + blockLength);\n" +
             indent + "        ++index;\n\n" +
             indent + "        return this;\n" +
             indent + "    }\n",
-            formatClassName(groupName)));
+            formatClassName(groupName),
+            generateCapacityCheck("offset + blockLength", indent + INDENT + INDENT)));
     }
 
     private void generateGroupEncoderClassHeader(
@@ -482,11 +1133,13 @@ public class JavaGenerator implements CodeGenerator
             indent + "            throw new java.util.NoSuchElementException();\n" +
             indent + "        }\n\n" +
             indent + "        offset = parentMessage.limit();\n" +
+                     "%s" +
             indent + "        parentMessage.limit(offset + blockLength);\n" +
             indent + "        ++index;\n\n" +
             indent + "        return this;\n" +
             indent + "    }\n",
-            formatClassName(encoderName(groupName))));
+            formatClassName(encoderName(groupName)),
+            generateCapacityCheck("offset + blockLength", indent + INDENT + INDENT)));
     }
 
     private static String primitiveTypeName(final Token token)
@@ -643,7 +1296,7 @@ public class JavaGenerator implements CodeGenerator
             final int sizeOfLengthField = lengthToken.encodedLength();
             final Encoding lengthEncoding = lengthToken.encoding();
             final PrimitiveType lengthType = lengthEncoding.primitiveType();
-            final String byteOrderStr = byteOrderString(lengthEncoding);
+            final ByteOrder byteOrder = lengthEncoding.byteOrder();
 
             sb.append(String.format(
                 "\n" +
@@ -664,10 +1317,10 @@ public class JavaGenerator implements CodeGenerator
                 indent + "    }\n",
                 toLowerFirstChar(propertyName),
                 generateArrayFieldNotPresentCondition(token.version(), indent),
-                generateGet(lengthType, "limit", byteOrderStr)));
+                generateGet(lengthType, "limit", byteOrder)));
 
             generateDataDecodeMethods(
-                sb, token, propertyName, sizeOfLengthField, lengthType, byteOrderStr, characterEncoding, indent);
+                sb, token, propertyName, sizeOfLengthField, lengthType, byteOrder, characterEncoding, indent);
 
             i += token.componentTokenCount();
         }
@@ -697,7 +1350,7 @@ public class JavaGenerator implements CodeGenerator
             final int sizeOfLengthField = lengthToken.encodedLength();
             final Encoding lengthEncoding = lengthToken.encoding();
             final int maxLengthValue = (int)lengthEncoding.applicableMaxValue().longValue();
-            final String byteOrderStr = byteOrderString(lengthEncoding);
+            final ByteOrder byteOrder = lengthEncoding.byteOrder();
 
             sb.append(String.format(
                 "\n" +
@@ -714,7 +1367,7 @@ public class JavaGenerator implements CodeGenerator
                 sizeOfLengthField,
                 maxLengthValue,
                 lengthEncoding.primitiveType(),
-                byteOrderStr,
+                byteOrder,
                 characterEncoding,
                 className,
                 indent);
@@ -731,7 +1384,7 @@ public class JavaGenerator implements CodeGenerator
         final String propertyName,
         final int sizeOfLengthField,
         final PrimitiveType lengthType,
-        final String byteOrderStr,
+        final ByteOrder byteOrder,
         final String characterEncoding,
         final String indent)
     {
@@ -742,7 +1395,7 @@ public class JavaGenerator implements CodeGenerator
             sizeOfLengthField,
             mutableBuffer,
             lengthType,
-            byteOrderStr,
+            byteOrder,
             indent);
 
         generateDataTypedDecoder(
@@ -752,7 +1405,7 @@ public class JavaGenerator implements CodeGenerator
             sizeOfLengthField,
             "byte[]",
             lengthType,
-            byteOrderStr,
+            byteOrder,
             indent);
 
         sb.append(String.format(
@@ -780,7 +1433,7 @@ public class JavaGenerator implements CodeGenerator
             formatPropertyName(propertyName),
             generateStringNotPresentCondition(token.version(), indent),
             sizeOfLengthField,
-            generateGet(lengthType, "limit", byteOrderStr),
+            generateGet(lengthType, "limit", byteOrder),
             characterEncoding));
     }
 
@@ -790,7 +1443,7 @@ public class JavaGenerator implements CodeGenerator
         final int sizeOfLengthField,
         final int maxLengthValue,
         final PrimitiveType lengthType,
-        final String byteOrderStr,
+        final ByteOrder byteOrder,
         final String characterEncoding,
         final String className,
         final String indent)
@@ -803,7 +1456,7 @@ public class JavaGenerator implements CodeGenerator
             maxLengthValue,
             readOnlyBuffer,
             lengthType,
-            byteOrderStr,
+            byteOrder,
             indent);
 
         generateDataTypedEncoder(
@@ -814,7 +1467,7 @@ public class JavaGenerator implements CodeGenerator
             maxLengthValue,
             "byte[]",
             lengthType,
-            byteOrderStr,
+            byteOrder,
             indent);
 
         sb.append(String.format(
@@ -847,7 +1500,7 @@ public class JavaGenerator implements CodeGenerator
             characterEncoding,
             maxLengthValue,
             sizeOfLengthField,
-            generatePut(lengthType, "limit", "length", byteOrderStr)));
+            generatePut(lengthType, "limit", "length", byteOrder)));
     }
 
     private void generateDataTypedDecoder(
@@ -857,7 +1510,7 @@ public class JavaGenerator implements CodeGenerator
         final int sizeOfLengthField,
         final String exchangeType,
         final PrimitiveType lengthType,
-        final String byteOrderStr,
+        final ByteOrder byteOrder,
         final String indent)
     {
         sb.append(String.format(
@@ -877,7 +1530,7 @@ public class JavaGenerator implements CodeGenerator
             exchangeType,
             generateArrayFieldNotPresentCondition(token.version(), indent),
             sizeOfLengthField,
-            generateGet(lengthType, "limit", byteOrderStr)));
+            generateGet(lengthType, "limit", byteOrder)));
     }
 
     private void generateDataTypedEncoder(
@@ -888,7 +1541,7 @@ public class JavaGenerator implements CodeGenerator
         final int maxLengthValue,
         final String exchangeType,
         final PrimitiveType lengthType,
-        final String byteOrderStr,
+        final ByteOrder byteOrder,
         final String indent)
     {
         sb.append(String.format(
@@ -911,7 +1564,7 @@ public class JavaGenerator implements CodeGenerator
             exchangeType,
             maxLengthValue,
             sizeOfLengthField,
-            generatePut(lengthType, "limit", "length", byteOrderStr)));
+            generatePut(lengthType, "limit", "length", byteOrder)));
     }
 
     private void generateBitSet(final List<Token> tokens) throws IOException
@@ -927,6 +1580,11 @@ public class JavaGenerator implements CodeGenerator
             generateFixedFlyweightHeader(token, decoderName, out, readOnlyBuffer, fqReadOnlyBuffer, "");
             out.append(generateChoiceDecoders(messageBody));
             out.append(generateChoiceDisplay(messageBody));
+
+            if (shouldGenerateVisitors)
+            {
+                out.append(generateChoiceVisit(messageBody));
+            }
             out.append("}\n");
         }
 
@@ -1011,6 +1669,11 @@ public class JavaGenerator implements CodeGenerator
 
             out.append(generateCompositeDecoderDisplay(tokens, BASE_INDENT));
 
+            if (shouldGenerateVisitors)
+            {
+                out.append(generateCompositeDecoderVisit(tokens, BASE_INDENT));
+            }
+
             out.append("}\n");
         }
 
@@ -1058,7 +1721,6 @@ public class JavaGenerator implements CodeGenerator
 
         final Encoding encoding = token.encoding();
         final String literalValue = generateLiteral(encoding.primitiveType(), "0");
-        final String byteOrderStr = byteOrderString(encoding);
 
         sb.append(String.format(
             "\n" +
@@ -1068,7 +1730,7 @@ public class JavaGenerator implements CodeGenerator
             "        return this;\n" +
             "    }\n",
             bitSetClassName,
-            generatePut(encoding.primitiveType(), "offset", literalValue, byteOrderStr)));
+            generateFieldPut(encoding, "offset", literalValue)));
 
         return sb;
     }
@@ -1083,7 +1745,6 @@ public class JavaGenerator implements CodeGenerator
                 final String choiceName = formatPropertyName(token.name());
                 final Encoding encoding = token.encoding();
                 final String choiceBitIndex = encoding.constValue().toString();
-                final String byteOrderStr = byteOrderString(encoding);
 
                 return String.format(
                     "\n" +
@@ -1092,7 +1753,7 @@ public class JavaGenerator implements CodeGenerator
                     "        return %s;\n" +
                     "    }\n",
                     choiceName,
-                    generateChoiceGet(encoding.primitiveType(), "offset", choiceBitIndex, byteOrderStr)
+                    generateChoiceGet(encoding, "offset", choiceBitIndex)
                 );
             });
     }
@@ -1107,7 +1768,6 @@ public class JavaGenerator implements CodeGenerator
                 final String choiceName = formatPropertyName(token.name());
                 final Encoding encoding = token.encoding();
                 final String choiceBitIndex = encoding.constValue().toString();
-                final String byteOrderStr = byteOrderString(encoding);
 
                 return String.format(
                     "\n" +
@@ -1118,7 +1778,7 @@ public class JavaGenerator implements CodeGenerator
                     "    }\n",
                     bitSetClassName,
                     choiceName,
-                    generateChoicePut(encoding.primitiveType(), "offset", choiceBitIndex, byteOrderStr));
+                    generateChoicePut(encoding, "offset", choiceBitIndex));
             });
     }
 
@@ -1205,6 +1865,18 @@ public class JavaGenerator implements CodeGenerator
         return String.format("import %s.*;\n\n", JAVA_INTERFACE_PACKAGE);
     }
 
+    private CharSequence unsafeImportLines()
+    {
+        if (!shouldGenerateUnsafeAccessors)
+        {
+            return "";
+        }
+
+        return
+            "import static org.agrona.BufferUtil.NATIVE_BYTE_ORDER;\n" +
+            "import static org.agrona.UnsafeAccess.UNSAFE;\n";
+    }
+
     private CharSequence generateFileHeader(final String className, final String packageName, final String fqBuffer)
     {
         return String.format(
@@ -1212,9 +1884,11 @@ public class JavaGenerator implements CodeGenerator
             "package %s;\n\n" +
             "import %s;\n" +
             "%s" +
+            "%s" +
             "@javax.annotation.Generated(value = {\"%s.%s\"})\n",
             packageName,
             fqBuffer,
+            unsafeImportLines(),
             interfaceImportLine(),
             packageName,
             className);
@@ -1229,9 +1903,11 @@ public class JavaGenerator implements CodeGenerator
                 "package %s;\n\n" +
                 "import %s;\n" +
                 "%s" +
+                "%s" +
                 "@javax.annotation.Generated(value = {\"%s.%s\"})\n",
                 packageName,
                 fqMutableBuffer,
+                unsafeImportLines(),
                 interfaceImportLine(),
                 packageName,
                 className);
@@ -1244,10 +1920,12 @@ public class JavaGenerator implements CodeGenerator
                 "import %s;\n" +
                 "import %s;\n" +
                 "%s" +
+                "%s" +
                 "@javax.annotation.Generated(value = {\"%s.%s\"})\n",
                 packageName,
                 fqMutableBuffer,
                 fqReadOnlyBuffer,
+                unsafeImportLines(),
                 interfaceImportLine(),
                 packageName,
                 className);
@@ -1450,7 +2128,6 @@ public class JavaGenerator implements CodeGenerator
         final String javaTypeName = javaTypeName(encoding.primitiveType());
 
         final int offset = token.offset();
-        final String byteOrderStr = byteOrderString(encoding);
 
         return String.format(
             "\n" +
@@ -1462,7 +2139,7 @@ public class JavaGenerator implements CodeGenerator
             javaTypeName,
             propertyName,
             generateFieldNotPresentCondition(token.version(), encoding, indent),
-            generateGet(encoding.primitiveType(), "offset + " + offset, byteOrderStr));
+            generateFieldGet(encoding, "offset + " + offset));
     }
 
     private CharSequence generatePrimitivePropertyEncode(
@@ -1471,7 +2148,6 @@ public class JavaGenerator implements CodeGenerator
         final Encoding encoding = token.encoding();
         final String javaTypeName = javaTypeName(encoding.primitiveType());
         final int offset = token.offset();
-        final String byteOrderStr = byteOrderString(encoding);
 
         return String.format(
             "\n" +
@@ -1483,12 +2159,12 @@ public class JavaGenerator implements CodeGenerator
             formatClassName(containingClassName),
             propertyName,
             javaTypeName,
-            generatePut(encoding.primitiveType(), "offset + " + offset, "value", byteOrderStr));
+            generateFieldPut(encoding, "offset + " + offset, "value"));
     }
 
     private CharSequence generateFieldNotPresentCondition(final int sinceVersion, final Encoding encoding, final String indent)
     {
-        if (0 == sinceVersion)
+        if (0 == sinceVersion || isGeneratingLatestVersionDecoder)
         {
             return "";
         }
@@ -1502,9 +2178,9 @@ public class JavaGenerator implements CodeGenerator
             generateLiteral(encoding.primitiveType(), encoding.applicableNullValue().toString()));
     }
 
-    private static CharSequence generateArrayFieldNotPresentCondition(final int sinceVersion, final String indent)
+    private CharSequence generateArrayFieldNotPresentCondition(final int sinceVersion, final String indent)
     {
-        if (0 == sinceVersion)
+        if (0 == sinceVersion || isGeneratingLatestVersionDecoder)
         {
             return "";
         }
@@ -1517,9 +2193,9 @@ public class JavaGenerator implements CodeGenerator
             sinceVersion);
     }
 
-    private static CharSequence generateStringNotPresentCondition(final int sinceVersion, final String indent)
+    private CharSequence generateStringNotPresentCondition(final int sinceVersion, final String indent)
     {
-        if (0 == sinceVersion)
+        if (0 == sinceVersion || isGeneratingLatestVersionDecoder)
         {
             return "";
         }
@@ -1532,9 +2208,9 @@ public class JavaGenerator implements CodeGenerator
             sinceVersion);
     }
 
-    private static CharSequence generateTypeFieldNotPresentCondition(final int sinceVersion, final String indent)
+    private CharSequence generateTypeFieldNotPresentCondition(final int sinceVersion, final String indent)
     {
-        if (0 == sinceVersion)
+        if (0 == sinceVersion || isGeneratingLatestVersionDecoder)
         {
             return "";
         }
@@ -1552,7 +2228,6 @@ public class JavaGenerator implements CodeGenerator
         final Encoding encoding = token.encoding();
         final String javaTypeName = javaTypeName(encoding.primitiveType());
         final int offset = token.offset();
-        final String byteOrderStr = byteOrderString(encoding);
         final int fieldLength = token.arrayLength();
         final int typeSize = sizeOfPrimitive(encoding);
 
@@ -1577,7 +2252,7 @@ public class JavaGenerator implements CodeGenerator
             generateFieldNotPresentCondition(token.version(), encoding, indent),
             offset,
             typeSize,
-            generateGet(encoding.primitiveType(), "pos", byteOrderStr)));
+            generateFieldGet(encoding, "pos")));
 
         if (encoding.primitiveType() == PrimitiveType.CHAR)
         {
@@ -1619,18 +2294,12 @@ public class JavaGenerator implements CodeGenerator
             fieldLength));
     }
 
-    private String byteOrderString(final Encoding encoding)
-    {
-        return sizeOfPrimitive(encoding) == 1 ? "" : ", java.nio.ByteOrder." + encoding.byteOrder();
-    }
-
     private CharSequence generatePrimitiveArrayPropertyEncode(
         final String containingClassName, final String propertyName, final Token token, final String indent)
     {
         final Encoding encoding = token.encoding();
         final String javaTypeName = javaTypeName(encoding.primitiveType());
         final int offset = token.offset();
-        final String byteOrderStr = byteOrderString(encoding);
         final int fieldLength = token.arrayLength();
         final int typeSize = sizeOfPrimitive(encoding);
 
@@ -1653,7 +2322,7 @@ public class JavaGenerator implements CodeGenerator
             fieldLength,
             offset,
             typeSize,
-            generatePut(encoding.primitiveType(), "pos", "value", byteOrderStr)));
+            generateFieldPut(encoding, "pos", "value")));
 
         if (encoding.primitiveType() == PrimitiveType.CHAR)
         {
@@ -1767,7 +2436,7 @@ public class JavaGenerator implements CodeGenerator
         return values;
     }
 
-    private static CharSequence generateFixedFlyweightCode(
+    private CharSequence generateFixedFlyweightCode(
         final String className, final int size, final boolean callsSuper, final String bufferImplementation)
     {
         final String body = callsSuper ?
@@ -1779,6 +2448,7 @@ public class JavaGenerator implements CodeGenerator
             "    private int offset;\n\n" +
             "    public %1$s wrap(final %3$s buffer, final int offset)\n" +
             "    {\n" +
+            "%5$s" +
             "        this.buffer = buffer;\n" +
             "%4$s" +
             "        this.offset = offset;\n\n" +
@@ -1791,7 +2461,8 @@ public class JavaGenerator implements CodeGenerator
             className,
             size,
             bufferImplementation,
-            body);
+            body,
+            generateCapacityCheck("offset + ENCODED_LENGTH", INDENT + INDENT));
     }
 
     private CharSequence generateDecoderFlyweightCode(final String className, final Token token)
@@ -1800,6 +2471,8 @@ public class JavaGenerator implements CodeGenerator
             "    public %1$s wrap(\n" +
             "        final %2$s buffer, final int offset, final int actingBlockLength, final int actingVersion)\n" +
             "    {\n" +
+            "%3$s" +
+            "%4$s" +
             "        this.buffer = buffer;\n" +
             "        this.offset = offset;\n" +
             "        this.actingBlockLength = actingBlockLength;\n" +
@@ -1808,11 +2481,28 @@ public class JavaGenerator implements CodeGenerator
             "        return this;\n" +
             "    }\n\n",
             className,
-            readOnlyBuffer);
+            readOnlyBuffer,
+            generateActingVersionCheck(),
+            generateCapacityCheck("offset + actingBlockLength", INDENT + INDENT));
 
         return generateFlyweightCode(className, token, wrapMethod, readOnlyBuffer);
     }
 
+    private CharSequence generateActingVersionCheck()
+    {
+        if (!isGeneratingLatestVersionDecoder)
+        {
+            return "";
+        }
+
+        return
+            "        if (actingVersion < SCHEMA_VERSION)\n" +
+            "        {\n" +
+            "            throw new IllegalArgumentException(\"actingVersion below SCHEMA_VERSION: actingVersion=\" + " +
+            "actingVersion);\n" +
+            "        }\n\n";
+    }
+
     private CharSequence generateFlyweightCode(
         final String className, final Token token, final String wrapMethod, final String bufferImplementation)
     {
@@ -1891,13 +2581,15 @@ public class JavaGenerator implements CodeGenerator
         final String wrapMethod = String.format(
             "    public %1$s wrap(final %2$s buffer, final int offset)\n" +
             "    {\n" +
+            "%3$s" +
             "        this.buffer = buffer;\n" +
             "        this.offset = offset;\n" +
             "        limit(offset + BLOCK_LENGTH);\n\n" +
             "        return this;\n" +
             "    }\n\n",
             className,
-            mutableBuffer);
+            mutableBuffer,
+            generateCapacityCheck("offset + BLOCK_LENGTH", INDENT + INDENT));
 
         return generateFlyweightCode(className, token, wrapMethod, mutableBuffer);
     }
@@ -2059,7 +2751,7 @@ public class JavaGenerator implements CodeGenerator
                 propertyName,
                 generateTypeFieldNotPresentCondition(token.version(), indent),
                 enumName,
-                generateGet(encoding.primitiveType(), "offset + " + token.offset(), byteOrderString(encoding)));
+                generateFieldGet(encoding, "offset + " + token.offset()));
         }
     }
 
@@ -2084,7 +2776,7 @@ public class JavaGenerator implements CodeGenerator
             formatClassName(containingClassName),
             propertyName,
             enumName,
-            generatePut(encoding.primitiveType(), "offset + " + offset, "value.value()", byteOrderString(encoding)));
+            generateFieldPut(encoding, "offset + " + offset, "value.value()"));
     }
 
     private CharSequence generateBitSetProperty(
@@ -2190,128 +2882,320 @@ public class JavaGenerator implements CodeGenerator
         return literal;
     }
 
-    private String generateGet(final PrimitiveType type, final String index, final String byteOrder)
+    private String generateGet(final PrimitiveType type, final String index, final ByteOrder byteOrder)
+    {
+        return generateGet(type, index, byteOrder, false);
+    }
+
+    private String generatePut(
+        final PrimitiveType type, final String index, final String value, final ByteOrder byteOrder)
+    {
+        return generatePut(type, index, value, byteOrder, false);
+    }
+
+    private String generateFieldGet(final Encoding encoding, final String index)
+    {
+        return generateGet(encoding.primitiveType(), index, encoding.byteOrder(), shouldGenerateUnsafeAccessors);
+    }
+
+    private String generateFieldPut(final Encoding encoding, final String index, final String value)
+    {
+        return generatePut(encoding.primitiveType(), index, value, encoding.byteOrder(), shouldGenerateUnsafeAccessors);
+    }
+
+    private String generateCapacityCheck(final String limit, final String indent)
+    {
+        if (!shouldGenerateUnsafeAccessors)
+        {
+            return "";
+        }
+
+        return indent + "buffer.checkLimit(" + limit + ");\n";
+    }
+
+    private String generateGet(
+        final PrimitiveType type, final String index, final ByteOrder byteOrder, final boolean isUnsafe)
     {
         switch (type)
         {
             case CHAR:
             case INT8:
-                return "buffer.getByte(" + index + ")";
+                return generateRawGet("Byte", index, isUnsafe);
 
             case UINT8:
-                return "((short)(buffer.getByte(" + index + ") & 0xFF))";
+                return "((short)(" + generateRawGet("Byte", index, isUnsafe) + " & 0xFF))";
 
             case INT16:
-                return "buffer.getShort(" + index + byteOrder + ")";
+                return generateOrderedGet(type, index, byteOrder, isUnsafe);
 
             case UINT16:
-                return "(buffer.getShort(" + index + byteOrder + ") & 0xFFFF)";
+                return "(" + generateOrderedGet(PrimitiveType.INT16, index, byteOrder, isUnsafe) + " & 0xFFFF)";
 
             case INT32:
-                return "buffer.getInt(" + index + byteOrder + ")";
+                return generateOrderedGet(type, index, byteOrder, isUnsafe);
 
             case UINT32:
-                return "(buffer.getInt(" + index + byteOrder + ") & 0xFFFF_FFFFL)";
+                return "(" + generateOrderedGet(PrimitiveType.INT32, index, byteOrder, isUnsafe) + " & 0xFFFF_FFFFL)";
 
             case FLOAT:
-                return "buffer.getFloat(" + index + byteOrder + ")";
+                return generateOrderedGet(type, index, byteOrder, isUnsafe);
 
             case INT64:
             case UINT64:
-                return "buffer.getLong(" + index + byteOrder + ")";
+                return generateOrderedGet(PrimitiveType.INT64, index, byteOrder, isUnsafe);
 
             case DOUBLE:
-                return "buffer.getDouble(" + index + byteOrder + ")";
+                return generateOrderedGet(type, index, byteOrder, isUnsafe);
         }
 
         throw new IllegalArgumentException("primitive type not supported: " + type);
     }
 
-    private String generatePut(final PrimitiveType type, final String index, final String value, final String byteOrder)
+    private String generatePut(
+        final PrimitiveType type,
+        final String index,
+        final String value,
+        final ByteOrder byteOrder,
+        final boolean isUnsafe)
     {
         switch (type)
         {
             case CHAR:
             case INT8:
-                return "buffer.putByte(" + index + ", " + value + ")";
+                return generateRawPut("Byte", index, value, isUnsafe);
 
             case UINT8:
-                return "buffer.putByte(" + index + ", (byte)" + value + ")";
+                return generateRawPut("Byte", index, "(byte)" + value, isUnsafe);
 
             case INT16:
-                return "buffer.putShort(" + index + ", " + value + byteOrder + ")";
+                return generateOrderedPut(type, index, value, byteOrder, isUnsafe);
 
             case UINT16:
-                return "buffer.putShort(" + index + ", (short)" + value + byteOrder + ")";
+                return generateOrderedPut(PrimitiveType.INT16, index, "(short)" + value, byteOrder, isUnsafe);
 
             case INT32:
-                return "buffer.putInt(" + index + ", " + value + byteOrder + ")";
+                return generateOrderedPut(type, index, value, byteOrder, isUnsafe);
 
             case UINT32:
-                return "buffer.putInt(" + index + ", (int)" + value + byteOrder + ")";
+                return generateOrderedPut(PrimitiveType.INT32, index, "(int)" + value, byteOrder, isUnsafe);
 
             case FLOAT:
-                return "buffer.putFloat(" + index + ", " + value + byteOrder + ")";
+                return generateOrderedPut(type, index, value, byteOrder, isUnsafe);
 
             case INT64:
             case UINT64:
-                return "buffer.putLong(" + index + ", " + value + byteOrder + ")";
+                return generateOrderedPut(PrimitiveType.INT64, index, value, byteOrder, isUnsafe);
+
+            case DOUBLE:
+                return generateOrderedPut(type, index, value, byteOrder, isUnsafe);
+        }
+
+        throw new IllegalArgumentException("primitive type not supported: " + type);
+    }
+
+    /*
+     * The byte order is passed to the buffer, or resolved against NATIVE_BYTE_ORDER for unsafe accessors.
+     */
+    private String generateOrderedGet(
+        final PrimitiveType type, final String index, final ByteOrder byteOrder, final boolean isUnsafe)
+    {
+        final String accessor = accessorName(type);
+        if (!isUnsafe)
+        {
+            return "buffer.get" + accessor + "(" + index + ", java.nio.ByteOrder." + byteOrder + ")";
+        }
+
+        final PrimitiveType bitsType = bitsType(type);
+        final String bits = generateRawGet(accessorName(bitsType), index, true);
+        final String orderedBits =
+            "(NATIVE_BYTE_ORDER == java.nio.ByteOrder." + byteOrder + " ? " + bits + " : " +
+            reverseBytes(bitsType, bits) + ")";
+
+        switch (type)
+        {
+            case FLOAT:
+                return "Float.intBitsToFloat(" + orderedBits + ")";
+
+            case DOUBLE:
+                return "Double.longBitsToDouble(" + orderedBits + ")";
+
+            default:
+                return orderedBits;
+        }
+    }
+
+    private String generateOrderedPut(
+        final PrimitiveType type,
+        final String index,
+        final String value,
+        final ByteOrder byteOrder,
+        final boolean isUnsafe)
+    {
+        final String accessor = accessorName(type);
+        if (!isUnsafe)
+        {
+            return "buffer.put" + accessor + "(" + index + ", " + value + ", java.nio.ByteOrder." + byteOrder + ")";
+        }
+
+        final PrimitiveType bitsType = bitsType(type);
+        final String bits;
+        switch (type)
+        {
+            case FLOAT:
+                bits = "Float.floatToRawIntBits(" + value + ")";
+                break;
+
+            case DOUBLE:
+                bits = "Double.doubleToRawLongBits(" + value + ")";
+                break;
+
+            default:
+                bits = value;
+                break;
+        }
+
+        final String orderedBits =
+            "NATIVE_BYTE_ORDER == java.nio.ByteOrder." + byteOrder + " ? " + bits + " : " + reverseBytes(bitsType, bits);
+
+        return generateRawPut(accessorName(bitsType), index, orderedBits, true);
+    }
+
+    private static String generateRawGet(final String accessor, final String index, final boolean isUnsafe)
+    {
+        if (isUnsafe)
+        {
+            return "UNSAFE.get" + accessor + "(buffer.byteArray(), buffer.addressOffset() + " + index + ")";
+        }
+
+        return "buffer.get" + accessor + "(" + index + ")";
+    }
+
+    private static String generateRawPut(
+        final String accessor, final String index, final String value, final boolean isUnsafe)
+    {
+        if (isUnsafe)
+        {
+            return "UNSAFE.put" + accessor + "(buffer.byteArray(), buffer.addressOffset() + " + index + ", " + value + ")";
+        }
+
+        return "buffer.put" + accessor + "(" + index + ", " + value + ")";
+    }
+
+    private static String accessorName(final PrimitiveType type)
+    {
+        switch (type)
+        {
+            case INT16:
+                return "Short";
+
+            case INT32:
+                return "Int";
+
+            case INT64:
+                return "Long";
+
+            case FLOAT:
+                return "Float";
 
             case DOUBLE:
-                return "buffer.putDouble(" + index + ", " + value + byteOrder + ")";
+                return "Double";
         }
 
         throw new IllegalArgumentException("primitive type not supported: " + type);
     }
 
-    private String generateChoiceGet(final PrimitiveType type, final String index, final String bitIndex, final String byteOrder)
+    private static PrimitiveType bitsType(final PrimitiveType type)
     {
         switch (type)
         {
-            case UINT8:
-                return "0 != (buffer.getByte(" + index + ") & (1 << " + bitIndex + "))";
+            case FLOAT:
+                return PrimitiveType.INT32;
 
-            case UINT16:
-                return "0 != (buffer.getShort(" + index + byteOrder + ") & (1 << " + bitIndex + "))";
+            case DOUBLE:
+                return PrimitiveType.INT64;
 
-            case UINT32:
-                return "0 != (buffer.getInt(" + index + byteOrder + ") & (1 << " + bitIndex + "))";
+            default:
+                return type;
+        }
+    }
 
-            case UINT64:
-                return "0 != (buffer.getLong(" + index + byteOrder + ") & (1L << " + bitIndex + "))";
+    private static String reverseBytes(final PrimitiveType bitsType, final String bits)
+    {
+        switch (bitsType)
+        {
+            case INT16:
+                return "Short.reverseBytes(" + bits + ")";
+
+            case INT32:
+                return "Integer.reverseBytes(" + bits + ")";
+
+            case INT64:
+                return "Long.reverseBytes(" + bits + ")";
         }
 
-        throw new IllegalArgumentException("primitive type not supported: " + type);
+        throw new IllegalArgumentException("primitive type not supported: " + bitsType);
     }
 
-    private String generateChoicePut(
-        final PrimitiveType type, final String index, final String bitIndex, final String byteOrder)
+    private String generateChoiceGet(final Encoding encoding, final String index, final String bitIndex)
     {
-        switch (type)
+        final PrimitiveType bitsType = choiceBitsType(encoding.primitiveType());
+        final String get = generateGet(bitsType, index, encoding.byteOrder(), shouldGenerateUnsafeAccessors);
+        final String mask = bitsType == PrimitiveType.INT64 ? "(1L << " + bitIndex + ")" : "(1 << " + bitIndex + ")";
+
+        return "0 != (" + get + " & " + mask + ")";
+    }
+
+    private String generateChoicePut(final Encoding encoding, final String index, final String bitIndex)
+    {
+        final PrimitiveType bitsType = choiceBitsType(encoding.primitiveType());
+        final String get = generateGet(bitsType, index, encoding.byteOrder(), shouldGenerateUnsafeAccessors);
+        final String put = generatePut(bitsType, index, "bits", encoding.byteOrder(), shouldGenerateUnsafeAccessors);
+
+        switch (bitsType)
         {
-            case UINT8:
+            case INT8:
                 return
-                    "        byte bits = buffer.getByte(" + index + ");\n" +
+                    "        byte bits = " + get + ";\n" +
                     "        bits = (byte)(value ? bits | (1 << " + bitIndex + ") : bits & ~(1 << " + bitIndex + "));\n" +
-                    "        buffer.putByte(" + index + ", bits);";
+                    "        " + put + ";";
 
-            case UINT16:
+            case INT16:
                 return
-                    "        short bits = buffer.getShort(" + index + byteOrder + ");\n" +
+                    "        short bits = " + get + ";\n" +
                     "        bits = (short)(value ? bits | (1 << " + bitIndex + ") : bits & ~(1 << " + bitIndex + "));\n" +
-                    "        buffer.putShort(" + index + ", bits" + byteOrder + ");";
+                    "        " + put + ";";
 
-            case UINT32:
+            case INT32:
                 return
-                    "        int bits = buffer.getInt(" + index + byteOrder + ");\n" +
+                    "        int bits = " + get + ";\n" +
                     "        bits = value ? bits | (1 << " + bitIndex + ") : bits & ~(1 << " + bitIndex + ");\n" +
-                    "        buffer.putInt(" + index + ", bits" + byteOrder + ");";
+                    "        " + put + ";";
 
-            case UINT64:
+            case INT64:
                 return
-                    "        long bits = buffer.getLong(" + index + byteOrder + ");\n" +
+                    "        long bits = " + get + ";\n" +
                     "        bits = value ? bits | (1L << " + bitIndex + ") : bits & ~(1L << " + bitIndex + ");\n" +
-                    "        buffer.putLong(" + index + ", bits" + byteOrder + ");";
+                    "        " + put + ";";
+        }
+
+        throw new IllegalArgumentException("primitive type not supported: " + bitsType);
+    }
+
+    private static PrimitiveType choiceBitsType(final PrimitiveType type)
+    {
+        switch (type)
+        {
+            case UINT8:
+                return PrimitiveType.INT8;
+
+            case UINT16:
+                return PrimitiveType.INT16;
+
+            case UINT32:
+                return PrimitiveType.INT32;
+
+            case UINT64:
+                return PrimitiveType.INT64;
         }
 
         throw new IllegalArgumentException("primitive type not supported: " + type);
@@ -2360,6 +3244,25 @@ public class JavaGenerator implements CodeGenerator
         sb.append('\n');
         append(sb, indent, "public StringBuilder appendTo(final StringBuilder builder)");
         append(sb, indent, "{");
+
+        if (isDecimalComposite(tokens, 0, tokens.size() - 1))
+        {
+            if (tokens.get(1).isOptionalEncoding())
+            {
+                append(sb, indent, "    if (mantissa() == mantissaNullValue())");
+                append(sb, indent, "    {");
+                append(sb, indent, "        return builder.append(\"null\");");
+                append(sb, indent, "    }");
+                sb.append('\n');
+            }
+
+            append(
+                sb, indent, "    return " + decimalFormatterClassName + ".appendDecimal(builder, mantissa(), (int)exponent());");
+            append(sb, indent, "}");
+
+            return sb.toString();
+        }
+
         Separators.BEGIN_COMPOSITE.appendToGeneratedBuilder(sb, indent + INDENT, "builder");
 
         int lengthBeforeLastGeneratedSeparator = -1;
@@ -2615,7 +3518,7 @@ public class JavaGenerator implements CodeGenerator
                         append(sb, indent, "{");
                         append(sb, indent, "    for (int i = 0; i < " + fieldName + "Length(); i++)");
                         append(sb, indent, "    {");
-                        append(sb, indent, "        builder.append(" + fieldName + "(i));");
+                        appendValueDisplay(sb, indent + INDENT + INDENT, typeToken, fieldName + "(i)");
                         Separators.ENTRY.appendToGeneratedBuilder(sb, indent + INDENT + INDENT, "builder");
                         append(sb, indent, "    }");
                         append(sb, indent, "    builder.setLength(builder.length() - 1);");
@@ -2625,8 +3528,7 @@ public class JavaGenerator implements CodeGenerator
                 }
                 else
                 {
-                    // have to duplicate because of checkstyle :/
-                    append(sb, indent, "builder.append(" + fieldName + "());");
+                    appendValueDisplay(sb, indent, typeToken, fieldName + "()");
                 }
                 break;
 
@@ -2646,6 +3548,298 @@ public class JavaGenerator implements CodeGenerator
         return lengthBeforeFieldSeparator;
     }
 
+    private CharSequence generateChoiceVisit(final List<Token> tokens)
+    {
+        final String indent = INDENT;
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append('\n');
+        append(sb, indent, "public void visit(final " + DECODER_VISITOR + " visitor)");
+        append(sb, indent, "{");
+
+        for (final Token token : tokens)
+        {
+            if (token.signal() == Signal.CHOICE)
+            {
+                final String choiceName = formatPropertyName(token.name());
+                append(sb, indent, "    visitor.onChoice(\"" + token.name() + "\", " + choiceName + "());");
+            }
+        }
+
+        append(sb, indent, "}");
+
+        return sb;
+    }
+
+    private CharSequence generateCompositeDecoderVisit(final List<Token> tokens, final String baseIndent)
+    {
+        final String indent = baseIndent + INDENT;
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append('\n');
+        append(sb, indent, "public void visit(final " + DECODER_VISITOR + " visitor)");
+        append(sb, indent, "{");
+
+        for (int i = 1, end = tokens.size() - 1; i < end; )
+        {
+            final Token encodingToken = tokens.get(i);
+            writeTokenVisit(encodingToken, encodingToken, sb, indent + INDENT);
+            i += encodingToken.componentTokenCount();
+        }
+
+        append(sb, indent, "}");
+
+        return sb;
+    }
+
+    private CharSequence generateDecoderVisit(
+        final String name,
+        final List<Token> fields,
+        final List<Token> groups,
+        final List<Token> varData,
+        final String baseIndent)
+    {
+        final String indent = baseIndent + INDENT;
+        final StringBuilder sb = new StringBuilder();
+
+        sb.append('\n');
+        append(sb, indent, "public void visit(final " + DECODER_VISITOR + " visitor)");
+        append(sb, indent, "{");
+        append(sb, indent, "    final int originalLimit = limit();");
+        append(sb, indent, "    limit(offset + actingBlockLength);");
+        append(sb, indent, "    visitor.onBeginMessage(\"" + name + "\", TEMPLATE_ID, actingVersion);");
+        appendDecoderVisit(sb, fields, groups, varData, indent + INDENT);
+        append(sb, indent, "    visitor.onEndMessage(\"" + name + "\", TEMPLATE_ID);");
+        append(sb, indent, "    limit(originalLimit);");
+        append(sb, indent, "}");
+
+        return sb;
+    }
+
+    private StringBuilder appendGroupInstanceDecoderVisit(
+        final StringBuilder sb,
+        final Token groupToken,
+        final List<Token> fields,
+        final List<Token> groups,
+        final List<Token> varData,
+        final String baseIndent)
+    {
+        final String indent = baseIndent + INDENT;
+        final String groupArgs = "\"" + groupToken.name() + "\", " + groupToken.id();
+
+        sb.append('\n');
+        append(sb, indent, "public void visit(final " + DECODER_VISITOR + " visitor)");
+        append(sb, indent, "{");
+        append(sb, indent, "    visitor.onBeginGroupEntry(" + groupArgs + ");");
+        appendDecoderVisit(sb, fields, groups, varData, indent + INDENT);
+        append(sb, indent, "    visitor.onEndGroupEntry(" + groupArgs + ");");
+        append(sb, indent, "}");
+
+        return sb;
+    }
+
+    private StringBuilder appendDecoderVisit(
+        final StringBuilder sb,
+        final List<Token> fields,
+        final List<Token> groups,
+        final List<Token> varData,
+        final String indent)
+    {
+        for (int i = 0, size = fields.size(); i < size;)
+        {
+            final Token fieldToken = fields.get(i);
+            if (fieldToken.signal() == Signal.BEGIN_FIELD)
+            {
+                final Token encodingToken = fields.get(i + 1);
+                if (fieldToken.version() > 0 && !isGeneratingLatestVersionDecoder &&
+                    encodingToken.encodedLength() > 0 && !encodingToken.isConstantEncoding())
+                {
+                    append(sb, indent, "if (actingVersion >= " + fieldToken.version() + ")");
+                    append(sb, indent, "{");
+                    writeTokenVisit(fieldToken, encodingToken, sb, indent + INDENT);
+                    append(sb, indent, "}");
+                }
+                else
+                {
+                    writeTokenVisit(fieldToken, encodingToken, sb, indent);
+                }
+
+                i += fieldToken.componentTokenCount();
+            }
+            else
+            {
+                ++i;
+            }
+        }
+
+        for (int i = 0, size = groups.size(); i < size; i++)
+        {
+            final Token groupToken = groups.get(i);
+            if (groupToken.signal() != Signal.BEGIN_GROUP)
+            {
+                throw new IllegalStateException("tokens must begin with BEGIN_GROUP: token=" + groupToken);
+            }
+
+            final String groupName = formatPropertyName(groupToken.name());
+            final String groupDecoderName = decoderName(formatClassName(groupToken.name()));
+            final String groupArgs = "\"" + groupToken.name() + "\", " + groupToken.id();
+
+            append(sb, indent, "{");
+            append(sb, indent, "    final " + groupDecoderName + " " + groupName + " = " + groupName + "();");
+            append(sb, indent, "    visitor.onBeginGroup(" + groupArgs + ", " + groupName + ".count());");
+            append(sb, indent, "    while (" + groupName + ".hasNext())");
+            append(sb, indent, "    {");
+            append(sb, indent, "        " + groupName + ".next().visit(visitor);");
+            append(sb, indent, "    }");
+            append(sb, indent, "    visitor.onEndGroup(" + groupArgs + ");");
+            append(sb, indent, "}");
+
+            i = findEndSignal(groups, i, Signal.END_GROUP, groupToken.name());
+        }
+
+        for (int i = 0, size = varData.size(); i < size;)
+        {
+            final Token varDataToken = varData.get(i);
+            if (varDataToken.signal() != Signal.BEGIN_VAR_DATA)
+            {
+                throw new IllegalStateException("tokens must begin with BEGIN_VAR_DATA: token=" + varDataToken);
+            }
+
+            final String varDataName = formatPropertyName(varDataToken.name());
+            final int version = varDataToken.version();
+
+            if (version > 0 && !isGeneratingLatestVersionDecoder)
+            {
+                append(sb, indent, "if (actingVersion >= " + version + ")");
+            }
+
+            append(sb, indent, "{");
+            append(sb, indent, "    final int dataLength = " + varDataName + "Length();");
+            append(sb, indent, "    final int dataOffset = parentMessage.limit() + " + varDataName + "HeaderLength();");
+            append(sb, indent, "    parentMessage.limit(dataOffset + dataLength);");
+            append(sb, indent, "    visitor.onVarData(\"" + varDataToken.name() + "\", " + varDataToken.id() +
+                ", buffer, dataOffset, dataLength);");
+            append(sb, indent, "}");
+
+            i += varDataToken.componentTokenCount();
+        }
+
+        return sb;
+    }
+
+    private void writeTokenVisit(
+        final Token fieldToken,
+        final Token typeToken,
+        final StringBuilder sb,
+        final String indent)
+    {
+        if (typeToken.encodedLength() <= 0 || typeToken.isConstantEncoding())
+        {
+            return;
+        }
+
+        final String fieldName = formatPropertyName(fieldToken.name());
+        final String fieldArgs = "\"" + fieldToken.name() + "\", " + fieldToken.id();
+
+        switch (typeToken.signal())
+        {
+            case ENCODING:
+                final PrimitiveType primitiveType = typeToken.encoding().primitiveType();
+                final int arrayLength = typeToken.arrayLength();
+                if (arrayLength > 1 && primitiveType == PrimitiveType.CHAR)
+                {
+                    append(sb, indent, "visitor.onCharArray(" + fieldArgs + ", buffer, offset + " + typeToken.offset() +
+                        ", " + arrayLength + ");");
+                }
+                else if (arrayLength > 1)
+                {
+                    append(sb, indent, "visitor.onBeginArray(" + fieldArgs + ", " + arrayLength + ");");
+                    append(sb, indent, "for (int i = 0; i < " + arrayLength + "; i++)");
+                    append(sb, indent, "{");
+                    append(sb, indent, "    visitor." + visitMethod(primitiveType) + "(" + fieldArgs + ", " +
+                        fieldName + "(i));");
+                    append(sb, indent, "}");
+                    append(sb, indent, "visitor.onEndArray(" + fieldArgs + ");");
+                }
+                else
+                {
+                    append(sb, indent, "visitor." + visitMethod(primitiveType) + "(" + fieldArgs + ", " +
+                        fieldName + "());");
+                }
+                break;
+
+            case BEGIN_ENUM:
+                append(sb, indent, "visitor.onEnum(" + fieldArgs + ", " + fieldName + "());");
+                break;
+
+            case BEGIN_SET:
+                append(sb, indent, "visitor.onBeginSet(" + fieldArgs + ");");
+                append(sb, indent, fieldName + "().visit(visitor);");
+                append(sb, indent, "visitor.onEndSet(" + fieldArgs + ");");
+                break;
+
+            case BEGIN_COMPOSITE:
+                append(sb, indent, "visitor.onBeginComposite(" + fieldArgs + ");");
+                append(sb, indent, fieldName + "().visit(visitor);");
+                append(sb, indent, "visitor.onEndComposite(" + fieldArgs + ");");
+                break;
+        }
+    }
+
+    private static String visitMethod(final PrimitiveType primitiveType)
+    {
+        switch (primitiveType)
+        {
+            case CHAR:
+                return "onChar";
+
+            case UINT64:
+                return "onUnsignedLong";
+
+            case FLOAT:
+            case DOUBLE:
+                return "onDouble";
+
+            default:
+                return "onLong";
+        }
+    }
+
+    private void appendValueDisplay(
+        final StringBuilder sb, final String indent, final Token typeToken, final String value)
+    {
+        switch (typeToken.encoding().primitiveType())
+        {
+            case FLOAT:
+                append(sb, indent, decimalFormatterClassName + ".appendFloat(builder, " + value + ");");
+                return;
+
+            case DOUBLE:
+                append(sb, indent, decimalFormatterClassName + ".appendDouble(builder, " + value + ");");
+                return;
+
+            case UINT64:
+                break;
+
+            default:
+                append(sb, indent, "builder.append(" + value + ");");
+                return;
+        }
+
+        append(sb, indent, "{");
+        append(sb, indent, "    final long uint64Value = " + value + ";");
+        append(sb, indent, "    if (uint64Value < 0)");
+        append(sb, indent, "    {");
+        append(sb, indent, "        final long quotient = (uint64Value >>> 1) / 5;");
+        append(sb, indent, "        builder.append(quotient).append((char)('0' + (uint64Value - (quotient * 10))));");
+        append(sb, indent, "    }");
+        append(sb, indent, "    else");
+        append(sb, indent, "    {");
+        append(sb, indent, "        builder.append(uint64Value);");
+        append(sb, indent, "    }");
+        append(sb, indent, "}");
+    }
+
     private void appendToString(final StringBuilder sb, final String indent)
     {
         append(sb, indent, "public String toString()");
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of comparing a previous and a next version of a schema with the {@link IrCompatibilityChecker}, holding the
+ * changes to the schema as a whole and the {@link MessageCompatibility} of each message ordered by template id.
+ */
+public class CompatibilityReport
+{
+    private final int schemaId;
+    private final int previousVersion;
+    private final int nextVersion;
+    private final List<String> schemaBreakingChanges = new ArrayList<>();
+    private final List<MessageCompatibility> messages = new ArrayList<>();
+
+    CompatibilityReport(final int schemaId, final int previousVersion, final int nextVersion)
+    {
+        this.schemaId = schemaId;
+        this.previousVersion = previousVersion;
+        this.nextVersion = nextVersion;
+    }
+
+    /**
+     * Version of the previous schema compared.
+     *
+     * @return version of the previous schema compared.
+     */
+    public int previousVersion()
+    {
+        return previousVersion;
+    }
+
+    /**
+     * Version of the next schema compared.
+     *
+     * @return version of the next schema compared.
+     */
+    public int nextVersion()
+    {
+        return nextVersion;
+    }
+
+    /**
+     * Are the schemas free of breaking changes so all messages can be exchanged between the versions.
+     *
+     * @return true if the schemas are free of breaking changes.
+     */
+    public boolean isCompatible()
+    {
+        return breakingChanges().isEmpty();
+    }
+
+    /**
+     * All breaking changes to the schema and its messages, with the changes to a message prefixed by its name.
+     *
+     * @return all breaking changes to the schema and its messages.
+     */
+    public List<String> breakingChanges()
+    {
+        final List<String> changes = new ArrayList<>(schemaBreakingChanges);
+        for (final MessageCompatibility message : messages)
+        {
+            for (final String change : message.breakingChanges())
+            {
+                changes.add(message.name() + ": " + change);
+            }
+        }
+
+        return changes;
+    }
+
+    /**
+     * The {@link MessageCompatibility} of each message in either schema ordered by template id.
+     *
+     * @return the {@link MessageCompatibility} of each message in either schema ordered by template id.
+     */
+    public List<MessageCompatibility> messages()
+    {
+        return Collections.unmodifiableList(messages);
+    }
+
+    /**
+     * Get the {@link MessageCompatibility} for a template id.
+     *
+     * @param templateId of the message.
+     * @return the {@link MessageCompatibility} for the message or null if it is in neither schema.
+     */
+    public MessageCompatibility message(final int templateId)
+    {
+        for (final MessageCompatibility message : messages)
+        {
+            if (message.templateId() == templateId)
+            {
+                return message;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * The compatibility matrix of each message followed by the breaking changes, for reading in build output.
+     *
+     * @return the report as text.
+     */
+    public String toString()
+    {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format(
+            "schema id=%d version %d -> %d: %s%n",
+            schemaId, previousVersion, nextVersion, isCompatible() ? "compatible" : "BREAKING"));
+        sb.append(String.format(
+            "%10s  %-30s  %-13s  %-13s  %s%n", "templateId", "name", "next reads", "previous", "skip version"));
+        sb.append(String.format(
+            "%10s  %-30s  %-13s  %-13s  %s%n", "", "", "previous", "reads next", "checks"));
+
+        for (final MessageCompatibility message : messages)
+        {
+            sb.append(String.format(
+                "%10d  %-30s  %-13s  %-13s  %s%n",
+                message.templateId(),
+                message.name() + (message.isAdded() ? " (added)" : message.isRemoved() ? " (removed)" : ""),
+                yesNo(message.canNextDecodePrevious()),
+                yesNo(message.canPreviousDecodeNext()),
+                yesNo(message.canSkipVersionChecks())));
+        }
+
+        for (final String change : breakingChanges())
+        {
+            sb.append("breaking: ").append(change).append(System.lineSeparator());
+        }
+
+        return sb.toString();
+    }
+
+    void addBreakingChange(final String change)
+    {
+        schemaBreakingChanges.add(change);
+    }
+
+    void addMessage(final MessageCompatibility message)
+    {
+        messages.add(message);
+    }
+
+    private static String yesNo(final boolean value)
+    {
+        return value ? "yes" : "no";
+    }
+}
@@ -15,6 +15,8 @@
  */
 package uk.co.real_logic.sbe.ir;
 
+import uk.co.real_logic.sbe.PrimitiveType;
+
 import java.util.List;
 import java.util.function.Function;
 
@@ -101,4 +103,40 @@ public final class GenerationUtil
 
         return result;
     }
+
+    /**
+     * Is a composite a decimal of an integer mantissa and an integer exponent, which may be constant, so its value can
+     * be displayed as a single decimal number. A UINT64 mantissa is excluded as it may not fit in a long.
+     *
+     * @param tokens    containing the composite.
+     * @param fromIndex of the {@link Signal#BEGIN_COMPOSITE} token.
+     * @param toIndex   of the {@link Signal#END_COMPOSITE} token.
+     * @return true if the composite has only a mantissa and an exponent.
+     */
+    public static boolean isDecimalComposite(final List<Token> tokens, final int fromIndex, final int toIndex)
+    {
+        if (toIndex - fromIndex != 3)
+        {
+            return false;
+        }
+
+        final Token mantissa = tokens.get(fromIndex + 1);
+        final Token exponent = tokens.get(fromIndex + 2);
+
+        return "mantissa".equals(mantissa.name()) && isSingleInteger(mantissa) &&
+            mantissa.encoding().primitiveType() != PrimitiveType.UINT64 &&
+            "exponent".equals(exponent.name()) && isSingleInteger(exponent);
+    }
+
+    private static boolean isSingleInteger(final Token token)
+    {
+        if (Signal.ENCODING != token.signal() || token.arrayLength() > 1)
+        {
+            return false;
+        }
+
+        final PrimitiveType type = token.encoding().primitiveType();
+
+        return type != PrimitiveType.CHAR && type != PrimitiveType.FLOAT && type != PrimitiveType.DOUBLE;
+    }
 }
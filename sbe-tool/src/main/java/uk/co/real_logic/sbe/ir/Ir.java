@@ -16,6 +16,7 @@
 package uk.co.real_logic.sbe.ir;
 
 import org.agrona.Verify;
+import org.agrona.collections.Long2ObjectHashMap;
 
 import uk.co.real_logic.sbe.SbeTool;
 
@@ -28,6 +29,11 @@ import java.util.regex.Pattern;
  */
 public class Ir
 {
+    /**
+     * Message ids below this are also held in an array indexed by id for lookup without hashing.
+     */
+    public static final int MAX_DENSE_MESSAGE_ID = 1024;
+
     private final String packageName;
     private final String namespaceName;
     private final int id;
@@ -35,7 +41,9 @@ public class Ir
     private final String semanticVersion;
 
     private final HeaderStructure headerStructure;
-    private final Map<Long, List<Token>> messagesByIdMap = new HashMap<>();
+    private final Long2ObjectHashMap<List<Token>> messagesByIdMap = new Long2ObjectHashMap<>();
+    private final List<List<Token>> messagesByDenseId = new ArrayList<>();
+    private final Map<Long, List<Token>> messagesInIdOrder = new TreeMap<>();
     private final Map<String, List<Token>> typesByNameMap = new HashMap<>();
 
     private final String[] namespaces;
@@ -102,7 +110,42 @@ public class Ir
         compressConstantEnums(messageTokens);
         countComponentTokens(messageTokens);
 
-        messagesByIdMap.put(messageId, new ArrayList<>(messageTokens));
+        putMessage(messageId, new ArrayList<>(messageTokens));
+    }
+
+    /**
+     * Put the List of {@link Token}s for a message which has already had its types captured and component tokens
+     * counted, such as when copying another {@link Ir}.
+     *
+     * @param messageId     to identify the list of tokens for the message.
+     * @param messageTokens the List of {@link Token}s representing the message.
+     */
+    void putMessage(final long messageId, final List<Token> messageTokens)
+    {
+        messagesByIdMap.put(messageId, messageTokens);
+        messagesInIdOrder.put(messageId, messageTokens);
+
+        if (messageId >= 0 && messageId < MAX_DENSE_MESSAGE_ID)
+        {
+            final int index = (int)messageId;
+            while (index >= messagesByDenseId.size())
+            {
+                messagesByDenseId.add(null);
+            }
+
+            messagesByDenseId.set(index, messageTokens);
+        }
+    }
+
+    /**
+     * Put the List of {@link Token}s for a type which has been captured from the messages of another {@link Ir}.
+     *
+     * @param name       of the type.
+     * @param typeTokens the List of {@link Token}s representing the type.
+     */
+    void putType(final String name, final List<Token> typeTokens)
+    {
+        typesByNameMap.put(name, typeTokens);
     }
 
     /**
@@ -113,9 +156,26 @@ public class Ir
      */
     public List<Token> getMessage(final long messageId)
     {
+        if (messageId >= 0 && messageId < messagesByDenseId.size())
+        {
+            return messagesByDenseId.get((int)messageId);
+        }
+
         return messagesByIdMap.get(messageId);
     }
 
+    /**
+     * Get the message for a template id as read from a message header, without boxing the id so it can be used for
+     * each message decoded. Ids below {@link #MAX_DENSE_MESSAGE_ID} are looked up by array index.
+     *
+     * @param templateId of the message to get.
+     * @return the List of {@link Token}s representing the message or null if the id is not found.
+     */
+    public List<Token> getMessage(final int templateId)
+    {
+        return getMessage((long)templateId);
+    }
+
     /**
      * Get the type representation for a given type name.
      *
@@ -138,13 +198,13 @@ public class Ir
     }
 
     /**
-     * The {@link Collection} of messages in this schema.
+     * The {@link Collection} of messages in this schema ordered by message id.
      *
-     * @return the {@link Collection} of messages in this schema.
+     * @return the {@link Collection} of messages in this schema ordered by message id.
      */
     public Collection<List<Token>> messages()
     {
-        return messagesByIdMap.values();
+        return Collections.unmodifiableCollection(messagesInIdOrder.values());
     }
 
     /**
@@ -0,0 +1,641 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import uk.co.real_logic.sbe.SbeTool;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+
+import java.util.*;
+
+import static uk.co.real_logic.sbe.ir.GenerationUtil.collectFields;
+import static uk.co.real_logic.sbe.ir.GenerationUtil.collectGroups;
+import static uk.co.real_logic.sbe.ir.GenerationUtil.collectVarData;
+
+/**
+ * Checks that the next version of a schema is wire compatible with the previous version so both can be in use at the
+ * same time, producing a {@link CompatibilityReport}.
+ * <p>
+ * Fields, groups and var data are matched by id. The changes which are breaking are:
+ * <ul>
+ * <li>A different schema id, a lower version or a change to the message header.</li>
+ * <li>A message, field, group, var data, composite member, enum value or set choice being removed.</li>
+ * <li>A field moving offset, a change to the type, length, byte order, constant or null value of an encoding, or to
+ *     the value of an enum value or set choice.</li>
+ * <li>A change to the sinceVersion of an existing field, group or var data.</li>
+ * <li>A block length getting smaller.</li>
+ * <li>A field, group or var data added without a sinceVersion greater than the previous version, a field added
+ *     within the previous block length, or a group or var data added before those of the previous version.</li>
+ * </ul>
+ * Enum values and set choices may be added but decoders of the previous version cannot interpret them.
+ * <p>
+ * Usage:
+ * <pre>
+ *     $ java -cp sbe.jar uk.co.real_logic.sbe.ir.IrCompatibilityChecker &lt;previous&gt; &lt;next&gt;
+ * </pre>
+ * where the schemas are either XML or encoded IR. The report is printed and the exit status is 1 if there are
+ * breaking changes.
+ */
+public final class IrCompatibilityChecker
+{
+    private final Ir previousIr;
+    private final Ir nextIr;
+
+    private IrCompatibilityChecker(final Ir previousIr, final Ir nextIr)
+    {
+        this.previousIr = previousIr;
+        this.nextIr = nextIr;
+    }
+
+    public static void main(final String[] args) throws Exception
+    {
+        if (args.length != 2)
+        {
+            System.err.format("Usage: %s <previous schema> <next schema>%n", IrCompatibilityChecker.class.getName());
+            System.exit(-1);
+        }
+
+        final CompatibilityReport report = check(loadIr(args[0]), loadIr(args[1]));
+        System.out.print(report);
+
+        if (!report.isCompatible())
+        {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Check the changes from the previous to the next version of a schema.
+     *
+     * @param previousIr of the version of the schema currently in use.
+     * @param nextIr     of the version of the schema to be deployed.
+     * @return the {@link CompatibilityReport} for the schema and each of its messages.
+     */
+    public static CompatibilityReport check(final Ir previousIr, final Ir nextIr)
+    {
+        Objects.requireNonNull(previousIr, "previousIr");
+        Objects.requireNonNull(nextIr, "nextIr");
+
+        return new IrCompatibilityChecker(previousIr, nextIr).check();
+    }
+
+    private CompatibilityReport check()
+    {
+        final CompatibilityReport report = new CompatibilityReport(nextIr.id(), previousIr.version(), nextIr.version());
+
+        if (previousIr.id() != nextIr.id())
+        {
+            report.addBreakingChange("schema id changed from " + previousIr.id() + " to " + nextIr.id());
+        }
+
+        if (nextIr.version() < previousIr.version())
+        {
+            report.addBreakingChange(
+                "schema version decreased from " + previousIr.version() + " to " + nextIr.version());
+        }
+
+        final MessageCompatibility header = newMessage(0, "message header", 0, 0);
+        compareEncodings(
+            "message header", previousIr.headerStructure().tokens(), nextIr.headerStructure().tokens(), header);
+        for (final String change : header.breakingChanges())
+        {
+            report.addBreakingChange(change);
+        }
+
+        final boolean isSchemaCompatible = report.isCompatible();
+        final SortedSet<Integer> templateIds = new TreeSet<>();
+        addTemplateIds(previousIr, templateIds);
+        addTemplateIds(nextIr, templateIds);
+
+        for (final int templateId : templateIds)
+        {
+            final MessageCompatibility message = compareMessage(
+                templateId, previousIr.getMessage(templateId), nextIr.getMessage(templateId));
+
+            if (!isSchemaCompatible)
+            {
+                message.schemaIncompatible();
+            }
+
+            report.addMessage(message);
+        }
+
+        return report;
+    }
+
+    private MessageCompatibility compareMessage(
+        final int templateId, final List<Token> previousTokens, final List<Token> nextTokens)
+    {
+        if (null == nextTokens)
+        {
+            final Token previousToken = previousTokens.get(0);
+            final MessageCompatibility message =
+                newMessage(templateId, previousToken.name(), previousToken.encodedLength(), -1);
+            message.addBreakingChange("message removed");
+
+            return message;
+        }
+
+        final Token nextToken = nextTokens.get(0);
+        final List<Token> nextBody = GenerationUtil.getMessageBody(nextTokens);
+
+        if (null == previousTokens)
+        {
+            final MessageCompatibility message = newMessage(templateId, nextToken.name(), -1, nextToken.encodedLength());
+            message.addAddition("message added");
+            captureSinceVersions(nextBody, message);
+
+            return message;
+        }
+
+        final Token previousToken = previousTokens.get(0);
+        final MessageCompatibility message =
+            newMessage(templateId, nextToken.name(), previousToken.encodedLength(), nextToken.encodedLength());
+
+        if (!previousToken.name().equals(nextToken.name()))
+        {
+            message.addAddition("message renamed from " + previousToken.name());
+        }
+
+        compareBlock(
+            "",
+            GenerationUtil.getMessageBody(previousTokens),
+            nextBody,
+            previousToken.encodedLength(),
+            nextToken.encodedLength(),
+            message);
+        captureSinceVersions(nextBody, message);
+
+        return message;
+    }
+
+    private void compareBlock(
+        final String path,
+        final List<Token> previousTokens,
+        final List<Token> nextTokens,
+        final int previousBlockLength,
+        final int nextBlockLength,
+        final MessageCompatibility message)
+    {
+        if (nextBlockLength < previousBlockLength)
+        {
+            message.addBreakingChange(
+                blockName(path) + " block length reduced from " + previousBlockLength + " to " + nextBlockLength);
+        }
+
+        final Members previous = new Members(previousTokens);
+        final Members next = new Members(nextTokens);
+
+        compareFields(path, previous.fields, next.fields, previousBlockLength, message);
+        compareRepeating(path, "group", previous.groups, next.groups, message);
+        compareRepeating(path, "var data", previous.varData, next.varData, message);
+    }
+
+    private void compareFields(
+        final String path,
+        final List<List<Token>> previousFields,
+        final List<List<Token>> nextFields,
+        final int previousBlockLength,
+        final MessageCompatibility message)
+    {
+        final Map<Integer, List<Token>> nextFieldById = byId(nextFields);
+
+        for (final List<Token> previousField : previousFields)
+        {
+            final Token previousToken = previousField.get(0);
+            final List<Token> nextField = nextFieldById.remove(previousToken.id());
+            final String name = "field " + path + previousToken.name();
+
+            if (null == nextField)
+            {
+                message.addBreakingChange(name + " removed");
+                continue;
+            }
+
+            final Token nextToken = nextField.get(0);
+            compareElement(name, previousToken, nextToken, message);
+
+            if (previousToken.offset() != nextToken.offset())
+            {
+                message.addBreakingChange(
+                    name + " moved from offset " + previousToken.offset() + " to " + nextToken.offset());
+            }
+
+            compareEncodings(name, innerTokens(previousField, 1), innerTokens(nextField, 1), message);
+        }
+
+        for (final List<Token> nextField : nextFieldById.values())
+        {
+            final Token nextToken = nextField.get(0);
+            final String name = "field " + path + nextToken.name();
+
+            if (0 == nextField.get(1).encodedLength())
+            {
+                message.addAddition("constant " + name + " added");
+            }
+            else if (nextToken.version() <= previousIr.version())
+            {
+                message.addBreakingChange(name + " added without a sinceVersion greater than " + previousIr.version());
+            }
+            else if (nextToken.offset() < previousBlockLength)
+            {
+                message.addBreakingChange(
+                    name + " added at offset " + nextToken.offset() + " within previous block length " +
+                    previousBlockLength);
+            }
+            else
+            {
+                message.addAddition(name + " added since version " + nextToken.version());
+            }
+        }
+    }
+
+    private void compareRepeating(
+        final String path,
+        final String kind,
+        final List<List<Token>> previousElements,
+        final List<List<Token>> nextElements,
+        final MessageCompatibility message)
+    {
+        final Map<Integer, List<Token>> nextElementById = byId(nextElements);
+        int expectedIndex = 0;
+
+        for (final List<Token> previousElement : previousElements)
+        {
+            final Token previousToken = previousElement.get(0);
+            final List<Token> nextElement = nextElementById.remove(previousToken.id());
+            final String name = kind + " " + path + previousToken.name();
+
+            if (null == nextElement)
+            {
+                message.addBreakingChange(name + " removed");
+                continue;
+            }
+
+            if (nextElements.indexOf(nextElement) != expectedIndex++)
+            {
+                message.addBreakingChange(name + " moved from position " + previousElements.indexOf(previousElement));
+            }
+
+            final Token nextToken = nextElement.get(0);
+            compareElement(name, previousToken, nextToken, message);
+
+            if (Signal.BEGIN_GROUP == previousToken.signal())
+            {
+                final int previousDimensionsEnd = 1 + previousElement.get(1).componentTokenCount();
+                final int nextDimensionsEnd = 1 + nextElement.get(1).componentTokenCount();
+
+                compareEncodings(
+                    name + " dimensions",
+                    previousElement.subList(1, previousDimensionsEnd),
+                    nextElement.subList(1, nextDimensionsEnd),
+                    message);
+
+                compareBlock(
+                    path + previousToken.name() + ".",
+                    innerTokens(previousElement, previousDimensionsEnd),
+                    innerTokens(nextElement, nextDimensionsEnd),
+                    previousToken.encodedLength(),
+                    nextToken.encodedLength(),
+                    message);
+            }
+            else
+            {
+                compareEncodings(name, innerTokens(previousElement, 1), innerTokens(nextElement, 1), message);
+            }
+        }
+
+        for (final List<Token> nextElement : nextElementById.values())
+        {
+            final Token nextToken = nextElement.get(0);
+            final String name = kind + " " + path + nextToken.name();
+
+            if (nextToken.version() <= previousIr.version())
+            {
+                message.addBreakingChange(name + " added without a sinceVersion greater than " + previousIr.version());
+            }
+            else
+            {
+                message.addAddition(name + " added since version " + nextToken.version());
+            }
+        }
+    }
+
+    private static void compareElement(
+        final String name, final Token previousToken, final Token nextToken, final MessageCompatibility message)
+    {
+        if (!previousToken.name().equals(nextToken.name()))
+        {
+            message.addAddition(name + " renamed to " + nextToken.name());
+        }
+
+        if (previousToken.version() != nextToken.version())
+        {
+            message.addBreakingChange(
+                name + " sinceVersion changed from " + previousToken.version() + " to " + nextToken.version());
+        }
+    }
+
+    /**
+     * Compare the tokens of the type of an element, matching the members of composites, enum values and set choices
+     * by name with the top level type matched regardless of its name.
+     */
+    private static void compareEncodings(
+        final String name, final List<Token> previousTokens, final List<Token> nextTokens, final MessageCompatibility message)
+    {
+        final Map<String, Token> previousTokenByPath = tokensByPath(previousTokens);
+        final Map<String, Token> nextTokenByPath = tokensByPath(nextTokens);
+
+        for (final Map.Entry<String, Token> entry : previousTokenByPath.entrySet())
+        {
+            final String path = entry.getKey();
+            final String label = path.isEmpty() ? name : name + " " + path;
+            final Token previousToken = entry.getValue();
+            final Token nextToken = nextTokenByPath.remove(path);
+
+            if (null == nextToken)
+            {
+                message.addBreakingChange(label + " removed");
+            }
+            else if (isValue(previousToken))
+            {
+                if (!previousToken.encoding().constValue().equals(nextToken.encoding().constValue()))
+                {
+                    message.addBreakingChange(
+                        label + " changed from " + previousToken.encoding().constValue() +
+                        " to " + nextToken.encoding().constValue());
+                }
+            }
+            else
+            {
+                compareEncoding(label, !path.isEmpty(), previousToken, nextToken, message);
+            }
+        }
+
+        for (final Map.Entry<String, Token> entry : nextTokenByPath.entrySet())
+        {
+            final String label = name + " " + entry.getKey();
+            final Token nextToken = entry.getValue();
+
+            if (isValue(nextToken))
+            {
+                message.addValueUnknownToPrevious(label + " added");
+            }
+            else if (0 == nextToken.encodedLength())
+            {
+                message.addAddition("constant " + label + " added");
+            }
+            else
+            {
+                message.addBreakingChange(label + " added");
+            }
+        }
+    }
+
+    private static void compareEncoding(
+        final String label,
+        final boolean isMember,
+        final Token previousToken,
+        final Token nextToken,
+        final MessageCompatibility message)
+    {
+        if (previousToken.signal() != nextToken.signal())
+        {
+            message.addBreakingChange(label + " changed from " + kindOf(previousToken) + " to " + kindOf(nextToken));
+            return;
+        }
+
+        if (isMember && previousToken.offset() != nextToken.offset())
+        {
+            message.addBreakingChange(
+                label + " moved from offset " + previousToken.offset() + " to " + nextToken.offset());
+        }
+
+        if (previousToken.encodedLength() != nextToken.encodedLength())
+        {
+            message.addBreakingChange(
+                label + " length changed from " + previousToken.encodedLength() + " to " + nextToken.encodedLength());
+        }
+
+        final Encoding previous = previousToken.encoding();
+        final Encoding next = nextToken.encoding();
+
+        if (previous.primitiveType() != next.primitiveType())
+        {
+            message.addBreakingChange(
+                label + " type changed from " + previous.primitiveType() + " to " + next.primitiveType());
+        }
+        else if (previous.byteOrder() != next.byteOrder())
+        {
+            message.addBreakingChange(label + " byte order changed from " + previous.byteOrder() + " to " + next.byteOrder());
+        }
+        else if (previousToken.isConstantEncoding() != nextToken.isConstantEncoding())
+        {
+            message.addBreakingChange(
+                label + " presence changed from " + previous.presence() + " to " + next.presence());
+        }
+        else if (previousToken.isConstantEncoding() && !Objects.equals(previous.constValue(), next.constValue()))
+        {
+            message.addBreakingChange(
+                label + " constant value changed from " + previous.constValue() + " to " + next.constValue());
+        }
+        else if (Signal.ENCODING == previousToken.signal() && null != previous.primitiveType() &&
+            previousToken.isOptionalEncoding() && nextToken.isOptionalEncoding() &&
+            !previous.applicableNullValue().equals(next.applicableNullValue()))
+        {
+            message.addBreakingChange(
+                label + " null value changed from " + previous.applicableNullValue() +
+                " to " + next.applicableNullValue());
+        }
+    }
+
+    private static Map<String, Token> tokensByPath(final List<Token> tokens)
+    {
+        final Map<String, Token> tokenByPath = new LinkedHashMap<>();
+        final Deque<String> parentPaths = new ArrayDeque<>();
+
+        for (final Token token : tokens)
+        {
+            final String parentPath = parentPaths.isEmpty() ? null : parentPaths.peek();
+
+            switch (token.signal())
+            {
+                case BEGIN_COMPOSITE:
+                case BEGIN_ENUM:
+                case BEGIN_SET:
+                {
+                    final String path = memberPath(parentPath, token.name());
+                    tokenByPath.put(path, token);
+                    parentPaths.push(path);
+                    break;
+                }
+
+                case END_COMPOSITE:
+                case END_ENUM:
+                case END_SET:
+                    parentPaths.pop();
+                    break;
+
+                case ENCODING:
+                    tokenByPath.put(memberPath(parentPath, token.name()), token);
+                    break;
+
+                case VALID_VALUE:
+                    tokenByPath.put(valuePath(parentPath, "value ", token.name()), token);
+                    break;
+
+                case CHOICE:
+                    tokenByPath.put(valuePath(parentPath, "choice ", token.name()), token);
+                    break;
+            }
+        }
+
+        return tokenByPath;
+    }
+
+    private static String memberPath(final String parentPath, final String name)
+    {
+        if (null == parentPath)
+        {
+            return "";
+        }
+
+        return parentPath.isEmpty() ? name : parentPath + "." + name;
+    }
+
+    private static String valuePath(final String parentPath, final String kind, final String name)
+    {
+        return parentPath.isEmpty() ? kind + name : parentPath + " " + kind + name;
+    }
+
+    private static boolean isValue(final Token token)
+    {
+        return Signal.VALID_VALUE == token.signal() || Signal.CHOICE == token.signal();
+    }
+
+    private static String kindOf(final Token token)
+    {
+        switch (token.signal())
+        {
+            case BEGIN_COMPOSITE:
+                return "composite";
+
+            case BEGIN_ENUM:
+                return "enum";
+
+            case BEGIN_SET:
+                return "set";
+
+            default:
+                return "primitive";
+        }
+    }
+
+    private static String blockName(final String path)
+    {
+        return path.isEmpty() ? "message" : "group " + path.substring(0, path.length() - 1);
+    }
+
+    private static List<Token> innerTokens(final List<Token> elementTokens, final int fromIndex)
+    {
+        return elementTokens.subList(fromIndex, elementTokens.size() - 1);
+    }
+
+    private static Map<Integer, List<Token>> byId(final List<List<Token>> elements)
+    {
+        final Map<Integer, List<Token>> elementById = new LinkedHashMap<>();
+        for (final List<Token> element : elements)
+        {
+            elementById.put(element.get(0).id(), element);
+        }
+
+        return elementById;
+    }
+
+    private static void captureSinceVersions(final List<Token> tokens, final MessageCompatibility message)
+    {
+        for (final Token token : tokens)
+        {
+            message.sinceVersion(token.version());
+        }
+    }
+
+    private static void addTemplateIds(final Ir ir, final Set<Integer> templateIds)
+    {
+        for (final List<Token> tokens : ir.messages())
+        {
+            templateIds.add(tokens.get(0).id());
+        }
+    }
+
+    private MessageCompatibility newMessage(
+        final int templateId, final String name, final int previousBlockLength, final int nextBlockLength)
+    {
+        return new MessageCompatibility(
+            templateId, name, previousIr.version(), nextIr.version(), previousBlockLength, nextBlockLength);
+    }
+
+    private static Ir loadIr(final String fileName) throws Exception
+    {
+        if (fileName.endsWith(".sbeir"))
+        {
+            try (final IrDecoder irDecoder = new IrDecoder(fileName))
+            {
+                return irDecoder.decode();
+            }
+        }
+
+        return new IrGenerator().generate(SbeTool.parseSchema(fileName));
+    }
+
+    /**
+     * The fields, groups and var data of a message or group, each as the list of its tokens.
+     */
+    private static class Members
+    {
+        final List<List<Token>> fields;
+        final List<List<Token>> groups;
+        final List<List<Token>> varData;
+
+        Members(final List<Token> tokens)
+        {
+            final List<Token> fieldTokens = new ArrayList<>();
+            int index = collectFields(tokens, 0, fieldTokens);
+
+            final List<Token> groupTokens = new ArrayList<>();
+            index = collectGroups(tokens, index, groupTokens);
+
+            final List<Token> varDataTokens = new ArrayList<>();
+            collectVarData(tokens, index, varDataTokens);
+
+            fields = split(fieldTokens);
+            groups = split(groupTokens);
+            varData = split(varDataTokens);
+        }
+
+        private static List<List<Token>> split(final List<Token> tokens)
+        {
+            final List<List<Token>> elements = new ArrayList<>();
+            for (int i = 0, size = tokens.size(); i < size; )
+            {
+                final int tokenCount = tokens.get(i).componentTokenCount();
+                elements.add(tokens.subList(i, i + tokenCount));
+                i += tokenCount;
+            }
+
+            return elements;
+        }
+    }
+}
@@ -84,6 +84,7 @@ public class IrEncoder implements AutoCloseable
     {
         Verify.notNull(ir, "ir");
 
+        totalLength = 0;
         write(buffer, encodeFrame());
 
         encodeTokenList(ir.headerStructure().tokens());
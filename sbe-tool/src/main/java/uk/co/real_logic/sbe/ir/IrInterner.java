@@ -0,0 +1,452 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import uk.co.real_logic.sbe.PrimitiveValue;
+
+import java.util.*;
+
+/**
+ * Creates compact copies of {@link Ir}s which share equal strings, {@link PrimitiveValue}s, {@link Encoding}s,
+ * {@link Token}s, and lists of tokens with every other {@link Ir} interned by the same interner. This suits keeping
+ * many versions of large schemas in memory, as most of what describes a message is unchanged between versions.
+ * <p>
+ * The lists of tokens of a compact {@link Ir} are unmodifiable views of arrays of tokens so they can be indexed as
+ * before without allocation. As tokens and encodings are shared they must not be modified once interned.
+ * <p>
+ * Counts of what has been interned, and an estimate of the heap retained compared with not interning, are
+ * available from {@link #footprintReport()}. An interner is not thread safe.
+ */
+public class IrInterner
+{
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int OBJECT_ALIGNMENT = 8;
+    private static final int TOKEN_BYTES = align(OBJECT_HEADER_BYTES + (4 * REFERENCE_BYTES) + (6 * 4));
+    private static final int ENCODING_BYTES = align(OBJECT_HEADER_BYTES + (11 * REFERENCE_BYTES));
+    private static final int PRIMITIVE_VALUE_BYTES =
+        align(OBJECT_HEADER_BYTES + (3 * REFERENCE_BYTES) + 8 + 8 + 4) + align(OBJECT_HEADER_BYTES + 4 + 1);
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Map<ValueKey, PrimitiveValue> values = new HashMap<>();
+    private final Map<EncodingKey, Encoding> encodings = new HashMap<>();
+    private final Map<TokenKey, Token> tokens = new HashMap<>();
+    private final Map<TokenListKey, List<Token>> tokenLists = new HashMap<>();
+
+    private int irCount;
+    private long stringCount;
+    private long stringBytes;
+    private long uniqueStringBytes;
+    private long valueCount;
+    private long encodingCount;
+    private long tokenCount;
+    private long tokenListCount;
+    private long tokenListBytes;
+    private long uniqueTokenListBytes;
+
+    /**
+     * Create a compact copy of an {@link Ir}, sharing what is equal with every other {@link Ir} interned.
+     *
+     * @param ir to be copied which must be fully built.
+     * @return the compact copy of the {@link Ir}.
+     */
+    public Ir intern(final Ir ir)
+    {
+        final Ir compactIr = new Ir(
+            intern(ir.packageName()),
+            intern(ir.namespaceName()),
+            ir.id(),
+            ir.version(),
+            intern(ir.semanticVersion()),
+            intern(ir.headerStructure().tokens()));
+
+        for (final List<Token> messageTokens : ir.messages())
+        {
+            compactIr.putMessage(messageTokens.get(0).id(), intern(messageTokens));
+        }
+
+        for (final List<Token> typeTokens : ir.types())
+        {
+            compactIr.putType(intern(typeTokens.get(0).name()), intern(typeTokens));
+        }
+
+        irCount++;
+
+        return compactIr;
+    }
+
+    /**
+     * Intern a list of {@link Token}s as an unmodifiable list of interned tokens.
+     *
+     * @param tokenList to be interned.
+     * @return the interned list which is equal in content to the list passed.
+     */
+    public List<Token> intern(final List<Token> tokenList)
+    {
+        final Token[] internedTokens = new Token[tokenList.size()];
+        for (int i = 0; i < internedTokens.length; i++)
+        {
+            internedTokens[i] = intern(tokenList.get(i));
+        }
+
+        final long listBytes = align(OBJECT_HEADER_BYTES + 4 + (REFERENCE_BYTES * internedTokens.length));
+        tokenListCount++;
+        tokenListBytes += listBytes;
+
+        return tokenLists.computeIfAbsent(
+            new TokenListKey(internedTokens),
+            (key) ->
+            {
+                uniqueTokenListBytes += listBytes;
+                return new TokenList(key.tokens);
+            });
+    }
+
+    /**
+     * Intern a {@link Token} so an equal token is shared.
+     *
+     * @param token to be interned.
+     * @return the interned token which is equal to the token passed.
+     */
+    public Token intern(final Token token)
+    {
+        tokenCount++;
+
+        final Token candidate = new Token(
+            token.signal(),
+            intern(token.name()),
+            intern(token.description()),
+            token.id(),
+            token.version(),
+            token.encodedLength(),
+            token.offset(),
+            token.componentTokenCount(),
+            intern(token.encoding()));
+
+        return tokens.computeIfAbsent(new TokenKey(candidate), (key) -> key.token);
+    }
+
+    /**
+     * Intern an {@link Encoding} so an equal encoding is shared.
+     *
+     * @param encoding to be interned.
+     * @return the interned encoding which is equal to the encoding passed.
+     */
+    public Encoding intern(final Encoding encoding)
+    {
+        encodingCount++;
+
+        final Encoding candidate = new Encoding(
+            encoding.presence(),
+            encoding.primitiveType(),
+            encoding.byteOrder(),
+            intern(encoding.minValue()),
+            intern(encoding.maxValue()),
+            intern(encoding.nullValue()),
+            intern(encoding.constValue()),
+            intern(encoding.characterEncoding()),
+            intern(encoding.epoch()),
+            intern(encoding.timeUnit()),
+            intern(encoding.semanticType()));
+
+        return encodings.computeIfAbsent(new EncodingKey(candidate), (key) -> key.encoding);
+    }
+
+    /**
+     * Intern a {@link PrimitiveValue} so an equal value of the same size and character encoding is shared.
+     *
+     * @param value to be interned, which may be null.
+     * @return the interned value which is equal to the value passed, or null if null was passed.
+     */
+    public PrimitiveValue intern(final PrimitiveValue value)
+    {
+        if (null == value)
+        {
+            return null;
+        }
+
+        valueCount++;
+
+        return values.computeIfAbsent(new ValueKey(value), (key) -> key.value);
+    }
+
+    /**
+     * Intern a {@link String} so an equal string is shared.
+     *
+     * @param value to be interned, which may be null.
+     * @return the interned string which is equal to the string passed, or null if null was passed.
+     */
+    public String intern(final String value)
+    {
+        if (null == value)
+        {
+            return null;
+        }
+
+        final long bytes = stringBytes(value);
+        stringCount++;
+        stringBytes += bytes;
+
+        return strings.computeIfAbsent(
+            value,
+            (key) ->
+            {
+                uniqueStringBytes += bytes;
+                return key;
+            });
+    }
+
+    /**
+     * Report of how many objects have been interned and the estimated heap they retain when shared compared with
+     * each {@link Ir} holding its own copies. Estimates assume a 64-bit JVM with compressed references, and the
+     * unshared estimate is an upper bound as it counts every reference interned as a distinct object.
+     *
+     * @return the report as a multi line string.
+     */
+    public String footprintReport()
+    {
+        final long unsharedBytes =
+            stringBytes +
+            (valueCount * PRIMITIVE_VALUE_BYTES) +
+            (encodingCount * ENCODING_BYTES) +
+            (tokenCount * TOKEN_BYTES) +
+            tokenListBytes;
+
+        final long sharedBytes =
+            uniqueStringBytes +
+            (values.size() * (long)PRIMITIVE_VALUE_BYTES) +
+            (encodings.size() * (long)ENCODING_BYTES) +
+            (tokens.size() * (long)TOKEN_BYTES) +
+            uniqueTokenListBytes;
+
+        final StringBuilder sb = new StringBuilder();
+        sb.append("IR interned: ").append(irCount).append('\n');
+        appendCount(sb, "strings", stringCount, strings.size());
+        appendCount(sb, "values", valueCount, values.size());
+        appendCount(sb, "encodings", encodingCount, encodings.size());
+        appendCount(sb, "tokens", tokenCount, tokens.size());
+        appendCount(sb, "token lists", tokenListCount, tokenLists.size());
+        sb.append("estimated bytes unshared: ").append(unsharedBytes).append('\n');
+        sb.append("estimated bytes shared: ").append(sharedBytes).append('\n');
+
+        return sb.toString();
+    }
+
+    /**
+     * Number of distinct {@link Token}s held.
+     *
+     * @return number of distinct {@link Token}s held.
+     */
+    public int uniqueTokenCount()
+    {
+        return tokens.size();
+    }
+
+    /**
+     * Number of {@link Token}s which have been interned including duplicates.
+     *
+     * @return number of {@link Token}s which have been interned including duplicates.
+     */
+    public long tokenCount()
+    {
+        return tokenCount;
+    }
+
+    private static void appendCount(final StringBuilder sb, final String name, final long count, final int uniqueCount)
+    {
+        sb.append(name).append(": ").append(count).append(" interned, ").append(uniqueCount).append(" unique\n");
+    }
+
+    private static long stringBytes(final String value)
+    {
+        return align(OBJECT_HEADER_BYTES + REFERENCE_BYTES + 4 + 1) + align(OBJECT_HEADER_BYTES + 4 + value.length());
+    }
+
+    private static int align(final int bytes)
+    {
+        return (bytes + OBJECT_ALIGNMENT - 1) & ~(OBJECT_ALIGNMENT - 1);
+    }
+
+    private static final class TokenList extends AbstractList<Token> implements RandomAccess
+    {
+        private final Token[] tokens;
+
+        TokenList(final Token[] tokens)
+        {
+            this.tokens = tokens;
+        }
+
+        public Token get(final int index)
+        {
+            return tokens[index];
+        }
+
+        public int size()
+        {
+            return tokens.length;
+        }
+    }
+
+    private static final class TokenListKey
+    {
+        private final Token[] tokens;
+        private final int hashCode;
+
+        TokenListKey(final Token[] tokens)
+        {
+            this.tokens = tokens;
+            this.hashCode = Arrays.hashCode(tokens);
+        }
+
+        public boolean equals(final Object obj)
+        {
+            return obj instanceof TokenListKey && Arrays.equals(tokens, ((TokenListKey)obj).tokens);
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Compares a token whose strings and encoding are already interned so they can be compared by identity.
+     */
+    private static final class TokenKey
+    {
+        private final Token token;
+        private final int hashCode;
+
+        TokenKey(final Token token)
+        {
+            this.token = token;
+            this.hashCode = Objects.hash(
+                token.signal(),
+                token.name(),
+                token.id(),
+                token.version(),
+                token.encodedLength(),
+                token.offset(),
+                token.componentTokenCount(),
+                System.identityHashCode(token.encoding()));
+        }
+
+        public boolean equals(final Object obj)
+        {
+            if (!(obj instanceof TokenKey))
+            {
+                return false;
+            }
+
+            final Token other = ((TokenKey)obj).token;
+
+            return token.signal() == other.signal() &&
+                token.name() == other.name() &&
+                token.description() == other.description() &&
+                token.id() == other.id() &&
+                token.version() == other.version() &&
+                token.encodedLength() == other.encodedLength() &&
+                token.offset() == other.offset() &&
+                token.componentTokenCount() == other.componentTokenCount() &&
+                token.encoding() == other.encoding();
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Compares an encoding whose strings and values are already interned so they can be compared by identity.
+     */
+    private static final class EncodingKey
+    {
+        private final Encoding encoding;
+        private final int hashCode;
+
+        EncodingKey(final Encoding encoding)
+        {
+            this.encoding = encoding;
+            this.hashCode = Objects.hash(
+                encoding.presence(),
+                encoding.primitiveType(),
+                encoding.byteOrder(),
+                encoding.nullValue(),
+                encoding.constValue(),
+                encoding.semanticType());
+        }
+
+        public boolean equals(final Object obj)
+        {
+            if (!(obj instanceof EncodingKey))
+            {
+                return false;
+            }
+
+            final Encoding other = ((EncodingKey)obj).encoding;
+
+            return encoding.presence() == other.presence() &&
+                encoding.primitiveType() == other.primitiveType() &&
+                encoding.byteOrder() == other.byteOrder() &&
+                encoding.minValue() == other.minValue() &&
+                encoding.maxValue() == other.maxValue() &&
+                encoding.nullValue() == other.nullValue() &&
+                encoding.constValue() == other.constValue() &&
+                encoding.characterEncoding() == other.characterEncoding() &&
+                encoding.epoch() == other.epoch() &&
+                encoding.timeUnit() == other.timeUnit() &&
+                encoding.semanticType() == other.semanticType();
+        }
+
+        public int hashCode()
+        {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Compares values including the size and character encoding which {@link PrimitiveValue#equals(Object)} ignores.
+     */
+    private static final class ValueKey
+    {
+        private final PrimitiveValue value;
+
+        ValueKey(final PrimitiveValue value)
+        {
+            this.value = value;
+        }
+
+        public boolean equals(final Object obj)
+        {
+            if (!(obj instanceof ValueKey))
+            {
+                return false;
+            }
+
+            final PrimitiveValue other = ((ValueKey)obj).value;
+
+            return value.equals(other) &&
+                value.size() == other.size() &&
+                Objects.equals(value.characterEncoding(), other.characterEncoding());
+        }
+
+        public int hashCode()
+        {
+            return value.hashCode();
+        }
+    }
+}
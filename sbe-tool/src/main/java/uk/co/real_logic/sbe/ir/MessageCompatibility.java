@@ -0,0 +1,251 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Compatibility of a message between a previous and a next version of a schema as found by the
+ * {@link IrCompatibilityChecker}.
+ * <p>
+ * The compatibility matrix for the two versions is given by {@link #isDecodable(int, int)}: a decoder can always read
+ * messages encoded at its own version, {@link #canNextDecodePrevious()} tells if decoders generated from the next
+ * schema can read messages encoded with the previous and {@link #canPreviousDecodeNext()} the reverse.
+ */
+public class MessageCompatibility
+{
+    private final int templateId;
+    private final String name;
+    private final int previousVersion;
+    private final int nextVersion;
+    private final int previousBlockLength;
+    private final int nextBlockLength;
+    private final List<String> breakingChanges = new ArrayList<>();
+    private final List<String> additions = new ArrayList<>();
+    private boolean hasValuesUnknownToPrevious;
+    private boolean isSchemaIncompatible;
+    private int maxSinceVersion;
+
+    MessageCompatibility(
+        final int templateId,
+        final String name,
+        final int previousVersion,
+        final int nextVersion,
+        final int previousBlockLength,
+        final int nextBlockLength)
+    {
+        this.templateId = templateId;
+        this.name = name;
+        this.previousVersion = previousVersion;
+        this.nextVersion = nextVersion;
+        this.previousBlockLength = previousBlockLength;
+        this.nextBlockLength = nextBlockLength;
+    }
+
+    /**
+     * The template id of the message.
+     *
+     * @return the template id of the message.
+     */
+    public int templateId()
+    {
+        return templateId;
+    }
+
+    /**
+     * The name of the message in the next schema, or the previous if it has been removed.
+     *
+     * @return the name of the message.
+     */
+    public String name()
+    {
+        return name;
+    }
+
+    /**
+     * Block length of the message in the previous schema.
+     *
+     * @return block length of the message in the previous schema or -1 if it has been added.
+     */
+    public int previousBlockLength()
+    {
+        return previousBlockLength;
+    }
+
+    /**
+     * Block length of the message in the next schema.
+     *
+     * @return block length of the message in the next schema or -1 if it has been removed.
+     */
+    public int nextBlockLength()
+    {
+        return nextBlockLength;
+    }
+
+    /**
+     * Has the message been added in the next schema.
+     *
+     * @return true if the message is only in the next schema.
+     */
+    public boolean isAdded()
+    {
+        return previousBlockLength < 0;
+    }
+
+    /**
+     * Has the message been removed from the next schema.
+     *
+     * @return true if the message is only in the previous schema.
+     */
+    public boolean isRemoved()
+    {
+        return nextBlockLength < 0;
+    }
+
+    /**
+     * Changes which stop messages being exchanged between the versions.
+     *
+     * @return the changes which stop messages being exchanged between the versions.
+     */
+    public List<String> breakingChanges()
+    {
+        return Collections.unmodifiableList(breakingChanges);
+    }
+
+    /**
+     * Changes which are compatible, such as fields appended in a later version or enum values added.
+     *
+     * @return the changes which are compatible.
+     */
+    public List<String> additions()
+    {
+        return Collections.unmodifiableList(additions);
+    }
+
+    /**
+     * Is the message free of breaking changes, including those to the schema as a whole such as to the message header
+     * which are reported by {@link CompatibilityReport#breakingChanges()}.
+     *
+     * @return true if the message is free of breaking changes.
+     */
+    public boolean isCompatible()
+    {
+        return !isSchemaIncompatible && breakingChanges.isEmpty();
+    }
+
+    /**
+     * Can decoders generated from the next schema read messages encoded with the previous schema.
+     *
+     * @return true if decoders generated from the next schema can read messages encoded with the previous schema.
+     */
+    public boolean canNextDecodePrevious()
+    {
+        return isCompatible();
+    }
+
+    /**
+     * Can decoders generated from the previous schema read messages encoded with the next schema. This is not the case
+     * for messages added in the next schema, or when the message uses enum values or set choices the previous schema
+     * does not know.
+     *
+     * @return true if decoders generated from the previous schema can read messages encoded with the next schema.
+     */
+    public boolean canPreviousDecodeNext()
+    {
+        return isCompatible() && !isAdded() && !hasValuesUnknownToPrevious;
+    }
+
+    /**
+     * Can a decoder generated from a version of the schema read messages encoded with a version of the schema.
+     *
+     * @param encoderVersion of the schema the message was encoded with.
+     * @param decoderVersion of the schema the decoder was generated from.
+     * @return true if the decoder can read the message.
+     * @throws IllegalArgumentException if either version is not the previous or next version compared.
+     */
+    public boolean isDecodable(final int encoderVersion, final int decoderVersion)
+    {
+        checkVersion(encoderVersion);
+        checkVersion(decoderVersion);
+
+        if (encoderVersion == decoderVersion)
+        {
+            return true;
+        }
+
+        return decoderVersion == nextVersion ? canNextDecodePrevious() : canPreviousDecodeNext();
+    }
+
+    /**
+     * The highest sinceVersion of any field, group or var data in the message of the next schema.
+     *
+     * @return the highest sinceVersion of any field, group or var data in the message.
+     */
+    public int maxSinceVersion()
+    {
+        return maxSinceVersion;
+    }
+
+    /**
+     * Can decoders generated from the next schema skip the acting version checks on all elements of the message
+     * while only the previous and next versions are in use, as no element has a sinceVersion greater than the
+     * previous version. Messages added in the next schema are only sent by encoders of the next version so the
+     * checks can always be skipped.
+     *
+     * @return true if the acting version checks for the message can be skipped.
+     */
+    public boolean canSkipVersionChecks()
+    {
+        return isCompatible() && (isAdded() || maxSinceVersion <= previousVersion);
+    }
+
+    void addBreakingChange(final String change)
+    {
+        breakingChanges.add(change);
+    }
+
+    void schemaIncompatible()
+    {
+        isSchemaIncompatible = true;
+    }
+
+    void addAddition(final String addition)
+    {
+        additions.add(addition);
+    }
+
+    void addValueUnknownToPrevious(final String addition)
+    {
+        additions.add(addition);
+        hasValuesUnknownToPrevious = true;
+    }
+
+    void sinceVersion(final int sinceVersion)
+    {
+        maxSinceVersion = Math.max(maxSinceVersion, sinceVersion);
+    }
+
+    private void checkVersion(final int version)
+    {
+        if (version != previousVersion && version != nextVersion)
+        {
+            throw new IllegalArgumentException(
+                "version " + version + " is neither previous " + previousVersion + " nor next " + nextVersion);
+        }
+    }
+}
@@ -16,6 +16,8 @@
 package uk.co.real_logic.sbe.json;
 
 import org.agrona.DirectBuffer;
+import uk.co.real_logic.sbe.DecimalFormatter;
+import uk.co.real_logic.sbe.MutablePrimitiveValue;
 import uk.co.real_logic.sbe.PrimitiveValue;
 import uk.co.real_logic.sbe.ir.Encoding;
 import uk.co.real_logic.sbe.ir.Token;
@@ -26,12 +28,20 @@ import java.io.UnsupportedEncodingException;
 import java.util.List;
 
 import static uk.co.real_logic.sbe.PrimitiveType.CHAR;
+import static uk.co.real_logic.sbe.ir.GenerationUtil.isDecimalComposite;
 
 public class JsonTokenListener implements TokenListener
 {
     private final byte[] tempBuffer = new byte[1024];
+    private final MutablePrimitiveValue constOrNotPresentValue = new MutablePrimitiveValue();
+    private final MutablePrimitiveValue decimalMemberValue = new MutablePrimitiveValue();
     private final StringBuilder output;
     private int indentation = 0;
+    private int compositeLevel = 0;
+    private boolean isInDecimalComposite = false;
+    private boolean isDecimalNull;
+    private long decimalMantissa;
+    private int decimalExponent;
 
     public JsonTokenListener(final StringBuilder output)
     {
@@ -51,6 +61,12 @@ public class JsonTokenListener implements TokenListener
     public void onEncoding(
         final Token fieldToken, final DirectBuffer buffer, final int bufferIndex, final Token typeToken, final int actingVersion)
     {
+        if (isInDecimalComposite)
+        {
+            captureDecimalMember(buffer, bufferIndex, typeToken, actingVersion);
+            return;
+        }
+
         property(fieldToken);
         appendEncodingAsString(buffer, bufferIndex, typeToken, actingVersion);
         next();
@@ -80,10 +96,31 @@ public class JsonTokenListener implements TokenListener
 
     public void onBeginComposite(final Token fieldToken, final List<Token> tokens, final int fromIndex, final int toIndex)
     {
+        compositeLevel++;
+        if (isDecimalComposite(tokens, fromIndex, toIndex))
+        {
+            isInDecimalComposite = true;
+            isDecimalNull = false;
+            property(1 == compositeLevel ? fieldToken : tokens.get(fromIndex));
+        }
     }
 
     public void onEndComposite(final Token fieldToken, final List<Token> tokens, final int fromIndex, final int toIndex)
     {
+        compositeLevel--;
+        if (isInDecimalComposite)
+        {
+            isInDecimalComposite = false;
+            if (isDecimalNull)
+            {
+                output.append("null");
+            }
+            else
+            {
+                DecimalFormatter.appendDecimal(output, decimalMantissa, decimalExponent);
+            }
+            next();
+        }
     }
 
     public void onGroupHeader(final Token token, final int numInGroup)
@@ -148,10 +185,18 @@ public class JsonTokenListener implements TokenListener
     private void appendEncodingAsString(
         final DirectBuffer buffer, final int index, final Token typeToken, final int actingVersion)
     {
-        final PrimitiveValue constOrNotPresentValue = constOrNotPresentValue(typeToken, actingVersion);
-        if (null != constOrNotPresentValue)
+        if (constOrNotPresentValue(typeToken, actingVersion, constOrNotPresentValue))
         {
-            output.append(constOrNotPresentValue.toString());
+            if (CHAR == constOrNotPresentValue.type() &&
+                PrimitiveValue.Representation.LONG == constOrNotPresentValue.representation())
+            {
+                output.append(constOrNotPresentValue.longValue());
+            }
+            else
+            {
+                constOrNotPresentValue.appendTo(output);
+            }
+
             return;
         }
 
@@ -191,24 +236,48 @@ public class JsonTokenListener implements TokenListener
         }
     }
 
+    private void captureDecimalMember(
+        final DirectBuffer buffer, final int index, final Token typeToken, final int actingVersion)
+    {
+        final MutablePrimitiveValue value = decimalMemberValue;
+        final Encoding encoding = typeToken.encoding();
+        if (!constOrNotPresentValue(typeToken, actingVersion, value))
+        {
+            value.read(buffer, index, encoding);
+        }
+
+        if ("mantissa".equals(typeToken.name()))
+        {
+            decimalMantissa = value.longValue();
+            isDecimalNull = typeToken.isOptionalEncoding() && value.isNull(encoding);
+        }
+        else
+        {
+            decimalExponent = (int)value.longValue();
+        }
+    }
+
     private void backup()
     {
         output.setLength(output.length() - 2);
     }
 
-    private static PrimitiveValue constOrNotPresentValue(final Token token, final int actingVersion)
+    private static boolean constOrNotPresentValue(
+        final Token token, final int actingVersion, final MutablePrimitiveValue value)
     {
         final Encoding encoding = token.encoding();
         if (token.isConstantEncoding())
         {
-            return encoding.constValue();
+            value.set(encoding.primitiveType(), encoding.constValue());
+            return true;
         }
         else if (token.isOptionalEncoding() && actingVersion < token.version())
         {
-            return encoding.applicableNullValue();
+            value.setNull(encoding);
+            return true;
         }
 
-        return null;
+        return false;
     }
 
     private void indent()
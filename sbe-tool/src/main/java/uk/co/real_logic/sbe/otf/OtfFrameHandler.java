@@ -0,0 +1,63 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.otf;
+
+import org.agrona.DirectBuffer;
+import org.agrona.Verify;
+import uk.co.real_logic.sbe.codec.java.FrameHandler;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.Token;
+
+import java.util.List;
+
+/**
+ * {@link FrameHandler} which decodes each message on the fly with the {@link Ir} of its schema and calls back a
+ * {@link TokenListener}.
+ */
+public class OtfFrameHandler implements FrameHandler
+{
+    private final Ir ir;
+    private final OtfHeaderDecoder headerDecoder;
+    private final TokenListener listener;
+
+    public OtfFrameHandler(final Ir ir, final TokenListener listener)
+    {
+        Verify.notNull(ir, "ir");
+        Verify.notNull(listener, "listener");
+
+        this.ir = ir;
+        this.headerDecoder = new OtfHeaderDecoder(ir.headerStructure());
+        this.listener = listener;
+    }
+
+    public void onFrame(final DirectBuffer buffer, final int offset, final int length)
+    {
+        final int templateId = headerDecoder.getTemplateId(buffer, offset);
+        final List<Token> msgTokens = ir.getMessage(templateId);
+        if (null == msgTokens)
+        {
+            throw new IllegalArgumentException("unknown templateId: " + templateId);
+        }
+
+        OtfMessageDecoder.decode(
+            buffer,
+            offset + headerDecoder.encodedLength(),
+            headerDecoder.getSchemaVersion(buffer, offset),
+            headerDecoder.getBlockLength(buffer, offset),
+            msgTokens,
+            listener);
+    }
+}
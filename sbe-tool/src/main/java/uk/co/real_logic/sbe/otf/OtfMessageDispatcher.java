@@ -0,0 +1,175 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.otf;
+
+import org.agrona.DirectBuffer;
+import org.agrona.Verify;
+import uk.co.real_logic.sbe.codec.java.FrameHandler;
+import uk.co.real_logic.sbe.codec.java.SchemaRegistry;
+import uk.co.real_logic.sbe.ir.HeaderStructure;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.Signal;
+import uk.co.real_logic.sbe.ir.Token;
+
+import java.util.List;
+
+/**
+ * {@link FrameHandler} which decodes messages of many schemas and versions on the fly with the {@link Ir} registered
+ * for them, selected by the schema id, version and template id in the message header without allocation.
+ * <p>
+ * All schemas must share the message header layout of the first {@link Ir}. Versions are selected as described for
+ * {@link SchemaRegistry}. A {@link uk.co.real_logic.sbe.json.JsonTokenListener} can be used to print any of them.
+ */
+public class OtfMessageDispatcher implements FrameHandler
+{
+    private final HeaderStructure headerStructure;
+    private final OtfHeaderDecoder headerDecoder;
+    private final TokenListener listener;
+    private final SchemaRegistry<Ir> irBySchema = new SchemaRegistry<>();
+
+    public OtfMessageDispatcher(final Ir ir, final TokenListener listener)
+    {
+        Verify.notNull(ir, "ir");
+        Verify.notNull(listener, "listener");
+
+        this.headerStructure = ir.headerStructure();
+        this.headerDecoder = new OtfHeaderDecoder(headerStructure);
+        this.listener = listener;
+
+        register(ir);
+    }
+
+    /**
+     * Register the {@link Ir} for a version of a schema, replacing any registered for the same schema id and version.
+     *
+     * @param ir for the schema which must have the same message header layout as the first registered.
+     * @return this for a fluent API.
+     */
+    public OtfMessageDispatcher register(final Ir ir)
+    {
+        Verify.notNull(ir, "ir");
+
+        if (!hasSameLayout(headerStructure, ir.headerStructure()))
+        {
+            throw new IllegalArgumentException(
+                "message header of schema id=" + ir.id() + " version=" + ir.version() + " has a different layout");
+        }
+
+        irBySchema.put(ir.id(), ir.version(), ir);
+
+        return this;
+    }
+
+    /**
+     * Decode a message with the {@link Ir} registered for it.
+     *
+     * @param buffer   containing the message.
+     * @param offset   at which the message header begins.
+     * @param listener to be called back with the decoded message.
+     * @return true if the message was decoded or false if no {@link Ir} is registered for it.
+     */
+    public boolean dispatch(final DirectBuffer buffer, final int offset, final TokenListener listener)
+    {
+        final int version = headerDecoder.getSchemaVersion(buffer, offset);
+        final Ir ir = irBySchema.get(headerDecoder.getSchemaId(buffer, offset), version);
+        if (null == ir)
+        {
+            return false;
+        }
+
+        final List<Token> msgTokens = ir.getMessage(headerDecoder.getTemplateId(buffer, offset));
+        if (null == msgTokens)
+        {
+            return false;
+        }
+
+        OtfMessageDecoder.decode(
+            buffer,
+            offset + headerDecoder.encodedLength(),
+            version,
+            headerDecoder.getBlockLength(buffer, offset),
+            msgTokens,
+            listener);
+
+        return true;
+    }
+
+    public void onFrame(final DirectBuffer buffer, final int offset, final int length)
+    {
+        if (!dispatch(buffer, offset, listener))
+        {
+            throw new IllegalArgumentException(
+                "no IR registered for schemaId=" + headerDecoder.getSchemaId(buffer, offset) +
+                " version=" + headerDecoder.getSchemaVersion(buffer, offset) +
+                " templateId=" + headerDecoder.getTemplateId(buffer, offset));
+        }
+    }
+
+    private static boolean hasSameLayout(final HeaderStructure expected, final HeaderStructure actual)
+    {
+        final List<Token> expectedTokens = expected.tokens();
+        final List<Token> actualTokens = actual.tokens();
+
+        if (expectedTokens.get(0).encodedLength() != actualTokens.get(0).encodedLength())
+        {
+            return false;
+        }
+
+        for (final Token expectedToken : expectedTokens)
+        {
+            if (!isHeaderField(expectedToken.name()) || Signal.ENCODING != expectedToken.signal())
+            {
+                continue;
+            }
+
+            boolean found = false;
+            for (final Token actualToken : actualTokens)
+            {
+                if (expectedToken.name().equals(actualToken.name()) &&
+                    expectedToken.signal() == actualToken.signal() &&
+                    expectedToken.offset() == actualToken.offset() &&
+                    expectedToken.encoding().primitiveType() == actualToken.encoding().primitiveType() &&
+                    expectedToken.encoding().byteOrder() == actualToken.encoding().byteOrder())
+                {
+                    found = true;
+                    break;
+                }
+            }
+
+            if (!found)
+            {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isHeaderField(final String name)
+    {
+        switch (name)
+        {
+            case HeaderStructure.BLOCK_LENGTH:
+            case HeaderStructure.TEMPLATE_ID:
+            case HeaderStructure.SCHEMA_ID:
+            case HeaderStructure.SCHEMA_VERSION:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+}
@@ -16,7 +16,9 @@
 package uk.co.real_logic.sbe.otf;
 
 import org.agrona.DirectBuffer;
+import uk.co.real_logic.sbe.DecimalFormatter;
 import uk.co.real_logic.sbe.PrimitiveType;
+import uk.co.real_logic.sbe.Uint64Formatter;
 import uk.co.real_logic.sbe.ir.Encoding;
 
 import java.nio.ByteOrder;
@@ -70,6 +72,9 @@ public class Types
     /**
      * Get a long value from a buffer at a given index for a given {@link Encoding}.
      *
+     * A UINT64 is returned as the bits of the unsigned value so should be compared with {@link Long#compareUnsigned}
+     * and printed with {@link Uint64Formatter}.
+     *
      * @param buffer   from which to read.
      * @param index    at which he integer should be read.
      * @param encoding of the value.
@@ -157,15 +162,15 @@ public class Types
                 break;
 
             case UINT64:
-                sb.append(buffer.getLong(index, encoding.byteOrder()));
+                Uint64Formatter.append(sb, buffer.getLong(index, encoding.byteOrder()));
                 break;
 
             case FLOAT:
-                sb.append(buffer.getFloat(index, encoding.byteOrder()));
+                DecimalFormatter.appendFloat(sb, buffer.getFloat(index, encoding.byteOrder()));
                 break;
 
             case DOUBLE:
-                sb.append(buffer.getDouble(index, encoding.byteOrder()));
+                DecimalFormatter.appendDouble(sb, buffer.getDouble(index, encoding.byteOrder()));
                 break;
         }
     }
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#define SBE_BOUNDS_CHECK_ASSERT
+
+#include <cstring>
+
+#include "gtest/gtest.h"
+#include "code_generation_test/MessageHeader.h"
+#include "code_generation_test/Car.h"
+
+using namespace std;
+using namespace code::generation::test;
+
+class BoundsCheckAssertTest : public testing::Test
+{
+public:
+    char m_buffer[256];
+    MessageHeader m_hdr;
+    Car m_car;
+};
+
+TEST_F(BoundsCheckAssertTest, shouldNotThrowWhenBufferIsLargeEnough)
+{
+    EXPECT_NO_THROW(
+    {
+        m_hdr.wrap(m_buffer, 0, 0, sizeof(m_buffer));
+        m_car.wrapForEncode(m_buffer, m_hdr.encodedLength(), sizeof(m_buffer))
+            .serialNumber(1234)
+            .someNumbers(0, 1);
+        m_car.fuelFiguresCount(1).next().speed(30);
+        m_car.putMake("Honda", 5);
+    });
+}
+
+#if !defined(NDEBUG)
+
+TEST_F(BoundsCheckAssertTest, shouldAssertWhenBufferTooShortForHeader)
+{
+    EXPECT_DEATH(m_hdr.wrap(m_buffer, 0, 0, MessageHeader::encodedLength() - 1), "");
+}
+
+TEST_F(BoundsCheckAssertTest, shouldAssertWhenBufferTooShortForMessage)
+{
+    EXPECT_DEATH(m_car.wrapForEncode(m_buffer, 0, Car::sbeBlockLength() - 1), "");
+}
+
+TEST_F(BoundsCheckAssertTest, shouldAssertWhenArrayIndexOutOfRange)
+{
+    m_car.wrapForEncode(m_buffer, 0, sizeof(m_buffer));
+
+    EXPECT_DEATH(m_car.someNumbers(Car::someNumbersLength()), "");
+}
+
+#endif
@@ -357,6 +357,44 @@ TEST_P(MessageBoundsCheckTest, shouldExceptionWhenBufferTooShortForDecodeOfMessa
     }, std::runtime_error);
 }
 
+TEST_F(BoundsCheckTest, shouldExceptionWhenArrayIndexOutOfRange)
+{
+    char buffer[191];
+
+    encodeCarRoot(buffer, 0, sizeof(buffer));
+
+    EXPECT_THROW(m_car.someNumbers(Car::someNumbersLength()), std::runtime_error);
+    EXPECT_THROW(m_car.someNumbers(Car::someNumbersLength(), 1), std::runtime_error);
+    EXPECT_THROW(m_car.getVehicleCode(buffer, Car::vehicleCodeLength() + 1), std::runtime_error);
+}
+
+TEST_F(BoundsCheckTest, shouldExceptionWhenVarDataTruncatedForStringView)
+{
+    char encodeBuffer[191];
+
+    encodeCarRoot(encodeBuffer, 0, sizeof(encodeBuffer));
+    encodeCarFuelFigures();
+    encodeCarPerformanceFigures();
+    encodeCarMakeModelAndActivationCode();
+
+    const std::uint64_t activationCodeHeaderPosition = encodedCarSz - strlen(ACTIVATION_CODE) - 2;
+    const std::uint64_t truncatedLengths[] = { activationCodeHeaderPosition + 1, encodedCarSz - 1 };
+
+    for (const std::uint64_t length : truncatedLengths)
+    {
+        std::unique_ptr<char[]> buffer(new char[length]);
+        std::memcpy(buffer.get(), encodeBuffer, length);
+
+        decodeCarRoot(buffer.get(), 0, length);
+        decodeCarFuelFigures();
+        decodeCarPerformanceFigures();
+        EXPECT_EQ(m_carDecoder.getMakeAsStringView().length(), strlen(MAKE));
+        EXPECT_EQ(m_carDecoder.getModelAsStringView().length(), strlen(MODEL));
+
+        EXPECT_THROW(m_carDecoder.getActivationCodeAsStringView(), std::runtime_error);
+    }
+}
+
 INSTANTIATE_TEST_CASE_P(
     MessageLengthTest,
     MessageBoundsCheckTest,
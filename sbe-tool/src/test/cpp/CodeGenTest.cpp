@@ -198,6 +198,51 @@ TEST_F(CodeGenTest, shouldReturnCorrectValuesForCarStaticFields)
     EXPECT_EQ(std::string(Car::sbeSemanticType()), std::string(""));
 }
 
+template<typename Flyweight>
+SBE_CONSTEXPR std::uint64_t sumOfFieldLengths(const std::size_t index)
+{
+    return index < Flyweight::sbeFieldCount() ?
+        Flyweight::sbeFieldLayout(index).length + sumOfFieldLengths<Flyweight>(index + 1) : 0;
+}
+
+static_assert(Car::serialNumberEncodingOffset() == 0, "serialNumber is first in block");
+static_assert(Car::sbeFieldLayout(1).offset == Car::modelYearEncodingOffset(), "layout offset folds at compile time");
+static_assert(sumOfFieldLengths<Car>(0) <= Car::sbeBlockLength(), "fields fit in block");
+static_assert(
+    sumOfFieldLengths<Car::FuelFigures>(0) == Car::FuelFigures::sbeBlockLength(), "group fields fill group block");
+
+TEST_F(CodeGenTest, shouldReturnCorrectFieldLayoutForCar)
+{
+    EXPECT_EQ(Car::sbeFieldCount(), 9u);
+
+    const ::sbe::FieldLayout serialNumber = Car::sbeFieldLayout(0);
+    EXPECT_STREQ(serialNumber.name, "serialNumber");
+    EXPECT_EQ(serialNumber.id, Car::serialNumberId());
+    EXPECT_EQ(serialNumber.offset, 0u);
+    EXPECT_EQ(serialNumber.length, 8u);
+    EXPECT_EQ(serialNumber.sinceVersion, Car::serialNumberSinceVersion());
+
+    const ::sbe::FieldLayout engine = Car::sbeFieldLayout(Car::sbeFieldCount() - 1);
+    EXPECT_STREQ(engine.name, "engine");
+    EXPECT_EQ(engine.offset, Car::engineEncodingOffset());
+    EXPECT_EQ(engine.length, Car::engineEncodingLength());
+    EXPECT_EQ(engine.offset + engine.length, Car::sbeBlockLength());
+
+    std::uint64_t previousEnd = 0;
+    for (std::size_t i = 0; i < Car::sbeFieldCount(); i++)
+    {
+        const ::sbe::FieldLayout layout = Car::sbeFieldLayout(i);
+        EXPECT_GE(layout.offset, previousEnd) << layout.name;
+        previousEnd = layout.offset + layout.length;
+    }
+
+    EXPECT_EQ(Car::FuelFigures::sbeFieldCount(), 2u);
+    EXPECT_EQ(Car::FuelFigures::sbeFieldLayout(1).offset, Car::FuelFigures::mpgEncodingOffset());
+    EXPECT_EQ(Car::PerformanceFigures::Acceleration::sbeFieldLayout(0).id, 16);
+
+    EXPECT_THROW(Car::sbeFieldLayout(Car::sbeFieldCount()), std::out_of_range);
+}
+
 TEST_F(CodeGenTest, shouldBeAbleToEncodeMessageHeaderCorrectly)
 {
     char buffer[BUFFER_LEN];
@@ -782,4 +827,153 @@ TEST_F(CodeGenTest, shouldBeAbleToUseStdStringMethodsForDecode)
     EXPECT_EQ(carDecoder.getActivationCodeAsString(), activationCode);
 
     EXPECT_EQ(carDecoder.encodedLength(), expectedCarSize);
-}
\ No newline at end of file
+}
+
+TEST_F(CodeGenTest, shouldBeAbleToUseStringViewMethodsForDecode)
+{
+    char buffer[2048];
+    Car carEncoder(buffer, sizeof(buffer));
+
+    std::uint64_t carSz = encodeCar(carEncoder);
+
+    EXPECT_EQ(carSz, expectedCarSize);
+
+    Car carDecoder(buffer, carSz, Car::sbeBlockLength(), Car::sbeSchemaVersion());
+
+    const sbe::StringView vehicleCode = carDecoder.getVehicleCodeAsStringView();
+    EXPECT_EQ(vehicleCode.data(), carDecoder.vehicleCode());
+    EXPECT_EQ(std::string(vehicleCode.data(), vehicleCode.length()), std::string(VEHICLE_CODE, VEHICLE_CODE_LENGTH));
+
+    Car::FuelFigures &fuelFigures = carDecoder.fuelFigures();
+
+    fuelFigures.next();
+    sbe::StringView usageDesc = fuelFigures.getUsageDescriptionAsStringView();
+    EXPECT_EQ(std::string(usageDesc.data(), usageDesc.length()), FUEL_FIGURES_1_USAGE_DESCRIPTION);
+
+    fuelFigures.next();
+    usageDesc = fuelFigures.getUsageDescriptionAsStringView();
+    EXPECT_EQ(std::string(usageDesc.data(), usageDesc.length()), FUEL_FIGURES_2_USAGE_DESCRIPTION);
+
+    fuelFigures.next();
+    usageDesc = fuelFigures.getUsageDescriptionAsStringView();
+    EXPECT_EQ(std::string(usageDesc.data(), usageDesc.length()), FUEL_FIGURES_3_USAGE_DESCRIPTION);
+
+    Car::PerformanceFigures &perfFigures = carDecoder.performanceFigures();
+
+    perfFigures.next();
+    Car::PerformanceFigures::Acceleration &acceleration = perfFigures.acceleration();
+
+    acceleration.next().next().next();
+
+    perfFigures.next();
+    acceleration = perfFigures.acceleration();
+    acceleration.next().next().next();
+
+    const sbe::StringView make = carDecoder.getMakeAsStringView();
+    EXPECT_EQ(make.data(), buffer + offsetMakeData);
+    EXPECT_EQ(std::string(make.begin(), make.end()), std::string(MAKE, MAKE_LENGTH));
+
+    const sbe::StringView model = carDecoder.getModelAsStringView();
+    EXPECT_EQ(std::string(model.data(), model.length()), std::string(MODEL, MODEL_LENGTH));
+
+    const sbe::StringView activationCode = carDecoder.getActivationCodeAsStringView();
+    EXPECT_EQ(std::string(activationCode.data(), activationCode.length()), std::string(ACTIVATION_CODE, ACTIVATION_CODE_LENGTH));
+
+    EXPECT_EQ(carDecoder.encodedLength(), expectedCarSize);
+}
+
+TEST_F(CodeGenTest, shouldBeAbleToUseEntriesViewForGroupWithOnlyFixedFields)
+{
+    char buffer[2048];
+    Car carEncoder(buffer, sizeof(buffer));
+
+    std::uint64_t carSz = encodeCar(carEncoder);
+
+    EXPECT_EQ(carSz, expectedCarSize);
+
+    Car carDecoder(buffer, carSz, Car::sbeBlockLength(), Car::sbeSchemaVersion());
+
+    Car::FuelFigures &fuelFigures = carDecoder.fuelFigures();
+    while (fuelFigures.hasNext())
+    {
+        fuelFigures.next().getUsageDescriptionAsStringView();
+    }
+
+    Car::PerformanceFigures &perfFigures = carDecoder.performanceFigures();
+
+    perfFigures.next();
+    Car::PerformanceFigures::Acceleration::EntriesView entries = perfFigures.acceleration().entriesView();
+
+    EXPECT_EQ(entries.count(), ACCELERATION_COUNT);
+    EXPECT_EQ(entries.stride(), Car::PerformanceFigures::Acceleration::sbeBlockLength());
+    EXPECT_EQ(entries.mph(0), perf1aMph);
+    EXPECT_EQ(entries.seconds(0), perf1aSeconds);
+    EXPECT_EQ(entries.mph(1), perf1bMph);
+    EXPECT_EQ(entries.seconds(1), perf1bSeconds);
+    EXPECT_EQ(entries.mph(2), perf1cMph);
+    EXPECT_EQ(entries.seconds(2), perf1cSeconds);
+
+    perfFigures.next();
+    Car::PerformanceFigures::Acceleration &acceleration = perfFigures.acceleration();
+    entries = acceleration.entriesView();
+
+    EXPECT_FALSE(acceleration.hasNext());
+
+    std::uint64_t mphSum = 0;
+    for (std::uint64_t i = 0; i < entries.count(); i++)
+    {
+        mphSum += entries.mph(i);
+    }
+
+    EXPECT_EQ(mphSum, static_cast<std::uint64_t>(perf2aMph + perf2bMph + perf2cMph));
+
+    float secondsSum = 0;
+    entries.forEachIndex([&](const std::uint64_t i)
+    {
+        secondsSum += entries.seconds(i);
+    });
+
+    EXPECT_EQ(secondsSum, perf2aSeconds + perf2bSeconds + perf2cSeconds);
+
+    const sbe::StringView make = carDecoder.getMakeAsStringView();
+    EXPECT_EQ(std::string(make.data(), make.length()), std::string(MAKE, MAKE_LENGTH));
+
+    const sbe::StringView model = carDecoder.getModelAsStringView();
+    EXPECT_EQ(std::string(model.data(), model.length()), std::string(MODEL, MODEL_LENGTH));
+
+    const sbe::StringView activationCode = carDecoder.getActivationCodeAsStringView();
+    EXPECT_EQ(std::string(activationCode.data(), activationCode.length()), std::string(ACTIVATION_CODE, ACTIVATION_CODE_LENGTH));
+
+    EXPECT_EQ(carDecoder.encodedLength(), expectedCarSize);
+}
+
+TEST_F(CodeGenTest, shouldBeAbleToEncodeWithEntriesView)
+{
+    char buffer[2048];
+    Car carEncoder(buffer, sizeof(buffer));
+    encodeCar(carEncoder);
+
+    Car carDecoder(buffer, sizeof(buffer), Car::sbeBlockLength(), Car::sbeSchemaVersion());
+    Car::FuelFigures &fuelFigures = carDecoder.fuelFigures();
+    while (fuelFigures.hasNext())
+    {
+        fuelFigures.next().getUsageDescriptionAsStringView();
+    }
+
+    Car::PerformanceFigures::Acceleration::EntriesView entries =
+        carDecoder.performanceFigures().next().acceleration().entriesView();
+    entries.mph(1, 65);
+    entries.seconds(1, 8.0f);
+
+    Car carRedecoder(buffer, sizeof(buffer), Car::sbeBlockLength(), Car::sbeSchemaVersion());
+    Car::FuelFigures &redecodedFuelFigures = carRedecoder.fuelFigures();
+    while (redecodedFuelFigures.hasNext())
+    {
+        redecodedFuelFigures.next().getUsageDescriptionAsStringView();
+    }
+    Car::PerformanceFigures::Acceleration &acceleration = carRedecoder.performanceFigures().next().acceleration();
+
+    EXPECT_EQ(acceleration.next().mph(), perf1aMph);
+    EXPECT_EQ(acceleration.next().mph(), 65);
+    EXPECT_EQ(acceleration.seconds(), 8.0f);
+}
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+#include <iostream>
+#include <sstream>
+
+#include "gtest/gtest.h"
+#include "code_generation_test/MessageHeader.h"
+#include "code_generation_test/Car.h"
+#include "otf/IrDecoder.h"
+#include "otf/OtfHeaderDecoder.h"
+#include "otf/OtfMessageDecoder.h"
+#include "otf/OtfCompactMessageDecoder.h"
+
+using namespace std;
+using namespace code::generation::test;
+
+static const char *SCHEMA_FILENAME = "code-generation-schema.sbeir";
+
+static char VEHICLE_CODE[] = { 'a', 'b', 'c', 'd', 'e', 'f' };
+static char MANUFACTURER_CODE[] = { '1', '2', '3' };
+static const char *USAGE_DESCRIPTION = "Urban Cycle";
+static const char *MAKE = "Honda";
+static const char *MODEL = "Civic VTi";
+static const char *ACTIVATION_CODE = "deadbeef";
+
+/*
+ * Records events from OtfMessageDecoder in a form which can be compared with those from OtfCompactMessageDecoder.
+ */
+class RecordingTokenListener
+{
+public:
+    std::ostringstream m_events;
+
+    void onBeginMessage(Token& token)
+    {
+        m_events << "beginMessage " << token.fieldId() << "\n";
+    }
+
+    void onEndMessage(Token& token)
+    {
+        m_events << "endMessage " << token.fieldId() << "\n";
+    }
+
+    void onEncoding(Token& fieldToken, const char *buffer, Token& typeToken, std::uint64_t actingVersion)
+    {
+        m_events << "encoding " << fieldToken.fieldId() << " " << typeToken.offset() << " ";
+        recordValue(typeToken.encoding().primitiveType(), typeToken.encoding().byteOrder(), buffer);
+    }
+
+    void onEnum(
+        Token& fieldToken,
+        const char *buffer,
+        std::vector<Token>& tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        m_events << "enum " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << " ";
+        recordValue(tokens.at(fromIndex).encoding().primitiveType(), tokens.at(fromIndex).encoding().byteOrder(), buffer);
+    }
+
+    void onBitSet(
+        Token& fieldToken,
+        const char *buffer,
+        std::vector<Token>& tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        m_events << "bitSet " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << " ";
+        recordValue(tokens.at(fromIndex).encoding().primitiveType(), tokens.at(fromIndex).encoding().byteOrder(), buffer);
+    }
+
+    void onBeginComposite(Token& fieldToken, std::vector<Token>& tokens, std::size_t fromIndex, std::size_t toIndex)
+    {
+        m_events << "beginComposite " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << "\n";
+    }
+
+    void onEndComposite(Token& fieldToken, std::vector<Token>& tokens, std::size_t fromIndex, std::size_t toIndex)
+    {
+        m_events << "endComposite " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << "\n";
+    }
+
+    void onGroupHeader(Token& token, std::uint64_t numInGroup)
+    {
+        m_events << "groupHeader " << token.fieldId() << " " << numInGroup << "\n";
+    }
+
+    void onBeginGroup(Token& token, std::uint64_t groupIndex, std::uint64_t numInGroup)
+    {
+        m_events << "beginGroup " << token.fieldId() << " " << groupIndex << "\n";
+    }
+
+    void onEndGroup(Token& token, std::uint64_t groupIndex, std::uint64_t numInGroup)
+    {
+        m_events << "endGroup " << token.fieldId() << " " << groupIndex << "\n";
+    }
+
+    void onVarData(Token& fieldToken, const char *buffer, std::uint64_t length, Token& typeToken)
+    {
+        m_events << "varData " << fieldToken.fieldId() << " " << std::string(buffer, length) << "\n";
+    }
+
+protected:
+    void recordValue(PrimitiveType type, ByteOrder byteOrder, const char *buffer)
+    {
+        switch (type)
+        {
+            case PrimitiveType::CHAR:
+            case PrimitiveType::INT8:
+            case PrimitiveType::INT16:
+            case PrimitiveType::INT32:
+            case PrimitiveType::INT64:
+                m_events << Encoding::getInt(type, byteOrder, buffer) << "\n";
+                break;
+            case PrimitiveType::FLOAT:
+            case PrimitiveType::DOUBLE:
+                m_events << Encoding::getDouble(type, byteOrder, buffer) << "\n";
+                break;
+            default:
+                m_events << Encoding::getUInt(type, byteOrder, buffer) << "\n";
+                break;
+        }
+    }
+};
+
+class RecordingCompactTokenListener : public OtfCompactMessageDecoder::CompactTokenListener
+{
+public:
+    std::ostringstream m_events;
+
+    void onBeginMessage(const CompactToken& token)
+    {
+        m_events << "beginMessage " << token.fieldId() << "\n";
+    }
+
+    void onEndMessage(const CompactToken& token)
+    {
+        m_events << "endMessage " << token.fieldId() << "\n";
+    }
+
+    void onEncoding(
+        const CompactToken& fieldToken, const char *buffer, const CompactToken& typeToken, std::uint64_t actingVersion)
+    {
+        m_events << "encoding " << fieldToken.fieldId() << " " << typeToken.offset() << " ";
+        recordValue(typeToken, buffer);
+    }
+
+    void onEnum(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        m_events << "enum " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << " ";
+        recordValue(tokens[fromIndex], buffer);
+    }
+
+    void onBitSet(
+        const CompactToken& fieldToken,
+        const char *buffer,
+        const CompactToken *tokens,
+        std::size_t fromIndex,
+        std::size_t toIndex,
+        std::uint64_t actingVersion)
+    {
+        m_events << "bitSet " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << " ";
+        recordValue(tokens[fromIndex], buffer);
+    }
+
+    void onBeginComposite(
+        const CompactToken& fieldToken, const CompactToken *tokens, std::size_t fromIndex, std::size_t toIndex)
+    {
+        m_events << "beginComposite " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << "\n";
+    }
+
+    void onEndComposite(
+        const CompactToken& fieldToken, const CompactToken *tokens, std::size_t fromIndex, std::size_t toIndex)
+    {
+        m_events << "endComposite " << fieldToken.fieldId() << " " << fromIndex << " " << toIndex << "\n";
+    }
+
+    void onGroupHeader(const CompactToken& token, std::uint64_t numInGroup)
+    {
+        m_events << "groupHeader " << token.fieldId() << " " << numInGroup << "\n";
+    }
+
+    void onBeginGroup(const CompactToken& token, std::uint64_t groupIndex, std::uint64_t numInGroup)
+    {
+        m_events << "beginGroup " << token.fieldId() << " " << groupIndex << "\n";
+    }
+
+    void onEndGroup(const CompactToken& token, std::uint64_t groupIndex, std::uint64_t numInGroup)
+    {
+        m_events << "endGroup " << token.fieldId() << " " << groupIndex << "\n";
+    }
+
+    void onVarData(
+        const CompactToken& fieldToken, const char *buffer, std::uint64_t length, const CompactToken& typeToken)
+    {
+        m_events << "varData " << fieldToken.fieldId() << " " << std::string(buffer, length) << "\n";
+    }
+
+private:
+    void recordValue(const CompactToken& token, const char *buffer)
+    {
+        switch (token.primitiveType())
+        {
+            case PrimitiveType::CHAR:
+            case PrimitiveType::INT8:
+            case PrimitiveType::INT16:
+            case PrimitiveType::INT32:
+            case PrimitiveType::INT64:
+                m_events << token.getAsInt(buffer) << "\n";
+                break;
+            case PrimitiveType::FLOAT:
+            case PrimitiveType::DOUBLE:
+                m_events << token.getAsDouble(buffer) << "\n";
+                break;
+            default:
+                m_events << token.getAsUInt(buffer) << "\n";
+                break;
+        }
+    }
+};
+
+class OtfCompactMessageDecoderTest : public testing::Test
+{
+public:
+    char m_buffer[2048];
+    IrDecoder m_irDecoder;
+    std::uint64_t m_encodedLength;
+
+    virtual void SetUp()
+    {
+        MessageHeader hdr;
+        Car car;
+
+        hdr.wrap(m_buffer, 0, 0, sizeof(m_buffer))
+            .blockLength(Car::sbeBlockLength())
+            .templateId(Car::sbeTemplateId())
+            .schemaId(Car::sbeSchemaId())
+            .version(Car::sbeSchemaVersion());
+
+        car.wrapForEncode(m_buffer, hdr.encodedLength(), sizeof(m_buffer))
+            .serialNumber(1234)
+            .modelYear(2013)
+            .available(BooleanType::T)
+            .code(Model::A)
+            .putVehicleCode(VEHICLE_CODE);
+
+        for (std::uint64_t i = 0; i < Car::someNumbersLength(); i++)
+        {
+            car.someNumbers(i, static_cast<std::int32_t>(i));
+        }
+
+        car.extras().clear()
+            .cruiseControl(true)
+            .sportsPack(true)
+            .sunRoof(false);
+
+        car.engine()
+            .capacity(2000)
+            .numCylinders(4)
+            .putManufacturerCode(MANUFACTURER_CODE)
+            .booster().boostType(BoostType::NITROUS).horsePower(200);
+
+        Car::FuelFigures& fuelFigures = car.fuelFiguresCount(2);
+        fuelFigures.next().speed(30).mpg(35.9f);
+        fuelFigures.putUsageDescription(USAGE_DESCRIPTION, static_cast<int>(strlen(USAGE_DESCRIPTION)));
+        fuelFigures.next().speed(55).mpg(49.0f);
+        fuelFigures.putUsageDescription(USAGE_DESCRIPTION, static_cast<int>(strlen(USAGE_DESCRIPTION)));
+
+        Car::PerformanceFigures &performanceFigures = car.performanceFiguresCount(1);
+        performanceFigures.next()
+            .octaneRating(95)
+            .accelerationCount(2)
+                .next().mph(30).seconds(4.0f)
+                .next().mph(60).seconds(7.5f);
+
+        car.putMake(MAKE, static_cast<int>(strlen(MAKE)));
+        car.putModel(MODEL, static_cast<int>(strlen(MODEL)));
+        car.putActivationCode(ACTIVATION_CODE, static_cast<int>(strlen(ACTIVATION_CODE)));
+
+        m_encodedLength = hdr.encodedLength() + car.encodedLength();
+    }
+};
+
+TEST_F(OtfCompactMessageDecoderTest, shouldCopyTokensIntoContiguousArray)
+{
+    ASSERT_GE(m_irDecoder.decode(SCHEMA_FILENAME), 0);
+
+    std::shared_ptr<std::vector<Token>> messageTokens = m_irDecoder.message(Car::sbeTemplateId(), Car::sbeSchemaVersion());
+    ASSERT_TRUE(messageTokens != nullptr);
+
+    CompactTokens compactTokens(messageTokens);
+
+    ASSERT_EQ(compactTokens.size(), messageTokens->size());
+    for (std::size_t i = 0; i < compactTokens.size(); i++)
+    {
+        const Token& token = messageTokens->at(i);
+        const CompactToken& compactToken = compactTokens[i];
+
+        EXPECT_EQ(&compactToken, compactTokens.data() + i);
+        EXPECT_EQ(&compactTokens.token(compactToken), &token);
+        EXPECT_EQ(compactToken.signal(), token.signal());
+        EXPECT_EQ(compactToken.offset(), token.offset());
+        EXPECT_EQ(compactToken.encodedLength(), token.encodedLength());
+        EXPECT_EQ(compactToken.componentTokenCount(), token.componentTokenCount());
+        EXPECT_EQ(compactToken.fieldId(), token.fieldId());
+        EXPECT_EQ(compactToken.tokenVersion(), token.tokenVersion());
+        EXPECT_EQ(compactToken.primitiveType(), token.encoding().primitiveType());
+        EXPECT_EQ(compactToken.byteOrder(), token.encoding().byteOrder());
+        EXPECT_EQ(compactToken.presence(), token.encoding().presence());
+    }
+}
+
+TEST_F(OtfCompactMessageDecoderTest, shouldDeliverSameEventsAsOtfMessageDecoder)
+{
+    ASSERT_GE(m_irDecoder.decode(SCHEMA_FILENAME), 0);
+
+    std::shared_ptr<std::vector<Token>> messageTokens = m_irDecoder.message(Car::sbeTemplateId(), Car::sbeSchemaVersion());
+    ASSERT_TRUE(messageTokens != nullptr);
+
+    OtfHeaderDecoder headerDecoder(m_irDecoder.header());
+    const char *messageBuffer = m_buffer + headerDecoder.encodedLength();
+    const std::size_t length = static_cast<std::size_t>(m_encodedLength - headerDecoder.encodedLength());
+    const std::uint64_t actingVersion = headerDecoder.getSchemaVersion(m_buffer);
+    const std::uint64_t blockLength = headerDecoder.getBlockLength(m_buffer);
+
+    RecordingTokenListener listener;
+    const std::size_t result =
+        OtfMessageDecoder::decode(messageBuffer, length, actingVersion, blockLength, messageTokens, listener);
+
+    CompactTokens compactTokens(messageTokens);
+    RecordingCompactTokenListener compactListener;
+    const std::size_t compactResult = OtfCompactMessageDecoder::decode(
+        messageBuffer, length, actingVersion, blockLength, compactTokens, compactListener);
+
+    EXPECT_EQ(compactResult, length);
+    EXPECT_EQ(compactResult, result);
+    EXPECT_EQ(compactListener.m_events.str(), listener.m_events.str());
+}
+
+TEST_F(OtfCompactMessageDecoderTest, shouldExceptionIfLengthTooShort)
+{
+    ASSERT_GE(m_irDecoder.decode(SCHEMA_FILENAME), 0);
+
+    CompactTokens compactTokens(m_irDecoder.message(Car::sbeTemplateId(), Car::sbeSchemaVersion()));
+    OtfHeaderDecoder headerDecoder(m_irDecoder.header());
+    const std::size_t encodedLength = static_cast<std::size_t>(m_encodedLength - headerDecoder.encodedLength());
+    const std::uint64_t actingVersion = headerDecoder.getSchemaVersion(m_buffer);
+    const std::uint64_t blockLength = headerDecoder.getBlockLength(m_buffer);
+
+    for (std::size_t length = 0; length < encodedLength; length++)
+    {
+        std::unique_ptr<char[]> decodeBuffer(new char[length]);
+        ::memcpy(decodeBuffer.get(), m_buffer + headerDecoder.encodedLength(), length);
+        OtfCompactMessageDecoder::CompactTokenListener listener;
+
+        EXPECT_THROW(
+            OtfCompactMessageDecoder::decode(decodeBuffer.get(), length, actingVersion, blockLength, compactTokens, listener),
+            std::runtime_error) << "length=" << length;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Asserts that an operation does not allocate once warmed up, by measuring the bytes allocated by the current thread
+ * with {@link com.sun.management.ThreadMXBean}. Tests are skipped on a JVM that does not support the measurement.
+ */
+public class AllocationUtil
+{
+    public static final int WARMUP_ITERATIONS = 20_000;
+    public static final int MEASURED_ITERATIONS = 10_000;
+    public static final int MEASUREMENT_ATTEMPTS = 5;
+
+    /**
+     * Run an operation until warmed up then fail if it allocates anything over {@link #MEASURED_ITERATIONS} runs.
+     * <p>
+     * Measurement is repeated up to {@link #MEASUREMENT_ATTEMPTS} times so that a one off allocation by the runtime,
+     * such as on deoptimisation, does not fail the test.
+     *
+     * @param description of the operation for the failure message.
+     * @param operation   to be run.
+     */
+    public static void assertNoAllocation(final String description, final Runnable operation)
+    {
+        final com.sun.management.ThreadMXBean threadMXBean = threadMXBean();
+        final long threadId = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+        {
+            operation.run();
+        }
+
+        final long overhead = measurementOverhead(threadMXBean, threadId);
+        long minAllocatedBytes = Long.MAX_VALUE;
+
+        for (int attempt = 0; attempt < MEASUREMENT_ATTEMPTS; attempt++)
+        {
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+
+            for (int i = 0; i < MEASURED_ITERATIONS; i++)
+            {
+                operation.run();
+            }
+
+            final long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - before - overhead;
+            if (allocatedBytes <= 0)
+            {
+                return;
+            }
+
+            minAllocatedBytes = Math.min(minAllocatedBytes, allocatedBytes);
+        }
+
+        fail(description + " allocated " + minAllocatedBytes + " bytes over " + MEASURED_ITERATIONS + " iterations");
+    }
+
+    private static com.sun.management.ThreadMXBean threadMXBean()
+    {
+        final java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        assumeTrue(
+            "thread allocated memory is not supported",
+            threadMXBean instanceof com.sun.management.ThreadMXBean &&
+            ((com.sun.management.ThreadMXBean)threadMXBean).isThreadAllocatedMemorySupported());
+
+        final com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean)threadMXBean;
+        if (!sunThreadMXBean.isThreadAllocatedMemoryEnabled())
+        {
+            sunThreadMXBean.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        return sunThreadMXBean;
+    }
+
+    /**
+     * Reading the allocated bytes can itself allocate so take the least seen between two consecutive reads.
+     */
+    private static long measurementOverhead(final com.sun.management.ThreadMXBean threadMXBean, final long threadId)
+    {
+        long overhead = Long.MAX_VALUE;
+        for (int i = 0; i < 100; i++)
+        {
+            final long before = threadMXBean.getThreadAllocatedBytes(threadId);
+            overhead = Math.min(overhead, threadMXBean.getThreadAllocatedBytes(threadId) - before);
+        }
+
+        return overhead;
+    }
+}
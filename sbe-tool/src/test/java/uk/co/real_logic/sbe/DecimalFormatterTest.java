@@ -0,0 +1,164 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+
+public class DecimalFormatterTest
+{
+    private final StringBuilder sb = new StringBuilder(64);
+
+    @Test
+    public void shouldFormatDoublesAsShortestPlainDecimal()
+    {
+        assertEquals("0.0", formatDouble(0.0));
+        assertEquals("-0.0", formatDouble(-0.0));
+        assertEquals("49.0", formatDouble(49.0));
+        assertEquals("0.1", formatDouble(0.1));
+        assertEquals("-12.25", formatDouble(-12.25));
+        assertEquals("0.001", formatDouble(0.001));
+        assertEquals("123456.789", formatDouble(123456.789));
+        assertEquals("9999999.999999", formatDouble(9999999.999999));
+        assertEquals("0.30000000000000004", formatDouble(0.1 + 0.2));
+    }
+
+    @Test
+    public void shouldFallBackOutsidePlainRange()
+    {
+        for (final double value : new double[]
+            {1e7, 1.0E-4, Double.MAX_VALUE, Double.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY, -1e300})
+        {
+            assertEquals(Double.toString(value), formatDouble(value));
+        }
+    }
+
+    @Test
+    public void shouldFormatFloatsAsShortestPlainDecimal()
+    {
+        assertEquals("35.9", formatFloat(35.9f));
+        assertEquals("-0.0", formatFloat(-0.0f));
+        assertEquals("12.2", formatFloat(12.2f));
+        assertEquals("0.001", formatFloat(0.001f));
+        assertEquals(Float.toString(1e7f), formatFloat(1e7f));
+        assertEquals(Float.toString(Float.NaN), formatFloat(Float.NaN));
+    }
+
+    @Test
+    public void shouldRoundTripRandomDoubles()
+    {
+        final Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++)
+        {
+            final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4);
+            final String formatted = formatDouble(value);
+
+            assertEquals(formatted, value, Double.parseDouble(formatted), 0.0);
+            assertThat(formatted, formatted.length(), lessThanOrEqualTo(Double.toString(value).length()));
+        }
+    }
+
+    @Test
+    public void shouldRoundTripRandomFloats()
+    {
+        final Random random = new Random(13);
+        for (int i = 0; i < 100_000; i++)
+        {
+            final float value = (float)((random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(12) - 4));
+            final String formatted = formatFloat(value);
+
+            assertEquals(formatted, value, Float.parseFloat(formatted), 0.0f);
+            assertThat(formatted, formatted.length(), lessThanOrEqualTo(Float.toString(value).length()));
+        }
+    }
+
+    @Test
+    public void shouldFormatPricesAsTheirDecimal()
+    {
+        final Random random = new Random(17);
+        for (int i = 0; i < 10_000; i++)
+        {
+            final int scale = random.nextInt(9);
+            final long mantissa = random.nextInt(2_000_000_000) - 1_000_000_000L;
+            final double value = mantissa / Math.pow(10, scale);
+
+            assertEquals(
+                new BigDecimal(Double.toString(value)).stripTrailingZeros(),
+                new BigDecimal(formatDouble(value)).stripTrailingZeros());
+        }
+    }
+
+    @Test
+    public void shouldFormatDecimalsExactly()
+    {
+        assertEquals("123.45", formatDecimal(12345, -2));
+        assertEquals("-0.005", formatDecimal(-5, -3));
+        assertEquals("0.00", formatDecimal(0, -2));
+        assertEquals("1.2300", formatDecimal(12300, -4));
+        assertEquals("1500", formatDecimal(15, 2));
+        assertEquals("0", formatDecimal(0, 2));
+        assertEquals("-922337203685.4775808", formatDecimal(Long.MIN_VALUE, -7));
+        assertEquals("-0.9223372036854775808", formatDecimal(Long.MIN_VALUE, -19));
+        assertEquals("0.0009223372036854775807", formatDecimal(Long.MAX_VALUE, -22));
+
+        final Random random = new Random(19);
+        for (int i = 0; i < 10_000; i++)
+        {
+            final long mantissa = random.nextLong() >> random.nextInt(64);
+            final int exponent = random.nextInt(30) - 25;
+
+            final String expected = BigDecimal.valueOf(mantissa, -exponent).toPlainString();
+            assertEquals(expected, formatDecimal(mantissa, exponent));
+        }
+    }
+
+    @Test
+    public void shouldFormatWithoutAllocation()
+    {
+        assertNoAllocation("format", () ->
+        {
+            sb.setLength(0);
+            DecimalFormatter.appendDouble(sb, 123456.789);
+            DecimalFormatter.appendFloat(sb, 35.9f);
+            DecimalFormatter.appendDecimal(sb, Long.MIN_VALUE, -7);
+        });
+    }
+
+    private String formatDouble(final double value)
+    {
+        sb.setLength(0);
+        return DecimalFormatter.appendDouble(sb, value).toString();
+    }
+
+    private String formatFloat(final float value)
+    {
+        sb.setLength(0);
+        return DecimalFormatter.appendFloat(sb, value).toString();
+    }
+
+    private String formatDecimal(final long mantissa, final int exponent)
+    {
+        sb.setLength(0);
+        return DecimalFormatter.appendDecimal(sb, mantissa, exponent).toString();
+    }
+}
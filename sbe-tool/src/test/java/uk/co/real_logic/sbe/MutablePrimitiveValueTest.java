@@ -0,0 +1,141 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import uk.co.real_logic.sbe.ir.Encoding;
+
+import java.nio.ByteOrder;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+
+public class MutablePrimitiveValueTest
+{
+    private final MutablePrimitiveValue value = new MutablePrimitiveValue();
+    private final StringBuilder sb = new StringBuilder(64);
+
+    @Test
+    public void shouldHaveTablesMatchingPrimitiveTypeDefaults()
+    {
+        for (final PrimitiveType type : PrimitiveType.values())
+        {
+            if (MutablePrimitiveValue.isFloatingPoint(type))
+            {
+                assertEquals(type.minValue().doubleValue(), MutablePrimitiveValue.minDoubleValue(type), 0.0);
+                assertEquals(type.maxValue().doubleValue(), MutablePrimitiveValue.maxDoubleValue(type), 0.0);
+                assertTrue(Double.isNaN(MutablePrimitiveValue.nullDoubleValue(type)));
+            }
+            else
+            {
+                assertEquals(type.minValue().longValue(), MutablePrimitiveValue.minLongValue(type));
+                assertEquals(type.maxValue().longValue(), MutablePrimitiveValue.maxLongValue(type));
+                assertEquals(type.nullValue().longValue(), MutablePrimitiveValue.nullLongValue(type));
+            }
+        }
+    }
+
+    @Test
+    public void shouldAppendUint64AsUnsigned()
+    {
+        assertEquals("18446744073709551615", value.set(PrimitiveType.UINT64, -1L).toString());
+        assertEquals("18446744073709551614", value.set(PrimitiveType.UINT64, -2L).toString());
+        assertEquals("9223372036854775808", value.set(PrimitiveType.UINT64, Long.MIN_VALUE).toString());
+        assertEquals("9223372036854775807", value.set(PrimitiveType.UINT64, Long.MAX_VALUE).toString());
+        assertEquals("0", value.set(PrimitiveType.UINT64, 0L).toString());
+        assertEquals("-1", value.set(PrimitiveType.INT64, -1L).toString());
+    }
+
+    @Test
+    public void shouldCompareUint64AsUnsigned()
+    {
+        assertThat(value.set(PrimitiveType.UINT64, -1L).compareTo(1L), greaterThan(0));
+        assertThat(value.set(PrimitiveType.INT64, -1L).compareTo(1L), lessThan(0));
+    }
+
+    @Test
+    public void shouldReadValuesFromBuffer()
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[8]);
+        buffer.putLong(0, -1L, ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(255L, value.read(buffer, 0, encoding(PrimitiveType.UINT8)).longValue());
+        assertEquals(-1L, value.read(buffer, 0, encoding(PrimitiveType.INT16)).longValue());
+        assertEquals(0xFFFF_FFFFL, value.read(buffer, 0, encoding(PrimitiveType.UINT32)).longValue());
+        assertEquals("18446744073709551615", value.read(buffer, 0, encoding(PrimitiveType.UINT64)).toString());
+
+        buffer.putDouble(0, 1.5, ByteOrder.LITTLE_ENDIAN);
+        assertEquals(1.5, value.read(buffer, 0, encoding(PrimitiveType.DOUBLE)).doubleValue(), 0.0);
+    }
+
+    @Test
+    public void shouldSetAndRecogniseNullValues()
+    {
+        final Encoding uint64 = encoding(PrimitiveType.UINT64);
+        assertEquals("18446744073709551615", value.setNull(uint64).toString());
+        assertTrue(value.isNull(uint64));
+        assertFalse(value.set(PrimitiveType.UINT64, 7L).isNull(uint64));
+
+        final Encoding customNull = new Encoding.Builder()
+            .primitiveType(PrimitiveType.INT32)
+            .nullValue(new PrimitiveValue(0, 4))
+            .build();
+        assertEquals(0L, value.setNull(customNull).longValue());
+        assertTrue(value.isNull(customNull));
+
+        final Encoding floatEncoding = encoding(PrimitiveType.FLOAT);
+        assertTrue(value.setNull(floatEncoding).isNull(floatEncoding));
+        assertFalse(value.set(PrimitiveType.FLOAT, 1.0).isNull(floatEncoding));
+    }
+
+    @Test
+    public void shouldSetFromConstantValues()
+    {
+        assertEquals("Petrol", value.set(PrimitiveType.CHAR, PrimitiveValue.parse("Petrol", 6, "US-ASCII")).toString());
+        assertEquals("A", value.set(PrimitiveType.CHAR, PrimitiveValue.parse("A", PrimitiveType.CHAR)).toString());
+        assertEquals(
+            "18446744073709551614",
+            value.set(PrimitiveType.UINT64, PrimitiveValue.parse("18446744073709551614", PrimitiveType.UINT64)).toString());
+        assertEquals("1.5", value.set(PrimitiveType.FLOAT, PrimitiveValue.parse("1.5", PrimitiveType.FLOAT)).toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUint64GreaterThanMax()
+    {
+        PrimitiveValue.parse("18446744073709551616", PrimitiveType.UINT64);
+    }
+
+    @Test
+    public void shouldAppendWithoutAllocation()
+    {
+        final Encoding uint64 = encoding(PrimitiveType.UINT64);
+
+        assertNoAllocation("append", () ->
+        {
+            sb.setLength(0);
+            value.setNull(uint64).appendTo(sb);
+            value.set(PrimitiveType.DOUBLE, 2.5).appendTo(sb);
+        });
+    }
+
+    private static Encoding encoding(final PrimitiveType type)
+    {
+        return new Encoding.Builder().primitiveType(type).byteOrder(ByteOrder.LITTLE_ENDIAN).build();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+
+public class SbeToolTest
+{
+    private static final String SCHEMA_DIR = "src/test/resources/";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void after()
+    {
+        System.clearProperty(SbeTool.TARGET_LANGUAGE);
+    }
+
+    @Test
+    public void shouldGenerateWithOptionsAndRestoreSystemProperties() throws Exception
+    {
+        System.setProperty(SbeTool.TARGET_LANGUAGE, "Java");
+
+        final Map<String, String> options = new HashMap<>();
+        options.put(SbeTool.OUTPUT_DIR, folder.getRoot().getPath());
+        options.put(SbeTool.TARGET_LANGUAGE, "Cpp");
+        options.put(SbeTool.TARGET_NAMESPACE, "tool.test");
+
+        SbeTool.run(options, schemaFileName("code-generation-schema.xml"));
+
+        assertTrue(new File(folder.getRoot(), "tool_test/Car.h").exists());
+        assertThat(System.getProperty(SbeTool.TARGET_LANGUAGE), is("Java"));
+        assertNull(System.getProperty(SbeTool.OUTPUT_DIR));
+        assertNull(System.getProperty(SbeTool.TARGET_NAMESPACE));
+    }
+
+    @Test
+    public void shouldRestoreSystemPropertiesWhenGenerationFails() throws Exception
+    {
+        final Map<String, String> options = new HashMap<>();
+        options.put(SbeTool.OUTPUT_DIR, folder.getRoot().getPath());
+        options.put(SbeTool.TARGET_LANGUAGE, "Cobol");
+
+        try
+        {
+            SbeTool.run(options, schemaFileName("code-generation-schema.xml"));
+            fail("expected unknown target language to fail");
+        }
+        catch (final IllegalArgumentException ex)
+        {
+            assertNull(System.getProperty(SbeTool.OUTPUT_DIR));
+            assertNull(System.getProperty(SbeTool.TARGET_LANGUAGE));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnsupportedFileFormat() throws Exception
+    {
+        SbeTool.run(new HashMap<>(), schemaFileName("code-generation-schema.json"));
+    }
+
+    private static String schemaFileName(final String name)
+    {
+        return new File(SCHEMA_DIR, name).getPath();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe;
+
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+
+public class Uint64FormatterTest
+{
+    private static final long[] EDGE_VALUES =
+    {
+        0, 1, 9, 10, 99, 100, 999_999_999_999_999_999L, 1_000_000_000_000_000_000L, Long.MAX_VALUE,
+        Long.MIN_VALUE, Long.MIN_VALUE + 1, -8446744073709551617L, -8446744073709551616L, -2, -1
+    };
+
+    private final StringBuilder sb = new StringBuilder(Uint64Formatter.MAX_DIGITS);
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[Uint64Formatter.MAX_DIGITS + 2]);
+
+    @Test
+    public void shouldFormatEdgeValuesAsUnsigned()
+    {
+        for (final long value : EDGE_VALUES)
+        {
+            assertFormatted(value);
+        }
+    }
+
+    @Test
+    public void shouldFormatRandomValuesAsUnsigned()
+    {
+        final Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertFormatted(random.nextLong() >>> random.nextInt(64));
+        }
+    }
+
+    @Test
+    public void shouldFormatWithoutAllocation()
+    {
+        assertNoAllocation("format", () ->
+        {
+            sb.setLength(0);
+            Uint64Formatter.append(sb, -1L);
+            Uint64Formatter.putAscii(buffer, 1, Long.MIN_VALUE);
+        });
+    }
+
+    private void assertFormatted(final long value)
+    {
+        final String expected = Long.toUnsignedString(value);
+
+        sb.setLength(0);
+        assertEquals(expected, Uint64Formatter.append(sb, value).toString());
+
+        assertEquals(expected.length(), Uint64Formatter.digitCount(value));
+
+        buffer.setMemory(0, buffer.capacity(), (byte)0);
+        final int length = Uint64Formatter.putAscii(buffer, 1, value);
+        assertEquals(expected.length(), length);
+        assertEquals(expected, buffer.getStringWithoutLengthUtf8(1, length));
+        assertEquals(0, buffer.getByte(0));
+        assertEquals(0, buffer.getByte(1 + length));
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class FramedMessageReaderTest
+{
+    private static final int MAX_MESSAGE_LENGTH = 256;
+    private static final int MESSAGE_COUNT = 1000;
+
+    private File file;
+
+    @Before
+    public void setUp() throws IOException
+    {
+        file = File.createTempFile("framed-messages", ".bin");
+    }
+
+    @After
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void shouldReadMessagesWrittenToFile() throws IOException
+    {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+        {
+            writeMessages(new FramedMessageWriter(channel, 1024), 0, MESSAGE_COUNT);
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            assertEquals(MESSAGE_COUNT, readMessages(new FramedMessageReader(channel, MAX_MESSAGE_LENGTH), 0));
+        }
+    }
+
+    @Test
+    public void shouldReassembleMessagesSplitAcrossReads() throws IOException
+    {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+        {
+            writeMessages(new FramedMessageWriter(channel, 1024), 0, 10);
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            final ReadableByteChannel trickleChannel = new TrickleChannel(channel, 3);
+            assertEquals(10, readMessages(new FramedMessageReader(trickleChannel, MAX_MESSAGE_LENGTH), 0));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldRejectFrameLongerThanMaxMessageLength() throws IOException
+    {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+        {
+            final ByteBuffer frameHeader = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            frameHeader.putInt(0, MAX_MESSAGE_LENGTH + 1);
+            channel.write(frameHeader);
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            readMessages(new FramedMessageReader(channel, MAX_MESSAGE_LENGTH), 0);
+        }
+    }
+
+    @Test(expected = EOFException.class)
+    public void shouldRejectEndOfStreamWithinFrame() throws IOException
+    {
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE))
+        {
+            writeMessages(new FramedMessageWriter(channel, 1024), 0, 1);
+            channel.truncate(channel.size() - 1);
+        }
+
+        try (final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            readMessages(new FramedMessageReader(channel, MAX_MESSAGE_LENGTH), 0);
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void shouldReadMessagesFromManyConcurrentConnections() throws Exception
+    {
+        final int connectionCount = 64;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+
+        try (final ServerSocketChannel serverChannel = ServerSocketChannel.open())
+        {
+            serverChannel.bind(new InetSocketAddress("127.0.0.1", 0), connectionCount);
+
+            final List<Future<?>> writes = new ArrayList<>();
+            final List<Future<Integer>> readCounts = new ArrayList<>();
+            for (int i = 0; i < connectionCount; i++)
+            {
+                final int seed = i;
+                writes.add(executor.submit(() ->
+                {
+                    try (final SocketChannel channel = SocketChannel.open(serverChannel.getLocalAddress()))
+                    {
+                        writeMessages(new FramedMessageWriter(channel, 4096), seed, MESSAGE_COUNT);
+                    }
+
+                    return null;
+                }));
+
+                final SocketChannel acceptedChannel = serverChannel.accept();
+                readCounts.add(executor.submit(() ->
+                {
+                    try (final SocketChannel channel = acceptedChannel)
+                    {
+                        return readMessages(new FramedMessageReader(channel, MAX_MESSAGE_LENGTH), -1);
+                    }
+                }));
+            }
+
+            for (final Future<?> write : writes)
+            {
+                write.get();
+            }
+
+            for (final Future<Integer> readCount : readCounts)
+            {
+                assertEquals(MESSAGE_COUNT, (int)readCount.get());
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void writeMessages(final FramedMessageWriter writer, final int seed, final int count)
+        throws IOException
+    {
+        for (int i = 0; i < count; i++)
+        {
+            final int length = messageLength(seed, i);
+            final int offset = writer.claim(MAX_MESSAGE_LENGTH);
+            writer.buffer().putInt(offset, seed);
+            writer.buffer().putInt(offset + 4, i);
+            writer.buffer().setMemory(offset + 8, length - 8, (byte)i);
+            writer.commit(length);
+        }
+
+        writer.flush();
+    }
+
+    /**
+     * Read until end of stream checking each message, where seed of -1 takes the seed from the first message.
+     */
+    private static int readMessages(final FramedMessageReader reader, final int seed) throws IOException
+    {
+        final int[] state = {seed, 0};
+        final FrameHandler handler =
+            (buffer, offset, length) ->
+            {
+                if (-1 == state[0])
+                {
+                    state[0] = buffer.getInt(offset);
+                }
+
+                final int index = state[1]++;
+                assertEquals(state[0], buffer.getInt(offset));
+                assertEquals(index, buffer.getInt(offset + 4));
+                assertEquals(messageLength(state[0], index), length);
+                if (length > 8)
+                {
+                    assertEquals((byte)index, buffer.getByte(offset + length - 1));
+                }
+            };
+
+        while (reader.read(handler) >= 0)
+        {
+        }
+
+        return state[1];
+    }
+
+    private static int messageLength(final int seed, final int index)
+    {
+        return 8 + ((seed * 31 + index * 17) % (MAX_MESSAGE_LENGTH - 8));
+    }
+
+    static class TrickleChannel implements ReadableByteChannel
+    {
+        private final ReadableByteChannel channel;
+        private final ByteBuffer chunk;
+
+        TrickleChannel(final ReadableByteChannel channel, final int chunkLength)
+        {
+            this.channel = channel;
+            this.chunk = ByteBuffer.allocate(chunkLength);
+        }
+
+        public int read(final ByteBuffer dst) throws IOException
+        {
+            chunk.clear().limit(Math.min(chunk.capacity(), dst.remaining()));
+            final int bytesRead = channel.read(chunk);
+            if (bytesRead > 0)
+            {
+                chunk.flip();
+                dst.put(chunk);
+            }
+
+            return bytesRead;
+        }
+
+        public boolean isOpen()
+        {
+            return channel.isOpen();
+        }
+
+        public void close() throws IOException
+        {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class FramedMessageWriterTest
+{
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final FramedMessageWriter writer = new FramedMessageWriter(Channels.newChannel(out), 64);
+
+    @Test
+    public void shouldRejectFlushWithOutstandingClaim() throws IOException
+    {
+        writer.claim(8);
+        try
+        {
+            writer.flush();
+            fail("expected flush to be rejected while a claim is outstanding");
+        }
+        catch (final IllegalStateException ignore)
+        {
+        }
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void shouldRejectClaimNeedingFlushWithOutstandingClaim() throws IOException
+    {
+        writer.claim(40);
+        writer.commit(40);
+        writer.claim(8);
+        try
+        {
+            writer.claim(30);
+            fail("expected claim to be rejected when it must flush an outstanding claim");
+        }
+        catch (final IllegalStateException ignore)
+        {
+        }
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    public void shouldFlushCommittedClaim() throws IOException
+    {
+        final int offset = writer.claim(40);
+        writer.buffer().putInt(offset, 7, ByteOrder.LITTLE_ENDIAN);
+        writer.commit(4);
+        writer.flush();
+
+        final ByteBuffer frame = ByteBuffer.wrap(out.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(8, frame.remaining());
+        assertEquals(4, frame.getInt(0));
+        assertEquals(7, frame.getInt(4));
+    }
+}
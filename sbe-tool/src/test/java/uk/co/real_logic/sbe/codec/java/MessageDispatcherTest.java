@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import baseline.MessageHeaderEncoder;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.sbe.MessageDecoderFlyweight;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.sbe.TestUtil;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class MessageDispatcherTest
+{
+    private static final int TEMPLATE_ID = 1;
+    private static final int BLOCK_LENGTH = 24;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[64]);
+    private final MessageHeaderEncoder headerEncoder = new MessageHeaderEncoder();
+
+    private final MessageDecoderFlyweight schemaOneV0Decoder = decoder(1, 0);
+    private final MessageDecoderFlyweight schemaOneV2Decoder = decoder(1, 2);
+    private final MessageDecoderFlyweight schemaThreeDecoder = decoder(3, 0);
+
+    @SuppressWarnings("unchecked")
+    private final MessageDispatcher.MessageHandler<MessageDecoderFlyweight> handler =
+        mock(MessageDispatcher.MessageHandler.class);
+
+    private MessageDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final Ir ir = new IrGenerator().generate(parse(
+            TestUtil.getLocalResource("json-printer-test-schema.xml"), ParserOptions.DEFAULT));
+
+        dispatcher = new MessageDispatcher(ir.headerStructure())
+            .register(schemaOneV0Decoder, handler)
+            .register(schemaOneV2Decoder, handler)
+            .register(schemaThreeDecoder, handler);
+    }
+
+    @Test
+    public void shouldDispatchToDecoderForSchemaIdAndVersion()
+    {
+        assertTrue(dispatch(1, 0, TEMPLATE_ID));
+        verify(schemaOneV0Decoder).wrap(buffer, headerEncoder.encodedLength(), BLOCK_LENGTH, 0);
+        verify(handler).onMessage(schemaOneV0Decoder);
+
+        assertTrue(dispatch(1, 2, TEMPLATE_ID));
+        verify(schemaOneV2Decoder).wrap(buffer, headerEncoder.encodedLength(), BLOCK_LENGTH, 2);
+        verify(handler).onMessage(schemaOneV2Decoder);
+
+        assertTrue(dispatch(3, 0, TEMPLATE_ID));
+        verify(schemaThreeDecoder).wrap(buffer, headerEncoder.encodedLength(), BLOCK_LENGTH, 0);
+        verify(handler).onMessage(schemaThreeDecoder);
+    }
+
+    @Test
+    public void shouldDispatchUnregisteredVersionToLatestVersionOfSchema()
+    {
+        assertTrue(dispatch(1, 4, TEMPLATE_ID));
+
+        verify(schemaOneV2Decoder).wrap(buffer, headerEncoder.encodedLength(), BLOCK_LENGTH, 4);
+        verify(handler).onMessage(schemaOneV2Decoder);
+        verify(schemaOneV0Decoder, never()).wrap(any(), anyInt(), anyInt(), anyInt());
+    }
+
+    @Test
+    public void shouldNotDispatchUnknownSchemaOrTemplate()
+    {
+        assertFalse(dispatch(2, 0, TEMPLATE_ID));
+        assertFalse(dispatch(1, 0, TEMPLATE_ID + 1));
+
+        verifyZeroInteractions(handler);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowOnFrameForUnknownSchema()
+    {
+        encodeHeader(2, 0, TEMPLATE_ID);
+
+        dispatcher.onFrame(buffer, 0, headerEncoder.encodedLength() + BLOCK_LENGTH);
+    }
+
+    private boolean dispatch(final int schemaId, final int version, final int templateId)
+    {
+        encodeHeader(schemaId, version, templateId);
+
+        return dispatcher.dispatch(buffer, 0);
+    }
+
+    private void encodeHeader(final int schemaId, final int version, final int templateId)
+    {
+        headerEncoder
+            .wrap(buffer, 0)
+            .blockLength(BLOCK_LENGTH)
+            .templateId(templateId)
+            .schemaId(schemaId)
+            .version(version);
+    }
+
+    private static MessageDecoderFlyweight decoder(final int schemaId, final int version)
+    {
+        final MessageDecoderFlyweight decoder = mock(MessageDecoderFlyweight.class);
+        when(decoder.sbeSchemaId()).thenReturn(schemaId);
+        when(decoder.sbeSchemaVersion()).thenReturn(version);
+        when(decoder.sbeTemplateId()).thenReturn(TEMPLATE_ID);
+
+        return decoder;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.agrona.MutableDirectBuffer;
+import org.agrona.sbe.MessageDecoderFlyweight;
+import org.agrona.sbe.MessageEncoderFlyweight;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class MessagePoolTest
+{
+    private static final int SLOT_COUNT = 4;
+    private static final int SLOT_LENGTH = 60;
+    private static final int TEMPLATE_ID = 7;
+    private static final int BLOCK_LENGTH = 16;
+    private static final int VERSION = 2;
+
+    private final MessagePool pool = new MessagePool(SLOT_COUNT, SLOT_LENGTH);
+
+    @Test
+    public void shouldAlignSlotLength()
+    {
+        assertEquals(64, pool.slotLength());
+        assertEquals(SLOT_COUNT * 64, pool.buffer().capacity());
+        assertEquals(128, pool.offset(2));
+    }
+
+    @Test
+    public void shouldRejectSlotsExceedingBufferCapacity()
+    {
+        try
+        {
+            new MessagePool(Integer.MAX_VALUE / 32, 64);
+            fail("expected slot buffer capacity overflow to be rejected");
+        }
+        catch (final IllegalArgumentException ex)
+        {
+            assertEquals(
+                "slotCount=" + (Integer.MAX_VALUE / 32) + " * slotLength=64 exceeds max buffer capacity", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldRejectSlotsExceedingMetadataCapacity()
+    {
+        try
+        {
+            new MessagePool(1 << 25, 8);
+            fail("expected metadata capacity overflow to be rejected");
+        }
+        catch (final IllegalArgumentException ex)
+        {
+            assertEquals(
+                "slotCount=" + (1 << 25) + " * metadata length=64 exceeds max buffer capacity", ex.getMessage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectSlotLengthTooLargeToAlign()
+    {
+        new MessagePool(1, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void shouldClaimEachSlotOnceUntilReleased()
+    {
+        final boolean[] claimed = new boolean[SLOT_COUNT];
+        for (int i = 0; i < SLOT_COUNT; i++)
+        {
+            final int slotIndex = pool.claim();
+            assertFalse(claimed[slotIndex]);
+            claimed[slotIndex] = true;
+        }
+
+        assertEquals(MessagePool.NO_SLOT, pool.claim());
+
+        pool.release(2);
+        assertEquals(2, pool.claim());
+    }
+
+    @Test
+    public void shouldRecordCommittedMessage()
+    {
+        final int slotIndex = pool.claim();
+        assertFalse(pool.isCommitted(slotIndex));
+
+        pool.commit(slotIndex, TEMPLATE_ID, BLOCK_LENGTH, VERSION, 40);
+
+        assertTrue(pool.isCommitted(slotIndex));
+        assertEquals(TEMPLATE_ID, pool.templateId(slotIndex));
+        assertEquals(BLOCK_LENGTH, pool.blockLength(slotIndex));
+        assertEquals(VERSION, pool.version(slotIndex));
+        assertEquals(40, pool.length(slotIndex));
+
+        pool.release(slotIndex);
+        assertFalse(pool.isCommitted(slotIndex));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotCommitUnclaimedSlot()
+    {
+        pool.commit(0, TEMPLATE_ID, BLOCK_LENGTH, VERSION, 40);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotCommitMessageLongerThanSlot()
+    {
+        pool.commit(pool.claim(), TEMPLATE_ID, BLOCK_LENGTH, VERSION, pool.slotLength() + 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReadMetadataOfUncommittedSlot()
+    {
+        pool.templateId(pool.claim());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReleaseFreeSlot()
+    {
+        pool.release(0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldRejectSlotIndexOutOfRange()
+    {
+        pool.offset(SLOT_COUNT);
+    }
+
+    @Test
+    public void shouldWrapRegisteredCodecsBySlot()
+    {
+        final MessageEncoderFlyweight encoder = mock(MessageEncoderFlyweight.class);
+        when(encoder.sbeTemplateId()).thenReturn(TEMPLATE_ID);
+        when(encoder.sbeBlockLength()).thenReturn(BLOCK_LENGTH);
+        when(encoder.sbeSchemaVersion()).thenReturn(VERSION);
+        when(encoder.encodedLength()).thenReturn(40);
+
+        final MessageDecoderFlyweight decoder = mock(MessageDecoderFlyweight.class);
+        when(decoder.sbeTemplateId()).thenReturn(TEMPLATE_ID);
+
+        final MessagePoolCodecs encodingCodecs = new MessagePoolCodecs(pool).register(encoder);
+        final MessagePoolCodecs decodingCodecs = new MessagePoolCodecs(pool).register(decoder);
+
+        final int slotIndex = pool.claim();
+        final MessageEncoderFlyweight slotEncoder = encodingCodecs.encoder(slotIndex, TEMPLATE_ID);
+        assertSame(encoder, slotEncoder);
+        verify(encoder).wrap(pool.slotBuffer(slotIndex), 0);
+
+        encodingCodecs.commit(slotIndex, slotEncoder);
+
+        final MessageDecoderFlyweight slotDecoder = decodingCodecs.decoder(slotIndex);
+        assertSame(decoder, slotDecoder);
+        verify(decoder).wrap(pool.slotBuffer(slotIndex), 0, BLOCK_LENGTH, VERSION);
+    }
+
+    @Test
+    public void shouldFailOverLongEncodeBeforeTouchingNextSlot()
+    {
+        final MessageEncoderFlyweight encoder = mock(MessageEncoderFlyweight.class);
+        when(encoder.sbeTemplateId()).thenReturn(TEMPLATE_ID);
+        final MessagePoolCodecs codecs = new MessagePoolCodecs(pool).register(encoder);
+
+        final int slotIndex = pool.claim();
+        final int nextSlotIndex = pool.claim();
+        pool.buffer().setMemory(pool.offset(nextSlotIndex), pool.slotLength(), (byte)7);
+
+        codecs.encoder(slotIndex, TEMPLATE_ID);
+        final ArgumentCaptor<MutableDirectBuffer> bufferCaptor = ArgumentCaptor.forClass(MutableDirectBuffer.class);
+        verify(encoder).wrap(bufferCaptor.capture(), eq(0));
+
+        final MutableDirectBuffer slotBuffer = bufferCaptor.getValue();
+        assertEquals(pool.slotLength(), slotBuffer.capacity());
+        try
+        {
+            slotBuffer.putBytes(0, new byte[pool.slotLength() + Long.BYTES]);
+            fail("expected encode past the end of the slot to fail");
+        }
+        catch (final IndexOutOfBoundsException ignore)
+        {
+        }
+
+        for (int i = 0; i < pool.slotLength(); i++)
+        {
+            assertEquals(7, pool.buffer().getByte(pool.offset(nextSlotIndex) + i));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotReleaseSlotTwice()
+    {
+        final int slotIndex = pool.claim();
+        pool.release(slotIndex);
+        pool.release(slotIndex);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectUnregisteredTemplateId()
+    {
+        new MessagePoolCodecs(pool).encoder(pool.claim(), TEMPLATE_ID);
+    }
+
+    @Test(timeout = 10_000)
+    public void shouldNeverHandOutClaimedSlotAcrossThreads() throws Exception
+    {
+        final int threadCount = 4;
+        final int iterations = 100_000;
+        final AtomicIntegerArray owners = new AtomicIntegerArray(SLOT_COUNT);
+        final AtomicReference<AssertionError> failure = new AtomicReference<>();
+        final CountDownLatch start = new CountDownLatch(1);
+        final Thread[] threads = new Thread[threadCount];
+
+        for (int t = 0; t < threadCount; t++)
+        {
+            final int owner = t + 1;
+            threads[t] = new Thread(() ->
+            {
+                try
+                {
+                    start.await();
+                    for (int i = 0; i < iterations; i++)
+                    {
+                        final int slotIndex = pool.claim();
+                        if (MessagePool.NO_SLOT == slotIndex)
+                        {
+                            continue;
+                        }
+
+                        if (!owners.compareAndSet(slotIndex, 0, owner))
+                        {
+                            failure.set(new AssertionError("slot claimed twice: " + slotIndex));
+                        }
+
+                        owners.set(slotIndex, 0);
+                        pool.release(slotIndex);
+                    }
+                }
+                catch (final InterruptedException ignore)
+                {
+                }
+            });
+            threads[t].start();
+        }
+
+        start.countDown();
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+
+        if (null != failure.get())
+        {
+            throw failure.get();
+        }
+    }
+}
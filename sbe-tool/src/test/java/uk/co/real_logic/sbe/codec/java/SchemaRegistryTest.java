@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.codec.java;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SchemaRegistryTest
+{
+    private final SchemaRegistry<String> registry = new SchemaRegistry<>();
+
+    @Test
+    public void shouldGetValueForSchemaIdAndVersion()
+    {
+        registry.put(1, 0, "one-v0");
+        registry.put(1, 2, "one-v2");
+        registry.put(3, 0, "three-v0");
+
+        assertEquals(3, registry.size());
+        assertEquals("one-v0", registry.get(1, 0));
+        assertEquals("one-v2", registry.get(1, 2));
+        assertEquals("three-v0", registry.get(3, 0));
+    }
+
+    @Test
+    public void shouldFallBackToLatestVersionOfSchema()
+    {
+        registry.put(1, 2, "one-v2");
+        registry.put(1, 0, "one-v0");
+
+        assertEquals("one-v2", registry.get(1, 1));
+        assertEquals("one-v2", registry.get(1, 5));
+        assertNull(registry.getExact(1, 5));
+    }
+
+    @Test
+    public void shouldReturnNullForUnknownSchema()
+    {
+        registry.put(1, 0, "one-v0");
+
+        assertNull(registry.get(2, 0));
+    }
+
+    @Test
+    public void shouldReplaceValueForSameSchemaIdAndVersion()
+    {
+        assertNull(registry.put(1, 0, "first"));
+        assertEquals("first", registry.put(1, 0, "second"));
+
+        assertEquals(1, registry.size());
+        assertEquals("second", registry.get(1, 0));
+        assertEquals("second", registry.get(1, 1));
+    }
+}
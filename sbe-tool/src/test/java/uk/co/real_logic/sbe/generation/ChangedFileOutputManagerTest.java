@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.real_logic.sbe.SbeTool;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static uk.co.real_logic.sbe.TestUtil.getLocalResource;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class ChangedFileOutputManagerTest
+{
+    private static final long OLD_MODIFIED_TIME = 1_000_000_000_000L;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldWriteNewFile() throws Exception
+    {
+        final ChangedFileOutputManager outputManager = new ChangedFileOutputManager(folder.getRoot(), ".java");
+
+        write(outputManager, "Car", "class Car {}");
+
+        assertThat(read(new File(folder.getRoot(), "Car.java")), is("class Car {}"));
+        assertThat(outputManager.writtenCount(), is(1));
+        assertThat(outputManager.unchangedCount(), is(0));
+    }
+
+    @Test
+    public void shouldNotRewriteFileWithSameContent() throws Exception
+    {
+        final File file = new File(folder.getRoot(), "Car.java");
+        write(new ChangedFileOutputManager(folder.getRoot(), ".java"), "Car", "class Car {}");
+        assertThat(file.setLastModified(OLD_MODIFIED_TIME), is(true));
+
+        final ChangedFileOutputManager outputManager = new ChangedFileOutputManager(folder.getRoot(), ".java");
+        write(outputManager, "Car", "class Car {}");
+
+        assertThat(file.lastModified(), is(OLD_MODIFIED_TIME));
+        assertThat(outputManager.writtenCount(), is(0));
+        assertThat(outputManager.unchangedCount(), is(1));
+    }
+
+    @Test
+    public void shouldRewriteFileWithChangedContent() throws Exception
+    {
+        final File file = new File(folder.getRoot(), "Car.java");
+        write(new ChangedFileOutputManager(folder.getRoot(), ".java"), "Car", "class Car {}");
+
+        final ChangedFileOutputManager outputManager = new ChangedFileOutputManager(folder.getRoot(), ".java");
+        write(outputManager, "Car", "class Car { int x; }");
+
+        assertThat(read(file), is("class Car { int x; }"));
+        assertThat(outputManager.writtenCount(), is(1));
+        assertThat(outputManager.unchangedCount(), is(0));
+    }
+
+    @Test
+    public void shouldCreateOutputDirectory() throws Exception
+    {
+        final File outputDir = new File(folder.getRoot(), "uk/co/real_logic");
+
+        write(new ChangedFileOutputManager(outputDir, ".h"), "Car", "class Car {};");
+
+        assertThat(read(new File(outputDir, "Car.h")), is("class Car {};"));
+    }
+
+    @Test
+    public void shouldLeaveAllFilesUnchangedWhenRegeneratingSameSchema() throws Exception
+    {
+        final Ir ir = new IrGenerator().generate(
+            parse(getLocalResource("code-generation-schema.xml"), ParserOptions.DEFAULT));
+        final String outputDirName = folder.getRoot().getPath();
+
+        final ChangedFileOutputManager first = SbeTool.generateChangedFiles(ir, outputDirName, "Java");
+        final ChangedFileOutputManager second = SbeTool.generateChangedFiles(ir, outputDirName, "Java");
+
+        assertThat(first.writtenCount(), greaterThan(0));
+        assertThat(first.unchangedCount(), is(0));
+        assertThat(second.writtenCount(), is(0));
+        assertThat(second.unchangedCount(), is(first.writtenCount()));
+    }
+
+    @Test
+    public void shouldDeleteFilesNotGeneratedByThisRun() throws Exception
+    {
+        final File packageDir = new File(folder.getRoot(), "uk/co/real_logic");
+        final File removedDir = new File(folder.getRoot(), "uk/co/removed");
+        write(new ChangedFileOutputManager(packageDir, ".java"), "Removed", "class Removed {}");
+        write(new ChangedFileOutputManager(removedDir, ".java"), "Other", "class Other {}");
+
+        final ChangedFileOutputManager outputManager = new ChangedFileOutputManager(packageDir, ".java");
+        write(outputManager, "Car", "class Car {}");
+
+        final int deletedCount = ChangedFileOutputManager.deleteStaleFiles(
+            folder.getRoot(), outputManager.generatedFiles());
+
+        assertThat(deletedCount, is(2));
+        assertThat(read(new File(packageDir, "Car.java")), is("class Car {}"));
+        assertFalse(new File(packageDir, "Removed.java").exists());
+        assertFalse(removedDir.exists());
+        assertTrue(folder.getRoot().isDirectory());
+    }
+
+    @Test
+    public void shouldDeleteStaleFilesWhenRunWithOption() throws Exception
+    {
+        final File outputDir = folder.getRoot();
+        final File staleFile = new File(outputDir, "code/generation/test/Stale.java");
+        assertTrue(staleFile.getParentFile().mkdirs());
+        Files.write(staleFile.toPath(), "class Stale {}".getBytes(StandardCharsets.UTF_8));
+
+        final Map<String, String> options = new HashMap<>();
+        options.put(SbeTool.OUTPUT_DIR, outputDir.getPath());
+        options.put(SbeTool.DELETE_STALE_FILES, "true");
+        final URL schema = ChangedFileOutputManagerTest.class.getClassLoader().getResource("code-generation-schema.xml");
+        SbeTool.run(options, new File(schema.toURI()).getPath());
+
+        assertFalse(staleFile.exists());
+        assertTrue(new File(staleFile.getParentFile(), "CarEncoder.java").exists());
+    }
+
+    private static void write(final ChangedFileOutputManager outputManager, final String name, final String content)
+        throws Exception
+    {
+        try (final Writer out = outputManager.createOutput(name))
+        {
+            out.append(content);
+        }
+    }
+
+    private static String read(final File file) throws Exception
+    {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation.java;
+
+import decimal.composite.MessageHeaderEncoder;
+import decimal.composite.PriceNullEncoder;
+import decimal.composite.QuoteDecoder;
+import decimal.composite.QuoteEncoder;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Test;
+import uk.co.real_logic.sbe.DecimalFormatter;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.json.JsonPrinter;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.MessageSchema;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+import uk.co.real_logic.sbe.xml.XmlSchemaParser;
+
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class DecimalCompositeGenerationTest
+{
+    private static final int MSG_BUFFER_CAPACITY = 4 * 1024;
+
+    private final MessageHeaderEncoder messageHeader = new MessageHeaderEncoder();
+    private final QuoteEncoder quoteEncoder = new QuoteEncoder();
+    private final QuoteDecoder quoteDecoder = new QuoteDecoder();
+
+    @Test
+    public void shouldDisplayDecimalCompositesAsDecimals()
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(MSG_BUFFER_CAPACITY));
+        encodeTestMessage(buffer);
+
+        quoteDecoder.wrap(buffer, messageHeader.encodedLength(), QuoteDecoder.BLOCK_LENGTH, QuoteDecoder.SCHEMA_VERSION);
+
+        assertEquals(
+            "[Quote](sbeTemplateId=1|sbeSchemaId=4|sbeSchemaVersion=0|sbeBlockLength=45):" +
+            "price=123.4567890|previousPrice=null|rate=-0.05|level=(size=3|levelPrice=-1.0000000)|" +
+            "spread=0.1|ratio=1.25",
+            quoteDecoder.toString());
+    }
+
+    @Test
+    public void shouldPrintDecimalCompositesAsJsonNumbers() throws Exception
+    {
+        final ByteBuffer encodedMsgBuffer = ByteBuffer.allocateDirect(MSG_BUFFER_CAPACITY);
+        encodeTestMessage(new UnsafeBuffer(encodedMsgBuffer));
+
+        final JsonPrinter printer = new JsonPrinter(generateIr());
+
+        assertEquals(
+            "{\n" +
+            "    \"price\": 123.4567890,\n" +
+            "    \"previousPrice\": null,\n" +
+            "    \"rate\": -0.05,\n" +
+            "    \"size\": 3,\n" +
+            "    \"levelPrice\": -1.0000000,\n" +
+            "    \"spread\": 0.1,\n" +
+            "    \"ratio\": 1.25\n" +
+            "}",
+            printer.print(encodedMsgBuffer));
+    }
+
+    @Test
+    public void shouldFormatTheSameAsTheToolFormatter()
+    {
+        final StringBuilder generated = new StringBuilder();
+        final StringBuilder tool = new StringBuilder();
+        final Random random = new Random(23);
+
+        for (int i = 0; i < 10_000; i++)
+        {
+            final double value = (random.nextDouble() - 0.5) * Math.pow(10, random.nextInt(14) - 5);
+            final long mantissa = random.nextLong() >> random.nextInt(64);
+            final int exponent = random.nextInt(30) - 25;
+
+            generated.setLength(0);
+            tool.setLength(0);
+
+            decimal.composite.DecimalFormatter.appendDouble(generated, value);
+            decimal.composite.DecimalFormatter.appendFloat(generated, (float)value);
+            decimal.composite.DecimalFormatter.appendDecimal(generated, mantissa, exponent);
+
+            DecimalFormatter.appendDouble(tool, value);
+            DecimalFormatter.appendFloat(tool, (float)value);
+            DecimalFormatter.appendDecimal(tool, mantissa, exponent);
+
+            assertEquals(tool.toString(), generated.toString());
+        }
+    }
+
+    private void encodeTestMessage(final UnsafeBuffer buffer)
+    {
+        messageHeader
+            .wrap(buffer, 0)
+            .blockLength(quoteEncoder.sbeBlockLength())
+            .templateId(quoteEncoder.sbeTemplateId())
+            .schemaId(quoteEncoder.sbeSchemaId())
+            .version(quoteEncoder.sbeSchemaVersion());
+
+        quoteEncoder.wrap(buffer, messageHeader.encodedLength());
+        quoteEncoder.price().mantissa(1_234_567_890L);
+        quoteEncoder.previousPrice().mantissa(PriceNullEncoder.mantissaNullValue());
+        quoteEncoder.rate().mantissa(-5).exponent((byte)-2);
+        quoteEncoder.level().size(3).levelPrice().mantissa(-10_000_000L);
+        quoteEncoder.spread(0.1).ratio(1.25f);
+    }
+
+    private static Ir generateIr() throws Exception
+    {
+        try (final InputStream in = new FileInputStream("src/test/resources/decimal-composite-schema.xml"))
+        {
+            final MessageSchema schema = XmlSchemaParser.parse(in, ParserOptions.DEFAULT);
+            return new IrGenerator().generate(schema);
+        }
+    }
+}
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation.java;
+
+import baseline.*;
+import composite.elements.EnumOne;
+import composite.elements.MsgDecoder;
+import composite.elements.MsgEncoder;
+import composite.elements.OuterDecoder;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.sbe.EncodedCarTestBase;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.assertThat;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+
+/**
+ * Each kind of accessor generated by {@link JavaGenerator} must not allocate once warmed up. Accessors that return a
+ * {@link String}, and toString and appendTo, allocate by design and are not covered.
+ */
+public class GeneratedCodecAllocationTest extends EncodedCarTestBase
+{
+    private static final int CAPACITY = 1024;
+
+    private final UnsafeBuffer encodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(CAPACITY));
+    private final UnsafeBuffer decodeBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(CAPACITY));
+    private final UnsafeBuffer tempBuffer = new UnsafeBuffer(new byte[128]);
+    private final byte[] tempBytes = new byte[128];
+    private final byte[] vehicleCode = { 'a', 'b', 'c', 'd', 'e', 'f' };
+    private final byte[] manufacturerCode = { '1', '2', '3' };
+    private final byte[] make = { 'H', 'o', 'n', 'd', 'a' };
+
+    private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+    private final CarEncoder carEncoder = new CarEncoder();
+    private final CarDecoder carDecoder = new CarDecoder();
+    private final MsgEncoder msgEncoder = new MsgEncoder();
+    private final MsgDecoder msgDecoder = new MsgDecoder();
+
+    private long sum;
+
+    @Before
+    public void setUp()
+    {
+        encodeTestMessage(decodeBuffer.byteBuffer());
+        messageHeaderDecoder.wrap(decodeBuffer, 0);
+        msgEncoder.wrap(encodeBuffer, 0);
+    }
+
+    @Test
+    public void shouldNotAllocateForPrimitiveAccessors()
+    {
+        assertNoAllocation("primitive encode", () ->
+            carEncoder.wrap(encodeBuffer, 0).serialNumber(1234).modelYear(2013));
+
+        assertNoAllocation("primitive decode", () ->
+        {
+            wrapCarDecoder();
+            sum += carDecoder.serialNumber() + carDecoder.modelYear();
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateForArrayAccessors()
+    {
+        assertNoAllocation("array encode", () ->
+        {
+            carEncoder.wrap(encodeBuffer, 0).putVehicleCode(vehicleCode, 0);
+            carEncoder.vehicleCode(0, (byte)'z');
+            for (int i = 0, size = CarEncoder.someNumbersLength(); i < size; i++)
+            {
+                carEncoder.someNumbers(i, i);
+            }
+        });
+
+        assertNoAllocation("array decode", () ->
+        {
+            wrapCarDecoder();
+            sum += carDecoder.getVehicleCode(tempBytes, 0) + carDecoder.vehicleCode(0);
+            for (int i = 0, size = CarDecoder.someNumbersLength(); i < size; i++)
+            {
+                sum += carDecoder.someNumbers(i);
+            }
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateForEnumAccessors()
+    {
+        assertNoAllocation("enum encode", () ->
+            carEncoder.wrap(encodeBuffer, 0).available(BooleanType.T).code(Model.C));
+
+        assertNoAllocation("enum decode", () ->
+        {
+            wrapCarDecoder();
+            sum += carDecoder.available().ordinal() + carDecoder.code().ordinal();
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateForSetAccessors()
+    {
+        assertNoAllocation("set encode", () ->
+            carEncoder.wrap(encodeBuffer, 0).extras().clear().cruiseControl(true).sportsPack(false).sunRoof(true));
+
+        assertNoAllocation("set decode", () ->
+        {
+            wrapCarDecoder();
+            final OptionalExtrasDecoder extras = carDecoder.extras();
+            sum += (extras.cruiseControl() ? 1 : 0) + (extras.sportsPack() ? 2 : 0) + (extras.sunRoof() ? 4 : 0);
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateForCompositeAccessors()
+    {
+        assertNoAllocation("composite encode", () ->
+        {
+            carEncoder.wrap(encodeBuffer, 0).engine().capacity(2000).numCylinders((short)4)
+                .putManufacturerCode(manufacturerCode, 0);
+
+            msgEncoder.structure().enumOne(EnumOne.Value10).zeroth((short)42);
+            msgEncoder.structure().setOne().clear().bit0(true).bit16(false).bit26(true);
+            msgEncoder.structure().inner().first(101L).second(202L);
+        });
+
+        assertNoAllocation("composite decode", () ->
+        {
+            wrapCarDecoder();
+            final EngineDecoder engine = carDecoder.engine();
+            sum += engine.capacity() + engine.numCylinders() + engine.maxRpm() + engine.manufacturerCode(0);
+            sum += engine.getFuel(tempBytes, 0, tempBytes.length);
+
+            final OuterDecoder outer = msgDecoder
+                .wrap(encodeBuffer, 0, MsgDecoder.BLOCK_LENGTH, MsgDecoder.SCHEMA_VERSION)
+                .structure();
+            sum += outer.enumOne().ordinal() + outer.zeroth() + (outer.setOne().bit26() ? 1 : 0);
+            sum += outer.inner().first() + outer.inner().second();
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateForGroupAccessors()
+    {
+        assertNoAllocation("group encode", () ->
+        {
+            carEncoder.wrap(encodeBuffer, 0)
+                .fuelFiguresCount(2)
+                .next().speed(30).mpg(35.9f)
+                .next().speed(55).mpg(49.0f);
+
+            final CarEncoder.PerformanceFiguresEncoder performanceFigures = carEncoder.performanceFiguresCount(1);
+            performanceFigures.next().octaneRating((short)95)
+                .accelerationCount(2)
+                .next().mph(30).seconds(4.0f)
+                .next().mph(60).seconds(7.5f);
+        });
+
+        assertNoAllocation("group decode", () ->
+        {
+            wrapCarDecoder();
+            for (final CarDecoder.FuelFiguresDecoder fuelFigures : carDecoder.fuelFigures())
+            {
+                sum += fuelFigures.speed() + (long)fuelFigures.mpg();
+            }
+
+            final CarDecoder.PerformanceFiguresDecoder performanceFigures = carDecoder.performanceFigures();
+            sum += performanceFigures.count();
+            while (performanceFigures.hasNext())
+            {
+                sum += performanceFigures.next().octaneRating();
+                for (final CarDecoder.PerformanceFiguresDecoder.AccelerationDecoder acceleration :
+                    performanceFigures.acceleration())
+                {
+                    sum += acceleration.mph() + (long)acceleration.seconds();
+                }
+            }
+        });
+    }
+
+    @Test
+    public void shouldNotAllocateForVarDataAccessors()
+    {
+        assertNoAllocation("var data encode", () ->
+        {
+            carEncoder.wrap(encodeBuffer, 0).fuelFiguresCount(0);
+            carEncoder.performanceFiguresCount(0);
+            carEncoder.putMake(make, 0, make.length);
+            carEncoder.putModel(tempBuffer, 0, 3);
+            carEncoder.putActivationCode(make, 1, 2);
+        });
+
+        assertNoAllocation("var data decode", () ->
+        {
+            wrapCarDecoder();
+            skipGroups();
+            sum += carDecoder.makeLength() + carDecoder.getMake(tempBytes, 0, tempBytes.length);
+            sum += carDecoder.getModel(tempBuffer, 0, tempBuffer.capacity());
+            sum += carDecoder.getActivationCode(tempBytes, 0, tempBytes.length);
+        });
+
+        assertThat(sum, greaterThan(0L));
+    }
+
+    private void wrapCarDecoder()
+    {
+        carDecoder.wrap(
+            decodeBuffer,
+            messageHeaderDecoder.encodedLength(),
+            messageHeaderDecoder.blockLength(),
+            messageHeaderDecoder.version());
+    }
+
+    private void skipGroups()
+    {
+        for (final CarDecoder.FuelFiguresDecoder ignore : carDecoder.fuelFigures())
+        {
+            sum++;
+        }
+
+        for (final CarDecoder.PerformanceFiguresDecoder performanceFigures : carDecoder.performanceFigures())
+        {
+            for (final CarDecoder.PerformanceFiguresDecoder.AccelerationDecoder ignore : performanceFigures.acceleration())
+            {
+                sum++;
+            }
+        }
+    }
+}
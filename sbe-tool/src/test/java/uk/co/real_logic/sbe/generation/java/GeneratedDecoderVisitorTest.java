@@ -0,0 +1,304 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation.java;
+
+import baseline.CarDecoder;
+import baseline.MessageHeaderDecoder;
+import composite.elements.EnumOne;
+import composite.elements.MsgDecoder;
+import composite.elements.MsgEncoder;
+import org.agrona.DirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.sbe.EncodedCarTestBase;
+import uk.co.real_logic.sbe.codec.java.AbstractDecoderVisitor;
+import uk.co.real_logic.sbe.codec.java.DecoderVisitor;
+
+import java.nio.ByteBuffer;
+
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+
+public class GeneratedDecoderVisitorTest extends EncodedCarTestBase
+{
+    private static final int CAPACITY = 1024;
+
+    private final UnsafeBuffer buffer = new UnsafeBuffer(ByteBuffer.allocateDirect(CAPACITY));
+    private final MessageHeaderDecoder messageHeaderDecoder = new MessageHeaderDecoder();
+    private final CarDecoder carDecoder = new CarDecoder();
+    private final RecordingVisitor recordingVisitor = new RecordingVisitor();
+
+    @Before
+    public void setUp()
+    {
+        encodeTestMessage(buffer.byteBuffer());
+        messageHeaderDecoder.wrap(buffer, 0);
+        wrapCarDecoder();
+    }
+
+    @Test
+    public void shouldVisitEachFieldOfMessageInSchemaOrder()
+    {
+        carDecoder.visit(recordingVisitor);
+
+        assertEquals(
+            "beginMessage Car 1 0|" +
+            "unsignedLong serialNumber 1 1234|" +
+            "long modelYear 2 2013|" +
+            "enum available 3 T|" +
+            "enum code 4 A|" +
+            "beginArray someNumbers 5 5|" +
+            "long someNumbers 5 0|long someNumbers 5 1|long someNumbers 5 2|long someNumbers 5 3|long someNumbers 5 4|" +
+            "endArray someNumbers 5|" +
+            "charArray vehicleCode 6 abcdef|" +
+            "beginSet extras 7|choice sunRoof false|choice sportsPack true|choice cruiseControl true|endSet extras 7|" +
+            "beginComposite engine 8|" +
+            "long capacity -1 2000|long numCylinders -1 4|charArray manufacturerCode -1 123|" +
+            "endComposite engine 8|" +
+            "beginGroup fuelFigures 9 3|" +
+            "beginGroupEntry fuelFigures 9|long speed 10 30|double mpg 11 35.9|endGroupEntry fuelFigures 9|" +
+            "beginGroupEntry fuelFigures 9|long speed 10 55|double mpg 11 49.0|endGroupEntry fuelFigures 9|" +
+            "beginGroupEntry fuelFigures 9|long speed 10 75|double mpg 11 40.0|endGroupEntry fuelFigures 9|" +
+            "endGroup fuelFigures 9|" +
+            "beginGroup performanceFigures 12 2|" +
+            "beginGroupEntry performanceFigures 12|long octaneRating 13 95|" +
+            "beginGroup acceleration 14 3|" +
+            "beginGroupEntry acceleration 14|long mph 15 30|double seconds 16 4.0|endGroupEntry acceleration 14|" +
+            "beginGroupEntry acceleration 14|long mph 15 60|double seconds 16 7.5|endGroupEntry acceleration 14|" +
+            "beginGroupEntry acceleration 14|long mph 15 100|double seconds 16 12.2|endGroupEntry acceleration 14|" +
+            "endGroup acceleration 14|" +
+            "endGroupEntry performanceFigures 12|" +
+            "beginGroupEntry performanceFigures 12|long octaneRating 13 99|" +
+            "beginGroup acceleration 14 3|" +
+            "beginGroupEntry acceleration 14|long mph 15 30|double seconds 16 3.8|endGroupEntry acceleration 14|" +
+            "beginGroupEntry acceleration 14|long mph 15 60|double seconds 16 7.1|endGroupEntry acceleration 14|" +
+            "beginGroupEntry acceleration 14|long mph 15 100|double seconds 16 11.8|endGroupEntry acceleration 14|" +
+            "endGroup acceleration 14|" +
+            "endGroupEntry performanceFigures 12|" +
+            "endGroup performanceFigures 12|" +
+            "varData make 17 Honda|" +
+            "varData model 18 Civic VTi|" +
+            "varData activationCode 19 |" +
+            "endMessage Car 1|",
+            recordingVisitor.toString());
+    }
+
+    @Test
+    public void shouldVisitNestedComposites()
+    {
+        final UnsafeBuffer msgBuffer = new UnsafeBuffer(new byte[64]);
+        final MsgEncoder msgEncoder = new MsgEncoder();
+        msgEncoder.wrap(msgBuffer, 0).structure()
+            .enumOne(EnumOne.Value10)
+            .zeroth((short)42)
+            .inner().first(1L).second(2L);
+        msgEncoder.structure().setOne().bit16(true);
+
+        final MsgDecoder msgDecoder = new MsgDecoder();
+        msgDecoder.wrap(msgBuffer, 0, msgEncoder.sbeBlockLength(), msgEncoder.sbeSchemaVersion()).visit(recordingVisitor);
+
+        assertEquals(
+            "beginMessage Msg 1 0|" +
+            "beginComposite structure 42|" +
+            "enum enumOne -1 Value10|" +
+            "long zeroth -1 42|" +
+            "beginSet setOne -1|choice Bit0 false|choice Bit16 true|choice Bit26 false|endSet setOne -1|" +
+            "beginComposite inner -1|long first -1 1|long second -1 2|endComposite inner -1|" +
+            "endComposite structure 42|" +
+            "endMessage Msg 1|",
+            recordingVisitor.toString());
+    }
+
+    @Test
+    public void shouldLeaveDecoderAsItWasAfterVisit()
+    {
+        final String expected = carDecoder.toString();
+        final int limit = carDecoder.limit();
+
+        carDecoder.visit(recordingVisitor);
+
+        assertEquals(limit, carDecoder.limit());
+        assertEquals(expected, carDecoder.toString());
+    }
+
+    @Test
+    public void shouldVisitWithoutAllocation()
+    {
+        final SummingVisitor summingVisitor = new SummingVisitor();
+
+        assertNoAllocation("visit", () -> carDecoder.visit(summingVisitor));
+        assertThat(summingVisitor.sum, greaterThan(0L));
+    }
+
+    private void wrapCarDecoder()
+    {
+        carDecoder.wrap(
+            buffer,
+            messageHeaderDecoder.encodedLength(),
+            messageHeaderDecoder.blockLength(),
+            messageHeaderDecoder.version());
+    }
+
+    private static class SummingVisitor extends AbstractDecoderVisitor
+    {
+        long sum;
+
+        public void onLong(final String name, final int id, final long value)
+        {
+            sum += value;
+        }
+
+        public void onDouble(final String name, final int id, final double value)
+        {
+            sum += (long)value;
+        }
+
+        public void onVarData(
+            final String name, final int id, final DirectBuffer buffer, final int offset, final int length)
+        {
+            sum += length;
+        }
+    }
+
+    private static class RecordingVisitor implements DecoderVisitor
+    {
+        private final StringBuilder sb = new StringBuilder();
+
+        public void onBeginMessage(final String name, final int templateId, final int actingVersion)
+        {
+            record("beginMessage", name, templateId).append(' ').append(actingVersion).append('|');
+        }
+
+        public void onEndMessage(final String name, final int templateId)
+        {
+            record("endMessage", name, templateId).append('|');
+        }
+
+        public void onLong(final String name, final int id, final long value)
+        {
+            record("long", name, id).append(' ').append(value).append('|');
+        }
+
+        public void onUnsignedLong(final String name, final int id, final long value)
+        {
+            record("unsignedLong", name, id).append(' ').append(Long.toUnsignedString(value)).append('|');
+        }
+
+        public void onDouble(final String name, final int id, final double value)
+        {
+            record("double", name, id).append(' ').append((float)value).append('|');
+        }
+
+        public void onChar(final String name, final int id, final byte value)
+        {
+            record("char", name, id).append(' ').append((char)value).append('|');
+        }
+
+        public void onCharArray(
+            final String name, final int id, final DirectBuffer buffer, final int offset, final int length)
+        {
+            record("charArray", name, id).append(' ');
+            for (int i = 0; i < length && buffer.getByte(offset + i) != 0; i++)
+            {
+                sb.append((char)buffer.getByte(offset + i));
+            }
+            sb.append('|');
+        }
+
+        public void onBeginArray(final String name, final int id, final int length)
+        {
+            record("beginArray", name, id).append(' ').append(length).append('|');
+        }
+
+        public void onEndArray(final String name, final int id)
+        {
+            record("endArray", name, id).append('|');
+        }
+
+        public void onEnum(final String name, final int id, final Enum<?> value)
+        {
+            record("enum", name, id).append(' ').append(value).append('|');
+        }
+
+        public void onBeginSet(final String name, final int id)
+        {
+            record("beginSet", name, id).append('|');
+        }
+
+        public void onChoice(final String name, final boolean isSet)
+        {
+            sb.append("choice ").append(name).append(' ').append(isSet).append('|');
+        }
+
+        public void onEndSet(final String name, final int id)
+        {
+            record("endSet", name, id).append('|');
+        }
+
+        public void onBeginComposite(final String name, final int id)
+        {
+            record("beginComposite", name, id).append('|');
+        }
+
+        public void onEndComposite(final String name, final int id)
+        {
+            record("endComposite", name, id).append('|');
+        }
+
+        public void onBeginGroup(final String name, final int id, final int count)
+        {
+            record("beginGroup", name, id).append(' ').append(count).append('|');
+        }
+
+        public void onBeginGroupEntry(final String name, final int id)
+        {
+            record("beginGroupEntry", name, id).append('|');
+        }
+
+        public void onEndGroupEntry(final String name, final int id)
+        {
+            record("endGroupEntry", name, id).append('|');
+        }
+
+        public void onEndGroup(final String name, final int id)
+        {
+            record("endGroup", name, id).append('|');
+        }
+
+        public void onVarData(
+            final String name, final int id, final DirectBuffer buffer, final int offset, final int length)
+        {
+            record("varData", name, id).append(' ');
+            for (int i = 0; i < length; i++)
+            {
+                sb.append((char)buffer.getByte(offset + i));
+            }
+            sb.append('|');
+        }
+
+        public String toString()
+        {
+            return sb.toString();
+        }
+
+        private StringBuilder record(final String event, final String name, final int id)
+        {
+            return sb.append(event).append(' ').append(name).append(' ').append(id);
+        }
+    }
+}
@@ -29,6 +29,7 @@ import uk.co.real_logic.sbe.xml.MessageSchema;
 import uk.co.real_logic.sbe.xml.ParserOptions;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.ByteOrder;
 import java.util.Map;
@@ -36,6 +37,7 @@ import java.util.Map;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasToString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.startsWith;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -247,6 +249,36 @@ public class JavaGeneratorTest
         assertThat(msgFlyweight.toString(), startsWith("[Car]"));
     }
 
+    @Test
+    public void shouldGenerateDecimalFormatterInSchemaPackageForFloatFields() throws Exception
+    {
+        generator().generate();
+
+        final String fqClassName = ir.applicableNamespace() + ".DecimalFormatter";
+        final String source = outputManager.getSources().get(fqClassName).toString();
+        assertThat(source, startsWith("/* Generated SBE (Simple Binary Encoding) message codec */\n" +
+            "package " + ir.applicableNamespace() + ";\n"));
+
+        final Class<?> clazz = compile(fqClassName);
+        final StringBuilder sb = new StringBuilder();
+        clazz.getMethod("appendDouble", StringBuilder.class, double.class).invoke(null, sb, 35.9);
+        assertThat(sb.toString(), is("35.9"));
+    }
+
+    @Test
+    public void shouldNotGenerateDecimalFormatterWithoutFloatOrDecimalFields() throws Exception
+    {
+        final ParserOptions options = ParserOptions.builder().stopOnError(true).build();
+        ir = new IrGenerator().generate(parse(TestUtil.getLocalResource("latest-version-schema.xml"), options));
+        outputManager.clear();
+        outputManager.setPackageName(ir.applicableNamespace());
+
+        generator().generate();
+
+        assertTrue(outputManager.getSources().containsKey(ir.applicableNamespace() + ".OrderDecoder"));
+        assertFalse(outputManager.getSources().containsKey(ir.applicableNamespace() + ".DecimalFormatter"));
+    }
+
     @Test
     public void shouldGenerateRepeatingGroupDecoder() throws Exception
     {
@@ -351,6 +383,47 @@ public class JavaGeneratorTest
         assertThat(get(decoder, "code"), hasToString("B"));
     }
 
+    @Test
+    public void shouldGenerateUnsafeAccessorCodecs() throws Exception
+    {
+        final long expectedSerialNumber = 7L;
+        final int expectedEngineCapacity = 2000;
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[4096]);
+
+        unsafeGenerator().generate();
+
+        final Object encoder = wrap(buffer, compileCarEncoder().newInstance());
+        final Object decoder = getCarDecoder(buffer, encoder);
+
+        putSerialNumber(encoder, expectedSerialNumber);
+        assertEquals(expectedSerialNumber, getSerialNumber(decoder));
+
+        setCapacity(get(encoder, "engine"), expectedEngineCapacity);
+        assertEquals(expectedEngineCapacity, getCapacity(get(decoder, "engine")));
+
+        assertFalse(getCruiseControl(getExtras(decoder)));
+        setCruiseControl(getExtras(encoder), true);
+        assertTrue(getCruiseControl(getExtras(decoder)));
+    }
+
+    @Test
+    public void shouldCheckCapacityOnWrapWithUnsafeAccessors() throws Exception
+    {
+        final UnsafeBuffer buffer = new UnsafeBuffer(new byte[8]);
+
+        unsafeGenerator().generate();
+
+        try
+        {
+            wrap(buffer, compileCarEncoder().newInstance());
+            fail("expected capacity check on wrap");
+        }
+        catch (final InvocationTargetException ex)
+        {
+            assertThat(ex.getCause(), instanceOf(IndexOutOfBoundsException.class));
+        }
+    }
+
     private Class<?> getModelClass(final Object encoder) throws ClassNotFoundException
     {
         final String className = "Model";
@@ -449,6 +522,11 @@ public class JavaGeneratorTest
         return new JavaGenerator(ir, BUFFER_NAME, READ_ONLY_BUFFER_NAME, false, false, outputManager);
     }
 
+    private JavaGenerator unsafeGenerator() throws IOException
+    {
+        return new JavaGenerator(ir, BUFFER_NAME, READ_ONLY_BUFFER_NAME, false, false, true, false, false, outputManager);
+    }
+
     private void generateTypeStubs() throws IOException
     {
         final JavaGenerator javaGenerator = generator();
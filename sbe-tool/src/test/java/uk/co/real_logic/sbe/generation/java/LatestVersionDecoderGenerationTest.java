@@ -0,0 +1,204 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation.java;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.generation.CompilerUtil;
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.sbe.TestUtil;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class LatestVersionDecoderGenerationTest
+{
+    private static final String BUFFER_NAME = MutableDirectBuffer.class.getName();
+    private static final String READ_ONLY_BUFFER_NAME = DirectBuffer.class.getName();
+
+    private final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+    private final UnsafeBuffer buffer = new UnsafeBuffer(new byte[1024]);
+
+    private Ir ir;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final ParserOptions options = ParserOptions.builder().stopOnError(true).build();
+        ir = new IrGenerator().generate(parse(TestUtil.getLocalResource("latest-version-schema.xml"), options));
+
+        outputManager.clear();
+        outputManager.setPackageName(ir.applicableNamespace());
+    }
+
+    @Test
+    public void shouldGenerateLatestVersionDecoderWithoutActingVersionChecks() throws Exception
+    {
+        generator(true).generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        final String decoderSource = sources.get(fqClassName("OrderDecoder")).toString();
+        final String latestVersionDecoderSource = sources.get(fqClassName("OrderLatestVersionDecoder")).toString();
+
+        assertThat(decoderSource, containsString("if (actingVersion < 1)"));
+        assertThat(decoderSource, containsString("public static int validate("));
+        assertThat(latestVersionDecoderSource, containsString("if (actingVersion < SCHEMA_VERSION)"));
+        assertThat(latestVersionDecoderSource, not(containsString("if (actingVersion < 1)")));
+        assertThat(latestVersionDecoderSource, not(containsString("if (actingVersion >= 1)")));
+        assertThat(latestVersionDecoderSource, not(containsString("validate(")));
+    }
+
+    @Test
+    public void shouldNotGenerateLatestVersionDecoderByDefault() throws Exception
+    {
+        generator(false).generate();
+
+        assertTrue(outputManager.getSources().containsKey(fqClassName("OrderDecoder")));
+        assertFalse(outputManager.getSources().containsKey(fqClassName("OrderLatestVersionDecoder")));
+    }
+
+    @Test
+    public void shouldDecodeMessageOfSchemaVersion() throws Exception
+    {
+        generator(true).generate();
+
+        final Object encoder = encodeOrder();
+        final Object decoder = wrapDecoder(encoder, "OrderLatestVersionDecoder", 1);
+
+        assertThat(invoke(decoder, "orderId"), is(7L));
+        assertThat(invoke(decoder, "quantity"), is(100L));
+        assertThat(invoke(decoder, "venue"), is(3));
+        assertThat(invoke(decoder, "side").toString(), is("SELL"));
+
+        final Object fills = invoke(decoder, "fills");
+        assertThat(invoke(fills, "count"), is(1));
+        invoke(fills, "next");
+        assertThat(invoke(fills, "fillQuantity"), is(50L));
+        assertThat(invoke(fills, "fillTime"), is(123456789L));
+
+        assertThat(invoke(decoder, "note"), is("first"));
+        assertThat(invoke(decoder, "toString").toString(), containsString("venue=3"));
+    }
+
+    @Test
+    public void shouldRejectWrapOfMessageBelowSchemaVersion() throws Exception
+    {
+        generator(true).generate();
+
+        final Object encoder = encodeOrder();
+        try
+        {
+            wrapDecoder(encoder, "OrderLatestVersionDecoder", 0);
+            fail("expected wrap to reject acting version below schema version");
+        }
+        catch (final InvocationTargetException ex)
+        {
+            assertThat(ex.getCause(), instanceOf(IllegalArgumentException.class));
+        }
+
+        final Object decoder = wrapDecoder(encoder, "OrderDecoder", 0);
+        assertThat(invoke(decoder, "orderId"), is(7L));
+        assertThat(invoke(decoder, "venue"), is(65535));
+        assertNull(invoke(decoder, "side"));
+    }
+
+    private Object encodeOrder() throws Exception
+    {
+        final Class<?> encoderClass = CompilerUtil.compileInMemory(fqClassName("OrderEncoder"), outputManager.getSources());
+        assertNotNull(encoderClass);
+
+        final Class<?> sideClass = encoderClass.getClassLoader().loadClass(fqClassName("Side"));
+        final Object encoder = encoderClass.newInstance();
+
+        invoke(encoder, "wrap", buffer, 0);
+        invoke(encoder, "orderId", 7L);
+        invoke(encoder, "quantity", 100L);
+        invoke(encoder, "venue", 3);
+        invoke(encoder, "side", sideClass.getField("SELL").get(null));
+
+        final Object fills = invoke(encoder, "fillsCount", 1);
+        invoke(fills, "next");
+        invoke(fills, "fillQuantity", 50L);
+        invoke(fills, "fillTime", 123456789L);
+
+        invoke(encoder, "note", "first");
+
+        return encoder;
+    }
+
+    private Object wrapDecoder(final Object encoder, final String className, final int actingVersion) throws Exception
+    {
+        final Class<?> decoderClass = encoder.getClass().getClassLoader().loadClass(fqClassName(className));
+        final Object decoder = decoderClass.newInstance();
+        final int blockLength = ((Number)invoke(encoder, "sbeBlockLength")).intValue();
+
+        return invoke(decoder, "wrap", buffer, 0, blockLength, actingVersion);
+    }
+
+    private static Object invoke(final Object target, final String methodName, final Object... args) throws Exception
+    {
+        for (final Method method : target.getClass().getMethods())
+        {
+            if (method.getName().equals(methodName) && method.getParameterCount() == args.length &&
+                (args.length == 0 || !method.getParameterTypes()[0].isArray()))
+            {
+                try
+                {
+                    return method.invoke(target, args);
+                }
+                catch (final IllegalArgumentException ignore)
+                {
+                    // overloaded with other parameter types
+                }
+            }
+        }
+
+        throw new NoSuchMethodException(methodName);
+    }
+
+    private String fqClassName(final String className)
+    {
+        return ir.applicableNamespace() + "." + className;
+    }
+
+    private JavaGenerator generator(final boolean shouldGenerateLatestVersionDecoders) throws Exception
+    {
+        return new JavaGenerator(
+            ir,
+            BUFFER_NAME,
+            READ_ONLY_BUFFER_NAME,
+            false,
+            false,
+            false,
+            false,
+            shouldGenerateLatestVersionDecoders,
+            outputManager);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation.java;
+
+import org.agrona.DirectBuffer;
+import org.agrona.MutableDirectBuffer;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.agrona.generation.CompilerUtil;
+import org.agrona.generation.StringWriterOutputManager;
+import org.junit.Test;
+import uk.co.real_logic.sbe.TestUtil;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class SupportClassNameCollisionTest
+{
+    private final StringWriterOutputManager outputManager = new StringWriterOutputManager();
+
+    @Test
+    public void shouldCompileSchemaWithTypesNamedAsSupportClasses() throws Exception
+    {
+        final ParserOptions options = ParserOptions.builder().stopOnError(true).build();
+        final Ir ir = new IrGenerator().generate(
+            parse(TestUtil.getLocalResource("support-class-name-collision-schema.xml"), options));
+        final String packageName = ir.applicableNamespace();
+
+        outputManager.setPackageName(packageName);
+        new JavaGenerator(
+            ir, MutableDirectBuffer.class.getName(), DirectBuffer.class.getName(), false, false, outputManager)
+            .generate();
+
+        final Map<String, CharSequence> sources = outputManager.getSources();
+        assertThat(sources.get(packageName + ".ValidationError").toString(), containsString("public enum ValidationError"));
+        assertThat(sources.get(packageName + ".DecimalFormatter").toString(), containsString("public enum DecimalFormatter"));
+        assertTrue(sources.containsKey(packageName + ".SbeValidationError"));
+        assertTrue(sources.containsKey(packageName + ".SbeDecimalFormatter"));
+
+        final Class<?> decoderClass = CompilerUtil.compileInMemory(packageName + ".ReadingDecoder", sources);
+        assertNotNull(decoderClass);
+
+        final Object errorCode = decoderClass
+            .getMethod("validate", DirectBuffer.class, int.class, int.class)
+            .invoke(null, new UnsafeBuffer(new byte[0]), 0, 8);
+        assertEquals(
+            decoderClass.getClassLoader().loadClass(packageName + ".SbeValidationError")
+                .getField("FRAME_OUT_OF_BOUNDS").get(null),
+            errorCode);
+    }
+}
@@ -7,6 +7,7 @@ import uk.co.real_logic.sbe.EncodedCarTestBase;
 import java.nio.ByteBuffer;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 public class ToStringTest extends EncodedCarTestBase
 {
@@ -38,6 +39,20 @@ public class ToStringTest extends EncodedCarTestBase
             result);
     }
 
+    @Test
+    public void unsignedLongAboveLongMaxValuePrintedAsUnsigned() throws Exception
+    {
+        final ByteBuffer encodedMsgBuffer = ByteBuffer.allocateDirect(MSG_BUFFER_CAPACITY);
+        encodeTestMessage(encodedMsgBuffer);
+        CAR.serialNumber(Long.MIN_VALUE);
+
+        assertTrue(CAR.toString().contains(":serialNumber=9223372036854775808|"));
+
+        CAR.serialNumber(-1L);
+
+        assertTrue(CAR.toString().contains(":serialNumber=18446744073709551615|"));
+    }
+
     @Test
     public void emptyMessagePrinted() throws Exception
     {
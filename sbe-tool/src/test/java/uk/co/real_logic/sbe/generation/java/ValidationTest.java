@@ -0,0 +1,158 @@
+/*
+ * Copyright 2014 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.generation.java;
+
+import baseline.CarDecoder;
+import baseline.MessageHeaderEncoder;
+import baseline.ValidationError;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.sbe.EncodedCarTestBase;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertEquals;
+
+public class ValidationTest extends EncodedCarTestBase
+{
+    private static final int MSG_BUFFER_CAPACITY = 4 * 1024;
+    private static final int HEADER_LENGTH = MessageHeaderEncoder.ENCODED_LENGTH;
+    private static final int CODE_OFFSET = HEADER_LENGTH + 11;
+    private static final int EXTRAS_OFFSET = HEADER_LENGTH + 38;
+
+    private UnsafeBuffer buffer;
+    private int length;
+
+    @Before
+    public void setUp()
+    {
+        final ByteBuffer encodedMsgBuffer = ByteBuffer.allocateDirect(MSG_BUFFER_CAPACITY);
+        encodeTestMessage(encodedMsgBuffer);
+        CAR.activationCode("");
+
+        buffer = new UnsafeBuffer(encodedMsgBuffer);
+        length = HEADER_LENGTH + CAR.encodedLength();
+    }
+
+    @Test
+    public void shouldValidateWellFormedMessage()
+    {
+        assertEquals(ValidationError.NONE, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldValidateWellFormedMessageWithTrailingBytesInFrame()
+    {
+        assertEquals(ValidationError.NONE, CarDecoder.validate(buffer, 0, length + 16));
+    }
+
+    @Test
+    public void shouldRejectFrameOutsideBuffer()
+    {
+        assertEquals(ValidationError.FRAME_OUT_OF_BOUNDS, CarDecoder.validate(buffer, -1, length));
+        assertEquals(ValidationError.FRAME_OUT_OF_BOUNDS, CarDecoder.validate(buffer, 0, MSG_BUFFER_CAPACITY + 1));
+        assertEquals(ValidationError.FRAME_OUT_OF_BOUNDS, CarDecoder.validate(buffer, 1, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldRejectTruncatedHeader()
+    {
+        assertEquals(ValidationError.HEADER_TRUNCATED, CarDecoder.validate(buffer, 0, HEADER_LENGTH - 1));
+    }
+
+    @Test
+    public void shouldRejectOtherTemplateAndSchema()
+    {
+        final MessageHeaderEncoder header = new MessageHeaderEncoder().wrap(buffer, 0);
+
+        header.templateId(CarDecoder.TEMPLATE_ID + 1);
+        assertEquals(ValidationError.TEMPLATE_ID_MISMATCH, CarDecoder.validate(buffer, 0, length));
+
+        header.templateId(CarDecoder.TEMPLATE_ID).schemaId(CarDecoder.SCHEMA_ID + 1);
+        assertEquals(ValidationError.SCHEMA_ID_MISMATCH, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldRejectBlockLengthShorterThanFields()
+    {
+        new MessageHeaderEncoder().wrap(buffer, 0).blockLength(CarDecoder.BLOCK_LENGTH - 1);
+
+        assertEquals(ValidationError.BLOCK_LENGTH_TOO_SHORT, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldRejectBlockBeyondFrame()
+    {
+        assertEquals(
+            ValidationError.BLOCK_TRUNCATED, CarDecoder.validate(buffer, 0, HEADER_LENGTH + CarDecoder.BLOCK_LENGTH - 1));
+    }
+
+    @Test
+    public void shouldRejectGroupHeaderBeyondFrame()
+    {
+        assertEquals(
+            ValidationError.GROUP_HEADER_TRUNCATED,
+            CarDecoder.validate(buffer, 0, HEADER_LENGTH + CarDecoder.BLOCK_LENGTH + 1));
+    }
+
+    @Test
+    public void shouldRejectGroupBlockLengthShorterThanFields()
+    {
+        buffer.putShort(HEADER_LENGTH + CarDecoder.BLOCK_LENGTH, (short)1, ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(ValidationError.GROUP_BLOCK_LENGTH_TOO_SHORT, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldRejectGroupCountBeyondFrame()
+    {
+        buffer.putShort(HEADER_LENGTH + CarDecoder.BLOCK_LENGTH + 2, (short)1000, ByteOrder.LITTLE_ENDIAN);
+
+        assertEquals(ValidationError.GROUP_TRUNCATED, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldRejectVarDataBeyondFrame()
+    {
+        assertEquals(ValidationError.VAR_DATA_TRUNCATED, CarDecoder.validate(buffer, 0, length - 2));
+    }
+
+    @Test
+    public void shouldRejectVarDataLengthBeyondFrame()
+    {
+        buffer.putByte(length - 1, (byte)1);
+
+        assertEquals(ValidationError.VAR_DATA_TRUNCATED, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldRejectUnknownEnumValue()
+    {
+        buffer.putByte(CODE_OFFSET, (byte)'Z');
+
+        assertEquals(ValidationError.INVALID_ENUM_VALUE, CarDecoder.validate(buffer, 0, length));
+    }
+
+    @Test
+    public void shouldRejectUnknownSetChoice()
+    {
+        buffer.putByte(EXTRAS_OFFSET, (byte)0x80);
+
+        assertEquals(ValidationError.INVALID_SET_VALUE, CarDecoder.validate(buffer, 0, length));
+    }
+}
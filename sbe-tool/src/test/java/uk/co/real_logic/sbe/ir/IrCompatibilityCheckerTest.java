@@ -0,0 +1,275 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.TestUtil.getLocalResource;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class IrCompatibilityCheckerTest
+{
+    private static final int ORDER_ID = 1;
+    private static final int CANCEL_ID = 2;
+    private static final String VERSION_0 = "version=\"0\"";
+    private static final String VERSION_1 = "version=\"1\"";
+    private static final String QUANTITY = "<field name=\"quantity\" id=\"4\" type=\"uint32\"/>";
+    private static final String FLAGS = "<field name=\"flags\" id=\"5\" type=\"Flags\"/>";
+    private static final String NOTE = "<data name=\"note\" id=\"20\" type=\"varDataEncoding\"/>";
+    private static final String FILL_QUANTITY = "<field name=\"fillQuantity\" id=\"12\" type=\"uint32\"/>";
+
+    private static String schemaXml;
+    private static Ir previousIr;
+
+    @BeforeClass
+    public static void loadSchema() throws Exception
+    {
+        schemaXml = readResource("compatibility-schema.xml");
+        previousIr = generateIr(schemaXml);
+    }
+
+    @Test
+    public void shouldFindSameSchemaCompatibleWithVersionChecksSkippable() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(previousIr, generateIr(schemaXml));
+
+        assertTrue(report.toString(), report.isCompatible());
+        assertThat(report.messages().size(), is(2));
+        for (final MessageCompatibility message : report.messages())
+        {
+            assertTrue(message.canNextDecodePrevious());
+            assertTrue(message.canPreviousDecodeNext());
+            assertTrue(message.canSkipVersionChecks());
+            assertTrue(message.additions().isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldAllowFieldsGroupsAndVarDataAppendedInLaterVersion() throws Exception
+    {
+        final Ir nextIr = nextIr(
+            FLAGS, FLAGS + "<field name=\"venue\" id=\"6\" type=\"uint16\" sinceVersion=\"1\"/>",
+            FILL_QUANTITY, FILL_QUANTITY + "<field name=\"fillTime\" id=\"13\" type=\"uint64\" sinceVersion=\"1\"/>",
+            NOTE, NOTE + "<data name=\"reason\" id=\"21\" type=\"varDataEncoding\" sinceVersion=\"1\"/>");
+
+        final CompatibilityReport report = IrCompatibilityChecker.check(previousIr, nextIr);
+        final MessageCompatibility order = report.message(ORDER_ID);
+
+        assertTrue(report.toString(), report.isCompatible());
+        assertThat(order.previousBlockLength(), is(previousIr.getMessage(ORDER_ID).get(0).encodedLength()));
+        assertThat(order.nextBlockLength(), is(order.previousBlockLength() + 2));
+        assertThat(order.additions(), hasItem("field venue added since version 1"));
+        assertThat(order.additions(), hasItem("field fills.fillTime added since version 1"));
+        assertThat(order.additions(), hasItem("var data reason added since version 1"));
+        assertTrue(order.isDecodable(0, 1));
+        assertTrue(order.isDecodable(1, 0));
+        assertThat(order.maxSinceVersion(), is(1));
+        assertFalse(order.canSkipVersionChecks());
+        assertTrue(report.message(CANCEL_ID).canSkipVersionChecks());
+    }
+
+    @Test
+    public void shouldReportRemovedField() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(previousIr, nextIr(QUANTITY, ""));
+
+        assertFalse(report.isCompatible());
+        assertThat(report.breakingChanges(), hasItem("Order: field quantity removed"));
+        assertThat(report.breakingChanges(), hasItem("Order: message block length reduced from 22 to 18"));
+        assertFalse(report.message(ORDER_ID).isDecodable(0, 1));
+        assertFalse(report.message(ORDER_ID).canSkipVersionChecks());
+        assertTrue(report.message(CANCEL_ID).isCompatible());
+    }
+
+    @Test
+    public void shouldReportFieldAddedWithoutSinceVersion() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(
+            previousIr, nextIr(FLAGS, FLAGS + "<field name=\"venue\" id=\"6\" type=\"uint16\"/>"));
+
+        assertThat(report.breakingChanges(), hasItem("Order: field venue added without a sinceVersion greater than 0"));
+    }
+
+    @Test
+    public void shouldReportFieldInsertedWithinPreviousBlock() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(
+            previousIr,
+            nextIr(QUANTITY, "<field name=\"venue\" id=\"6\" type=\"uint16\" sinceVersion=\"1\"/>" + QUANTITY));
+
+        final MessageCompatibility order = report.message(ORDER_ID);
+        assertThat(order.breakingChanges(), hasItem("field venue added at offset 17 within previous block length 22"));
+        assertThat(order.breakingChanges(), hasItem("field quantity moved from offset 17 to 19"));
+    }
+
+    @Test
+    public void shouldReportChangedFieldType() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(
+            previousIr, nextIr(QUANTITY, "<field name=\"quantity\" id=\"4\" type=\"uint64\"/>"));
+
+        assertThat(report.message(ORDER_ID).breakingChanges(), hasItem("field quantity type changed from UINT32 to UINT64"));
+        assertThat(report.message(ORDER_ID).breakingChanges(), hasItem("field quantity length changed from 4 to 8"));
+        assertThat(report.message(ORDER_ID).breakingChanges(), hasItem("field flags moved from offset 21 to 25"));
+    }
+
+    @Test
+    public void shouldReportRemovedEnumValueAndAllowAddedEnumValue() throws Exception
+    {
+        final CompatibilityReport removed = IrCompatibilityChecker.check(
+            previousIr, nextIr("<validValue name=\"SELL\">S</validValue>", ""));
+
+        assertThat(removed.message(ORDER_ID).breakingChanges(), hasItem("field side value SELL removed"));
+
+        final CompatibilityReport added = IrCompatibilityChecker.check(
+            previousIr,
+            nextIr("<validValue name=\"SELL\">S</validValue>",
+                "<validValue name=\"SELL\">S</validValue><validValue name=\"SHORT\">X</validValue>"));
+        final MessageCompatibility order = added.message(ORDER_ID);
+
+        assertTrue(added.isCompatible());
+        assertThat(order.additions(), hasItem("field side value SHORT added"));
+        assertTrue(order.canNextDecodePrevious());
+        assertFalse(order.canPreviousDecodeNext());
+        assertTrue(order.canSkipVersionChecks());
+    }
+
+    @Test
+    public void shouldReportChangedSetChoiceAndCompositeMember() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(
+            previousIr,
+            nextIr(
+                "<choice name=\"hidden\">1</choice>", "<choice name=\"hidden\">2</choice>",
+                "primitiveType=\"int8\">-4<", "primitiveType=\"int8\">-2<"));
+        final MessageCompatibility order = report.message(ORDER_ID);
+
+        assertThat(order.breakingChanges(), hasItem("field flags choice hidden changed from 1 to 2"));
+        assertThat(order.breakingChanges(), hasItem("field price exponent constant value changed from -4 to -2"));
+        assertThat(order.breakingChanges(), hasItem("field fills.fillPrice exponent constant value changed from -4 to -2"));
+    }
+
+    @Test
+    public void shouldReportGroupAddedBeforeExistingGroup() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(
+            previousIr,
+            nextIr(
+                "<group name=\"fills\"",
+                "<group name=\"legs\" id=\"30\" dimensionType=\"groupSizeEncoding\" sinceVersion=\"1\">" +
+                "<field name=\"legId\" id=\"31\" type=\"uint32\"/></group><group name=\"fills\""));
+
+        assertThat(report.message(ORDER_ID).breakingChanges(), hasItem("group fills moved from position 0"));
+    }
+
+    @Test
+    public void shouldReportRemovedMessageAndAllowAddedMessage() throws Exception
+    {
+        final String cancel = "<sbe:message name=\"Cancel\" id=\"2\">";
+        final CompatibilityReport removed = IrCompatibilityChecker.check(
+            previousIr, nextIr(cancel, "<sbe:message name=\"Cancel\" id=\"3\">"));
+
+        assertTrue(removed.message(CANCEL_ID).isRemoved());
+        assertThat(removed.breakingChanges(), hasItem("Cancel: message removed"));
+
+        final MessageCompatibility added = removed.message(3);
+        assertTrue(added.isAdded());
+        assertTrue(added.isCompatible());
+        assertTrue(added.canSkipVersionChecks());
+        assertTrue(added.isDecodable(1, 1));
+        assertFalse(added.isDecodable(1, 0));
+    }
+
+    @Test
+    public void shouldReportSchemaChangesAgainstAllMessages() throws Exception
+    {
+        final CompatibilityReport report = IrCompatibilityChecker.check(
+            previousIr,
+            nextIr(
+                "<type name=\"templateId\" primitiveType=\"uint16\"/>\n" +
+                "            <type name=\"schemaId\" primitiveType=\"uint16\"/>",
+                "<type name=\"schemaId\" primitiveType=\"uint16\"/>\n" +
+                "            <type name=\"templateId\" primitiveType=\"uint16\"/>"));
+
+        assertThat(report.breakingChanges(), hasItem("message header templateId moved from offset 2 to 4"));
+        for (final MessageCompatibility message : report.messages())
+        {
+            assertTrue(message.breakingChanges().isEmpty());
+            assertFalse(message.isCompatible());
+        }
+    }
+
+    @Test
+    public void shouldFormatReport() throws Exception
+    {
+        final String report = IrCompatibilityChecker.check(previousIr, nextIr(QUANTITY, "")).toString();
+
+        assertThat(report, containsString("schema id=5 version 0 -> 1: BREAKING"));
+        assertThat(report, containsString("breaking: Order: field quantity removed"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectVersionNotCompared() throws Exception
+    {
+        IrCompatibilityChecker.check(previousIr, generateIr(schemaXml)).message(ORDER_ID).isDecodable(0, 2);
+    }
+
+    private static Ir nextIr(final String... replacements) throws Exception
+    {
+        String xml = schemaXml.replace(VERSION_0, VERSION_1);
+        for (int i = 0; i < replacements.length; i += 2)
+        {
+            assertThat(replacements[i], xml.contains(replacements[i]), is(true));
+            xml = xml.replace(replacements[i], replacements[i + 1]);
+        }
+
+        return generateIr(xml);
+    }
+
+    private static Ir generateIr(final String xml) throws Exception
+    {
+        return new IrGenerator().generate(
+            parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), ParserOptions.DEFAULT));
+    }
+
+    private static String readResource(final String name) throws Exception
+    {
+        try (final InputStream in = getLocalResource(name))
+        {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int length;
+            while ((length = in.read(buffer)) > 0)
+            {
+                out.write(buffer, 0, length);
+            }
+
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
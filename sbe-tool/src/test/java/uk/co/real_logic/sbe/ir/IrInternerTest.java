@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import org.junit.Test;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.TestUtil.getLocalResource;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class IrInternerTest
+{
+    private final IrInterner interner = new IrInterner();
+
+    @Test
+    public void shouldCopyIrWithEqualTokens() throws Exception
+    {
+        final Ir ir = generateIr("code-generation-schema.xml");
+        final Ir compactIr = interner.intern(ir);
+
+        assertThat(compactIr.packageName(), is(ir.packageName()));
+        assertThat(compactIr.id(), is(ir.id()));
+        assertThat(compactIr.version(), is(ir.version()));
+        assertTokensEqual(ir.headerStructure().tokens(), compactIr.headerStructure().tokens());
+        assertThat(compactIr.messages().size(), is(ir.messages().size()));
+        assertThat(compactIr.types().size(), is(ir.types().size()));
+
+        for (final List<Token> messageTokens : ir.messages())
+        {
+            assertTokensEqual(messageTokens, compactIr.getMessage(messageTokens.get(0).id()));
+        }
+
+        for (final List<Token> typeTokens : ir.types())
+        {
+            assertTokensEqual(typeTokens, compactIr.getType(typeTokens.get(0).name()));
+        }
+    }
+
+    @Test
+    public void shouldShareTokensBetweenIrsOfTheSameSchema() throws Exception
+    {
+        final Ir irOne = interner.intern(generateIr("code-generation-schema.xml"));
+        final long tokenCountAfterOne = interner.uniqueTokenCount();
+        final Ir irTwo = interner.intern(generateIr("code-generation-schema.xml"));
+
+        assertThat((long)interner.uniqueTokenCount(), is(tokenCountAfterOne));
+        for (final List<Token> messageTokens : irOne.messages())
+        {
+            assertSame(messageTokens, irTwo.getMessage(messageTokens.get(0).id()));
+        }
+    }
+
+    @Test
+    public void shouldShareEncodingsWithinAnIr() throws Exception
+    {
+        final Ir compactIr = interner.intern(generateIr("code-generation-schema.xml"));
+
+        Encoding numInGroupEncoding = null;
+        for (final List<Token> messageTokens : compactIr.messages())
+        {
+            for (final Token token : messageTokens)
+            {
+                if (token.signal() == Signal.ENCODING && token.name().equals("numInGroup"))
+                {
+                    if (null == numInGroupEncoding)
+                    {
+                        numInGroupEncoding = token.encoding();
+                    }
+
+                    assertSame(numInGroupEncoding, token.encoding());
+                }
+            }
+        }
+
+        assertNotNull(numInGroupEncoding);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowInternedTokensToBeReplaced() throws Exception
+    {
+        final Ir compactIr = interner.intern(generateIr("code-generation-schema.xml"));
+        final List<Token> tokens = compactIr.messages().iterator().next();
+
+        tokens.set(0, tokens.get(1));
+    }
+
+    @Test
+    public void shouldReportSmallerFootprintWhenShared() throws Exception
+    {
+        interner.intern(generateIr("code-generation-schema.xml"));
+        final long tokenCountAfterOne = interner.tokenCount();
+        for (int i = 1; i < 10; i++)
+        {
+            interner.intern(generateIr("code-generation-schema.xml"));
+        }
+
+        final String report = interner.footprintReport();
+
+        assertThat(report, containsString("IR interned: 10\n"));
+        assertThat(estimatedBytes(report, "shared"), lessThan(estimatedBytes(report, "unshared") / 5));
+        assertThat(interner.tokenCount(), is(tokenCountAfterOne * 10));
+        assertThat((long)interner.uniqueTokenCount(), lessThan(tokenCountAfterOne));
+    }
+
+    private static long estimatedBytes(final String report, final String kind)
+    {
+        final Matcher matcher = Pattern.compile("estimated bytes " + kind + ": (\\d+)").matcher(report);
+        assertTrue(report, matcher.find());
+
+        return Long.parseLong(matcher.group(1));
+    }
+
+    private static void assertTokensEqual(final List<Token> expected, final List<Token> actual)
+    {
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0, size = expected.size(); i < size; i++)
+        {
+            assertThat(actual.get(i).toString(), is(expected.get(i).toString()));
+        }
+    }
+
+    private static Ir generateIr(final String schemaName) throws Exception
+    {
+        return new IrGenerator().generate(parse(getLocalResource(schemaName), ParserOptions.DEFAULT));
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.ir;
+
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.*;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+import static uk.co.real_logic.sbe.TestUtil.getLocalResource;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class IrMessageLookupTest
+{
+    private static final int[] MESSAGE_IDS = { 0, 1, 7, Ir.MAX_DENSE_MESSAGE_ID - 1, Ir.MAX_DENSE_MESSAGE_ID, 65535 };
+
+    private Ir ir;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        final Ir schemaIr = new IrGenerator().generate(
+            parse(getLocalResource("code-generation-schema.xml"), ParserOptions.DEFAULT));
+
+        ir = new Ir("test", null, 1, 0, null, schemaIr.headerStructure().tokens());
+    }
+
+    @Test
+    public void shouldLookUpMessagesByIntAndLongId()
+    {
+        for (final int id : MESSAGE_IDS)
+        {
+            ir.addMessage(id, messageTokens(id));
+        }
+
+        assertThat(ir.messages().size(), is(MESSAGE_IDS.length));
+        for (final int id : MESSAGE_IDS)
+        {
+            assertThat(ir.getMessage(id).get(0).id(), is(id));
+            assertThat(ir.getMessage((long)id).get(0).id(), is(id));
+        }
+    }
+
+    @Test
+    public void shouldReturnNullForUnknownMessageIds()
+    {
+        ir.addMessage(3, messageTokens(3));
+        ir.addMessage(5000, messageTokens(5000));
+
+        assertNull(ir.getMessage(2));
+        assertNull(ir.getMessage(4));
+        assertNull(ir.getMessage(-1));
+        assertNull(ir.getMessage(4999));
+        assertNull(ir.getMessage(4999L));
+        assertNull(ir.getMessage(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void shouldReplaceMessageWithTheSameId()
+    {
+        ir.addMessage(9, messageTokens(9));
+        final List<Token> replacement = messageTokens(9);
+        ir.addMessage(9, replacement);
+
+        assertThat(ir.messages().size(), is(1));
+        assertSame(replacement.get(0), ir.getMessage(9).get(0));
+    }
+
+    @Test
+    public void shouldIterateMessagesInIdOrderWithNestedIterators()
+    {
+        for (int i = MESSAGE_IDS.length - 1; i >= 0; i--)
+        {
+            ir.addMessage(MESSAGE_IDS[i], messageTokens(MESSAGE_IDS[i]));
+        }
+
+        int outerIndex = 0;
+        for (final List<Token> outer : ir.messages())
+        {
+            assertThat(outer.get(0).id(), is(MESSAGE_IDS[outerIndex++]));
+
+            int innerIndex = 0;
+            for (final List<Token> inner : ir.messages())
+            {
+                assertThat(inner.get(0).id(), is(MESSAGE_IDS[innerIndex++]));
+            }
+            assertThat(innerIndex, is(MESSAGE_IDS.length));
+        }
+        assertThat(outerIndex, is(MESSAGE_IDS.length));
+    }
+
+    @Test
+    public void shouldLookUpMessagesWithoutAllocation()
+    {
+        for (final int id : MESSAGE_IDS)
+        {
+            ir.addMessage(id, messageTokens(id));
+        }
+
+        assertNoAllocation("getMessage", () ->
+        {
+            for (final int id : MESSAGE_IDS)
+            {
+                if (null == ir.getMessage(id))
+                {
+                    fail("missing message " + id);
+                }
+            }
+        });
+    }
+
+    private static List<Token> messageTokens(final int id)
+    {
+        final List<Token> tokens = new ArrayList<>();
+        tokens.add(new Token.Builder().signal(Signal.BEGIN_MESSAGE).name("msg" + id).id(id).build());
+        tokens.add(new Token.Builder().signal(Signal.END_MESSAGE).name("msg" + id).id(id).build());
+
+        return tokens;
+    }
+}
@@ -25,12 +25,16 @@ import uk.co.real_logic.sbe.xml.MessageSchema;
 import uk.co.real_logic.sbe.xml.ParserOptions;
 import uk.co.real_logic.sbe.xml.XmlSchemaParser;
 
+import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 
 import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
 
 public class JsonPrinterTest extends EncodedCarTestBase
 {
@@ -115,6 +119,64 @@ public class JsonPrinterTest extends EncodedCarTestBase
             result);
     }
 
+    @Test
+    public void unsignedLongAboveLongMaxValuePrintedAsUnsigned() throws Exception
+    {
+        final ByteBuffer encodedSchemaBuffer = ByteBuffer.allocateDirect(SCHEMA_BUFFER_CAPACITY);
+        encodeSchema(encodedSchemaBuffer);
+
+        final ByteBuffer encodedMsgBuffer = ByteBuffer.allocateDirect(MSG_BUFFER_CAPACITY);
+        encodeTestMessage(encodedMsgBuffer);
+        CAR.serialNumber(-2L);
+
+        encodedSchemaBuffer.flip();
+        final Ir ir = decodeIr(encodedSchemaBuffer);
+
+        final JsonPrinter printer = new JsonPrinter(ir);
+        final String result = printer.print(encodedMsgBuffer);
+
+        assertTrue(result.contains("\"serialNumber\": 18446744073709551614,\n"));
+    }
+
+    @Test
+    public void constantCharPrintedAsCode() throws Exception
+    {
+        final String schemaXml =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n" +
+            "<sbe:messageSchema xmlns:sbe=\"http://fixprotocol.io/2016/sbe\" package=\"constant.chars\" id=\"7\"" +
+            " version=\"0\" byteOrder=\"littleEndian\">\n" +
+            "    <types>\n" +
+            "        <composite name=\"messageHeader\">\n" +
+            "            <type name=\"blockLength\" primitiveType=\"uint16\"/>\n" +
+            "            <type name=\"templateId\" primitiveType=\"uint16\"/>\n" +
+            "            <type name=\"schemaId\" primitiveType=\"uint16\"/>\n" +
+            "            <type name=\"version\" primitiveType=\"uint16\"/>\n" +
+            "        </composite>\n" +
+            "        <type name=\"Grade\" primitiveType=\"char\" presence=\"constant\">A</type>\n" +
+            "        <type name=\"Origin\" primitiveType=\"char\" length=\"4\" presence=\"constant\"" +
+            " characterEncoding=\"UTF-8\">Bri\u00e9</type>\n" +
+            "    </types>\n" +
+            "    <sbe:message name=\"Cheese\" id=\"1\">\n" +
+            "        <field name=\"weight\" id=\"1\" type=\"uint32\"/>\n" +
+            "        <field name=\"grade\" id=\"2\" type=\"Grade\"/>\n" +
+            "        <field name=\"origin\" id=\"3\" type=\"Origin\"/>\n" +
+            "    </sbe:message>\n" +
+            "</sbe:messageSchema>\n";
+
+        final Ir ir = new IrGenerator().generate(XmlSchemaParser.parse(
+            new ByteArrayInputStream(schemaXml.getBytes(StandardCharsets.UTF_8)), ParserOptions.DEFAULT));
+
+        final ByteBuffer encodedMsgBuffer = ByteBuffer.allocate(MSG_BUFFER_CAPACITY).order(ByteOrder.LITTLE_ENDIAN);
+        encodedMsgBuffer.putShort(0, (short)4).putShort(2, (short)1).putShort(4, (short)7).putShort(6, (short)0);
+        encodedMsgBuffer.putInt(8, 42);
+
+        final String result = new JsonPrinter(ir).print(encodedMsgBuffer);
+
+        assertTrue(result, result.contains("\"weight\": 42,\n"));
+        assertTrue(result, result.contains("\"grade\": 65,\n"));
+        assertTrue(result, result.contains("\"origin\": Bri\u00e9\n"));
+    }
+
     private static void encodeSchema(final ByteBuffer buffer) throws Exception
     {
         try (final InputStream in = new FileInputStream("src/test/resources/json-printer-test-schema.xml"))
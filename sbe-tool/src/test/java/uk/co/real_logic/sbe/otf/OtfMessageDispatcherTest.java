@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 - 2016 Real Logic Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package uk.co.real_logic.sbe.otf;
+
+import composite.elements.EnumOne;
+import composite.elements.MsgEncoder;
+import org.agrona.concurrent.UnsafeBuffer;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import uk.co.real_logic.sbe.EncodedCarTestBase;
+import uk.co.real_logic.sbe.TestUtil;
+import uk.co.real_logic.sbe.ir.Ir;
+import uk.co.real_logic.sbe.ir.Token;
+import uk.co.real_logic.sbe.xml.IrGenerator;
+import uk.co.real_logic.sbe.xml.ParserOptions;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static uk.co.real_logic.sbe.AllocationUtil.assertNoAllocation;
+import static uk.co.real_logic.sbe.xml.XmlSchemaParser.parse;
+
+public class OtfMessageDispatcherTest extends EncodedCarTestBase
+{
+    private static final int CAPACITY = 1024;
+    private static final int VERSION_OFFSET = 6;
+
+    private final ByteBuffer carByteBuffer = ByteBuffer.allocateDirect(CAPACITY);
+    private final UnsafeBuffer carBuffer = new UnsafeBuffer(carByteBuffer);
+    private final UnsafeBuffer msgBuffer = new UnsafeBuffer(ByteBuffer.allocateDirect(CAPACITY));
+    private final TokenListener listener = mock(TokenListener.class);
+
+    private OtfMessageDispatcher dispatcher;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        encodeTestMessage(carByteBuffer);
+
+        final composite.elements.MessageHeaderEncoder headerEncoder = new composite.elements.MessageHeaderEncoder();
+        final MsgEncoder msgEncoder = new MsgEncoder();
+        headerEncoder.wrap(msgBuffer, 0)
+            .blockLength(msgEncoder.sbeBlockLength())
+            .templateId(msgEncoder.sbeTemplateId())
+            .schemaId(msgEncoder.sbeSchemaId())
+            .version(msgEncoder.sbeSchemaVersion());
+        msgEncoder.wrap(msgBuffer, headerEncoder.encodedLength()).structure().enumOne(EnumOne.Value10).zeroth((short)42);
+
+        dispatcher = new OtfMessageDispatcher(ir("json-printer-test-schema.xml"), listener)
+            .register(ir("composite-elements-schema.xml"));
+    }
+
+    @Test
+    public void shouldDecodeMessagesOfEachSchema()
+    {
+        assertTrue(dispatcher.dispatch(carBuffer, 0, listener));
+        assertTrue(dispatcher.dispatch(msgBuffer, 0, listener));
+
+        final ArgumentCaptor<Token> captor = ArgumentCaptor.forClass(Token.class);
+        verify(listener, times(2)).onBeginMessage(captor.capture());
+
+        assertEquals("Car", captor.getAllValues().get(0).name());
+        assertEquals("Msg", captor.getAllValues().get(1).name());
+    }
+
+    @Test
+    public void shouldDecodeUnregisteredVersionWithLatestVersionOfSchema()
+    {
+        carBuffer.putShort(VERSION_OFFSET, (short)3);
+
+        dispatcher.onFrame(carBuffer, 0, CAPACITY);
+
+        verify(listener).onBeginMessage(any(Token.class));
+        verify(listener).onEndMessage(any(Token.class));
+    }
+
+    @Test
+    public void shouldNotDecodeUnknownSchemaOrTemplate()
+    {
+        carBuffer.putShort(4, (short)99);
+        assertFalse(dispatcher.dispatch(carBuffer, 0, listener));
+
+        msgBuffer.putShort(2, (short)99);
+        assertFalse(dispatcher.dispatch(msgBuffer, 0, listener));
+
+        verifyZeroInteractions(listener);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldThrowOnFrameForUnknownSchema()
+    {
+        carBuffer.putShort(4, (short)99);
+
+        dispatcher.onFrame(carBuffer, 0, CAPACITY);
+    }
+
+    @Test
+    public void shouldDispatchWithoutAllocation()
+    {
+        final TokenListener noOpListener = new AbstractTokenListener()
+        {
+        };
+
+        assertNoAllocation("otf dispatch", () ->
+        {
+            dispatcher.dispatch(carBuffer, 0, noOpListener);
+            dispatcher.dispatch(msgBuffer, 0, noOpListener);
+        });
+    }
+
+    private static Ir ir(final String schemaName) throws Exception
+    {
+        return new IrGenerator().generate(parse(TestUtil.getLocalResource(schemaName), ParserOptions.DEFAULT));
+    }
+}